@@ -0,0 +1,142 @@
+package com.example.swiftcodes.client;
+
+import com.example.swiftcodes.model.dto.SwiftCodeChangeDto;
+import com.example.swiftcodes.model.dto.SwiftCodeDto;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An immutable copy of the directory as of one change log version: the codes by swift code for lookups, and per
+ * country in swift code order for country listings and a headquarter's branches. Applying changes builds the next
+ * copy on the side (country lists no change touched are shared), so readers of this one are never disturbed.
+ */
+final class DirectoryNearCache {
+    static final DirectoryNearCache EMPTY = new DirectoryNearCache(0, Map.of(), Map.of());
+
+    private static final int HEADQUARTER_PREFIX_LENGTH = 8;
+    private static final Comparator<SwiftCodeDto> BY_SWIFT_CODE = Comparator.comparing(SwiftCodeDto::getSwiftCode);
+
+    private final long version;
+    private final Map<String, SwiftCodeDto> byCode;
+    private final Map<String, List<SwiftCodeDto>> byCountry;
+
+    private DirectoryNearCache(long version, Map<String, SwiftCodeDto> byCode,
+                               Map<String, List<SwiftCodeDto>> byCountry) {
+        this.version = version;
+        this.byCode = byCode;
+        this.byCountry = byCountry;
+    }
+
+    static DirectoryNearCache of(long version, Collection<SwiftCodeDto> codes) {
+        Map<String, SwiftCodeDto> byCode = HashMap.newHashMap(codes.size());
+        for (SwiftCodeDto code : codes) {
+            byCode.put(code.getSwiftCode(), code);
+        }
+        return new DirectoryNearCache(version, byCode, groupByCountry(byCode.values(), null));
+    }
+
+    /**
+     * The copy with {@code changes} applied in order, at {@code toVersion}.
+     */
+    DirectoryNearCache apply(List<SwiftCodeChangeDto> changes, long toVersion) {
+        if (changes.isEmpty()) {
+            return toVersion == version ? this : new DirectoryNearCache(toVersion, byCode, byCountry);
+        }
+        Map<String, SwiftCodeDto> codes = new HashMap<>(byCode);
+        Set<String> changedCountries = new HashSet<>();
+        for (SwiftCodeChangeDto change : changes) {
+            SwiftCodeDto previous = change.getOperation() == SwiftCodeChangeDto.Operation.DELETE
+                    ? codes.remove(change.getSwiftCode())
+                    : codes.put(change.getSwiftCode(), toSwiftCode(change));
+            if (previous != null) {
+                changedCountries.add(previous.getCountryISO2());
+            }
+            changedCountries.add(change.getCountryISO2());
+        }
+
+        Map<String, List<SwiftCodeDto>> countries = new HashMap<>(byCountry);
+        countries.keySet().removeAll(changedCountries);
+        countries.putAll(groupByCountry(codes.values(), changedCountries));
+        return new DirectoryNearCache(toVersion, codes, countries);
+    }
+
+    long version() {
+        return version;
+    }
+
+    int size() {
+        return byCode.size();
+    }
+
+    SwiftCodeDto find(String swiftCode) {
+        return byCode.get(swiftCode);
+    }
+
+    /**
+     * The codes of a country in swift code order, empty for a country without any.
+     */
+    List<SwiftCodeDto> byCountry(String countryIso2) {
+        return byCountry.getOrDefault(countryIso2, List.of());
+    }
+
+    /**
+     * The branches sharing the 8-character prefix of {@code headquarter}, the rule the service links them by.
+     * They are in the headquarter's country, whose list is searched for the first code with the prefix.
+     */
+    List<SwiftCodeDto> branches(SwiftCodeDto headquarter) {
+        List<SwiftCodeDto> country = byCountry(headquarter.getCountryISO2());
+        String prefix = headquarter.getSwiftCode().substring(0, HEADQUARTER_PREFIX_LENGTH);
+        int index = Collections.binarySearch(country, SwiftCodeDto.builder().swiftCode(prefix).build(), BY_SWIFT_CODE);
+        List<SwiftCodeDto> branches = new ArrayList<>();
+        for (int i = index < 0 ? -index - 1 : index; i < country.size(); i++) {
+            SwiftCodeDto code = country.get(i);
+            if (!code.getSwiftCode().startsWith(prefix)) {
+                break;
+            }
+            if (!Boolean.TRUE.equals(code.getIsHeadquarter())) {
+                branches.add(code);
+            }
+        }
+        return branches;
+    }
+
+    /**
+     * Immutable per-country lists in swift code order, only for {@code countries} when not {@code null}.
+     */
+    private static Map<String, List<SwiftCodeDto>> groupByCountry(Collection<SwiftCodeDto> codes,
+                                                                   Set<String> countries) {
+        Map<String, List<SwiftCodeDto>> byCountry = new HashMap<>();
+        for (SwiftCodeDto code : codes) {
+            if (countries == null || countries.contains(code.getCountryISO2())) {
+                byCountry.computeIfAbsent(code.getCountryISO2(), country -> new ArrayList<>()).add(code);
+            }
+        }
+        byCountry.replaceAll((country, list) -> {
+            list.sort(BY_SWIFT_CODE);
+            return List.copyOf(list);
+        });
+        return byCountry;
+    }
+
+    private static SwiftCodeDto toSwiftCode(SwiftCodeChangeDto change) {
+        return SwiftCodeDto.builder()
+                .swiftCode(change.getSwiftCode())
+                .bankName(change.getBankName())
+                .address(change.getAddress())
+                .countryISO2(change.getCountryISO2())
+                .countryName(change.getCountryName())
+                .isHeadquarter(change.getIsHeadquarter())
+                .codeType(change.getCodeType())
+                .townName(change.getTownName())
+                .timeZone(change.getTimeZone())
+                .build();
+    }
+}
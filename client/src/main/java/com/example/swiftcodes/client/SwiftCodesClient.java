@@ -0,0 +1,365 @@
+package com.example.swiftcodes.client;
+
+import com.example.swiftcodes.model.dto.CountrySwiftCodesDto;
+import com.example.swiftcodes.model.dto.SwiftCodeChangesDto;
+import com.example.swiftcodes.model.dto.SwiftCodeDto;
+import com.example.swiftcodes.model.dto.SwiftCodeWithBranchesDto;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Client for the SWIFT codes service that keeps the whole directory in process. {@link #start()} loads it from
+ * the NDJSON export; after that, lookups (single, batch, by country, with branches) are map reads that never go
+ * to the network, and the copy is kept current in the background by applying the service's change log from the
+ * version the export named. Polls are conditional ({@code If-None-Match} with the version held), so while nothing
+ * changes the service answers {@code 304 Not Modified} without a body.
+ * <p>
+ * A refresh builds the next copy on the side and swaps it in, so lookups never wait for one. When the service
+ * cannot be reached, lookups keep being answered from the last copy and the next poll catches up. The returned
+ * DTOs are shared by all callers and must not be modified.
+ */
+public class SwiftCodesClient implements AutoCloseable {
+    static final String CHANGE_VERSION_HEADER = "X-Change-Version";
+    private static final Logger logger = LoggerFactory.getLogger(SwiftCodesClient.class);
+    private static final String EXPORT_PATH = "/v1/swift-codes/export?format=ndjson";
+    private static final String CHANGES_PATH = "/v1/swift-codes/changes?since=";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final String baseUrl;
+    private final HttpClient httpClient;
+    private final boolean ownsHttpClient;
+    private final ObjectMapper objectMapper;
+    private final Duration refreshInterval;
+    private final Duration requestTimeout;
+    private final Integer pageSize;
+    private final ScheduledExecutorService scheduler;
+    // A lock rather than a monitor: a refresh blocks on the network, which would pin a virtual thread calling it.
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    private volatile DirectoryNearCache cache;
+
+    private SwiftCodesClient(Builder builder) {
+        this.baseUrl = builder.baseUrl.endsWith("/")
+                ? builder.baseUrl.substring(0, builder.baseUrl.length() - 1)
+                : builder.baseUrl;
+        this.ownsHttpClient = builder.httpClient == null;
+        this.httpClient = ownsHttpClient
+                ? HttpClient.newBuilder().connectTimeout(builder.requestTimeout).build()
+                : builder.httpClient;
+        this.objectMapper = builder.objectMapper != null ? builder.objectMapper : JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .build();
+        this.refreshInterval = builder.refreshInterval;
+        this.requestTimeout = builder.requestTimeout;
+        this.pageSize = builder.pageSize;
+        this.scheduler = refreshInterval.isZero() ? null : Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("swift-codes-client-refresh").daemon().factory());
+    }
+
+    public static Builder builder(String baseUrl) {
+        return new Builder(baseUrl);
+    }
+
+    /**
+     * Loads the directory, then schedules the background refresh.
+     *
+     * @throws SwiftCodesClientException when the directory cannot be loaded
+     */
+    public void start() {
+        refreshLock.lock();
+        try {
+            if (cache != null) {
+                throw new IllegalStateException("The client has already been started");
+            }
+            cache = load();
+            logger.info("Loaded {} SWIFT codes at change version {}", cache.size(), cache.version());
+        } finally {
+            refreshLock.unlock();
+        }
+        if (scheduler != null) {
+            long delay = refreshInterval.toMillis();
+            scheduler.scheduleWithFixedDelay(this::refreshInBackground, delay, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Applies the changes made since the version held, page by page, without waiting for the next scheduled poll.
+     *
+     * @return whether anything changed
+     * @throws SwiftCodesClientException when the changes cannot be fetched; pages applied before stay applied
+     */
+    public boolean refresh() {
+        refreshLock.lock();
+        try {
+            DirectoryNearCache initial = current();
+            DirectoryNearCache next = initial;
+            while (true) {
+                long version = next.version();
+                HttpRequest request = request(CHANGES_PATH + version + (pageSize != null ? "&limit=" + pageSize : ""))
+                        .header("Accept", "application/json")
+                        .header("If-None-Match", "W/\"" + version + "\"")
+                        .build();
+                HttpResponse<InputStream> response = send(request);
+                if (response.statusCode() == 304) {
+                    close(response);
+                    break;
+                }
+                SwiftCodeChangesDto page;
+                try (InputStream body = body(request, response)) {
+                    page = objectMapper.readValue(body, SwiftCodeChangesDto.class);
+                } catch (IOException e) {
+                    throw new SwiftCodesClientException("Could not read the changes from " + request.uri(), e);
+                }
+                next = next.apply(page.getChanges() != null ? page.getChanges() : List.of(), page.getVersion());
+                cache = next;
+                if (!page.isHasMore()) {
+                    break;
+                }
+            }
+            return next != initial;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    public Optional<SwiftCodeDto> find(String swiftCode) {
+        return Optional.ofNullable(current().find(normalize(swiftCode)));
+    }
+
+    /**
+     * The codes among {@code swiftCodes} that exist, keyed by code (upper case) in the order asked for. All are
+     * looked up in the same version of the directory.
+     */
+    public Map<String, SwiftCodeDto> findAll(Collection<String> swiftCodes) {
+        DirectoryNearCache directory = current();
+        Map<String, SwiftCodeDto> found = LinkedHashMap.newLinkedHashMap(swiftCodes.size());
+        for (String swiftCode : swiftCodes) {
+            String code = normalize(swiftCode);
+            SwiftCodeDto dto = directory.find(code);
+            if (dto != null) {
+                found.put(code, dto);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * A code as {@code GET /v1/swift-codes/{swiftCode}} returns it: a headquarter with its branches.
+     */
+    public Optional<SwiftCodeWithBranchesDto> findWithBranches(String swiftCode) {
+        DirectoryNearCache directory = current();
+        SwiftCodeDto code = directory.find(normalize(swiftCode));
+        if (code == null) {
+            return Optional.empty();
+        }
+        List<SwiftCodeDto> branches = Boolean.TRUE.equals(code.getIsHeadquarter())
+                ? directory.branches(code)
+                : List.of();
+        return Optional.of(SwiftCodeWithBranchesDto.builder()
+                .swiftCode(code.getSwiftCode())
+                .bankName(code.getBankName())
+                .address(code.getAddress())
+                .countryISO2(code.getCountryISO2())
+                .countryName(code.getCountryName())
+                .isHeadquarter(code.getIsHeadquarter())
+                .branches(branches.isEmpty() ? null : branches)
+                .build());
+    }
+
+    /**
+     * The codes of a country in swift code order, empty when it has none.
+     */
+    public Optional<CountrySwiftCodesDto> findByCountry(String countryIso2) {
+        List<SwiftCodeDto> codes = current().byCountry(normalize(countryIso2));
+        if (codes.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(CountrySwiftCodesDto.builder()
+                .countryISO2(codes.getFirst().getCountryISO2())
+                .countryName(codes.getFirst().getCountryName())
+                .swiftCodes(codes)
+                .build());
+    }
+
+    /**
+     * The change log version the directory held is current to.
+     */
+    public long version() {
+        return current().version();
+    }
+
+    public int size() {
+        return current().size();
+    }
+
+    @Override
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        if (ownsHttpClient) {
+            httpClient.close();
+        }
+    }
+
+    private DirectoryNearCache current() {
+        DirectoryNearCache directory = cache;
+        if (directory == null) {
+            throw new IllegalStateException("The client has not been started");
+        }
+        return directory;
+    }
+
+    private DirectoryNearCache load() {
+        HttpRequest request = request(EXPORT_PATH).build();
+        HttpResponse<InputStream> response = send(request);
+        List<SwiftCodeDto> codes = new ArrayList<>();
+        try (InputStream body = body(request, response);
+             MappingIterator<SwiftCodeDto> lines = objectMapper.readerFor(SwiftCodeDto.class).readValues(body)) {
+            long version = response.headers().firstValueAsLong(CHANGE_VERSION_HEADER)
+                    .orElseThrow(() -> new SwiftCodesClientException(
+                            "The export from " + request.uri() + " has no " + CHANGE_VERSION_HEADER + " header"));
+            while (lines.hasNextValue()) {
+                codes.add(lines.nextValue());
+            }
+            return DirectoryNearCache.of(version, codes);
+        } catch (IOException e) {
+            throw new SwiftCodesClientException("Could not read the export from " + request.uri(), e);
+        }
+    }
+
+    private void refreshInBackground() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            logger.warn("Refreshing the SWIFT codes from change version {} failed: {}", cache.version(),
+                    e.getMessage());
+        }
+    }
+
+    private HttpRequest.Builder request(String pathAndQuery) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + pathAndQuery))
+                .timeout(requestTimeout)
+                .header("Accept-Encoding", "gzip")
+                .GET();
+    }
+
+    private HttpResponse<InputStream> send(HttpRequest request) {
+        try {
+            return httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        } catch (IOException e) {
+            throw new SwiftCodesClientException("Request to " + request.uri() + " failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SwiftCodesClientException("Interrupted while requesting " + request.uri(), e);
+        }
+    }
+
+    /**
+     * The body of a {@code 200 OK} response, decompressed.
+     */
+    private static InputStream body(HttpRequest request, HttpResponse<InputStream> response) throws IOException {
+        if (response.statusCode() != 200) {
+            close(response);
+            throw new SwiftCodesClientException(request.uri() + " answered " + response.statusCode());
+        }
+        boolean gzip = response.headers().firstValue("Content-Encoding")
+                .filter("gzip"::equalsIgnoreCase)
+                .isPresent();
+        return gzip ? new GZIPInputStream(response.body(), BUFFER_SIZE) : response.body();
+    }
+
+    private static void close(HttpResponse<InputStream> response) {
+        try {
+            response.body().close();
+        } catch (IOException e) {
+            // Nothing was going to be read from it.
+        }
+    }
+
+    private static String normalize(String code) {
+        return code.toUpperCase(Locale.ROOT);
+    }
+
+    public static final class Builder {
+        private final String baseUrl;
+        private HttpClient httpClient;
+        private ObjectMapper objectMapper;
+        private Duration refreshInterval = Duration.ofSeconds(30);
+        private Duration requestTimeout = Duration.ofSeconds(30);
+        private Integer pageSize;
+
+        private Builder(String baseUrl) {
+            this.baseUrl = Objects.requireNonNull(baseUrl, "baseUrl");
+        }
+
+        /**
+         * The client to send requests with; by default one is created, and closed with this client.
+         */
+        public Builder httpClient(HttpClient httpClient) {
+            this.httpClient = httpClient;
+            return this;
+        }
+
+        public Builder objectMapper(ObjectMapper objectMapper) {
+            this.objectMapper = objectMapper;
+            return this;
+        }
+
+        /**
+         * How long to wait between background polls for changes, 30 seconds by default; zero turns the background
+         * refresh off, leaving {@link SwiftCodesClient#refresh()} to the caller.
+         */
+        public Builder refreshInterval(Duration refreshInterval) {
+            if (refreshInterval.isNegative()) {
+                throw new IllegalArgumentException("refreshInterval must not be negative: " + refreshInterval);
+            }
+            this.refreshInterval = refreshInterval;
+            return this;
+        }
+
+        public Builder requestTimeout(Duration requestTimeout) {
+            this.requestTimeout = requestTimeout;
+            return this;
+        }
+
+        /**
+         * Changes asked for per request; the service's page size by default.
+         */
+        public Builder pageSize(int pageSize) {
+            this.pageSize = pageSize;
+            return this;
+        }
+
+        public SwiftCodesClient build() {
+            return new SwiftCodesClient(this);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.swiftcodes.client;
+
+/**
+ * A request to the service failed, or its response could not be read.
+ */
+public class SwiftCodesClientException extends RuntimeException {
+
+    public SwiftCodesClientException(String message) {
+        super(message);
+    }
+
+    public SwiftCodesClientException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.swiftcodes.client;
+
+import com.example.swiftcodes.model.dto.CountrySwiftCodesDto;
+import com.example.swiftcodes.model.dto.SwiftCodeDto;
+import com.example.swiftcodes.model.dto.SwiftCodeWithBranchesDto;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SwiftCodesClientTest {
+    private static final String EXPORT = """
+            {"address":"UL. PUŁAWSKA 15","bankName":"PKO BANK POLSKI","countryISO2":"PL","countryName":"POLAND","isHeadquarter":true,"swiftCode":"BPKOPLPWXXX"}
+            {"address":"UL. MARSZAŁKOWSKA 1","bankName":"PKO BANK POLSKI","countryISO2":"PL","countryName":"POLAND","isHeadquarter":false,"swiftCode":"BPKOPLPW001","townName":"WARSZAWA"}
+            {"address":"HAUPTSTRASSE 1","bankName":"DEUTSCHE BANK","countryISO2":"DE","countryName":"GERMANY","isHeadquarter":true,"swiftCode":"DEUTDEFFXXX"}
+            """;
+
+    private final Map<String, Response> responses = new ConcurrentHashMap<>();
+    private final Queue<HttpExchange> requests = new ConcurrentLinkedQueue<>();
+    private HttpServer server;
+    private SwiftCodesClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            requests.add(exchange);
+            String query = exchange.getRequestURI().getQuery();
+            Response response = responses.get(exchange.getRequestURI().getPath() + (query != null ? "?" + query : ""));
+            if (response == null) {
+                exchange.sendResponseHeaders(404, -1);
+            } else if (response.eTag() != null
+                    && response.eTag().equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(304, -1);
+            } else {
+                response.headers().forEach(exchange.getResponseHeaders()::add);
+                byte[] body = response.body();
+                exchange.sendResponseHeaders(response.status(), body.length == 0 ? -1 : body.length);
+                try (OutputStream outputStream = exchange.getResponseBody()) {
+                    outputStream.write(body);
+                }
+            }
+            exchange.close();
+        });
+        server.start();
+        client = SwiftCodesClient.builder("http://localhost:" + server.getAddress().getPort() + "/")
+                .refreshInterval(Duration.ZERO)
+                .build();
+        responses.put("/v1/swift-codes/export?format=ndjson",
+                new Response(200, Map.of(SwiftCodesClient.CHANGE_VERSION_HEADER, "5"), EXPORT, null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.stop(0);
+    }
+
+    @Test
+    void lookupsAreAnsweredLocallyOnceStarted() {
+        client.start();
+
+        assertEquals(5, client.version());
+        assertEquals(3, client.size());
+        assertEquals("PKO BANK POLSKI", client.find("bpkoplpwxxx").orElseThrow().getBankName());
+        assertEquals("WARSZAWA", client.find("BPKOPLPW001").orElseThrow().getTownName());
+        assertTrue(client.find("INGBPLPWXXX").isEmpty());
+        assertEquals(List.of("DEUTDEFFXXX", "BPKOPLPW001"),
+                List.copyOf(client.findAll(List.of("deutdeffxxx", "INGBPLPWXXX", "BPKOPLPW001")).keySet()));
+
+        SwiftCodeWithBranchesDto headquarter = client.findWithBranches("BPKOPLPWXXX").orElseThrow();
+        assertEquals(List.of("BPKOPLPW001"), headquarter.getBranches().stream().map(SwiftCodeDto::getSwiftCode).toList());
+        assertNull(client.findWithBranches("DEUTDEFFXXX").orElseThrow().getBranches());
+
+        CountrySwiftCodesDto poland = client.findByCountry("pl").orElseThrow();
+        assertEquals("POLAND", poland.getCountryName());
+        assertEquals(List.of("BPKOPLPW001", "BPKOPLPWXXX"),
+                poland.getSwiftCodes().stream().map(SwiftCodeDto::getSwiftCode).toList());
+        assertTrue(client.findByCountry("FR").isEmpty());
+
+        assertEquals(1, requests.size());
+    }
+
+    @Test
+    void startReadsCompressedExport() throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(EXPORT.getBytes(StandardCharsets.UTF_8));
+        }
+        responses.put("/v1/swift-codes/export?format=ndjson", new Response(200,
+                Map.of(SwiftCodesClient.CHANGE_VERSION_HEADER, "5", "Content-Encoding", "gzip"),
+                compressed.toByteArray(), null));
+
+        client.start();
+
+        assertEquals(3, client.size());
+        assertEquals("gzip", requests.peek().getRequestHeaders().getFirst("Accept-Encoding"));
+    }
+
+    @Test
+    void refreshAppliesChangesPageByPage() {
+        client.start();
+        responses.put("/v1/swift-codes/changes?since=5", new Response(200, Map.of(), """
+                {"version":6,"hasMore":true,"changes":[{"version":6,"operation":"UPSERT",
+                "changedAt":"2025-03-01T10:15:30Z","swiftCode":"BPKOPLPW002","countryISO2":"PL",
+                "countryName":"POLAND","bankName":"PKO BANK POLSKI","address":"UL. NOWA 2","isHeadquarter":false}]}
+                """, "W/\"6\""));
+        responses.put("/v1/swift-codes/changes?since=6", new Response(200, Map.of(), """
+                {"version":7,"hasMore":false,"changes":[{"version":7,"operation":"DELETE",
+                "changedAt":"2025-03-01T10:16:00Z","swiftCode":"BPKOPLPW001","countryISO2":"PL",
+                "countryName":"POLAND"}]}
+                """, "W/\"7\""));
+
+        assertTrue(client.refresh());
+
+        assertEquals(7, client.version());
+        assertEquals("UL. NOWA 2", client.find("BPKOPLPW002").orElseThrow().getAddress());
+        assertTrue(client.find("BPKOPLPW001").isEmpty());
+        assertEquals(List.of("BPKOPLPW002"), client.findWithBranches("BPKOPLPWXXX").orElseThrow().getBranches()
+                .stream().map(SwiftCodeDto::getSwiftCode).toList());
+        assertEquals(2, client.findByCountry("PL").orElseThrow().getSwiftCodes().size());
+        assertEquals(1, client.findByCountry("DE").orElseThrow().getSwiftCodes().size());
+    }
+
+    @Test
+    void refreshIsConditionalOnVersionHeld() {
+        client.start();
+        responses.put("/v1/swift-codes/changes?since=5",
+                new Response(200, Map.of(), "{\"version\":5,\"hasMore\":false,\"changes\":[]}", "W/\"5\""));
+
+        assertFalse(client.refresh());
+
+        assertEquals(5, client.version());
+        HttpExchange poll = requests.stream().skip(1).findFirst().orElseThrow();
+        assertEquals("W/\"5\"", poll.getRequestHeaders().getFirst("If-None-Match"));
+    }
+
+    @Test
+    void failedRefreshKeepsServingLastCopy() {
+        client.start();
+        responses.put("/v1/swift-codes/changes?since=5", new Response(503, Map.of(), "", null));
+
+        assertThrows(SwiftCodesClientException.class, client::refresh);
+
+        assertEquals(5, client.version());
+        assertTrue(client.find("DEUTDEFFXXX").isPresent());
+    }
+
+    @Test
+    void lookupsNeedStartedClient() {
+        assertThrows(IllegalStateException.class, () -> client.find("DEUTDEFFXXX"));
+        responses.clear();
+        assertThrows(SwiftCodesClientException.class, client::start);
+    }
+
+    private record Response(int status, Map<String, String> headers, byte[] body, String eTag) {
+
+        Response(int status, Map<String, String> headers, String body, String eTag) {
+            this(status, headers, body.getBytes(StandardCharsets.UTF_8), eTag);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.swiftcodes.loadtest;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The service under test, started from its executable jar in a separate JVM so that the harness does not compete
+ * with it for heap or GC. Output goes to {@code app.log} in the work directory.
+ */
+final class ApplicationProcess implements AutoCloseable {
+    private final Process process;
+    private final String baseUrl;
+
+    private ApplicationProcess(Process process, String baseUrl) {
+        this.process = process;
+        this.baseUrl = baseUrl;
+    }
+
+    static ApplicationProcess start(LoadTestConfig config, Path directoryFile, String jdbcUrl, String username,
+                                    String password) throws IOException, InterruptedException {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        Arrays.stream(config.appJvmArgs().trim().split("\\s+"))
+                .filter(argument -> !argument.isEmpty())
+                .forEach(command::add);
+        command.add("-jar");
+        command.add(config.appJar().toAbsolutePath().toString());
+        command.add("--server.port=" + port);
+        command.add("--spring.profiles.active=" + config.appProfiles());
+        command.add("--spring.datasource.url=" + jdbcUrl);
+        command.add("--spring.datasource.username=" + username);
+        command.add("--spring.datasource.password=" + password);
+        command.add("--swiftcodes.data.location=file:" + directoryFile.toAbsolutePath());
+        command.add("--swiftcodes.bloom-filter.expected-insertions=" + Math.max(100_000, config.rows() * 2));
+        // The harness is a single client: per-client throttling would cap the measured throughput.
+        command.add("--swiftcodes.rate-limit.enabled=false");
+
+        Path log = config.workDirectory().resolve("app.log");
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        ApplicationProcess application = new ApplicationProcess(process, "http://localhost:" + port);
+        try {
+            application.awaitReady(config.startupTimeout(), log);
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            application.close();
+            throw e;
+        }
+        return application;
+    }
+
+    String baseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * Waits for the readiness probe rather than plain health: the service is healthy as soon as its web server is
+     * up, but only ready once the import, directory snapshot and Bloom filter are loaded, so warmup never hits a
+     * half-loaded service.
+     */
+    private void awaitReady(Duration timeout, Path log) throws IOException, InterruptedException {
+        URI readiness = URI.create(baseUrl + "/actuator/health/readiness");
+        long deadline = System.nanoTime() + timeout.toNanos();
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Service exited with " + process.exitValue() + ", see " + log);
+                }
+                try {
+                    HttpResponse<String> response = client.send(HttpRequest.newBuilder(readiness).build(),
+                            HttpResponse.BodyHandlers.ofString());
+                    if (response.statusCode() == 200 && response.body().contains("\"UP\"")) {
+                        return;
+                    }
+                } catch (IOException e) {
+                    // not listening yet
+                }
+                Thread.sleep(1000);
+            }
+        }
+        throw new IllegalStateException("Service not ready within " + timeout + ", see " + log);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
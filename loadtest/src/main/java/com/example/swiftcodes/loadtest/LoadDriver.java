@@ -0,0 +1,193 @@
+package com.example.swiftcodes.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load generator: requests are issued on a fixed schedule regardless of how fast responses come back,
+ * and each latency is measured from the request's scheduled start. A slow service therefore shows up as latency
+ * rather than as a silently lower request rate (no coordinated omission). Every request runs on its own virtual
+ * thread.
+ */
+final class LoadDriver {
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(30);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+    private static final double SUSTAINED_RATE_RATIO = 0.95;
+
+    private final HttpClient client;
+    private final String apiUrl;
+    private final SyntheticDirectory directory;
+    private final LoadTestConfig config;
+    private final Queue<SyntheticDirectory.WriteCode> createdCodes = new ConcurrentLinkedQueue<>();
+
+    LoadDriver(HttpClient client, String baseUrl, SyntheticDirectory directory, LoadTestConfig config) {
+        this.client = client;
+        this.apiUrl = baseUrl + "/v1/swift-codes";
+        this.directory = directory;
+        this.config = config;
+    }
+
+    StepResult run(int rate, Duration duration) throws InterruptedException {
+        Operation[] operations = Operation.values();
+        Recorder[] recorders = new Recorder[operations.length];
+        LongAdder[] errors = new LongAdder[operations.length];
+        for (int i = 0; i < operations.length; i++) {
+            recorders[i] = new Recorder(3);
+            errors[i] = new LongAdder();
+        }
+        AtomicInteger outstanding = new AtomicInteger();
+        Random random = new Random(config.seed() ^ rate);
+
+        long periodNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        for (long i = 0; ; i++) {
+            long scheduledStart = start + i * periodNanos;
+            if (scheduledStart >= end) {
+                break;
+            }
+            long wait = scheduledStart - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            Operation operation = pick(random);
+            int index = operation.ordinal();
+            if (outstanding.incrementAndGet() > config.maxOutstanding()) {
+                outstanding.decrementAndGet();
+                errors[index].increment();
+                continue;
+            }
+            Request request = request(operation, random);
+            executor.execute(() -> {
+                try {
+                    HttpResponse<Void> response = client.send(request.httpRequest(),
+                            HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() / 100 == 2) {
+                        recorders[index].recordValue(System.nanoTime() - scheduledStart);
+                        request.onSuccess().run();
+                    } else {
+                        errors[index].increment();
+                    }
+                } catch (Exception e) {
+                    errors[index].increment();
+                } finally {
+                    outstanding.decrementAndGet();
+                }
+            });
+        }
+        executor.shutdown();
+        if (!executor.awaitTermination(DRAIN_TIMEOUT.toSeconds(), TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+
+        Histogram overallLatencies = new Histogram(3);
+        long overallErrors = 0;
+        List<OperationStats> stats = new ArrayList<>(operations.length);
+        for (Operation operation : operations) {
+            Histogram latencies = recorders[operation.ordinal()].getIntervalHistogram();
+            long operationErrors = errors[operation.ordinal()].sum();
+            overallLatencies.add(latencies);
+            overallErrors += operationErrors;
+            stats.add(OperationStats.of(operation.name(), latencies, operationErrors));
+        }
+        OperationStats overall = OperationStats.of("ALL", overallLatencies, overallErrors);
+        double achievedThroughput = overallLatencies.getTotalCount() / (duration.toNanos() / 1e9);
+        boolean sustainable = achievedThroughput >= rate * SUSTAINED_RATE_RATIO
+                && overall.p99() <= config.p99Slo().toNanos() / 1e6
+                && overall.errorRate() <= config.maxErrorRate();
+        return new StepResult(rate, achievedThroughput, overall, stats, sustainable);
+    }
+
+    /**
+     * Deletes the codes the write workload created and has not deleted yet, so that the next run against the
+     * same database starts from the seeded directory again.
+     */
+    void deleteCreatedCodes() throws InterruptedException {
+        for (SyntheticDirectory.WriteCode code; (code = createdCodes.poll()) != null; ) {
+            try {
+                client.send(HttpRequest.newBuilder(URI.create(apiUrl + "/" + code.swiftCode()))
+                        .timeout(REQUEST_TIMEOUT)
+                        .DELETE()
+                        .build(), HttpResponse.BodyHandlers.discarding());
+            } catch (IOException e) {
+                // best effort: a leftover code only makes one POST of a later run fail
+            }
+        }
+    }
+
+    private Operation pick(Random random) {
+        int roll = random.nextInt(config.lookupWeight() + config.countryWeight() + config.writeWeight());
+        if (roll < config.lookupWeight()) {
+            return Operation.LOOKUP;
+        }
+        return roll < config.lookupWeight() + config.countryWeight() ? Operation.COUNTRY : Operation.WRITE;
+    }
+
+    private Request request(Operation operation, Random random) {
+        return switch (operation) {
+            case LOOKUP -> new Request(get(apiUrl + "/" + directory.randomSwiftCode(random)), () -> {
+            });
+            case COUNTRY -> new Request(get(apiUrl + "/country/" + SyntheticDirectory.randomCountry(random)), () -> {
+            });
+            case WRITE -> writeRequest(random);
+        };
+    }
+
+    /**
+     * Alternates between creating new branch codes and deleting ones created earlier, so the directory size stays
+     * roughly constant over a long run.
+     */
+    private Request writeRequest(Random random) {
+        SyntheticDirectory.WriteCode created = random.nextBoolean() ? createdCodes.poll() : null;
+        if (created != null) {
+            HttpRequest delete = HttpRequest.newBuilder(URI.create(apiUrl + "/" + created.swiftCode()))
+                    .timeout(REQUEST_TIMEOUT)
+                    .DELETE()
+                    .build();
+            return new Request(delete, () -> {
+            });
+        }
+
+        SyntheticDirectory.WriteCode code = directory.nextWriteCode();
+        String body = "{\"address\":\"LOAD TEST STREET 1\",\"bankName\":\"LOAD TEST BANK\","
+                + "\"countryISO2\":\"" + code.countryIso2() + "\",\"countryName\":\"" + code.countryName() + "\","
+                + "\"isHeadquarter\":false,\"swiftCode\":\"" + code.swiftCode() + "\"}";
+        HttpRequest post = HttpRequest.newBuilder(URI.create(apiUrl))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return new Request(post, () -> createdCodes.add(code));
+    }
+
+    private static HttpRequest get(String url) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+    }
+
+    private record Request(HttpRequest httpRequest, Runnable onSuccess) {
+    }
+}
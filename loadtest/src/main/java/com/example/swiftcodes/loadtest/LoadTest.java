@@ -0,0 +1,86 @@
+package com.example.swiftcodes.loadtest;
+
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Entry point of the load test: generates the synthetic directory, starts PostgreSQL and the service (unless
+ * given), warms up, then steps through the configured request rates and reports latency percentiles and the
+ * maximum sustainable throughput. See {@link LoadTestConfig} for the {@code -Dloadtest.*} settings.
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties(args);
+        Files.createDirectories(config.workDirectory());
+
+        Path directoryFile = config.workDirectory().resolve("swift_codes.tsv");
+        SyntheticDirectory directory = SyntheticDirectory.generate(config.rows(), config.seed(), directoryFile);
+        System.out.printf("Generated %d swift codes in %s%n", directory.swiftCodes().size(), directoryFile);
+
+        if (config.baseUrl() != null) {
+            System.out.println("Using the service at " + config.baseUrl()
+                    + "; it must have imported " + directoryFile.toAbsolutePath());
+            run(config, directory, config.baseUrl());
+            return;
+        }
+
+        if (!Files.isRegularFile(config.appJar())) {
+            throw new IllegalStateException("Service jar not found: " + config.appJar().toAbsolutePath()
+                    + " (build it with 'mvn -pl swiftcodes package -DskipTests' or set -Dloadtest.app.jar)");
+        }
+        if (config.jdbcUrl() != null) {
+            startServiceAndRun(config, directory, directoryFile, config.jdbcUrl(), config.jdbcUsername(),
+                    config.jdbcPassword());
+            return;
+        }
+        try (PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>(config.postgresImage())
+                .withDatabaseName("swiftcodes")) {
+            postgres.start();
+            startServiceAndRun(config, directory, directoryFile, postgres.getJdbcUrl(), postgres.getUsername(),
+                    postgres.getPassword());
+        }
+    }
+
+    private static void startServiceAndRun(LoadTestConfig config, SyntheticDirectory directory, Path directoryFile,
+                                           String jdbcUrl, String username, String password) throws Exception {
+        System.out.println("Starting the service and importing the directory...");
+        try (ApplicationProcess application = ApplicationProcess.start(config, directoryFile, jdbcUrl, username,
+                password)) {
+            run(config, directory, application.baseUrl());
+        }
+    }
+
+    private static void run(LoadTestConfig config, SyntheticDirectory directory, String baseUrl) throws Exception {
+        try (HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build()) {
+            LoadDriver driver = new LoadDriver(client, baseUrl, directory, config);
+
+            System.out.printf("Warming up for %s at %d req/s%n", config.warmup(), config.rates().getFirst());
+            driver.run(config.rates().getFirst(), config.warmup());
+
+            LoadTestReport report = new LoadTestReport();
+            for (int rate : config.rates()) {
+                System.out.printf("Running %d req/s for %s%n", rate, config.stepDuration());
+                StepResult step = driver.run(rate, config.stepDuration());
+                report.add(step);
+                System.out.printf("  achieved %.1f req/s, p99 %.2f ms, errors %d%n", step.achievedThroughput(),
+                        step.overall().p99(), step.overall().errors());
+            }
+
+            driver.deleteCreatedCodes();
+            report.print(System.out);
+            report.writeCsv(config.report());
+            System.out.println("Report written to " + config.report().toAbsolutePath());
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.swiftcodes.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Load test settings, read from {@code -Dloadtest.*} system properties so a run can be repeated exactly
+ * from its command line.
+ *
+ * @param baseUrl           URL of an already running service; when absent the harness starts {@code appJar} itself
+ * @param appProfiles       Spring profiles of the started service
+ * @param jdbcUrl           PostgreSQL to start the service against; when absent a Testcontainers database is used
+ * @param rates             request rates (per second) stepped through to find the maximum sustainable throughput
+ * @param p99Slo            a step is sustainable only while its overall p99 latency stays within this bound
+ * @param maxErrorRate      ... and its share of failed requests stays within this bound
+ * @param maxOutstanding    requests allowed in flight before new ones are counted as dropped
+ */
+public record LoadTestConfig(
+        String baseUrl,
+        Path appJar,
+        String appProfiles,
+        String appJvmArgs,
+        Duration startupTimeout,
+        String jdbcUrl,
+        String jdbcUsername,
+        String jdbcPassword,
+        String postgresImage,
+        int rows,
+        long seed,
+        int lookupWeight,
+        int countryWeight,
+        int writeWeight,
+        List<Integer> rates,
+        Duration warmup,
+        Duration stepDuration,
+        Duration p99Slo,
+        double maxErrorRate,
+        int maxOutstanding,
+        Path workDirectory,
+        Path report) {
+
+    /**
+     * @param defaults {@code key=value} settings that system properties override; the Maven build passes the
+     *                 module-relative service jar and work directory this way, so a run works from the root as well
+     */
+    public static LoadTestConfig fromSystemProperties(String... defaults) {
+        Properties properties = new Properties();
+        for (String setting : defaults) {
+            int separator = setting.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Expected key=value, got " + setting);
+            }
+            properties.setProperty(setting.substring(0, separator), setting.substring(separator + 1));
+        }
+        properties.putAll(System.getProperties());
+        return from(properties);
+    }
+
+    static LoadTestConfig from(Properties properties) {
+        Path workDirectory = Path.of(properties.getProperty("loadtest.work-dir", "target/loadtest"));
+        LoadTestConfig config = new LoadTestConfig(
+                properties.getProperty("loadtest.base-url"),
+                Path.of(properties.getProperty("loadtest.app.jar", "../swiftcodes/target/swiftcodes-0.0.1-SNAPSHOT.jar")),
+                properties.getProperty("loadtest.app.profiles", "prod"),
+                properties.getProperty("loadtest.app.jvm-args", "-Xms1g -Xmx1g"),
+                parseDuration(properties.getProperty("loadtest.app.startup-timeout", "10m")),
+                properties.getProperty("loadtest.jdbc.url"),
+                properties.getProperty("loadtest.jdbc.username", "postgres"),
+                properties.getProperty("loadtest.jdbc.password", "password"),
+                properties.getProperty("loadtest.postgres.image", "postgres:14-alpine"),
+                Integer.parseInt(properties.getProperty("loadtest.rows", "50000")),
+                Long.parseLong(properties.getProperty("loadtest.seed", "42")),
+                Integer.parseInt(properties.getProperty("loadtest.mix.lookup", "80")),
+                Integer.parseInt(properties.getProperty("loadtest.mix.country", "15")),
+                Integer.parseInt(properties.getProperty("loadtest.mix.write", "5")),
+                Arrays.stream(properties.getProperty("loadtest.rates", "100,200,400,800,1600").split(","))
+                        .map(String::trim)
+                        .map(Integer::valueOf)
+                        .toList(),
+                parseDuration(properties.getProperty("loadtest.warmup", "30s")),
+                parseDuration(properties.getProperty("loadtest.step-duration", "60s")),
+                parseDuration(properties.getProperty("loadtest.slo.p99", "100ms")),
+                Double.parseDouble(properties.getProperty("loadtest.max-error-rate", "0.01")),
+                Integer.parseInt(properties.getProperty("loadtest.max-outstanding", "10000")),
+                workDirectory,
+                Path.of(properties.getProperty("loadtest.report", workDirectory.resolve("report.csv").toString())));
+        config.validate();
+        return config;
+    }
+
+    private void validate() {
+        if (rows <= 0) {
+            throw new IllegalArgumentException("loadtest.rows must be positive");
+        }
+        if (lookupWeight < 0 || countryWeight < 0 || writeWeight < 0
+                || lookupWeight + countryWeight + writeWeight == 0) {
+            throw new IllegalArgumentException("loadtest.mix.* weights must be non-negative and not all zero");
+        }
+        if (rates.isEmpty() || rates.stream().anyMatch(rate -> rate <= 0)) {
+            throw new IllegalArgumentException("loadtest.rates must list positive request rates");
+        }
+    }
+
+    /**
+     * Parses {@code 250ms}, {@code 30s} or {@code 5m}.
+     */
+    static Duration parseDuration(String value) {
+        String trimmed = value.trim();
+        if (trimmed.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(trimmed.substring(0, trimmed.length() - 2)));
+        }
+        long amount = Long.parseLong(trimmed.substring(0, trimmed.length() - 1));
+        return switch (trimmed.charAt(trimmed.length() - 1)) {
+            case 's' -> Duration.ofSeconds(amount);
+            case 'm' -> Duration.ofMinutes(amount);
+            default -> throw new IllegalArgumentException("Unsupported duration: " + value);
+        };
+    }
+}
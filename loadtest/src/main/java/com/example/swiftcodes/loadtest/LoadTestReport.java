@@ -0,0 +1,78 @@
+package com.example.swiftcodes.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Prints the per-step results and writes them as CSV, one row per step and operation, so runs of different
+ * releases can be diffed or charted side by side.
+ */
+final class LoadTestReport {
+    private static final String CSV_HEADER =
+            "target_rate,operation,requests,errors,throughput,p50_ms,p99_ms,p999_ms,max_ms,sustainable";
+
+    private final List<StepResult> steps = new ArrayList<>();
+
+    void add(StepResult step) {
+        steps.add(step);
+    }
+
+    /**
+     * Highest throughput reached by a step that met the latency and error bounds, or 0 when none did.
+     */
+    double maxSustainableThroughput() {
+        return steps.stream()
+                .filter(StepResult::sustainable)
+                .mapToDouble(StepResult::achievedThroughput)
+                .max()
+                .orElse(0);
+    }
+
+    void print(PrintStream out) {
+        out.println();
+        out.printf(Locale.ROOT, "%8s %-8s %9s %7s %10s %9s %9s %9s %9s %s%n", "rate", "op", "requests", "errors",
+                "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "sustainable");
+        for (StepResult step : steps) {
+            for (OperationStats stats : step.operations()) {
+                printRow(out, step, stats, "");
+            }
+            printRow(out, step, step.overall(), step.sustainable() ? "yes" : "no");
+        }
+        out.printf(Locale.ROOT, "%nMax sustainable throughput: %.1f req/s%n", maxSustainableThroughput());
+    }
+
+    void writeCsv(Path file) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add(CSV_HEADER);
+        for (StepResult step : steps) {
+            for (OperationStats stats : step.operations()) {
+                lines.add(csvRow(step, stats));
+            }
+            lines.add(csvRow(step, step.overall()));
+        }
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Files.write(file, lines);
+    }
+
+    private static void printRow(PrintStream out, StepResult step, OperationStats stats, String sustainable) {
+        String throughput = stats.operation().equals("ALL")
+                ? String.format(Locale.ROOT, "%.1f", step.achievedThroughput())
+                : "";
+        out.printf(Locale.ROOT, "%8d %-8s %9d %7d %10s %9.2f %9.2f %9.2f %9.2f %s%n", step.targetRate(),
+                stats.operation(), stats.requests(), stats.errors(), throughput, stats.p50(), stats.p99(),
+                stats.p999(), stats.max(), sustainable);
+    }
+
+    private static String csvRow(StepResult step, OperationStats stats) {
+        boolean overall = stats.operation().equals("ALL");
+        return String.format(Locale.ROOT, "%d,%s,%d,%d,%s,%.3f,%.3f,%.3f,%.3f,%s", step.targetRate(),
+                stats.operation(), stats.requests(), stats.errors(),
+                overall ? String.format(Locale.ROOT, "%.1f", step.achievedThroughput()) : "",
+                stats.p50(), stats.p99(), stats.p999(), stats.max(), overall ? step.sustainable() : "");
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.swiftcodes.loadtest;
+
+/**
+ * The request kinds mixed into the workload; each gets its own latency histogram.
+ */
+enum Operation {
+    LOOKUP,
+    COUNTRY,
+    WRITE
+}
@@ -0,0 +1,28 @@
+package com.example.swiftcodes.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency percentiles (in milliseconds) and error count of one operation, or of all of them, within a step.
+ */
+record OperationStats(String operation, long requests, long errors, double p50, double p99, double p999,
+                      double max) {
+
+    static OperationStats of(String operation, Histogram latencies, long errors) {
+        return new OperationStats(operation, latencies.getTotalCount() + errors, errors,
+                millis(latencies.getValueAtPercentile(50)),
+                millis(latencies.getValueAtPercentile(99)),
+                millis(latencies.getValueAtPercentile(99.9)),
+                millis(latencies.getMaxValue()));
+    }
+
+    double errorRate() {
+        return requests == 0 ? 0 : (double) errors / requests;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.swiftcodes.loadtest;
+
+import java.util.List;
+
+/**
+ * Outcome of running the workload at one target rate.
+ *
+ * @param achievedThroughput successful responses per second over the step
+ * @param sustainable        whether the service kept up with the target rate within the latency and error bounds
+ */
+record StepResult(int targetRate, double achievedThroughput, OperationStats overall,
+                  List<OperationStats> operations, boolean sustainable) {
+}
@@ -0,0 +1,155 @@
+package com.example.swiftcodes.loadtest;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A reproducible, directory-sized set of swift codes in the import TSV layout: banks with a headquarter and a
+ * handful of branches each, spread over a fixed list of countries. The same seed always yields the same file.
+ * Codes created by the write workload come from {@link #nextWriteCode()} and use a reserved {@code ZZ} bank
+ * prefix, so they never collide with the seeded ones.
+ */
+public class SyntheticDirectory {
+    private static final String[][] COUNTRIES = {
+            {"AL", "ALBANIA", "Europe/Tirane"}, {"AT", "AUSTRIA", "Europe/Vienna"},
+            {"BE", "BELGIUM", "Europe/Brussels"}, {"BG", "BULGARIA", "Europe/Sofia"},
+            {"CH", "SWITZERLAND", "Europe/Zurich"}, {"CL", "CHILE", "America/Santiago"},
+            {"CZ", "CZECHIA", "Europe/Prague"}, {"DE", "GERMANY", "Europe/Berlin"},
+            {"DK", "DENMARK", "Europe/Copenhagen"}, {"ES", "SPAIN", "Europe/Madrid"},
+            {"FI", "FINLAND", "Europe/Helsinki"}, {"FR", "FRANCE", "Europe/Paris"},
+            {"GB", "UNITED KINGDOM", "Europe/London"}, {"GR", "GREECE", "Europe/Athens"},
+            {"HU", "HUNGARY", "Europe/Budapest"}, {"IE", "IRELAND", "Europe/Dublin"},
+            {"IT", "ITALY", "Europe/Rome"}, {"JP", "JAPAN", "Asia/Tokyo"},
+            {"LT", "LITHUANIA", "Europe/Vilnius"}, {"LV", "LATVIA", "Europe/Riga"},
+            {"MC", "MONACO", "Europe/Monaco"}, {"MT", "MALTA", "Europe/Malta"},
+            {"NL", "NETHERLANDS", "Europe/Amsterdam"}, {"NO", "NORWAY", "Europe/Oslo"},
+            {"PL", "POLAND", "Europe/Warsaw"}, {"PT", "PORTUGAL", "Europe/Lisbon"},
+            {"RO", "ROMANIA", "Europe/Bucharest"}, {"SE", "SWEDEN", "Europe/Stockholm"},
+            {"US", "UNITED STATES", "America/New_York"}, {"UY", "URUGUAY", "America/Montevideo"}
+    };
+    private static final String ALPHANUMERIC = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
+    private static final int MAX_BRANCHES_PER_BANK = 5;
+
+    private final List<String> swiftCodes;
+    private final AtomicLong writeSequence = new AtomicLong();
+
+    private SyntheticDirectory(List<String> swiftCodes) {
+        this.swiftCodes = swiftCodes;
+    }
+
+    /**
+     * Writes {@code rows} codes to {@code file} and returns the directory describing them.
+     */
+    public static SyntheticDirectory generate(int rows, long seed, Path file) throws IOException {
+        Random random = new Random(seed);
+        Set<String> headquarterPrefixes = new HashSet<>();
+        List<String> swiftCodes = new ArrayList<>(rows);
+
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            while (swiftCodes.size() < rows) {
+                String[] country = COUNTRIES[random.nextInt(COUNTRIES.length)];
+                String prefix = randomBank(random) + country[0] + randomAlphanumeric(random, 2);
+                if (!headquarterPrefixes.add(prefix)) {
+                    continue;
+                }
+                String bankName = "SYNTHETIC BANK " + prefix;
+                writeRow(writer, country, prefix + "XXX", bankName, random);
+                swiftCodes.add(prefix + "XXX");
+
+                int branches = Math.min(random.nextInt(MAX_BRANCHES_PER_BANK + 1), rows - swiftCodes.size());
+                Set<String> branchCodes = new HashSet<>();
+                while (branchCodes.size() < branches) {
+                    String branch = randomAlphanumeric(random, 3);
+                    if (!branch.equals("XXX") && branchCodes.add(branch)) {
+                        writeRow(writer, country, prefix + branch, bankName + " BRANCH " + branch, random);
+                        swiftCodes.add(prefix + branch);
+                    }
+                }
+            }
+        }
+        return new SyntheticDirectory(List.copyOf(swiftCodes));
+    }
+
+    public List<String> swiftCodes() {
+        return swiftCodes;
+    }
+
+    public String randomSwiftCode(Random random) {
+        return swiftCodes.get(random.nextInt(swiftCodes.size()));
+    }
+
+    public static String randomCountry(Random random) {
+        return COUNTRIES[random.nextInt(COUNTRIES.length)][0];
+    }
+
+    /**
+     * A branch code unique for this run, together with the country it belongs to.
+     */
+    public WriteCode nextWriteCode() {
+        long sequence = writeSequence.getAndIncrement();
+        String[] country = COUNTRIES[(int) (sequence % COUNTRIES.length)];
+        long value = sequence / COUNTRIES.length;
+        StringBuilder code = new StringBuilder(11).append("ZZ");
+        code.append((char) ('A' + value % 26)).append((char) ('A' + (value / 26) % 26));
+        code.append(country[0]);
+        value /= 26 * 26;
+        for (int i = 0; i < 5; i++) {
+            code.append(ALPHANUMERIC.charAt((int) (value % 36)));
+            value /= 36;
+        }
+        if (code.substring(8).equals("XXX")) {
+            return nextWriteCode();
+        }
+        return new WriteCode(code.toString(), country[0], country[1]);
+    }
+
+    public record WriteCode(String swiftCode, String countryIso2, String countryName) {
+    }
+
+    private static void writeRow(BufferedWriter writer, String[] country, String swiftCode, String bankName,
+                                 Random random) throws IOException {
+        String town = "TOWN " + randomAlphanumeric(random, 4);
+        writer.write(country[0]);
+        writer.write('\t');
+        writer.write(swiftCode);
+        writer.write("\tBIC11\t");
+        writer.write(bankName);
+        writer.write('\t');
+        writer.write(random.nextInt(200) + " SYNTHETIC STREET " + town + ", " + random.nextInt(100_000));
+        writer.write('\t');
+        writer.write(town);
+        writer.write('\t');
+        writer.write(country[1]);
+        writer.write('\t');
+        writer.write(country[2]);
+        writer.write('\n');
+    }
+
+    private static String randomBank(Random random) {
+        StringBuilder bank = new StringBuilder(4);
+        // 'Z' never starts a seeded bank code: the ZZ prefix is reserved for codes created during the run.
+        bank.append((char) ('A' + random.nextInt(25)));
+        for (int i = 1; i < 4; i++) {
+            bank.append((char) ('A' + random.nextInt(26)));
+        }
+        return bank.toString();
+    }
+
+    private static String randomAlphanumeric(Random random, int length) {
+        StringBuilder value = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            value.append(ALPHANUMERIC.charAt(random.nextInt(ALPHANUMERIC.length())));
+        }
+        return value.toString();
+    }
+}
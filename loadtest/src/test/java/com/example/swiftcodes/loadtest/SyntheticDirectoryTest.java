@@ -0,0 +1,61 @@
+package com.example.swiftcodes.loadtest;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SyntheticDirectoryTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void generatesRequestedRowsInImportLayout() throws Exception {
+        Path file = tempDir.resolve("codes.tsv");
+
+        SyntheticDirectory directory = SyntheticDirectory.generate(1000, 7, file);
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(1000, lines.size());
+        assertEquals(1000, new HashSet<>(directory.swiftCodes()).size());
+        for (String line : lines) {
+            String[] columns = line.split("\t");
+            assertEquals(8, columns.length, line);
+            assertTrue(columns[1].matches("[A-Z]{4}[A-Z]{2}[A-Z0-9]{2}[A-Z0-9]{3}"), line);
+            assertEquals(columns[0], columns[1].substring(4, 6), line);
+            assertNotEquals('Z', columns[1].charAt(0), line);
+        }
+    }
+
+    @Test
+    void sameSeedYieldsSameFile() throws Exception {
+        Path first = tempDir.resolve("first.tsv");
+        Path second = tempDir.resolve("second.tsv");
+
+        SyntheticDirectory.generate(500, 42, first);
+        SyntheticDirectory.generate(500, 42, second);
+
+        assertEquals(-1, Files.mismatch(first, second));
+    }
+
+    @Test
+    void writeCodesAreUniqueBranchesOfTheirCountry() throws Exception {
+        SyntheticDirectory directory = SyntheticDirectory.generate(10, 1, tempDir.resolve("codes.tsv"));
+        Set<String> codes = new HashSet<>();
+
+        for (int i = 0; i < 50_000; i++) {
+            SyntheticDirectory.WriteCode code = directory.nextWriteCode();
+            assertTrue(codes.add(code.swiftCode()), code.swiftCode());
+            assertTrue(code.swiftCode().startsWith("ZZ"), code.swiftCode());
+            assertEquals(code.countryIso2(), code.swiftCode().substring(4, 6));
+            assertFalse(code.swiftCode().endsWith("XXX"), code.swiftCode());
+        }
+    }
+}
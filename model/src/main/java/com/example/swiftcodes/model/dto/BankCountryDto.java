@@ -0,0 +1,21 @@
+package com.example.swiftcodes.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BankCountryDto {
+    private String countryISO2;
+    private String countryName;
+    private List<SwiftCodeWithBranchesDto> headquarters;
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private List<SwiftCodeDto> branchesWithoutHeadquarter;
+}
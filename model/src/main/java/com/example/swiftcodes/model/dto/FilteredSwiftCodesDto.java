@@ -0,0 +1,17 @@
+package com.example.swiftcodes.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FilteredSwiftCodesDto {
+    private int count;
+    private List<SwiftCodeDto> swiftCodes;
+}
@@ -0,0 +1,37 @@
+package com.example.swiftcodes.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * One entry of the directory change log. An {@code UPSERT} carries the whole state the code changed to; a
+ * {@code DELETE} only the code and its country.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SwiftCodeChangeDto {
+    private long version;
+    private Operation operation;
+    private Instant changedAt;
+    private String swiftCode;
+    private String countryISO2;
+    private String countryName;
+    private String bankName;
+    private String address;
+    private Boolean isHeadquarter;
+    private String codeType;
+    private String townName;
+    private String timeZone;
+
+    public enum Operation {
+        UPSERT, DELETE
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.swiftcodes.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SwiftCodeChangesDto {
+    private long version;
+    private boolean hasMore;
+    private List<SwiftCodeChangeDto> changes;
+}
@@ -1,9 +1,10 @@
 package com.example.swiftcodes.model.dto;
 
+import com.example.swiftcodes.validation.CountryIso2;
+import com.example.swiftcodes.validation.SwiftCodeFormat;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
-import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -23,7 +24,7 @@ public class SwiftCodeDto {
 
     @NotBlank(message = "Country ISO code cannot be empty")
     @Size(min = 2, max = 2, message = "Country ISO code must be exactly 2 characters")
-    @Pattern(regexp = "[A-Z]{2}", message = "Country ISO code must consist of 2 uppercase letters")
+    @CountryIso2
     private String countryISO2;
 
     @JsonInclude(JsonInclude.Include.NON_NULL)
@@ -33,7 +34,18 @@ public class SwiftCodeDto {
     private Boolean isHeadquarter;
 
     @NotBlank(message = "Swift code cannot be empty")
-    @Pattern(regexp = "[A-Z]{6}[A-Z0-9]{2}([A-Z0-9]{3})?",
-            message = "Swift code must follow the format: 6 letters + 2 letters/digits + optional 3 letters/digits")
+    @SwiftCodeFormat
     private String swiftCode;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Size(max = 16, message = "Code type must be at most 16 characters")
+    private String codeType;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Size(max = 255, message = "Town name must be at most 255 characters")
+    private String townName;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Size(max = 64, message = "Time zone must be at most 64 characters")
+    private String timeZone;
 }
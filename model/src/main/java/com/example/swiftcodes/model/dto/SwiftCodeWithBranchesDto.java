@@ -1,6 +1,5 @@
 package com.example.swiftcodes.model.dto;
 
-import com.example.swiftcodes.model.SwiftCode;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -0,0 +1,12 @@
+package com.example.swiftcodes.validation;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+public class SwiftCodeFormatValidator implements ConstraintValidator<SwiftCodeFormat, String> {
+
+    @Override
+    public boolean isValid(String value, ConstraintValidatorContext context) {
+        return value == null || SwiftCodeValidator.isValidFormat(value);
+    }
+}
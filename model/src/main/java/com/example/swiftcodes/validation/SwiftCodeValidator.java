@@ -0,0 +1,118 @@
+package com.example.swiftcodes.validation;
+
+/**
+ * Hand-written ISO 9362 (BIC) checks shared by the REST layer, the service and the importers.
+ * Works directly on characters, so it neither compiles regexes nor allocates on the hot path.
+ */
+public final class SwiftCodeValidator {
+
+    public static final int BANK_CODE_LENGTH = 4;
+    public static final int HEADQUARTER_CODE_LENGTH = 8;
+    public static final int BRANCH_CODE_LENGTH = 11;
+    public static final String HEADQUARTER_SUFFIX = "XXX";
+
+    private SwiftCodeValidator() {
+    }
+
+    public static boolean isValidFormat(CharSequence swiftCode) {
+        if (swiftCode == null) {
+            return false;
+        }
+        int length = swiftCode.length();
+        if (length != HEADQUARTER_CODE_LENGTH && length != BRANCH_CODE_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = swiftCode.charAt(i);
+            if (i < 6 ? !isUpperLetter(c) : !isUpperAlphanumeric(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static boolean isValidFormat(char[] buffer, int offset, int length) {
+        if (length != HEADQUARTER_CODE_LENGTH && length != BRANCH_CODE_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = buffer[offset + i];
+            if (i < 6 ? !isUpperLetter(c) : !isUpperAlphanumeric(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static boolean isValidBankCode(CharSequence bankCode) {
+        if (bankCode == null || bankCode.length() != BANK_CODE_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < BANK_CODE_LENGTH; i++) {
+            if (!isUpperLetter(bankCode.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static boolean isValidCountryCode(CharSequence countryIso2) {
+        return countryIso2 != null
+                && countryIso2.length() == 2
+                && isUpperLetter(countryIso2.charAt(0))
+                && isUpperLetter(countryIso2.charAt(1));
+    }
+
+    /**
+     * A code identifies a headquarter when it is the 8-character primary BIC or ends with the XXX branch code.
+     * Expects a code that already passed {@link #isValidFormat(CharSequence)}.
+     */
+    public static boolean isHeadquarterCode(CharSequence swiftCode) {
+        int length = swiftCode.length();
+        return length == HEADQUARTER_CODE_LENGTH
+                || (swiftCode.charAt(8) == 'X' && swiftCode.charAt(9) == 'X' && swiftCode.charAt(10) == 'X');
+    }
+
+    public static boolean matchesCountry(CharSequence swiftCode, CharSequence countryIso2) {
+        return swiftCode.charAt(4) == countryIso2.charAt(0) && swiftCode.charAt(5) == countryIso2.charAt(1);
+    }
+
+    /**
+     * Runs every structural rule and returns the first violation, or {@code null} when the code is valid.
+     */
+    public static SwiftCodeViolation validate(CharSequence swiftCode, CharSequence countryIso2, Boolean isHeadquarter) {
+        if (swiftCode == null || swiftCode.isEmpty()) {
+            return SwiftCodeViolation.MISSING_SWIFT_CODE;
+        }
+        if (!isValidFormat(swiftCode)) {
+            return SwiftCodeViolation.INVALID_FORMAT;
+        }
+        if (!isValidCountryCode(countryIso2)) {
+            return SwiftCodeViolation.INVALID_COUNTRY_CODE;
+        }
+        if (isHeadquarter == null) {
+            return SwiftCodeViolation.MISSING_HEADQUARTER_FLAG;
+        }
+        if (swiftCode.length() == BRANCH_CODE_LENGTH) {
+            boolean headquarterCode = isHeadquarterCode(swiftCode);
+            if (headquarterCode && !isHeadquarter) {
+                return SwiftCodeViolation.BRANCH_WITH_HEADQUARTER_SUFFIX;
+            }
+            if (!headquarterCode && isHeadquarter) {
+                return SwiftCodeViolation.HEADQUARTER_WITHOUT_SUFFIX;
+            }
+        }
+        if (!matchesCountry(swiftCode, countryIso2)) {
+            return SwiftCodeViolation.COUNTRY_MISMATCH;
+        }
+        return null;
+    }
+
+    private static boolean isUpperLetter(char c) {
+        return c >= 'A' && c <= 'Z';
+    }
+
+    private static boolean isUpperAlphanumeric(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+    }
+}
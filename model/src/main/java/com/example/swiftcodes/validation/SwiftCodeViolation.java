@@ -0,0 +1,25 @@
+package com.example.swiftcodes.validation;
+
+public enum SwiftCodeViolation {
+    MISSING_SWIFT_CODE("Swift code cannot be empty"),
+    INVALID_FORMAT("Swift code must follow the format: 6 letters + 2 letters/digits + optional 3 letters/digits"),
+    INVALID_COUNTRY_CODE("Country ISO code must consist of 2 uppercase letters"),
+    MISSING_HEADQUARTER_FLAG("Headquarter flag must be specified"),
+    BRANCH_WITH_HEADQUARTER_SUFFIX("Swift code ending with XXX has to be a headquarter"),
+    HEADQUARTER_WITHOUT_SUFFIX("Headquarter swift code must end with XXX"),
+    COUNTRY_MISMATCH("Characters 5-6 of swift code must match the country ISO code: ");
+
+    private final String message;
+
+    SwiftCodeViolation(String message) {
+        this.message = message;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public String getMessage(String countryIso2) {
+        return this == COUNTRY_MISMATCH ? message + countryIso2 : message;
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.swiftcodes.validation;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SwiftCodeValidatorTest {
+
+    @Test
+    void shouldAcceptEightAndElevenCharacterCodes() {
+        assertTrue(SwiftCodeValidator.isValidFormat("BREXPLPW"));
+        assertTrue(SwiftCodeValidator.isValidFormat("BREXPLPWXXX"));
+        assertTrue(SwiftCodeValidator.isValidFormat("BREXPLP1001"));
+    }
+
+    @Test
+    void shouldRejectMalformedCodes() {
+        assertFalse(SwiftCodeValidator.isValidFormat(null));
+        assertFalse(SwiftCodeValidator.isValidFormat(""));
+        assertFalse(SwiftCodeValidator.isValidFormat("INVALID"));
+        assertFalse(SwiftCodeValidator.isValidFormat("BREXPLPWXX"));
+        assertFalse(SwiftCodeValidator.isValidFormat("BRE1PLPWXXX"));
+        assertFalse(SwiftCodeValidator.isValidFormat("brexplpwxxx"));
+        assertFalse(SwiftCodeValidator.isValidFormat("BREXPLPW00-"));
+    }
+
+    @Test
+    void shouldAcceptOnlyFourLetterBankCodes() {
+        assertTrue(SwiftCodeValidator.isValidBankCode("DEUT"));
+        assertFalse(SwiftCodeValidator.isValidBankCode(null));
+        assertFalse(SwiftCodeValidator.isValidBankCode("DEU"));
+        assertFalse(SwiftCodeValidator.isValidBankCode("DEUTD"));
+        assertFalse(SwiftCodeValidator.isValidBankCode("DE1T"));
+        assertFalse(SwiftCodeValidator.isValidBankCode("deut"));
+    }
+
+    @Test
+    void shouldValidateCharArrayRegion() {
+        char[] line = "PL\tBREXPLPWXXX\tBIC11".toCharArray();
+
+        assertTrue(SwiftCodeValidator.isValidFormat(line, 3, 11));
+        assertFalse(SwiftCodeValidator.isValidFormat(line, 0, 11));
+    }
+
+    @Test
+    void shouldAcceptConsistentHeadquarterAndBranch() {
+        assertNull(SwiftCodeValidator.validate("BREXPLPWXXX", "PL", true));
+        assertNull(SwiftCodeValidator.validate("BREXPLPW001", "PL", false));
+        assertNull(SwiftCodeValidator.validate("BREXPLPW", "PL", true));
+    }
+
+    @Test
+    void shouldReportHeadquarterSuffixRules() {
+        assertEquals(SwiftCodeViolation.BRANCH_WITH_HEADQUARTER_SUFFIX,
+                SwiftCodeValidator.validate("BREXPLPWXXX", "PL", false));
+        assertEquals(SwiftCodeViolation.HEADQUARTER_WITHOUT_SUFFIX,
+                SwiftCodeValidator.validate("BREXPLPW001", "PL", true));
+    }
+
+    @Test
+    void shouldReportCountryMismatchWithCountryInMessage() {
+        SwiftCodeViolation violation = SwiftCodeValidator.validate("BREXDEPW001", "PL", false);
+
+        assertEquals(SwiftCodeViolation.COUNTRY_MISMATCH, violation);
+        assertEquals("Characters 5-6 of swift code must match the country ISO code: PL", violation.getMessage("PL"));
+    }
+
+    @Test
+    void shouldReportMissingOrMalformedInput() {
+        assertEquals(SwiftCodeViolation.MISSING_SWIFT_CODE, SwiftCodeValidator.validate("", "PL", true));
+        assertEquals(SwiftCodeViolation.INVALID_FORMAT, SwiftCodeValidator.validate("INVALID", "PL", true));
+        assertEquals(SwiftCodeViolation.INVALID_COUNTRY_CODE, SwiftCodeValidator.validate("BREXPLPWXXX", "pl", true));
+        assertEquals(SwiftCodeViolation.MISSING_HEADQUARTER_FLAG, SwiftCodeValidator.validate("BREXPLPWXXX", "PL", null));
+    }
+}
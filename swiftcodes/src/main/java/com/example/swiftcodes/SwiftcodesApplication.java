@@ -1,9 +1,16 @@
 package com.example.swiftcodes;
 
+import com.example.swiftcodes.config.SwiftCodesRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
+@EnableScheduling
+@ImportRuntimeHints(SwiftCodesRuntimeHints.class)
 public class SwiftcodesApplication {
 
 	public static void main(String[] args) {
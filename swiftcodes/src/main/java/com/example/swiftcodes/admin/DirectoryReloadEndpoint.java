@@ -0,0 +1,62 @@
+package com.example.swiftcodes.admin;
+
+import com.example.swiftcodes.config.DataImportProperties;
+import com.example.swiftcodes.importer.DirectoryFormat;
+import com.example.swiftcodes.service.DirectoryTableSwapImporter;
+import com.example.swiftcodes.service.DirectoryTableSwapImporter.ReloadResult;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Operator endpoint for zero-downtime full reloads: {@code POST /actuator/directory/reload} swaps in the
+ * directory file (optionally {@code {"location": "file:/path/to/codes.xml", "format": "xml"}}, default
+ * {@code swiftcodes.data.location}; the format defaults to the file extension),
+ * {@code POST /actuator/directory/rollback} swaps the replaced table back.
+ * Not exposed over HTTP unless added to {@code management.endpoints.web.exposure.include}.
+ */
+@Component
+@Endpoint(id = "directory")
+public class DirectoryReloadEndpoint {
+
+    private final DirectoryTableSwapImporter tableSwapImporter;
+    private final DataImportProperties properties;
+    private final ResourceLoader resourceLoader;
+
+    public DirectoryReloadEndpoint(DirectoryTableSwapImporter tableSwapImporter, DataImportProperties properties,
+                                   ResourceLoader resourceLoader) {
+        this.tableSwapImporter = tableSwapImporter;
+        this.properties = properties;
+        this.resourceLoader = resourceLoader;
+    }
+
+    @WriteOperation
+    public ReloadResult run(@Selector String action, @Nullable String location, @Nullable String format)
+            throws IOException {
+        return switch (action) {
+            case "reload" -> reload(location != null ? location : properties.location(), format);
+            case "rollback" -> tableSwapImporter.rollback();
+            default -> throw new IllegalArgumentException("Unknown directory action: " + action);
+        };
+    }
+
+    private ReloadResult reload(String location, String format) throws IOException {
+        DirectoryFormat directoryFormat = format != null ? DirectoryFormat.fromParameter(format)
+                : location.equals(properties.location()) ? properties.resolvedFormat()
+                : DirectoryFormat.fromLocation(location);
+        Resource resource = resourceLoader.getResource(location);
+        if (!resource.exists()) {
+            throw new IllegalArgumentException("Directory file not found: " + location);
+        }
+        try (InputStream inputStream = resource.getInputStream()) {
+            return tableSwapImporter.reload(directoryFormat, inputStream);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.swiftcodes.admin;
+
+import com.example.swiftcodes.config.FlightRecordingProperties;
+import com.example.swiftcodes.diagnostics.ImportChunkEvent;
+import com.example.swiftcodes.diagnostics.RepositoryQueryEvent;
+import com.example.swiftcodes.diagnostics.ServiceOperationEvent;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * On-demand JDK Flight Recorder profiling of a live node: {@code POST /actuator/flightrecording/start}
+ * (optionally {@code {"duration": "2m", "settings": "profile"}}) starts a recording that stops by itself after
+ * the duration and never grows beyond {@code swiftcodes.flight-recording.max-size};
+ * {@code POST /actuator/flightrecording/stop} stops it early; {@code GET /actuator/flightrecording/file} returns
+ * the stopped recording for JDK Mission Control or {@code jfr print}. Besides the JDK's own events it records the
+ * service operations, slow repository queries and import chunks. One recording runs at a time.
+ * Not exposed over HTTP unless added to {@code management.endpoints.web.exposure.include}.
+ */
+@Component
+@Endpoint(id = "flightrecording")
+public class FlightRecordingEndpoint implements DisposableBean {
+    private static final String RECORDING_NAME = "swiftcodes";
+    private static final String FILE = "file";
+
+    private final FlightRecordingProperties properties;
+    private Recording recording;
+    private Path file;
+
+    public FlightRecordingEndpoint(FlightRecordingProperties properties) {
+        this.properties = properties;
+    }
+
+    @ReadOperation
+    public synchronized RecordingStatus status() throws IOException {
+        return currentStatus();
+    }
+
+    @WriteOperation
+    public synchronized WebEndpointResponse<RecordingStatus> run(@Selector String action, @Nullable Duration duration,
+                                                                 @Nullable String settings) throws IOException {
+        return switch (action) {
+            case "start" -> start(duration != null ? duration : properties.defaultDuration(),
+                    settings != null ? settings : properties.settings());
+            case "stop" -> stop();
+            default -> throw new IllegalArgumentException("Unknown flight recording action: " + action);
+        };
+    }
+
+    @ReadOperation
+    public synchronized WebEndpointResponse<Resource> file(@Selector String name) {
+        if (!FILE.equals(name) || recording == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        if (isRunning()) {
+            return new WebEndpointResponse<>(HttpStatus.CONFLICT.value());
+        }
+        return new WebEndpointResponse<>(new FileSystemResource(file));
+    }
+
+    @Override
+    public synchronized void destroy() throws IOException {
+        discard();
+    }
+
+    private WebEndpointResponse<RecordingStatus> start(Duration duration, String settings) throws IOException {
+        if (duration.isNegative() || duration.isZero() || duration.compareTo(properties.maxDuration()) > 0) {
+            throw new IllegalArgumentException("The duration must be positive and at most "
+                    + properties.maxDuration() + ": " + duration);
+        }
+        if (isRunning()) {
+            return new WebEndpointResponse<>(currentStatus(), HttpStatus.CONFLICT.value());
+        }
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(settings);
+        } catch (ParseException | IOException e) {
+            throw new IllegalArgumentException("Unknown flight recorder settings: " + settings, e);
+        }
+
+        discard();
+        file = Files.createTempFile("swiftcodes-", ".jfr");
+        recording = new Recording(configuration);
+        recording.setName(RECORDING_NAME);
+        recording.setDuration(duration);
+        recording.setMaxSize(properties.maxSize().toBytes());
+        recording.setToDisk(true);
+        recording.setDestination(file);
+        recording.enable(ServiceOperationEvent.NAME).withThreshold(properties.operationThreshold());
+        recording.enable(RepositoryQueryEvent.NAME).withThreshold(properties.queryThreshold()).withStackTrace();
+        recording.enable(ImportChunkEvent.NAME);
+        recording.start();
+        return new WebEndpointResponse<>(currentStatus());
+    }
+
+    private WebEndpointResponse<RecordingStatus> stop() throws IOException {
+        if (recording == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        if (isRunning()) {
+            // Writes the file and closes the recording, as reaching its duration does.
+            recording.stop();
+        }
+        return new WebEndpointResponse<>(currentStatus());
+    }
+
+    private boolean isRunning() {
+        return recording != null && recording.getState() == RecordingState.RUNNING;
+    }
+
+    private RecordingStatus currentStatus() throws IOException {
+        if (recording == null) {
+            return new RecordingStatus("NONE", null, null, 0);
+        }
+        if (isRunning()) {
+            return new RecordingStatus(RecordingState.RUNNING.name(), recording.getStartTime(),
+                    recording.getDuration(), recording.getSize());
+        }
+        return new RecordingStatus(RecordingState.STOPPED.name(), recording.getStartTime(), recording.getDuration(),
+                Files.size(file));
+    }
+
+    private void discard() throws IOException {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+        if (file != null) {
+            Files.deleteIfExists(file);
+            file = null;
+        }
+    }
+
+    /**
+     * @param size bytes recorded so far while running, the size of the file once stopped
+     */
+    public record RecordingStatus(String state, Instant startTime, Duration duration, long size) {
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.swiftcodes.cache;
+
+import com.example.swiftcodes.model.Country;
+import org.springframework.stereotype.Component;
+
+/**
+ * Every known country, held in a dense array indexed by the two letters of its ISO2 code (26 × 26 slots), so a
+ * country lookup is an array read instead of a query. Countries are only ever added, which makes a copy-on-write
+ * array cheap: readers see a consistent snapshot without locking.
+ * <p>
+ * Until {@link #initialize(Iterable)} has run, a missing country is unknown rather than absent and callers fall
+ * back to the database.
+ */
+@Component
+public class CountryRegistry {
+    private static final int LETTERS = 26;
+
+    private volatile Country[] countries = new Country[LETTERS * LETTERS];
+    private volatile boolean ready;
+
+    public synchronized void initialize(Iterable<Country> allCountries) {
+        Country[] loaded = new Country[LETTERS * LETTERS];
+        for (Country country : allCountries) {
+            int slot = slotOf(country.getIso2Code());
+            if (slot >= 0) {
+                loaded[slot] = country;
+            }
+        }
+        countries = loaded;
+        ready = true;
+    }
+
+    public synchronized void register(Country country) {
+        int slot = slotOf(country.getIso2Code());
+        if (slot < 0) {
+            return;
+        }
+        Country[] updated = countries.clone();
+        updated[slot] = country;
+        countries = updated;
+    }
+
+    /**
+     * @return the country with this upper-case ISO2 code, or {@code null} if it is not registered
+     */
+    public Country get(String iso2Code) {
+        int slot = slotOf(iso2Code);
+        return slot < 0 ? null : countries[slot];
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Country country : countries) {
+            if (country != null) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    private static int slotOf(String iso2Code) {
+        if (iso2Code == null || iso2Code.length() != 2) {
+            return -1;
+        }
+        int first = iso2Code.charAt(0) - 'A';
+        int second = iso2Code.charAt(1) - 'A';
+        if (first < 0 || first >= LETTERS || second < 0 || second >= LETTERS) {
+            return -1;
+        }
+        return first * LETTERS + second;
+    }
+}
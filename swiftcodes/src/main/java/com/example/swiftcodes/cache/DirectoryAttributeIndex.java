@@ -0,0 +1,109 @@
+package com.example.swiftcodes.cache;
+
+import com.example.swiftcodes.model.SwiftCodeFilter;
+import com.example.swiftcodes.model.SwiftCodeRecord;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compressed bitmap indexes over one snapshot's records: for every value of every filterable attribute, the set
+ * of positions (in swift code order) of the records that have it. A search intersects the bitmaps of its
+ * predicates, smallest first, and never looks at a record that does not match.
+ */
+final class DirectoryAttributeIndex {
+    private static final RoaringBitmap NONE = new RoaringBitmap();
+
+    private final Map<String, RoaringBitmap> byCountry;
+    private final Map<String, RoaringBitmap> byTown;
+    private final Map<String, RoaringBitmap> byTimeZone;
+    private final Map<String, RoaringBitmap> byCodeType;
+    private final RoaringBitmap headquarters;
+    private final RoaringBitmap branches;
+
+    private DirectoryAttributeIndex(Map<String, RoaringBitmap> byCountry, Map<String, RoaringBitmap> byTown,
+                                    Map<String, RoaringBitmap> byTimeZone, Map<String, RoaringBitmap> byCodeType,
+                                    RoaringBitmap headquarters, RoaringBitmap branches) {
+        this.byCountry = byCountry;
+        this.byTown = byTown;
+        this.byTimeZone = byTimeZone;
+        this.byCodeType = byCodeType;
+        this.headquarters = headquarters;
+        this.branches = branches;
+    }
+
+    static DirectoryAttributeIndex build(SwiftCodeRecord[] records) {
+        Map<String, RoaringBitmap> byCountry = new HashMap<>();
+        Map<String, RoaringBitmap> byTown = new HashMap<>();
+        Map<String, RoaringBitmap> byTimeZone = new HashMap<>();
+        Map<String, RoaringBitmap> byCodeType = new HashMap<>();
+        RoaringBitmap headquarters = new RoaringBitmap();
+        for (int position = 0; position < records.length; position++) {
+            SwiftCodeRecord record = records[position];
+            add(byCountry, record.countryIso2(), position);
+            add(byTown, record.townName(), position);
+            add(byTimeZone, record.timeZone(), position);
+            add(byCodeType, record.codeType(), position);
+            if (record.headquarter()) {
+                headquarters.add(position);
+            }
+        }
+        RoaringBitmap branches = RoaringBitmap.flip(headquarters, 0L, records.length);
+        return new DirectoryAttributeIndex(optimized(byCountry), optimized(byTown), optimized(byTimeZone),
+                optimized(byCodeType), optimized(headquarters), optimized(branches));
+    }
+
+    /**
+     * Positions of the records matching every predicate of a non-empty {@code filter}.
+     */
+    RoaringBitmap matching(SwiftCodeFilter filter) {
+        List<RoaringBitmap> predicates = new ArrayList<>(5);
+        if (filter.countryIso2() != null) {
+            predicates.add(byCountry.getOrDefault(filter.countryIso2(), NONE));
+        }
+        if (filter.townName() != null) {
+            predicates.add(byTown.getOrDefault(filter.townName(), NONE));
+        }
+        if (filter.timeZone() != null) {
+            predicates.add(byTimeZone.getOrDefault(filter.timeZone(), NONE));
+        }
+        if (filter.codeType() != null) {
+            predicates.add(byCodeType.getOrDefault(filter.codeType(), NONE));
+        }
+        if (filter.headquarter() != null) {
+            predicates.add(filter.headquarter() ? headquarters : branches);
+        }
+        if (predicates.isEmpty()) {
+            throw new IllegalArgumentException("A directory search needs at least one predicate");
+        }
+
+        predicates.sort(Comparator.comparingInt(RoaringBitmap::getCardinality));
+        if (predicates.size() == 1) {
+            return predicates.getFirst().clone();
+        }
+        return FastAggregation.and(predicates.iterator());
+    }
+
+    private static void add(Map<String, RoaringBitmap> index, String value, int position) {
+        String key = SwiftCodeFilter.normalize(value);
+        if (key != null) {
+            // Positions arrive in ascending order, which Roaring appends without searching.
+            index.computeIfAbsent(key, k -> new RoaringBitmap()).add(position);
+        }
+    }
+
+    private static Map<String, RoaringBitmap> optimized(Map<String, RoaringBitmap> index) {
+        index.values().forEach(RoaringBitmap::runOptimize);
+        return Map.copyOf(index);
+    }
+
+    private static RoaringBitmap optimized(RoaringBitmap bitmap) {
+        bitmap.runOptimize();
+        return bitmap;
+    }
+}
@@ -0,0 +1,253 @@
+package com.example.swiftcodes.cache;
+
+import com.example.swiftcodes.model.SwiftCodeFilter;
+import com.example.swiftcodes.model.SwiftCodeRecord;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An immutable, versioned copy of the whole directory: every record in swift code order, plus each country's
+ * records in the same order. Changes never touch a published snapshot; {@link #with(SwiftCodeRecord)},
+ * {@link #without(String)} and {@link #withChanges(Collection, Collection)} return the next version, sharing
+ * whatever did not change.
+ * <p>
+ * The bitmap indexes answering {@link #filter(SwiftCodeFilter)} are built on the first search of a version, so
+ * single-code changes do not pay for them.
+ */
+public final class DirectorySnapshot {
+    private static final Comparator<SwiftCodeRecord> BY_SWIFT_CODE = Comparator.comparing(SwiftCodeRecord::swiftCode);
+    private static final DirectorySnapshot UNLOADED = new DirectorySnapshot(0, new SwiftCodeRecord[0], Map.of(), false);
+
+    private final long version;
+    private final SwiftCodeRecord[] records;
+    private final Map<String, List<SwiftCodeRecord>> recordsByCountry;
+    private final boolean loaded;
+    private volatile DirectoryAttributeIndex attributeIndex;
+
+    private DirectorySnapshot(long version, SwiftCodeRecord[] records,
+                              Map<String, List<SwiftCodeRecord>> recordsByCountry, boolean loaded) {
+        this.version = version;
+        this.records = records;
+        this.recordsByCountry = recordsByCountry;
+        this.loaded = loaded;
+    }
+
+    /**
+     * The placeholder published before the directory is loaded; readers fall back to the database.
+     */
+    public static DirectorySnapshot unloaded() {
+        return UNLOADED;
+    }
+
+    public static DirectorySnapshot of(long version, List<SwiftCodeRecord> records) {
+        SwiftCodeRecord[] sorted = records.toArray(SwiftCodeRecord[]::new);
+        Arrays.sort(sorted, BY_SWIFT_CODE);
+
+        Map<String, List<SwiftCodeRecord>> byCountry = new HashMap<>();
+        for (SwiftCodeRecord record : sorted) {
+            byCountry.computeIfAbsent(record.countryIso2(), iso2 -> new ArrayList<>()).add(record);
+        }
+        byCountry.replaceAll((iso2, countryRecords) -> Collections.unmodifiableList(countryRecords));
+        return new DirectorySnapshot(version, sorted, Map.copyOf(byCountry), true);
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public int size() {
+        return records.length;
+    }
+
+    public SwiftCodeRecord find(String swiftCode) {
+        int index = indexOf(records, swiftCode);
+        return index >= 0 ? records[index] : null;
+    }
+
+    /**
+     * Records with codes in the inclusive {@code [from, to]} range, in swift code order.
+     */
+    public List<SwiftCodeRecord> range(String from, String to) {
+        int start = insertionPoint(indexOf(records, from));
+        int end = indexOf(records, to);
+        end = end >= 0 ? end + 1 : insertionPoint(end);
+        return start < end ? Collections.unmodifiableList(Arrays.asList(records).subList(start, end)) : List.of();
+    }
+
+    public List<SwiftCodeRecord> byCountry(String countryIso2) {
+        return recordsByCountry.getOrDefault(countryIso2, List.of());
+    }
+
+    /**
+     * Records matching every predicate of a non-empty {@code filter}, in swift code order.
+     */
+    public List<SwiftCodeRecord> filter(SwiftCodeFilter filter) {
+        RoaringBitmap positions = attributeIndex().matching(filter);
+        List<SwiftCodeRecord> matches = new ArrayList<>(positions.getCardinality());
+        positions.forEach((int position) -> matches.add(records[position]));
+        return Collections.unmodifiableList(matches);
+    }
+
+    /**
+     * The next version, with {@code record} added or replacing the record with the same code.
+     */
+    public DirectorySnapshot with(SwiftCodeRecord record) {
+        SwiftCodeRecord previous = find(record.swiftCode());
+        DirectorySnapshot base = previous != null ? without(record.swiftCode()) : this;
+        return new DirectorySnapshot(version + 1, inserted(base.records, record),
+                replaceCountry(base.recordsByCountry, record.countryIso2(),
+                        inserted(base.byCountry(record.countryIso2()).toArray(SwiftCodeRecord[]::new), record)),
+                true);
+    }
+
+    /**
+     * The next version, without the record with this code (unchanged content if there is none).
+     */
+    public DirectorySnapshot without(String swiftCode) {
+        int index = indexOf(records, swiftCode);
+        if (index < 0) {
+            return new DirectorySnapshot(version + 1, records, recordsByCountry, loaded);
+        }
+        String countryIso2 = records[index].countryIso2();
+        SwiftCodeRecord[] countryRecords = byCountry(countryIso2).toArray(SwiftCodeRecord[]::new);
+        return new DirectorySnapshot(version + 1, removed(records, index),
+                replaceCountry(recordsByCountry, countryIso2,
+                        removed(countryRecords, indexOf(countryRecords, swiftCode))),
+                true);
+    }
+
+    /**
+     * The next version with every code in {@code swiftCodes} brought in line with {@code stored}: codes with a
+     * stored record are added or replaced, the others removed. However many codes changed, the directory is
+     * copied once and only the affected countries are rebuilt.
+     */
+    public DirectorySnapshot withChanges(Collection<String> swiftCodes, Collection<SwiftCodeRecord> stored) {
+        Set<String> changed = new HashSet<>(swiftCodes);
+        SwiftCodeRecord[] upserts = stored.toArray(SwiftCodeRecord[]::new);
+        Arrays.sort(upserts, BY_SWIFT_CODE);
+        Set<String> countries = new HashSet<>();
+        for (SwiftCodeRecord record : upserts) {
+            changed.add(record.swiftCode());
+            countries.add(record.countryIso2());
+        }
+        for (String swiftCode : changed) {
+            SwiftCodeRecord previous = find(swiftCode);
+            if (previous != null) {
+                countries.add(previous.countryIso2());
+            }
+        }
+
+        Map<String, List<SwiftCodeRecord>> nextByCountry = new HashMap<>(recordsByCountry);
+        for (String countryIso2 : countries) {
+            SwiftCodeRecord[] countryRecords = merged(byCountry(countryIso2).toArray(SwiftCodeRecord[]::new), changed,
+                    Arrays.stream(upserts)
+                            .filter(record -> record.countryIso2().equals(countryIso2))
+                            .toArray(SwiftCodeRecord[]::new));
+            if (countryRecords.length == 0) {
+                nextByCountry.remove(countryIso2);
+            } else {
+                nextByCountry.put(countryIso2, List.of(countryRecords));
+            }
+        }
+        return new DirectorySnapshot(version + 1, merged(records, changed, upserts), Map.copyOf(nextByCountry),
+                true);
+    }
+
+    private DirectoryAttributeIndex attributeIndex() {
+        DirectoryAttributeIndex index = attributeIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = attributeIndex;
+                if (index == null) {
+                    index = DirectoryAttributeIndex.build(records);
+                    attributeIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    private static int indexOf(SwiftCodeRecord[] sorted, String swiftCode) {
+        int low = 0;
+        int high = sorted.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = sorted[middle].swiftCode().compareTo(swiftCode);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private static int insertionPoint(int index) {
+        return index >= 0 ? index : -index - 1;
+    }
+
+    private static SwiftCodeRecord[] inserted(SwiftCodeRecord[] sorted, SwiftCodeRecord record) {
+        int position = insertionPoint(indexOf(sorted, record.swiftCode()));
+        SwiftCodeRecord[] result = new SwiftCodeRecord[sorted.length + 1];
+        System.arraycopy(sorted, 0, result, 0, position);
+        result[position] = record;
+        System.arraycopy(sorted, position, result, position + 1, sorted.length - position);
+        return result;
+    }
+
+    private static SwiftCodeRecord[] removed(SwiftCodeRecord[] sorted, int index) {
+        SwiftCodeRecord[] result = new SwiftCodeRecord[sorted.length - 1];
+        System.arraycopy(sorted, 0, result, 0, index);
+        System.arraycopy(sorted, index + 1, result, index, sorted.length - index - 1);
+        return result;
+    }
+
+    /**
+     * {@code sorted} without the {@code changed} codes, merged with the sorted {@code upserts}.
+     */
+    private static SwiftCodeRecord[] merged(SwiftCodeRecord[] sorted, Set<String> changed,
+                                            SwiftCodeRecord[] upserts) {
+        List<SwiftCodeRecord> result = new ArrayList<>(sorted.length + upserts.length);
+        int next = 0;
+        for (SwiftCodeRecord record : sorted) {
+            while (next < upserts.length && upserts[next].swiftCode().compareTo(record.swiftCode()) < 0) {
+                result.add(upserts[next++]);
+            }
+            if (!changed.contains(record.swiftCode())) {
+                result.add(record);
+            }
+        }
+        while (next < upserts.length) {
+            result.add(upserts[next++]);
+        }
+        return result.toArray(SwiftCodeRecord[]::new);
+    }
+
+    private static Map<String, List<SwiftCodeRecord>> replaceCountry(Map<String, List<SwiftCodeRecord>> byCountry,
+                                                                      String countryIso2,
+                                                                      SwiftCodeRecord[] countryRecords) {
+        Map<String, List<SwiftCodeRecord>> result = new HashMap<>(byCountry);
+        if (countryRecords.length == 0) {
+            result.remove(countryIso2);
+        } else {
+            result.put(countryIso2, List.of(countryRecords));
+        }
+        return Map.copyOf(result);
+    }
+}
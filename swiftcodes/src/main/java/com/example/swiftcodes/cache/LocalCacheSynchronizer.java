@@ -0,0 +1,82 @@
+package com.example.swiftcodes.cache;
+
+import com.example.swiftcodes.event.SwiftCodeChangeBatch;
+import com.example.swiftcodes.event.SwiftCodeChangeEvent;
+import com.example.swiftcodes.repository.CountryRepository;
+import com.example.swiftcodes.repository.SwiftCodeRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Applies directory changes, local or received from other nodes, to this node's in-memory read structures
+ * once the originating transaction has committed.
+ */
+@Component
+public class LocalCacheSynchronizer {
+
+    private final SwiftCodeBloomFilter bloomFilter;
+    private final CountryRegistry countryRegistry;
+    private final SwiftCodeDirectory directory;
+    private final SwiftCodeRepository swiftCodeRepository;
+    private final CountryRepository countryRepository;
+
+    public LocalCacheSynchronizer(SwiftCodeBloomFilter bloomFilter, CountryRegistry countryRegistry,
+                                  SwiftCodeDirectory directory, SwiftCodeRepository swiftCodeRepository,
+                                  CountryRepository countryRepository) {
+        this.bloomFilter = bloomFilter;
+        this.countryRegistry = countryRegistry;
+        this.directory = directory;
+        this.swiftCodeRepository = swiftCodeRepository;
+        this.countryRepository = countryRepository;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(SwiftCodeChangeEvent event) {
+        switch (event.type()) {
+            case ADDED -> {
+                added(event);
+                directory.refresh(event.swiftCode());
+            }
+            case DELETED -> {
+                // Bloom filters cannot forget a code; a deleted code only costs a database lookup.
+                directory.refresh(event.swiftCode());
+            }
+            case RELOADED -> {
+                if (bloomFilter.isReady()) {
+                    bloomFilter.initialize(() -> swiftCodeRepository.findAllSwiftCodes().iterator());
+                }
+                if (countryRegistry.isReady()) {
+                    countryRegistry.initialize(countryRepository.findAll());
+                }
+                if (directory.current().isLoaded()) {
+                    directory.reload();
+                }
+            }
+        }
+    }
+
+    /**
+     * Applies the code changes of one batch with a single directory refresh.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChanges(SwiftCodeChangeBatch batch) {
+        Set<String> swiftCodes = new LinkedHashSet<>();
+        for (SwiftCodeChangeEvent change : batch.changes()) {
+            if (change.type() == SwiftCodeChangeEvent.ChangeType.ADDED) {
+                added(change);
+            }
+            swiftCodes.add(change.swiftCode());
+        }
+        directory.refreshAll(swiftCodes);
+    }
+
+    private void added(SwiftCodeChangeEvent event) {
+        bloomFilter.put(event.swiftCode());
+        if (countryRegistry.isReady() && countryRegistry.get(event.countryIso2()) == null) {
+            countryRepository.findByIso2Code(event.countryIso2()).ifPresent(countryRegistry::register);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.swiftcodes.cache;
+
+import com.example.swiftcodes.config.BloomFilterProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory Bloom filter over every known swift code, used to answer definite misses without a database round-trip.
+ * Until {@link #initialize(Iterable)} has run, {@link #mightContain(CharSequence)} answers {@code true} so callers
+ * always fall through to the database.
+ * <p>
+ * Each {@link #initialize(Iterable)} fills a fresh bit array and swaps it in, so codes removed since the last one
+ * are forgotten and the insertion count starts over. Codes {@link #put(CharSequence) put} while it runs go into
+ * both arrays.
+ */
+@Component
+public class SwiftCodeBloomFilter {
+    private static final Logger logger = LoggerFactory.getLogger(SwiftCodeBloomFilter.class);
+
+    private final boolean enabled;
+    private final long expectedInsertions;
+    private final long bitSize;
+    private final int hashFunctions;
+    private final int words;
+    private final LongAdder rejections = new LongAdder();
+    private volatile Bits bits;
+    private volatile Bits building;
+    private volatile boolean ready;
+
+    public SwiftCodeBloomFilter(BloomFilterProperties properties) {
+        this.enabled = properties.enabled();
+        this.expectedInsertions = properties.expectedInsertions();
+
+        double ln2 = Math.log(2);
+        long optimalBits = (long) Math.ceil(-expectedInsertions * Math.log(properties.falsePositiveProbability()) / (ln2 * ln2));
+        this.words = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (optimalBits + 63) >>> 6));
+        this.bitSize = (long) words << 6;
+        this.hashFunctions = Math.max(1, (int) Math.round((double) bitSize / expectedInsertions * ln2));
+        this.bits = new Bits(enabled ? words : 1);
+    }
+
+    /**
+     * Replaces the filter's contents with {@code swiftCodes}. The iterable is only iterated once the new array
+     * receives concurrent puts, so a lazy one (a query run on iteration) cannot miss a code added meanwhile.
+     */
+    public synchronized void initialize(Iterable<String> swiftCodes) {
+        if (!enabled) {
+            return;
+        }
+        Bits fresh = new Bits(words);
+        building = fresh;
+        try {
+            for (String swiftCode : swiftCodes) {
+                put(fresh, swiftCode);
+            }
+            bits = fresh;
+        } finally {
+            building = null;
+        }
+        ready = true;
+        if (fresh.insertions.sum() > expectedInsertions) {
+            logger.warn("Bloom filter holds {} codes but was sized for {}; false-positive rate is now ~{}",
+                    fresh.insertions.sum(), expectedInsertions, getExpectedFalsePositiveProbability());
+        }
+    }
+
+    public void put(CharSequence swiftCode) {
+        if (!enabled) {
+            return;
+        }
+        put(bits, swiftCode);
+        Bits next = building;
+        if (next != null) {
+            put(next, swiftCode);
+        }
+    }
+
+    public boolean mightContain(CharSequence swiftCode) {
+        if (!enabled || !ready) {
+            return true;
+        }
+        Bits current = bits;
+        long hash1 = hash(swiftCode);
+        long hash2 = mix(hash1) | 1;
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = Long.remainderUnsigned(hash1 + i * hash2, bitSize);
+            if ((current.words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                rejections.increment();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public long getBitSize() {
+        return enabled ? bitSize : 0;
+    }
+
+    public long getSizeInBytes() {
+        return getBitSize() / Byte.SIZE;
+    }
+
+    public int getHashFunctions() {
+        return hashFunctions;
+    }
+
+    public long getInsertions() {
+        return bits.insertions.sum();
+    }
+
+    public long getRejections() {
+        return rejections.sum();
+    }
+
+    public double getExpectedFalsePositiveProbability() {
+        if (!enabled) {
+            return 0;
+        }
+        return Math.pow(1 - Math.exp(-hashFunctions * (double) getInsertions() / bitSize), hashFunctions);
+    }
+
+    private void put(Bits target, CharSequence swiftCode) {
+        long hash1 = hash(swiftCode);
+        long hash2 = mix(hash1) | 1;
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = Long.remainderUnsigned(hash1 + i * hash2, bitSize);
+            setBit(target.words, bit);
+        }
+        target.insertions.increment();
+    }
+
+    private static void setBit(AtomicLongArray words, long bit) {
+        int index = (int) (bit >>> 6);
+        long mask = 1L << bit;
+        long word;
+        while (((word = words.get(index)) & mask) == 0) {
+            if (words.compareAndSet(index, word, word | mask)) {
+                return;
+            }
+        }
+    }
+
+    private static long hash(CharSequence value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+
+    private static final class Bits {
+        final AtomicLongArray words;
+        final LongAdder insertions = new LongAdder();
+
+        Bits(int words) {
+            this.words = new AtomicLongArray(words);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.swiftcodes.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+@Component
+public class SwiftCodeBloomFilterMetrics implements MeterBinder {
+
+    private final SwiftCodeBloomFilter bloomFilter;
+
+    public SwiftCodeBloomFilterMetrics(SwiftCodeBloomFilter bloomFilter) {
+        this.bloomFilter = bloomFilter;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("swiftcodes.bloom.size", bloomFilter, SwiftCodeBloomFilter::getSizeInBytes)
+                .baseUnit("bytes")
+                .description("Memory used by the swift code Bloom filter bit array")
+                .register(registry);
+        Gauge.builder("swiftcodes.bloom.hash.functions", bloomFilter, SwiftCodeBloomFilter::getHashFunctions)
+                .register(registry);
+        Gauge.builder("swiftcodes.bloom.insertions", bloomFilter, SwiftCodeBloomFilter::getInsertions)
+                .description("Swift codes added to the Bloom filter")
+                .register(registry);
+        Gauge.builder("swiftcodes.bloom.false.positive.probability", bloomFilter,
+                        SwiftCodeBloomFilter::getExpectedFalsePositiveProbability)
+                .description("Estimated false-positive rate at the current fill level")
+                .register(registry);
+        FunctionCounter.builder("swiftcodes.bloom.rejections", bloomFilter, SwiftCodeBloomFilter::getRejections)
+                .description("Lookups answered as not found without querying the database")
+                .register(registry);
+    }
+}
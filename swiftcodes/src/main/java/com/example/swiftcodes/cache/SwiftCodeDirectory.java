@@ -0,0 +1,74 @@
+package com.example.swiftcodes.cache;
+
+import com.example.swiftcodes.model.SwiftCodeRecord;
+import com.example.swiftcodes.repository.SwiftCodeRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Publishes the current {@link DirectorySnapshot} through a single volatile reference: readers take
+ * {@link #current()} once per request and never lock, writers build the next snapshot on the side and swap it in.
+ * Writers are serialized, so versions increase by one with every published change.
+ */
+@Component
+public class SwiftCodeDirectory {
+
+    private static final int REFRESH_QUERY_SIZE = 1000;
+
+    private final SwiftCodeRepository swiftCodeRepository;
+    private volatile DirectorySnapshot current = DirectorySnapshot.unloaded();
+
+    public SwiftCodeDirectory(SwiftCodeRepository swiftCodeRepository) {
+        this.swiftCodeRepository = swiftCodeRepository;
+    }
+
+    public DirectorySnapshot current() {
+        return current;
+    }
+
+    /**
+     * Rebuilds the snapshot from the database. Readers keep being served from the previous one until the swap.
+     */
+    @Transactional(readOnly = true)
+    public synchronized void reload() {
+        DirectorySnapshot next;
+        try (Stream<SwiftCodeRecord> records = swiftCodeRepository.streamAllRecords()) {
+            next = DirectorySnapshot.of(current.version() + 1, records.toList());
+        }
+        current = next;
+    }
+
+    /**
+     * Brings one code in line with the database after it was added or deleted. Reading the committed state rather
+     * than applying the change itself keeps the result right whatever order concurrent changes arrive in.
+     */
+    public synchronized void refresh(String swiftCode) {
+        if (!current.isLoaded()) {
+            return;
+        }
+        List<SwiftCodeRecord> stored = swiftCodeRepository.findRecordsInRange(swiftCode, swiftCode);
+        current = stored.isEmpty() ? current.without(swiftCode) : current.with(stored.get(0));
+    }
+
+    /**
+     * {@link #refresh(String)} for the codes of one batch: a query per {@value #REFRESH_QUERY_SIZE} codes and a
+     * single new version, however many codes changed.
+     */
+    public synchronized void refreshAll(Collection<String> swiftCodes) {
+        if (!current.isLoaded() || swiftCodes.isEmpty()) {
+            return;
+        }
+        List<String> codes = List.copyOf(swiftCodes);
+        List<SwiftCodeRecord> stored = new ArrayList<>(codes.size());
+        for (int from = 0; from < codes.size(); from += REFRESH_QUERY_SIZE) {
+            stored.addAll(swiftCodeRepository.findRecordsBySwiftCodeIn(
+                    codes.subList(from, Math.min(codes.size(), from + REFRESH_QUERY_SIZE))));
+        }
+        current = current.withChanges(codes, stored);
+    }
+}
@@ -0,0 +1,370 @@
+package com.example.swiftcodes.changelog;
+
+import com.example.swiftcodes.config.ChangeFeedProperties;
+import com.example.swiftcodes.event.SwiftCodeChangeBatch;
+import com.example.swiftcodes.event.SwiftCodeChangeEvent;
+import com.example.swiftcodes.exception.ChangeFeedFullException;
+import com.example.swiftcodes.model.dto.SwiftCodeChangeDto;
+import com.example.swiftcodes.model.dto.SwiftCodeChangesDto;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serves the change log to clients keeping a local copy of the directory, either page by page or as a
+ * Server-Sent Events stream. A single reader thread follows the head of the log: it reads each new page once,
+ * when a change commits on this node or (through the change notifications) on another one, and keeps the most
+ * recent page in memory for every stream to send from. It also re-reads the log with every heartbeat, so a lost
+ * notification only delays a change. Each stream has a virtual thread of its own that only reads the log itself
+ * while it is further behind than that page, to catch up with its backlog. At most {@code max-streams} streams
+ * are open at once.
+ */
+@Component
+public class DirectoryChangeFeed implements SmartLifecycle {
+    public static final String CHANGE_EVENT = "change";
+    private static final Logger logger = LoggerFactory.getLogger(DirectoryChangeFeed.class);
+
+    private final DirectoryChangeLog changeLog;
+    private final ChangeFeedProperties properties;
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    // A lock rather than a monitor: waiting in a synchronized block would pin the virtual thread to its carrier.
+    private final ReentrantLock lock = new ReentrantLock();
+    // Signalled when a change commits; the reader waits on it.
+    private final Condition changed = lock.newCondition();
+    // Signalled when the reader has read the log; the streams wait on it.
+    private final Condition read = lock.newCondition();
+    private long generation;
+    // The reader's view of the log, guarded by the lock: the changes in (recentFrom, readVersion], oldest first.
+    private final ArrayDeque<SwiftCodeChangeDto> recent = new ArrayDeque<>();
+    private long recentFrom = -1;
+    private long readVersion = -1;
+    private long reads;
+
+    private volatile boolean running;
+    private Thread reader;
+
+    public DirectoryChangeFeed(DirectoryChangeLog changeLog, ChangeFeedProperties properties,
+                               MeterRegistry meterRegistry) {
+        this.changeLog = changeLog;
+        this.properties = properties;
+        Gauge.builder("swiftcodes.change.feed.streams", subscriptions, Set::size)
+                .description("Open change feed streams")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Up to {@code limit} changes after {@code since}, a full page without a limit.
+     * {@link SwiftCodeChangesDto#getVersion()} is the version to ask for next.
+     */
+    public SwiftCodeChangesDto changesSince(long since, @Nullable Integer requestedLimit) {
+        if (since < 0) {
+            throw new IllegalArgumentException("since must not be negative: " + since);
+        }
+        int limit = requestedLimit != null ? requestedLimit : properties.pageSize();
+        if (limit < 1 || limit > properties.pageSize()) {
+            throw new IllegalArgumentException("limit must be between 1 and " + properties.pageSize() + ": " + limit);
+        }
+        List<SwiftCodeChangeDto> changes = changeLog.changesSince(since, limit + 1);
+        boolean hasMore = changes.size() > limit;
+        if (hasMore) {
+            changes = changes.subList(0, limit);
+        }
+        return SwiftCodeChangesDto.builder()
+                .version(changes.isEmpty() ? since : changes.getLast().getVersion())
+                .hasMore(hasMore)
+                .changes(changes)
+                .build();
+    }
+
+    public long latestVersion() {
+        return changeLog.latestVersion();
+    }
+
+    /**
+     * Opens a stream of the changes after {@code since}. Each change is sent as a {@value #CHANGE_EVENT} event
+     * whose id is its version, so a reconnecting client resumes with {@code Last-Event-ID}.
+     *
+     * @throws ChangeFeedFullException if {@code max-streams} streams are open already
+     */
+    public SseEmitter subscribe(long since) {
+        if (since < 0) {
+            throw new IllegalArgumentException("since must not be negative: " + since);
+        }
+        SseEmitter emitter = new SseEmitter(properties.streamTimeout().toMillis());
+        subscribe(emitter, since);
+        return emitter;
+    }
+
+    void subscribe(SseEmitter emitter, long since) {
+        Subscription subscription = new Subscription(emitter, since);
+        synchronized (subscriptions) {
+            if (subscriptions.size() >= properties.maxStreams()) {
+                throw new ChangeFeedFullException();
+            }
+            subscriptions.add(subscription);
+        }
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(error -> subscription.close());
+        Thread.ofVirtual().name("swift-code-change-feed").start(subscription::run);
+    }
+
+    int streams() {
+        return subscriptions.size();
+    }
+
+    /**
+     * Wakes the reader once a change has committed. Changes from other nodes arrive outside any transaction.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(SwiftCodeChangeEvent event) {
+        signal();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChanges(SwiftCodeChangeBatch batch) {
+        signal();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        reader = Thread.ofVirtual().name("swift-code-change-feed-reader").start(this::follow);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        signal();
+        for (Subscription subscription : subscriptions) {
+            subscription.emitter.complete();
+            subscription.close();
+        }
+        if (reader != null) {
+            reader.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * The reader: reads every new page of the log once and hands it to the streams.
+     */
+    private void follow() {
+        while (running) {
+            // Read before querying, so a change committing meanwhile is not waited for.
+            long seen = generation();
+            try {
+                if (readNext()) {
+                    continue;
+                }
+            } catch (DataAccessException e) {
+                logger.warn("Could not read the change log, retrying with the next heartbeat: {}", e.getMessage());
+            }
+            try {
+                awaitChange(seen, properties.heartbeatInterval());
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Reads the next page after {@code readVersion}, keeping the last {@code page-size} changes read.
+     *
+     * @return whether the page was full, so more may follow right away
+     */
+    private boolean readNext() {
+        long from;
+        lock.lock();
+        try {
+            from = readVersion;
+        } finally {
+            lock.unlock();
+        }
+        if (from < 0) {
+            long latest = changeLog.latestVersion();
+            lock.lock();
+            try {
+                recentFrom = latest;
+                readVersion = latest;
+                reads++;
+                read.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            return false;
+        }
+        List<SwiftCodeChangeDto> changes = changeLog.changesSince(from, properties.pageSize());
+        lock.lock();
+        try {
+            for (SwiftCodeChangeDto change : changes) {
+                recent.addLast(change);
+                readVersion = change.getVersion();
+            }
+            while (recent.size() > properties.pageSize()) {
+                recentFrom = recent.removeFirst().getVersion();
+            }
+            reads++;
+            read.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        return changes.size() == properties.pageSize();
+    }
+
+    private void awaitChange(long seen, Duration timeout) throws InterruptedException {
+        lock.lock();
+        try {
+            long nanos = timeout.toNanos();
+            while (generation == seen && running && nanos > 0) {
+                nanos = changed.awaitNanos(nanos);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void signal() {
+        lock.lock();
+        try {
+            generation++;
+            changed.signalAll();
+            read.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long generation() {
+        lock.lock();
+        try {
+            return generation;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private final class Subscription {
+        private final SseEmitter emitter;
+        private long version;
+        private volatile boolean closed;
+
+        private Subscription(SseEmitter emitter, long version) {
+            this.emitter = emitter;
+            this.version = version;
+        }
+
+        private void run() {
+            try {
+                long heartbeat = properties.heartbeatInterval().toNanos();
+                long lastSent = System.nanoTime();
+                while (!closed) {
+                    long seenReads;
+                    List<SwiftCodeChangeDto> changes;
+                    lock.lock();
+                    try {
+                        seenReads = reads;
+                        changes = readVersion >= 0 && version >= recentFrom ? recentAfter(version) : null;
+                    } finally {
+                        lock.unlock();
+                    }
+                    boolean fullPage = false;
+                    if (changes == null) {
+                        // Further behind than the reader's page: catch up from the log.
+                        changes = changeLog.changesSince(version, properties.pageSize());
+                        fullPage = changes.size() == properties.pageSize();
+                    }
+                    if (!changes.isEmpty()) {
+                        send(changes);
+                        lastSent = System.nanoTime();
+                    } else if (System.nanoTime() - lastSent >= heartbeat) {
+                        emitter.send(SseEmitter.event().comment("keep-alive"));
+                        lastSent = System.nanoTime();
+                    }
+                    if (!fullPage) {
+                        awaitRead(seenReads, properties.heartbeatInterval());
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                // The client went away or the stream was completed.
+                emitter.completeWithError(e);
+            } catch (DataAccessException e) {
+                logger.warn("Closing change feed stream at version {}: {}", version, e.getMessage());
+                emitter.complete();
+            } catch (InterruptedException e) {
+                emitter.complete();
+            } finally {
+                subscriptions.remove(this);
+            }
+        }
+
+        private void send(List<SwiftCodeChangeDto> changes) throws IOException {
+            for (SwiftCodeChangeDto change : changes) {
+                emitter.send(SseEmitter.event()
+                        .id(Long.toString(change.getVersion()))
+                        .name(CHANGE_EVENT)
+                        .data(change, MediaType.APPLICATION_JSON));
+                version = change.getVersion();
+            }
+        }
+
+        /**
+         * Waits up to {@code timeout} for the reader to read the log again after read {@code seen}.
+         */
+        private void awaitRead(long seen, Duration timeout) throws InterruptedException {
+            lock.lock();
+            try {
+                long nanos = timeout.toNanos();
+                while (reads == seen && !closed && nanos > 0) {
+                    nanos = read.awaitNanos(nanos);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void close() {
+            closed = true;
+            signal();
+        }
+    }
+
+    /**
+     * The changes the reader keeps after {@code version}; the caller holds the lock.
+     */
+    private List<SwiftCodeChangeDto> recentAfter(long version) {
+        List<SwiftCodeChangeDto> changes = new ArrayList<>();
+        Iterator<SwiftCodeChangeDto> newestFirst = recent.descendingIterator();
+        while (newestFirst.hasNext()) {
+            SwiftCodeChangeDto change = newestFirst.next();
+            if (change.getVersion() <= version) {
+                break;
+            }
+            changes.add(change);
+        }
+        return changes.reversed();
+    }
+}
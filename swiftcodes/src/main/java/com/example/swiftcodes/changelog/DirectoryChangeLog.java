@@ -0,0 +1,117 @@
+package com.example.swiftcodes.changelog;
+
+import com.example.swiftcodes.model.SwiftCode;
+import com.example.swiftcodes.model.dto.SwiftCodeChangeDto;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The versioned, append-only log of directory changes in {@code swift_code_changes}. Changes are recorded in the
+ * writing transaction, so a change is in the log exactly when it is in the directory.
+ * <p>
+ * Versions come from an identity column, and concurrent writers would commit them out of order: a reader could
+ * see version 11 before 10 commits and skip 10 for good. Writers therefore take a transaction-level advisory
+ * lock before they record anything, so versions commit in order and a reader that has seen version N has seen
+ * everything below it. Writes to the directory are rare; an in-place import holds the lock until it commits.
+ */
+@Component
+public class DirectoryChangeLog {
+    private static final String TABLE = "swift_code_changes";
+    // "SWIFTCHG" in ASCII; any constant works as long as every writer uses the same one.
+    private static final long WRITE_LOCK_KEY = 0x5357_4946_5443_4847L;
+    private static final String COLUMNS = "operation, swift_code, country_iso2, country_name, bank_name, address, "
+            + "is_headquarter, code_type, town_name, time_zone";
+    private static final RowMapper<SwiftCodeChangeDto> CHANGE_MAPPER = (rs, row) -> SwiftCodeChangeDto.builder()
+            .version(rs.getLong("version"))
+            .operation(SwiftCodeChangeDto.Operation.valueOf(rs.getString("operation")))
+            .changedAt(rs.getTimestamp("changed_at").toInstant())
+            .swiftCode(rs.getString("swift_code"))
+            .countryISO2(rs.getString("country_iso2"))
+            .countryName(rs.getString("country_name"))
+            .bankName(rs.getString("bank_name"))
+            .address(rs.getString("address"))
+            .isHeadquarter(rs.getObject("is_headquarter", Boolean.class))
+            .codeType(rs.getString("code_type"))
+            .townName(rs.getString("town_name"))
+            .timeZone(rs.getString("time_zone"))
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DirectoryChangeLog(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void recordUpsert(SwiftCode swiftCode) {
+        recordUpserts(List.of(swiftCode));
+    }
+
+    /**
+     * Records the current state of {@code swiftCodes}, in iteration order.
+     */
+    public void recordUpserts(Collection<SwiftCode> swiftCodes) {
+        if (swiftCodes.isEmpty()) {
+            return;
+        }
+        lock();
+        jdbcTemplate.batchUpdate("insert into " + TABLE + " (" + COLUMNS + ") values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                swiftCodes.stream()
+                        .map(code -> new Object[]{SwiftCodeChangeDto.Operation.UPSERT.name(), code.getSwiftCode(),
+                                code.getCountry().getIso2Code(), code.getCountry().getName(), code.getBankName(),
+                                code.getAddress(), code.getIsHeadquarter(), code.getCodeType(), code.getTownName(),
+                                code.getTimeZone()})
+                        .toList());
+    }
+
+    public void recordDelete(SwiftCode swiftCode) {
+        lock();
+        jdbcTemplate.update("insert into " + TABLE + " (operation, swift_code, country_iso2, country_name) "
+                        + "values (?, ?, ?, ?)", SwiftCodeChangeDto.Operation.DELETE.name(), swiftCode.getSwiftCode(),
+                swiftCode.getCountry().getIso2Code(), swiftCode.getCountry().getName());
+    }
+
+    /**
+     * Records, in one statement, the changes that turn the directory in table {@code fromTable} into the one in
+     * {@code toTable}: an upsert for every code added or changed, a deletion for every code dropped. Used before
+     * a table swap replaces one with the other.
+     *
+     * @return the number of changes recorded
+     */
+    public int recordDifferences(String fromTable, String toTable) {
+        lock();
+        return jdbcTemplate.update("insert into " + TABLE + " (" + COLUMNS + ") "
+                + "select case when t.swift_code is null then 'DELETE' else 'UPSERT' end, "
+                + "coalesce(t.swift_code, f.swift_code), c.iso2_code, c.name, t.bank_name, t.address, "
+                + "t.is_headquarter, t.code_type, t.town_name, t.time_zone "
+                + "from " + fromTable + " f full join " + toTable + " t on t.swift_code = f.swift_code "
+                + "join countries c on c.id = coalesce(t.country_id, f.country_id) "
+                + "where f.swift_code is null or t.swift_code is null "
+                + "or (f.bank_name, f.address, f.is_headquarter, f.country_id, f.code_type, f.town_name, f.time_zone) "
+                + "is distinct from "
+                + "(t.bank_name, t.address, t.is_headquarter, t.country_id, t.code_type, t.town_name, t.time_zone) "
+                + "order by coalesce(t.swift_code, f.swift_code)");
+    }
+
+    /**
+     * Up to {@code limit} changes with a version above {@code version}, oldest first.
+     */
+    public List<SwiftCodeChangeDto> changesSince(long version, int limit) {
+        return jdbcTemplate.query("select version, " + COLUMNS + ", changed_at from " + TABLE
+                + " where version > ? order by version limit ?", CHANGE_MAPPER, version, limit);
+    }
+
+    /**
+     * The version of the newest committed change, {@code 0} while the log is empty.
+     */
+    public long latestVersion() {
+        return jdbcTemplate.queryForObject("select coalesce(max(version), 0) from " + TABLE, Long.class);
+    }
+
+    private void lock() {
+        jdbcTemplate.queryForObject("select pg_advisory_xact_lock(?)", Object.class, WRITE_LOCK_KEY);
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.swiftcodes.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "swiftcodes.bloom-filter")
+public record BloomFilterProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("100000") long expectedInsertions,
+        @DefaultValue("0.01") double falsePositiveProbability) {
+
+    public BloomFilterProperties {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("swiftcodes.bloom-filter.expected-insertions must be positive");
+        }
+        if (falsePositiveProbability <= 0 || falsePositiveProbability >= 1) {
+            throw new IllegalArgumentException("swiftcodes.bloom-filter.false-positive-probability must be in (0, 1)");
+        }
+    }
+}
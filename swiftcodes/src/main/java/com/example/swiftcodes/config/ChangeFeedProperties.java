@@ -0,0 +1,23 @@
+package com.example.swiftcodes.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "swiftcodes.change-feed")
+public record ChangeFeedProperties(
+        @DefaultValue("1000") int pageSize,
+        @DefaultValue("15s") Duration heartbeatInterval,
+        @DefaultValue("30m") Duration streamTimeout,
+        @DefaultValue("1000") int maxStreams) {
+
+    public ChangeFeedProperties {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("swiftcodes.change-feed.page-size must be positive");
+        }
+        if (maxStreams < 1) {
+            throw new IllegalArgumentException("swiftcodes.change-feed.max-streams must be positive");
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.swiftcodes.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "swiftcodes.change-notifications")
+public record ChangeNotificationProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("swift_code_changes") String channel,
+        @DefaultValue("500ms") Duration pollTimeout,
+        @DefaultValue("5s") Duration reconnectDelay) {
+
+    public ChangeNotificationProperties {
+        if (!channel.matches("[a-z_][a-z0-9_]*")) {
+            throw new IllegalArgumentException("swiftcodes.change-notifications.channel must be a lower-case SQL identifier");
+        }
+    }
+}
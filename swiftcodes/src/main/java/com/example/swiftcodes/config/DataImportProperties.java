@@ -0,0 +1,44 @@
+package com.example.swiftcodes.config;
+
+import com.example.swiftcodes.importer.DirectoryFormat;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+
+/**
+ * Where the startup import reads the swift code directory from; any Spring resource location
+ * ({@code classpath:}, {@code file:}, ...). A missing resource is skipped. {@code format} is taken from the file
+ * extension ({@code .csv}, {@code .xml}, otherwise TSV) unless set.
+ * {@code mode} decides whether a node imports at all: {@code IF_EMPTY} lets nodes that join an already loaded
+ * database start serving without re-reading the whole file.
+ * {@code strategy} decides how: {@code IN_PLACE} adds the file's codes to the live table, {@code SWAP} replaces
+ * the table with a freshly loaded copy. A swap is refused when the new directory holds fewer than
+ * {@code minRetainedRatio} times the live row count, and gives up after waiting {@code swapLockTimeout} for
+ * running reads.
+ */
+@ConfigurationProperties(prefix = "swiftcodes.data")
+public record DataImportProperties(
+        @DefaultValue("classpath:data/swift_codes.tsv") String location,
+        @Nullable DirectoryFormat format,
+        @DefaultValue("always") ImportMode mode,
+        @DefaultValue("in-place") ImportStrategy strategy,
+        @DefaultValue("0.5") double minRetainedRatio,
+        @DefaultValue("5s") Duration swapLockTimeout) {
+
+    public DirectoryFormat resolvedFormat() {
+        return format != null ? format : DirectoryFormat.fromLocation(location);
+    }
+
+    public enum ImportMode {
+        ALWAYS,
+        IF_EMPTY,
+        NEVER
+    }
+
+    public enum ImportStrategy {
+        IN_PLACE,
+        SWAP
+    }
+}
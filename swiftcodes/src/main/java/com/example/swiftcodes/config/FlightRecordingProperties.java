@@ -0,0 +1,28 @@
+package com.example.swiftcodes.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Bounds and event thresholds of the recordings started through the {@code flightrecording} endpoint.
+ * {@code settings} names a JDK configuration: {@code default} (about 1% overhead) or {@code profile}.
+ */
+@ConfigurationProperties(prefix = "swiftcodes.flight-recording")
+public record FlightRecordingProperties(
+        @DefaultValue("default") String settings,
+        @DefaultValue("60s") Duration defaultDuration,
+        @DefaultValue("10m") Duration maxDuration,
+        @DefaultValue("100MB") DataSize maxSize,
+        @DefaultValue("0ms") Duration operationThreshold,
+        @DefaultValue("20ms") Duration queryThreshold) {
+
+    public FlightRecordingProperties {
+        if (defaultDuration.compareTo(maxDuration) > 0) {
+            throw new IllegalArgumentException(
+                    "swiftcodes.flight-recording.default-duration must not exceed max-duration");
+        }
+    }
+}
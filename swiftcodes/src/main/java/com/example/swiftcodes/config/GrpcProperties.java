@@ -0,0 +1,36 @@
+package com.example.swiftcodes.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * The gRPC server next to the REST API. Streaming calls send {@code streamChunkSize} codes per message, and at most
+ * {@code flowControlWindow} (the HTTP/2 window of each stream) ahead of what the caller has read. A stream whose
+ * caller reads nothing for {@code streamIdleTimeout} fails with {@code DEADLINE_EXCEEDED}, whatever the caller's
+ * own deadline, so it cannot hold a database connection forever.
+ */
+@ConfigurationProperties(prefix = "swiftcodes.grpc")
+public record GrpcProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("9090") int port,
+        @DefaultValue("1000") int maxBatchSize,
+        @DefaultValue("500") int streamChunkSize,
+        @DefaultValue("1MB") DataSize flowControlWindow,
+        @DefaultValue("10s") Duration shutdownGracePeriod,
+        @DefaultValue("30s") Duration streamIdleTimeout) {
+
+    public GrpcProperties {
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("swiftcodes.grpc.max-batch-size must be positive");
+        }
+        if (streamChunkSize <= 0) {
+            throw new IllegalArgumentException("swiftcodes.grpc.stream-chunk-size must be positive");
+        }
+        if (!streamIdleTimeout.isPositive()) {
+            throw new IllegalArgumentException("swiftcodes.grpc.stream-idle-timeout must be positive");
+        }
+    }
+}
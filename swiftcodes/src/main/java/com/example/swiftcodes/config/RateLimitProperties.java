@@ -0,0 +1,24 @@
+package com.example.swiftcodes.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Per-client token buckets for the lookup endpoints. A client is the first address of the {@code clientHeader}
+ * request header, as set by the gateway in front of the service, and the remote address when the header is
+ * absent. Without the header every caller behind the gateway would share the gateway's bucket.
+ */
+@ConfigurationProperties(prefix = "swiftcodes.rate-limit")
+public record RateLimitProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("50") double requestsPerSecond,
+        @DefaultValue("100") int burst,
+        @DefaultValue("X-Forwarded-For") String clientHeader,
+        @DefaultValue("100000") int maxClients) {
+
+    public RateLimitProperties {
+        if (requestsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("swiftcodes.rate-limit requires a positive rate and a burst of at least 1");
+        }
+    }
+}
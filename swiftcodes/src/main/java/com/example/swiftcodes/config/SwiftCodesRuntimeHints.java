@@ -0,0 +1,30 @@
+package com.example.swiftcodes.config;
+
+import com.example.swiftcodes.json.SwiftCodeRecordList;
+import com.example.swiftcodes.json.SwiftCodeRecordListSerializer;
+import com.example.swiftcodes.model.SwiftCodeRecord;
+import com.example.swiftcodes.model.dto.SwiftCodeChangeDto;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Native-image hints for what the AOT processing cannot see: the bundled directory file read through a
+ * configurable resource location, and {@link SwiftCodeRecord}, which Hibernate instantiates reflectively for the
+ * {@code select new} queries. Entities, Flyway migrations and controller payloads are covered by Spring's own
+ * AOT processors, except {@link SwiftCodeChangeDto}, which is only serialized into change feed events, and
+ * {@link SwiftCodeRecordList}, which payloads only declare as a list of DTOs and whose serializer Jackson finds
+ * through its annotation. Lombok only generates code at compile time and needs no hints.
+ */
+public class SwiftCodesRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        hints.resources().registerPattern("data/*.tsv");
+        hints.reflection().registerType(SwiftCodeRecord.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(), SwiftCodeChangeDto.class);
+        hints.reflection().registerType(SwiftCodeRecordList.class);
+        hints.reflection().registerType(SwiftCodeRecordListSerializer.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.swiftcodes.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "swiftcodes.write-behind")
+public record WriteBehindProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("10000") int queueCapacity,
+        @DefaultValue("500") int batchSize,
+        @DefaultValue("100ms") Duration flushInterval,
+        @DefaultValue("1s") Duration retryDelay,
+        @DefaultValue("write-behind.journal") Path journal,
+        @DefaultValue("64MB") DataSize journalCompactionThreshold) {
+
+    public WriteBehindProperties {
+        if (queueCapacity < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("swiftcodes.write-behind queue-capacity and batch-size must be positive");
+        }
+    }
+}
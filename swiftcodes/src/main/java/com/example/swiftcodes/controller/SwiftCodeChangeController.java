@@ -0,0 +1,56 @@
+package com.example.swiftcodes.controller;
+
+import com.example.swiftcodes.changelog.DirectoryChangeFeed;
+import com.example.swiftcodes.model.dto.SwiftCodeChangesDto;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import static com.example.swiftcodes.controller.SwiftCodeController.APPLICATION_SMILE_VALUE;
+
+/**
+ * The directory change log, for clients keeping a local copy: bootstrap from {@code /v1/swift-codes/export}
+ * (its {@value SwiftCodeController#CHANGE_VERSION_HEADER} header names the version it includes), then apply the
+ * changes after that version, polled page by page or streamed.
+ */
+@RestController
+@RequestMapping("/v1/swift-codes/changes")
+public class SwiftCodeChangeController {
+    private static final String LAST_EVENT_ID_HEADER = "Last-Event-ID";
+
+    private final DirectoryChangeFeed changeFeed;
+
+    public SwiftCodeChangeController(DirectoryChangeFeed changeFeed) {
+        this.changeFeed = changeFeed;
+    }
+
+    /**
+     * A page of changes, tagged with the version it reaches. A poll sending that tag back in
+     * {@code If-None-Match} gets {@code 304 Not Modified} while nothing has changed since.
+     */
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            APPLICATION_SMILE_VALUE})
+    public ResponseEntity<SwiftCodeChangesDto> getChanges(@RequestParam long since,
+                                                          @RequestParam(required = false) Integer limit) {
+        SwiftCodeChangesDto changes = changeFeed.changesSince(since, limit);
+        return ResponseEntity.ok()
+                .eTag(SwiftCodeController.changeVersionTag(changes.getVersion()))
+                .body(changes);
+    }
+
+    /**
+     * Server-Sent Events stream of the changes after {@code since}, or after {@code Last-Event-ID} when an
+     * {@code EventSource} reconnects. Without either, only changes made from now on are sent.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestParam(required = false) Long since,
+                                    @RequestHeader(value = LAST_EVENT_ID_HEADER, required = false) Long lastEventId) {
+        long version = lastEventId != null ? lastEventId : since != null ? since : changeFeed.latestVersion();
+        return changeFeed.subscribe(version);
+    }
+}
@@ -1,35 +1,115 @@
 package com.example.swiftcodes.controller;
 
+import com.example.swiftcodes.cache.DirectorySnapshot;
+import com.example.swiftcodes.cache.SwiftCodeDirectory;
+import com.example.swiftcodes.changelog.DirectoryChangeFeed;
+import com.example.swiftcodes.model.SwiftCodeFilter;
+import com.example.swiftcodes.model.dto.BankSwiftCodesDto;
 import com.example.swiftcodes.model.dto.CountrySwiftCodesDto;
+import com.example.swiftcodes.model.dto.FilteredSwiftCodesDto;
 import com.example.swiftcodes.model.dto.MessageResponseDto;
 import com.example.swiftcodes.model.dto.SwiftCodeDto;
 import com.example.swiftcodes.model.dto.SwiftCodeWithBranchesDto;
+import com.example.swiftcodes.service.ExportFormat;
+import com.example.swiftcodes.service.SwiftCodeExportService;
 import com.example.swiftcodes.service.SwiftCodeService;
+import com.example.swiftcodes.writebehind.SwiftCodeWriteBehind;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/v1/swift-codes")
 public class SwiftCodeController {
 
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+    public static final String DIRECTORY_VERSION_HEADER = "X-Directory-Version";
+    public static final String CHANGE_VERSION_HEADER = "X-Change-Version";
+
     private final SwiftCodeService swiftCodeService;
+    private final SwiftCodeExportService swiftCodeExportService;
+    private final SwiftCodeWriteBehind writeBehind;
+    private final SwiftCodeDirectory directory;
+    private final DirectoryChangeFeed changeFeed;
 
-    public SwiftCodeController(SwiftCodeService swiftCodeService) {
+    public SwiftCodeController(SwiftCodeService swiftCodeService, SwiftCodeExportService swiftCodeExportService,
+                               SwiftCodeWriteBehind writeBehind, SwiftCodeDirectory directory,
+                               DirectoryChangeFeed changeFeed) {
         this.swiftCodeService = swiftCodeService;
+        this.swiftCodeExportService = swiftCodeExportService;
+        this.writeBehind = writeBehind;
+        this.directory = directory;
+        this.changeFeed = changeFeed;
+    }
+
+    /**
+     * Directory search, e.g. {@code ?country=DE&town=FRANKFURT&headquarter=true}. Parameters combine with AND and
+     * at least one is required.
+     */
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            APPLICATION_SMILE_VALUE})
+    public ResponseEntity<FilteredSwiftCodesDto> filterSwiftCodes(@RequestParam(required = false) String country,
+                                                                  @RequestParam(required = false) String town,
+                                                                  @RequestParam(required = false) String timeZone,
+                                                                  @RequestParam(required = false) String codeType,
+                                                                  @RequestParam(required = false) Boolean headquarter) {
+        DirectorySnapshot snapshot = directory.current();
+        FilteredSwiftCodesDto response = swiftCodeService.filterSwiftCodes(snapshot,
+                new SwiftCodeFilter(country, town, timeZone, codeType, headquarter));
+        return withVersion(ResponseEntity.ok(), snapshot).body(response);
     }
 
-    @GetMapping("/{swiftCode}")
+    /**
+     * The whole directory, tagged with the newest change log version committed before it was read. The export
+     * may include some later changes too; changes carry whole states, so applying those again is harmless.
+     * The version is also the (weak) entity tag: a client that already has it gets {@code 304 Not Modified}
+     * instead of the directory.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportSwiftCodes(@RequestParam(defaultValue = "tsv") String format,
+                                                                  WebRequest webRequest) {
+        ExportFormat exportFormat = ExportFormat.fromParameter(format);
+        long changeVersion = changeFeed.latestVersion();
+        // Also sets the ETag header of the response.
+        if (webRequest.checkNotModified(changeVersionTag(changeVersion))) {
+            return null;
+        }
+        StreamingResponseBody body = outputStream -> swiftCodeExportService.export(exportFormat, outputStream);
+        return ResponseEntity.ok()
+                .header(CHANGE_VERSION_HEADER, Long.toString(changeVersion))
+                .contentType(MediaType.parseMediaType(exportFormat.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=swift_codes." + exportFormat.getFileExtension())
+                .body(body);
+    }
+
+    @GetMapping(value = "/{swiftCode}", produces = {MediaType.APPLICATION_JSON_VALUE,
+            MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
     public ResponseEntity<SwiftCodeWithBranchesDto> getSwiftCodeDetails(@PathVariable String swiftCode) {
-        SwiftCodeWithBranchesDto response = swiftCodeService.getSwiftCodeDetails(swiftCode);
-        return ResponseEntity.ok(response);
+        DirectorySnapshot snapshot = directory.current();
+        SwiftCodeWithBranchesDto response = swiftCodeService.getSwiftCodeDetails(snapshot, swiftCode);
+        return withVersion(ResponseEntity.ok(), snapshot).body(response);
     }
 
-    @GetMapping("/country/{countryIso2Code}")
+    @GetMapping(value = "/country/{countryIso2Code}", produces = {MediaType.APPLICATION_JSON_VALUE,
+            MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
     public ResponseEntity<CountrySwiftCodesDto> getSwiftCodesByCountry(@PathVariable String countryIso2Code) {
-        CountrySwiftCodesDto response = swiftCodeService.getSwiftCodesByCountry(countryIso2Code);
-        return ResponseEntity.ok(response);
+        DirectorySnapshot snapshot = directory.current();
+        CountrySwiftCodesDto response = swiftCodeService.getSwiftCodesByCountry(snapshot, countryIso2Code);
+        return withVersion(ResponseEntity.ok(), snapshot).body(response);
+    }
+
+    @GetMapping(value = "/bank/{bankCode}", produces = {MediaType.APPLICATION_JSON_VALUE,
+            MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
+    public ResponseEntity<BankSwiftCodesDto> getSwiftCodesByBank(@PathVariable String bankCode) {
+        DirectorySnapshot snapshot = directory.current();
+        BankSwiftCodesDto response = swiftCodeService.getSwiftCodesByBank(snapshot, bankCode);
+        return withVersion(ResponseEntity.ok(), snapshot).body(response);
     }
 
     @DeleteMapping("/{swiftCode}")
@@ -40,8 +120,28 @@ public class SwiftCodeController {
 
     @PostMapping
     public ResponseEntity<MessageResponseDto> addSwiftCode(@Valid @RequestBody SwiftCodeDto swiftCodeDto) {
+        if (writeBehind.isEnabled()) {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(writeBehind.accept(swiftCodeDto));
+        }
         MessageResponseDto response = swiftCodeService.addSwiftCode(swiftCodeDto);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    /**
+     * Tags a response served from a directory snapshot with its version, so clients can tell which consistent
+     * state of the directory they were given.
+     */
+    private static ResponseEntity.BodyBuilder withVersion(ResponseEntity.BodyBuilder response, DirectorySnapshot snapshot) {
+        if (snapshot.isLoaded()) {
+            response.header(DIRECTORY_VERSION_HEADER, Long.toString(snapshot.version()));
+        }
+        return response;
+    }
+
+    /**
+     * Weak, because an export tagged with a version may include some later changes as well.
+     */
+    static String changeVersionTag(long changeVersion) {
+        return "W/\"" + changeVersion + "\"";
+    }
 }
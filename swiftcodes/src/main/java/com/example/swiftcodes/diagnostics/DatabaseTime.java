@@ -0,0 +1,32 @@
+package com.example.swiftcodes.diagnostics;
+
+/**
+ * Time spent in repository calls by the current thread, and their number, since it started. A
+ * {@link ServiceOperationEvent} reads both before and after the operation.
+ */
+final class DatabaseTime {
+    private static final ThreadLocal<DatabaseTime> CURRENT = ThreadLocal.withInitial(DatabaseTime::new);
+
+    private long nanos;
+    private int queries;
+
+    private DatabaseTime() {
+    }
+
+    static DatabaseTime current() {
+        return CURRENT.get();
+    }
+
+    void add(long queryNanos) {
+        nanos += queryNanos;
+        queries++;
+    }
+
+    long nanos() {
+        return nanos;
+    }
+
+    int queries() {
+        return queries;
+    }
+}
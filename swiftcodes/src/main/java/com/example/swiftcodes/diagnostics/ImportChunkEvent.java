@@ -0,0 +1,33 @@
+package com.example.swiftcodes.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Storing one chunk of a directory file imported in place.
+ */
+@Name(ImportChunkEvent.NAME)
+@Label("Import Chunk")
+@Category({"SWIFT Codes", "Import"})
+@Description("Storing one chunk of directory entries; includes flushing the chunk before it")
+@StackTrace(false)
+public class ImportChunkEvent extends Event {
+    public static final String NAME = "swiftcodes.ImportChunk";
+
+    @Label("Entries")
+    public int entries;
+
+    @Label("Added")
+    public int added;
+
+    @Label("Completed")
+    @Description("Stored codes that got their code type, town and time zone from this import")
+    public int completed;
+
+    @Label("Failed")
+    public int failed;
+}
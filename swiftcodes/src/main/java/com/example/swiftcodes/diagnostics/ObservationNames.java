@@ -0,0 +1,37 @@
+package com.example.swiftcodes.diagnostics;
+
+/**
+ * Names of the application's own Micrometer observations. Each one is a span of the request's trace when it is
+ * sampled, and a timer of the same name in the metrics.
+ */
+public final class ObservationNames {
+
+    /**
+     * A {@code SwiftCodeService} operation, see {@link ServiceOperation}.
+     */
+    public static final String SERVICE_OPERATION = "swiftcodes.service";
+
+    /**
+     * A Spring Data repository call made within another observation, such as a request or a service operation.
+     * Calls outside of any are left out rather than each starting a trace of its own.
+     */
+    public static final String REPOSITORY_CALL = "swiftcodes.repository";
+
+    /**
+     * A directory import, from reading the file to linking the branches.
+     */
+    public static final String IMPORT = "swiftcodes.import";
+
+    /**
+     * One chunk of an import. Its repository calls (a save per code) are not traced one by one.
+     */
+    public static final String IMPORT_CHUNK = "swiftcodes.import.chunk";
+
+    /**
+     * Linking the imported branches to their headquarters.
+     */
+    public static final String IMPORT_LINK = "swiftcodes.import.link";
+
+    private ObservationNames() {
+    }
+}
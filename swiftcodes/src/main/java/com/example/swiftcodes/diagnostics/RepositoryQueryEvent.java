@@ -0,0 +1,30 @@
+package com.example.swiftcodes.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * A repository call slower than the threshold, with the stack trace of its caller.
+ */
+@Name(RepositoryQueryEvent.NAME)
+@Label("Slow Repository Query")
+@Category({"SWIFT Codes", "Database"})
+@Description("A Spring Data repository call taking longer than the threshold")
+@Threshold("20 ms")
+public class RepositoryQueryEvent extends Event {
+    public static final String NAME = "swiftcodes.RepositoryQuery";
+
+    @Label("Repository")
+    String repository;
+
+    @Label("Method")
+    String method;
+
+    @Label("Arguments")
+    @Description("Strings, numbers and enums as they are; collections by their size; other values by their type")
+    String arguments;
+}
@@ -0,0 +1,117 @@
+package com.example.swiftcodes.diagnostics;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.data.domain.Slice;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.function.Supplier;
+import java.util.stream.BaseStream;
+
+/**
+ * Times every call of one repository: the time adds to the calling thread's {@link DatabaseTime}, calls slower
+ * than the {@link RepositoryQueryEvent} threshold are recorded as one, and calls within another observation are
+ * observed as {@link ObservationNames#REPOSITORY_CALL}, with the number of rows returned where it is known.
+ */
+class RepositoryQueryInterceptor implements MethodInterceptor {
+    private static final int MAX_ARGUMENT_LENGTH = 64;
+
+    private final String repository;
+    private final Supplier<ObservationRegistry> observationRegistry;
+
+    RepositoryQueryInterceptor(Class<?> repositoryInterface, Supplier<ObservationRegistry> observationRegistry) {
+        this.repository = repositoryInterface.getSimpleName();
+        this.observationRegistry = observationRegistry;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        RepositoryQueryEvent event = new RepositoryQueryEvent();
+        event.begin();
+        Observation observation = observation(invocation);
+        long start = System.nanoTime();
+        try (Observation.Scope scope = observation.openScope()) {
+            Object result = invocation.proceed();
+            if (!observation.isNoop()) {
+                long rows = rows(result);
+                if (rows >= 0) {
+                    observation.highCardinalityKeyValue("db.rows", Long.toString(rows));
+                }
+            }
+            return result;
+        } catch (Throwable e) {
+            observation.error(e);
+            throw e;
+        } finally {
+            DatabaseTime.current().add(System.nanoTime() - start);
+            observation.stop();
+            event.end();
+            if (event.shouldCommit()) {
+                event.repository = repository;
+                event.method = invocation.getMethod().getName();
+                event.arguments = describe(invocation.getArguments());
+                event.commit();
+            }
+        }
+    }
+
+    private Observation observation(MethodInvocation invocation) {
+        ObservationRegistry registry = observationRegistry.get();
+        Observation parent = registry.getCurrentObservation();
+        if (parent == null || ObservationNames.IMPORT_CHUNK.equals(parent.getContextView().getName())) {
+            return Observation.NOOP;
+        }
+        String method = invocation.getMethod().getName();
+        return Observation.createNotStarted(ObservationNames.REPOSITORY_CALL, registry)
+                .contextualName(repository + "." + method)
+                .lowCardinalityKeyValue("repository", repository)
+                .lowCardinalityKeyValue("method", method)
+                .parentObservation(parent)
+                .start();
+    }
+
+    /**
+     * The rows in a returned list, page or optional, -1 for a count, a stream or no result at all.
+     */
+    private static long rows(Object result) {
+        return switch (result) {
+            case null -> -1;
+            case Collection<?> collection -> collection.size();
+            case Slice<?> slice -> slice.getNumberOfElements();
+            case Optional<?> optional -> optional.isPresent() ? 1 : 0;
+            case Number number -> -1;
+            case Boolean bool -> -1;
+            case Iterable<?> iterable -> -1;
+            case BaseStream<?, ?> stream -> -1;
+            default -> 1;
+        };
+    }
+
+    /**
+     * Never calls {@code toString()} on anything else: on an entity it could load lazy associations.
+     */
+    private static String describe(Object[] arguments) {
+        StringJoiner description = new StringJoiner(", ");
+        for (Object argument : arguments) {
+            String value = switch (argument) {
+                case null -> "null";
+                case CharSequence text -> text.length() > MAX_ARGUMENT_LENGTH
+                        ? text.subSequence(0, MAX_ARGUMENT_LENGTH) + "..."
+                        : text.toString();
+                case Number number -> number.toString();
+                case Boolean bool -> bool.toString();
+                case Enum<?> constant -> constant.name();
+                case Collection<?> collection -> "[" + collection.size() + " items]";
+                case Map<?, ?> map -> "{" + map.size() + " entries}";
+                default -> argument.getClass().getSimpleName();
+            };
+            description.add(value);
+        }
+        return description.toString();
+    }
+}
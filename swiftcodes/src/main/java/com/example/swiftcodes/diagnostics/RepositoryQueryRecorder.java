@@ -0,0 +1,35 @@
+package com.example.swiftcodes.diagnostics;
+
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Component;
+import org.springframework.util.function.SingletonSupplier;
+
+import java.util.function.Supplier;
+
+/**
+ * Adds a {@link RepositoryQueryInterceptor} to every Spring Data repository, the way Spring Boot attaches its
+ * repository metrics: through the factory bean, before it creates the repository proxy. The observation registry
+ * is only looked up on the first call, so that this post-processor does not create it early.
+ */
+@Component
+public class RepositoryQueryRecorder implements BeanPostProcessor {
+    private final Supplier<ObservationRegistry> observationRegistry;
+
+    public RepositoryQueryRecorder(ObjectProvider<ObservationRegistry> observationRegistry) {
+        this.observationRegistry = SingletonSupplier.of(
+                () -> observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP));
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+            factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                    (proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(new RepositoryQueryInterceptor(
+                            repositoryInformation.getRepositoryInterface(), observationRegistry))));
+        }
+        return bean;
+    }
+}
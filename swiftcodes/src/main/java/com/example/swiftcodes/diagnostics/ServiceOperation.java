@@ -0,0 +1,70 @@
+package com.example.swiftcodes.diagnostics;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+
+import java.util.Locale;
+
+/**
+ * One {@code SwiftCodeService} operation, observed as {@link ObservationNames#SERVICE_OPERATION} and recorded as a
+ * {@link ServiceOperationEvent}. Use as
+ * <pre>{@code
+ * ServiceOperation operation = ServiceOperation.start(observationRegistry, "getSwiftCodeDetails", swiftCode);
+ * try {
+ *     ...
+ * } catch (RuntimeException e) {
+ *     operation.error(e);
+ *     throw e;
+ * } finally {
+ *     operation.finish();
+ * }
+ * }</pre>
+ * A failed operation carries its exception, as the {@code error} tag of the timer and an error status on the span.
+ * The repository calls made in between are child spans. Their number and time are added to the span, and whether
+ * there were none at all is a {@code cache.hit} tag of both the span and the timer.
+ */
+public final class ServiceOperation {
+    private final Observation observation;
+    private final Observation.Scope scope;
+    private final ServiceOperationEvent event;
+    private final long databaseNanosAtStart;
+    private final int queriesAtStart;
+
+    private ServiceOperation(Observation observation, ServiceOperationEvent event) {
+        this.observation = observation;
+        this.scope = observation.openScope();
+        this.event = event;
+        DatabaseTime databaseTime = DatabaseTime.current();
+        this.databaseNanosAtStart = databaseTime.nanos();
+        this.queriesAtStart = databaseTime.queries();
+    }
+
+    public static ServiceOperation start(ObservationRegistry observationRegistry, String operation, Object key) {
+        Observation observation = Observation.createNotStarted(ObservationNames.SERVICE_OPERATION,
+                        observationRegistry)
+                .contextualName(operation)
+                .lowCardinalityKeyValue("operation", operation);
+        if (!observation.isNoop()) {
+            observation.highCardinalityKeyValue("key", String.valueOf(key));
+        }
+        return new ServiceOperation(observation.start(), ServiceOperationEvent.start(operation, key));
+    }
+
+    public void error(Throwable error) {
+        observation.error(error);
+    }
+
+    public void finish() {
+        if (!observation.isNoop()) {
+            DatabaseTime databaseTime = DatabaseTime.current();
+            int queries = databaseTime.queries() - queriesAtStart;
+            long databaseNanos = databaseTime.nanos() - databaseNanosAtStart;
+            observation.lowCardinalityKeyValue("cache.hit", Boolean.toString(queries == 0))
+                    .highCardinalityKeyValue("db.calls", Integer.toString(queries))
+                    .highCardinalityKeyValue("db.time.ms", String.format(Locale.ROOT, "%.3f", databaseNanos / 1e6));
+        }
+        scope.close();
+        observation.stop();
+        event.finish();
+    }
+}
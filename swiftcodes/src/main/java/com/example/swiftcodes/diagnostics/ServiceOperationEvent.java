@@ -0,0 +1,77 @@
+package com.example.swiftcodes.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * One {@code SwiftCodeService} operation, with the time its repository calls took. {@link ServiceOperation} records
+ * it along with the operation's observation; on its own it is used as
+ * <pre>{@code
+ * ServiceOperationEvent event = ServiceOperationEvent.start("getSwiftCodeDetails", swiftCode);
+ * try {
+ *     ...
+ * } finally {
+ *     event.finish();
+ * }
+ * }</pre>
+ * While no recording enables the event, both calls cost next to nothing.
+ */
+@Name(ServiceOperationEvent.NAME)
+@Label("Service Operation")
+@Category({"SWIFT Codes", "Service"})
+@Description("A SwiftCodeService operation; for writes, the commit that follows it is not included")
+@StackTrace(false)
+public class ServiceOperationEvent extends Event {
+    public static final String NAME = "swiftcodes.ServiceOperation";
+
+    @Label("Operation")
+    private String operation;
+
+    @Label("Key")
+    @Description("The swift code, country, bank code or filter the operation was called with")
+    private String key;
+
+    @Label("Cache Hit")
+    @Description("Answered without a repository call")
+    private boolean cacheHit;
+
+    @Label("Database Time")
+    @Description("Time spent in repository calls")
+    @Timespan(Timespan.NANOSECONDS)
+    private long databaseTime;
+
+    @Label("Repository Calls")
+    private int repositoryCalls;
+
+    private transient long databaseNanosAtStart;
+    private transient int queriesAtStart;
+
+    public static ServiceOperationEvent start(String operation, Object key) {
+        ServiceOperationEvent event = new ServiceOperationEvent();
+        if (event.isEnabled()) {
+            event.operation = operation;
+            event.key = key != null ? key.toString() : null;
+            DatabaseTime databaseTime = DatabaseTime.current();
+            event.databaseNanosAtStart = databaseTime.nanos();
+            event.queriesAtStart = databaseTime.queries();
+            event.begin();
+        }
+        return event;
+    }
+
+    public void finish() {
+        end();
+        if (shouldCommit()) {
+            DatabaseTime databaseTime = DatabaseTime.current();
+            this.databaseTime = databaseTime.nanos() - databaseNanosAtStart;
+            this.repositoryCalls = databaseTime.queries() - queriesAtStart;
+            this.cacheHit = repositoryCalls == 0;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.swiftcodes.event;
+
+import com.example.swiftcodes.config.ChangeNotificationProperties;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Listens on the change notification channel over a dedicated connection (outside the pool) and re-publishes
+ * changes made by other nodes as local {@link SwiftCodeChangeEvent}s. Notifications sent while the connection
+ * was down are lost, so after a reconnect a {@code RELOADED} event tells local structures to rebuild.
+ */
+@Component
+public class PostgresChangeListener implements SmartLifecycle {
+    private static final Logger logger = LoggerFactory.getLogger(PostgresChangeListener.class);
+
+    private final DataSourceProperties dataSourceProperties;
+    private final ChangeNotificationProperties properties;
+    private final SwiftCodeChangePublisher changePublisher;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    public PostgresChangeListener(DataSourceProperties dataSourceProperties, ChangeNotificationProperties properties,
+                                  SwiftCodeChangePublisher changePublisher, ApplicationEventPublisher eventPublisher) {
+        this.dataSourceProperties = dataSourceProperties;
+        this.properties = properties;
+        this.changePublisher = changePublisher;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public void start() {
+        if (!properties.enabled()) {
+            return;
+        }
+        running = true;
+        listenerThread = Thread.ofPlatform()
+                .name("swift-code-change-listener")
+                .daemon()
+                .start(this::listen);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+            try {
+                listenerThread.join(properties.pollTimeout().toMillis() * 2);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        boolean reconnect = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + properties.channel());
+                }
+                logger.info("Listening for swift code changes on channel {}", properties.channel());
+                if (reconnect) {
+                    eventPublisher.publishEvent(SwiftCodeChangeEvent.reloaded(changePublisher.getNodeId()));
+                }
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                int timeoutMillis = (int) properties.pollTimeout().toMillis();
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(timeoutMillis);
+                    if (notifications != null) {
+                        dispatch(notifications);
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                reconnect = true;
+                logger.warn("Change notification connection failed, retrying in {}: {}",
+                        properties.reconnectDelay(), e.getMessage());
+                try {
+                    Thread.sleep(properties.reconnectDelay());
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Publishes the changes of other nodes received in one poll, consecutive code changes as one
+     * {@link SwiftCodeChangeBatch} so that a batch insert elsewhere is applied here in one go too.
+     */
+    private void dispatch(PGNotification[] notifications) {
+        List<SwiftCodeChangeEvent> changes = new ArrayList<>();
+        for (PGNotification notification : notifications) {
+            try {
+                SwiftCodeChangeEvent event = SwiftCodeChangeEvent.fromPayload(notification.getParameter());
+                if (changePublisher.getNodeId().equals(event.originNodeId())) {
+                    continue;
+                }
+                if (event.type() == SwiftCodeChangeEvent.ChangeType.RELOADED) {
+                    publish(changes);
+                    changes.clear();
+                    eventPublisher.publishEvent(event);
+                } else {
+                    changes.add(event);
+                }
+            } catch (RuntimeException e) {
+                logger.error("Error while handling change notification {}: {}", notification.getParameter(),
+                        e.getMessage());
+            }
+        }
+        publish(changes);
+    }
+
+    private void publish(List<SwiftCodeChangeEvent> changes) {
+        try {
+            if (changes.size() == 1) {
+                eventPublisher.publishEvent(changes.getFirst());
+            } else if (changes.size() > 1) {
+                eventPublisher.publishEvent(new SwiftCodeChangeBatch(changes));
+            }
+        } catch (RuntimeException e) {
+            logger.error("Error while handling {} change notifications: {}", changes.size(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.swiftcodes.event;
+
+import java.util.List;
+
+/**
+ * {@link SwiftCodeChangeEvent.ChangeType#ADDED ADDED} and {@link SwiftCodeChangeEvent.ChangeType#DELETED DELETED}
+ * changes committed together, such as a write-behind batch, published locally as one Spring event so that read
+ * structures are patched once for the whole batch rather than once per code.
+ */
+public record SwiftCodeChangeBatch(List<SwiftCodeChangeEvent> changes) {
+
+    public SwiftCodeChangeBatch {
+        changes = List.copyOf(changes);
+    }
+}
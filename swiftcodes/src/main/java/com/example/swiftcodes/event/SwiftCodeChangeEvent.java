@@ -0,0 +1,49 @@
+package com.example.swiftcodes.event;
+
+/**
+ * A change to the swift code directory, published locally as a Spring event and to other nodes through
+ * PostgreSQL {@code NOTIFY}. {@link ChangeType#RELOADED} means the directory changed wholesale (e.g. an import)
+ * and local read structures should be rebuilt rather than patched.
+ */
+public record SwiftCodeChangeEvent(
+        ChangeType type,
+        String swiftCode,
+        String headquarterPrefix,
+        String countryIso2,
+        String originNodeId) {
+
+    private static final char SEPARATOR = '|';
+
+    public enum ChangeType {
+        ADDED, DELETED, RELOADED
+    }
+
+    public static SwiftCodeChangeEvent added(String swiftCode, String countryIso2, String originNodeId) {
+        return new SwiftCodeChangeEvent(ChangeType.ADDED, swiftCode, prefixOf(swiftCode), countryIso2, originNodeId);
+    }
+
+    public static SwiftCodeChangeEvent deleted(String swiftCode, String countryIso2, String originNodeId) {
+        return new SwiftCodeChangeEvent(ChangeType.DELETED, swiftCode, prefixOf(swiftCode), countryIso2, originNodeId);
+    }
+
+    public static SwiftCodeChangeEvent reloaded(String originNodeId) {
+        return new SwiftCodeChangeEvent(ChangeType.RELOADED, "", "", "", originNodeId);
+    }
+
+    public String toPayload() {
+        return type.name() + SEPARATOR + swiftCode + SEPARATOR + headquarterPrefix + SEPARATOR
+                + countryIso2 + SEPARATOR + originNodeId;
+    }
+
+    public static SwiftCodeChangeEvent fromPayload(String payload) {
+        String[] fields = payload.split("\\|", -1);
+        if (fields.length != 5) {
+            throw new IllegalArgumentException("Malformed change notification: " + payload);
+        }
+        return new SwiftCodeChangeEvent(ChangeType.valueOf(fields[0]), fields[1], fields[2], fields[3], fields[4]);
+    }
+
+    private static String prefixOf(String swiftCode) {
+        return swiftCode.length() >= 8 ? swiftCode.substring(0, 8) : swiftCode;
+    }
+}
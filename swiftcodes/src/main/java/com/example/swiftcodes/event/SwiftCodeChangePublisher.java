@@ -0,0 +1,74 @@
+package com.example.swiftcodes.event;
+
+import com.example.swiftcodes.config.ChangeNotificationProperties;
+import com.example.swiftcodes.model.SwiftCode;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Publishes directory changes to this node's listeners and, through {@code pg_notify}, to every other node.
+ * Must be called inside the writing transaction: PostgreSQL delivers the notification only when it commits.
+ */
+@Component
+public class SwiftCodeChangePublisher {
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+    private final ChangeNotificationProperties properties;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public SwiftCodeChangePublisher(ApplicationEventPublisher eventPublisher, JdbcTemplate jdbcTemplate,
+                                    ChangeNotificationProperties properties) {
+        this.eventPublisher = eventPublisher;
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public void publishAdded(String swiftCode, String countryIso2) {
+        publish(SwiftCodeChangeEvent.added(swiftCode, countryIso2, nodeId));
+    }
+
+    /**
+     * Publishes the codes of one batch insert as a single {@link SwiftCodeChangeBatch}. Other nodes get one
+     * notification per code, sent in one statement, and batch them again on receipt.
+     */
+    public void publishAdded(Collection<SwiftCode> swiftCodes) {
+        List<SwiftCodeChangeEvent> changes = swiftCodes.stream()
+                .map(swiftCode -> SwiftCodeChangeEvent.added(swiftCode.getSwiftCode(),
+                        swiftCode.getCountry().getIso2Code(), nodeId))
+                .toList();
+        if (changes.isEmpty()) {
+            return;
+        }
+        eventPublisher.publishEvent(new SwiftCodeChangeBatch(changes));
+        if (properties.enabled()) {
+            String[] payloads = changes.stream().map(SwiftCodeChangeEvent::toPayload).toArray(String[]::new);
+            jdbcTemplate.queryForObject("select count(pg_notify(?, payload)) from unnest(?::text[]) as payload",
+                    Long.class, properties.channel(), payloads);
+        }
+    }
+
+    public void publishDeleted(String swiftCode, String countryIso2) {
+        publish(SwiftCodeChangeEvent.deleted(swiftCode, countryIso2, nodeId));
+    }
+
+    public void publishReloaded() {
+        publish(SwiftCodeChangeEvent.reloaded(nodeId));
+    }
+
+    private void publish(SwiftCodeChangeEvent event) {
+        eventPublisher.publishEvent(event);
+        if (properties.enabled()) {
+            jdbcTemplate.queryForObject("select pg_notify(?, ?)", Object.class, properties.channel(), event.toPayload());
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.swiftcodes.exception;
+
+import jakarta.persistence.EntityNotFoundException;
+
+/**
+ * Expected miss for a bank code with no swift codes in the directory; skips stack trace capture
+ * like {@link SwiftCodeNotFoundException}.
+ */
+public class BankNotFoundException extends EntityNotFoundException {
+
+    public BankNotFoundException(String bankCode) {
+        super("Bank not found: " + bankCode);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.swiftcodes.exception;
+
+/**
+ * As many change feed streams are open as {@code swiftcodes.change-feed.max-streams} allows; the client should
+ * reconnect later. Expected under load, so no stack trace is captured.
+ */
+public class ChangeFeedFullException extends RuntimeException {
+
+    public ChangeFeedFullException() {
+        super("Too many change feed streams open, retry later");
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.swiftcodes.exception;
+
+import jakarta.persistence.EntityNotFoundException;
+
+/**
+ * Expected miss for an unknown country; like {@link SwiftCodeNotFoundException} it carries no stack trace.
+ */
+public class CountryNotFoundException extends EntityNotFoundException {
+
+    public CountryNotFoundException(String countryIso2Code) {
+        super("Country not found: " + countryIso2Code);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -2,6 +2,7 @@ package com.example.swiftcodes.exception;
 
 import com.example.swiftcodes.model.dto.MessageResponseDto;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -28,6 +29,25 @@ public class GlobalExceptionHandler {
                 .body(new MessageResponseDto(ex.getMessage()));
     }
 
+    @ExceptionHandler(WriteQueueFullException.class)
+    public ResponseEntity<MessageResponseDto> handleWriteQueueFullException(WriteQueueFullException ex) {
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new MessageResponseDto(ex.getMessage()));
+    }
+
+    /**
+     * Without a body: stream clients accept only {@code text/event-stream}, which a message cannot be written as.
+     */
+    @ExceptionHandler(ChangeFeedFullException.class)
+    public ResponseEntity<Void> handleChangeFeedFullException(ChangeFeedFullException ex) {
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .build();
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<MessageResponseDto> handleValidationException(MethodArgumentNotValidException ex) {
         List<String> errors = ex.getBindingResult()
@@ -0,0 +1,17 @@
+package com.example.swiftcodes.exception;
+
+/**
+ * Rejected swift code input (malformed, inconsistent or duplicate) or a search without criteria. Thrown for
+ * expected client errors, so no stack trace is captured.
+ */
+public class InvalidSwiftCodeException extends IllegalArgumentException {
+
+    public InvalidSwiftCodeException(String message) {
+        super(message);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.swiftcodes.exception;
+
+import jakarta.persistence.EntityNotFoundException;
+
+/**
+ * Expected miss for an unknown swift code. Misses are frequent under scanning traffic,
+ * so the exception skips stack trace capture.
+ */
+public class SwiftCodeNotFoundException extends EntityNotFoundException {
+
+    public SwiftCodeNotFoundException(String swiftCode) {
+        super("Swift code not found: " + swiftCode);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.swiftcodes.exception;
+
+/**
+ * The write-behind queue is at capacity; the client should retry later. Expected under overload, so no stack
+ * trace is captured.
+ */
+public class WriteQueueFullException extends RuntimeException {
+
+    public WriteQueueFullException() {
+        super("Write queue is full, retry later");
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
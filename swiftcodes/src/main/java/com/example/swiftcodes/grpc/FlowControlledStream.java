@@ -0,0 +1,93 @@
+package com.example.swiftcodes.grpc;
+
+import io.grpc.Context;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Sends the messages of a server-streaming call from a virtual thread of its own, only as fast as the caller reads
+ * them: a message waits until the transport is ready for it, so a slow caller holds back the producer (a database
+ * cursor, say) instead of the messages piling up in memory. Once the caller cancels the call or its deadline
+ * passes, sending throws {@link CancellationException} and the producer stops. A caller that reads nothing for
+ * the idle timeout gets {@code DEADLINE_EXCEEDED}, so a stream without a deadline cannot hold the producer's
+ * resources forever.
+ */
+final class FlowControlledStream<T> {
+    private final ServerCallStreamObserver<T> observer;
+    private final long idleTimeoutNanos;
+    private final Lock lock = new ReentrantLock();
+    private final Condition readyOrCancelled = lock.newCondition();
+    private volatile boolean cancelled;
+
+    private FlowControlledStream(StreamObserver<T> responseObserver, Duration idleTimeout) {
+        this.observer = (ServerCallStreamObserver<T>) responseObserver;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        observer.setOnReadyHandler(this::signal);
+        observer.setOnCancelHandler(() -> {
+            cancelled = true;
+            signal();
+        });
+    }
+
+    /**
+     * Must be called from the call's handler method, before it returns. {@code producer} is handed the function
+     * sending one message; the stream completes when it returns and fails with the status of what it throws.
+     */
+    static <T> void start(String name, StreamObserver<T> responseObserver, Duration idleTimeout,
+                          Consumer<Consumer<T>> producer) {
+        FlowControlledStream<T> stream = new FlowControlledStream<>(responseObserver, idleTimeout);
+        Thread.ofVirtual().name(name).start(Context.current().wrap(() -> stream.run(producer)));
+    }
+
+    private void run(Consumer<Consumer<T>> producer) {
+        try {
+            producer.accept(this::send);
+            observer.onCompleted();
+        } catch (CancellationException e) {
+            // Nobody is listening any more.
+        } catch (RuntimeException e) {
+            observer.onError(GrpcStatuses.of(e));
+        }
+    }
+
+    private void send(T message) {
+        lock.lock();
+        try {
+            long remaining = idleTimeoutNanos;
+            while (!observer.isReady() && !cancelled) {
+                if (remaining <= 0) {
+                    throw Status.DEADLINE_EXCEEDED
+                            .withDescription("Caller read nothing for " + Duration.ofNanos(idleTimeoutNanos))
+                            .asRuntimeException();
+                }
+                remaining = readyOrCancelled.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for the caller");
+        } finally {
+            lock.unlock();
+        }
+        if (cancelled) {
+            throw new CancellationException("Call cancelled or past its deadline");
+        }
+        observer.onNext(message);
+    }
+
+    private void signal() {
+        lock.lock();
+        try {
+            readyOrCancelled.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.swiftcodes.grpc;
+
+import com.example.swiftcodes.config.GrpcProperties;
+import io.grpc.Server;
+import io.grpc.ServerInterceptors;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import io.micrometer.core.instrument.binder.grpc.ObservationGrpcServerInterceptor;
+import io.micrometer.observation.ObservationRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves {@link SwiftCodeLookupService} over HTTP/2 on its own port. Calls are observed like HTTP requests: they
+ * continue the caller's trace and time the call as {@code grpc.server}. On shutdown, calls in progress get
+ * {@code shutdownGracePeriod} to finish before they are cancelled.
+ */
+@Component
+public class GrpcServer implements SmartLifecycle {
+    private static final Logger logger = LoggerFactory.getLogger(GrpcServer.class);
+
+    private final GrpcProperties properties;
+    private final SwiftCodeLookupService lookupService;
+    private final ObservationRegistry observationRegistry;
+
+    private volatile Server server;
+
+    public GrpcServer(GrpcProperties properties, SwiftCodeLookupService lookupService,
+                      ObservationRegistry observationRegistry) {
+        this.properties = properties;
+        this.lookupService = lookupService;
+        this.observationRegistry = observationRegistry;
+    }
+
+    @Override
+    public void start() {
+        if (!properties.enabled()) {
+            return;
+        }
+        try {
+            server = NettyServerBuilder.forPort(properties.port())
+                    .addService(ServerInterceptors.intercept(lookupService,
+                            new ObservationGrpcServerInterceptor(observationRegistry)))
+                    .flowControlWindow((int) properties.flowControlWindow().toBytes())
+                    .build()
+                    .start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start the gRPC server on port " + properties.port(), e);
+        }
+        logger.info("gRPC server listening on port {}", server.getPort());
+    }
+
+    @Override
+    public void stop() {
+        Server running = server;
+        if (running == null) {
+            return;
+        }
+        running.shutdown();
+        try {
+            if (!running.awaitTermination(properties.shutdownGracePeriod().toMillis(), TimeUnit.MILLISECONDS)) {
+                running.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            running.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        server = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+
+    /**
+     * The port actually bound, e.g. with {@code swiftcodes.grpc.port=0}.
+     */
+    public int getPort() {
+        Server running = server;
+        if (running == null) {
+            throw new IllegalStateException("gRPC server is not running");
+        }
+        return running.getPort();
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.swiftcodes.grpc;
+
+import io.grpc.Context;
+import io.grpc.Contexts;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import jakarta.persistence.EntityNotFoundException;
+
+/**
+ * The gRPC counterpart of {@code GlobalExceptionHandler}: misses are {@code NOT_FOUND}, rejected input is
+ * {@code INVALID_ARGUMENT} and anything else {@code INTERNAL}.
+ */
+final class GrpcStatuses {
+
+    private GrpcStatuses() {
+    }
+
+    static StatusRuntimeException of(RuntimeException e) {
+        if (e instanceof StatusRuntimeException statusException) {
+            return statusException;
+        }
+        if (e instanceof EntityNotFoundException) {
+            return Status.NOT_FOUND.withDescription(e.getMessage()).asRuntimeException();
+        }
+        if (e instanceof IllegalArgumentException) {
+            return Status.INVALID_ARGUMENT.withDescription(e.getMessage()).asRuntimeException();
+        }
+        return Status.INTERNAL.withDescription("Internal server error: " + e.getMessage()).withCause(e)
+                .asRuntimeException();
+    }
+
+    /**
+     * Stops work for a call whose deadline has passed or that the caller has cancelled.
+     */
+    static void checkNotCancelled() {
+        Context context = Context.current();
+        if (context.isCancelled()) {
+            throw Contexts.statusFromCancelled(context).asRuntimeException();
+        }
+    }
+}
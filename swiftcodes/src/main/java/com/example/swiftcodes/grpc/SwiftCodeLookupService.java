@@ -0,0 +1,150 @@
+package com.example.swiftcodes.grpc;
+
+import com.example.swiftcodes.cache.DirectorySnapshot;
+import com.example.swiftcodes.cache.SwiftCodeDirectory;
+import com.example.swiftcodes.config.GrpcProperties;
+import com.example.swiftcodes.exception.SwiftCodeNotFoundException;
+import com.example.swiftcodes.grpc.v1.BatchGetSwiftCodesRequest;
+import com.example.swiftcodes.grpc.v1.BatchGetSwiftCodesResponse;
+import com.example.swiftcodes.grpc.v1.ExportSwiftCodesRequest;
+import com.example.swiftcodes.grpc.v1.GetSwiftCodeRequest;
+import com.example.swiftcodes.grpc.v1.GetSwiftCodeResponse;
+import com.example.swiftcodes.grpc.v1.StreamCountrySwiftCodesRequest;
+import com.example.swiftcodes.grpc.v1.SwiftCode;
+import com.example.swiftcodes.grpc.v1.SwiftCodeChunk;
+import com.example.swiftcodes.grpc.v1.SwiftCodeLookupGrpc;
+import com.example.swiftcodes.model.dto.CountrySwiftCodesDto;
+import com.example.swiftcodes.model.dto.SwiftCodeDto;
+import com.example.swiftcodes.service.SwiftCodeExportService;
+import com.example.swiftcodes.service.SwiftCodeService;
+import io.grpc.stub.StreamObserver;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * The {@code SwiftCodeLookup} gRPC service, answered by {@link SwiftCodeService} from the current directory
+ * snapshot like the REST API. Streams are flow controlled ({@link FlowControlledStream}); every call stops once
+ * its deadline passes.
+ */
+@Component
+public class SwiftCodeLookupService extends SwiftCodeLookupGrpc.SwiftCodeLookupImplBase {
+    private final SwiftCodeService swiftCodeService;
+    private final SwiftCodeExportService swiftCodeExportService;
+    private final SwiftCodeDirectory directory;
+    private final GrpcProperties properties;
+
+    public SwiftCodeLookupService(SwiftCodeService swiftCodeService, SwiftCodeExportService swiftCodeExportService,
+                                  SwiftCodeDirectory directory, GrpcProperties properties) {
+        this.swiftCodeService = swiftCodeService;
+        this.swiftCodeExportService = swiftCodeExportService;
+        this.directory = directory;
+        this.properties = properties;
+    }
+
+    @Override
+    public void getSwiftCode(GetSwiftCodeRequest request, StreamObserver<GetSwiftCodeResponse> responseObserver) {
+        try {
+            if (request.getSwiftCode().isEmpty()) {
+                throw new IllegalArgumentException("swift_code is required");
+            }
+            DirectorySnapshot snapshot = directory.current();
+            GetSwiftCodeResponse response = GetSwiftCodeResponse.newBuilder()
+                    .setDetails(SwiftCodeMessages.details(
+                            swiftCodeService.getSwiftCodeDetails(snapshot, request.getSwiftCode())))
+                    .setDirectoryVersion(version(snapshot))
+                    .build();
+            responseObserver.onNext(response);
+            responseObserver.onCompleted();
+        } catch (RuntimeException e) {
+            responseObserver.onError(GrpcStatuses.of(e));
+        }
+    }
+
+    /**
+     * Answers every code from one snapshot, so the results are consistent with each other. Before the directory
+     * is loaded each code is a database lookup, so the deadline is checked between codes.
+     */
+    @Override
+    public void batchGetSwiftCodes(BatchGetSwiftCodesRequest request,
+                                   StreamObserver<BatchGetSwiftCodesResponse> responseObserver) {
+        try {
+            List<String> swiftCodes = request.getSwiftCodesList();
+            if (swiftCodes.size() > properties.maxBatchSize()) {
+                throw new IllegalArgumentException("At most " + properties.maxBatchSize()
+                        + " swift codes per batch, got " + swiftCodes.size());
+            }
+            DirectorySnapshot snapshot = directory.current();
+            BatchGetSwiftCodesResponse.Builder response = BatchGetSwiftCodesResponse.newBuilder()
+                    .setDirectoryVersion(version(snapshot));
+            for (String swiftCode : swiftCodes) {
+                GrpcStatuses.checkNotCancelled();
+                try {
+                    response.addFound(SwiftCodeMessages.details(
+                            swiftCodeService.getSwiftCodeDetails(snapshot, swiftCode)));
+                } catch (SwiftCodeNotFoundException e) {
+                    response.addNotFound(swiftCode);
+                }
+            }
+            responseObserver.onNext(response.build());
+            responseObserver.onCompleted();
+        } catch (RuntimeException e) {
+            responseObserver.onError(GrpcStatuses.of(e));
+        }
+    }
+
+    /**
+     * The listing is read before the stream starts, so an unknown country fails the call instead of ending an
+     * empty stream.
+     */
+    @Override
+    public void streamCountrySwiftCodes(StreamCountrySwiftCodesRequest request,
+                                        StreamObserver<SwiftCodeChunk> responseObserver) {
+        CountrySwiftCodesDto country;
+        try {
+            country = swiftCodeService.getSwiftCodesByCountry(directory.current(), request.getCountryIso2());
+        } catch (RuntimeException e) {
+            responseObserver.onError(GrpcStatuses.of(e));
+            return;
+        }
+        FlowControlledStream.start("grpc-country-stream", responseObserver, properties.streamIdleTimeout(),
+                send -> inChunks(send, add -> {
+                    for (SwiftCodeDto swiftCode : country.getSwiftCodes()) {
+                        add.accept(SwiftCodeMessages.swiftCode(swiftCode, country.getCountryName()));
+                    }
+                }));
+    }
+
+    /**
+     * Reads the database cursor on the stream's thread, only as fast as the caller takes the codes. A caller that
+     * stops reading gives the connection back after {@code streamIdleTimeout}.
+     */
+    @Override
+    public void exportSwiftCodes(ExportSwiftCodesRequest request, StreamObserver<SwiftCodeChunk> responseObserver) {
+        FlowControlledStream.start("grpc-export-stream", responseObserver, properties.streamIdleTimeout(),
+                send -> inChunks(send, add -> swiftCodeExportService.export(
+                        record -> add.accept(SwiftCodeMessages.swiftCode(record)))));
+    }
+
+    /**
+     * Sends the codes {@code producer} adds in chunks of {@code streamChunkSize}.
+     */
+    private void inChunks(Consumer<SwiftCodeChunk> send, Consumer<Consumer<SwiftCode>> producer) {
+        SwiftCodeChunk.Builder chunk = SwiftCodeChunk.newBuilder();
+        producer.accept(swiftCode -> {
+            chunk.addSwiftCodes(swiftCode);
+            if (chunk.getSwiftCodesCount() == properties.streamChunkSize()) {
+                send.accept(chunk.build());
+                chunk.clear();
+            }
+        });
+        if (chunk.getSwiftCodesCount() > 0) {
+            send.accept(chunk.build());
+        }
+    }
+
+    private static long version(DirectorySnapshot snapshot) {
+        return snapshot.isLoaded() ? snapshot.version() : 0;
+    }
+}
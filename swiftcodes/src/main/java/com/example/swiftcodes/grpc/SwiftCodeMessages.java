@@ -0,0 +1,101 @@
+package com.example.swiftcodes.grpc;
+
+import com.example.swiftcodes.grpc.v1.SwiftCode;
+import com.example.swiftcodes.grpc.v1.SwiftCodeDetails;
+import com.example.swiftcodes.model.SwiftCodeRecord;
+import com.example.swiftcodes.model.dto.SwiftCodeDto;
+import com.example.swiftcodes.model.dto.SwiftCodeWithBranchesDto;
+
+/**
+ * Protobuf messages for what the service returns. Protobuf strings cannot be {@code null}, so fields the directory
+ * does not know are left empty.
+ */
+final class SwiftCodeMessages {
+
+    private SwiftCodeMessages() {
+    }
+
+    /**
+     * Listed codes carry no country name of their own; {@code countryName} is the one of the listing.
+     */
+    static SwiftCode swiftCode(SwiftCodeDto dto, String countryName) {
+        SwiftCode.Builder message = SwiftCode.newBuilder()
+                .setSwiftCode(dto.getSwiftCode())
+                .setHeadquarter(Boolean.TRUE.equals(dto.getIsHeadquarter()));
+        if (dto.getBankName() != null) {
+            message.setBankName(dto.getBankName());
+        }
+        if (dto.getAddress() != null) {
+            message.setAddress(dto.getAddress());
+        }
+        if (dto.getCountryISO2() != null) {
+            message.setCountryIso2(dto.getCountryISO2());
+        }
+        String name = dto.getCountryName() != null ? dto.getCountryName() : countryName;
+        if (name != null) {
+            message.setCountryName(name);
+        }
+        if (dto.getCodeType() != null) {
+            message.setCodeType(dto.getCodeType());
+        }
+        if (dto.getTownName() != null) {
+            message.setTownName(dto.getTownName());
+        }
+        if (dto.getTimeZone() != null) {
+            message.setTimeZone(dto.getTimeZone());
+        }
+        return message.build();
+    }
+
+    static SwiftCode swiftCode(SwiftCodeRecord record) {
+        SwiftCode.Builder message = SwiftCode.newBuilder()
+                .setSwiftCode(record.swiftCode())
+                .setCountryIso2(record.countryIso2())
+                .setHeadquarter(record.headquarter());
+        if (record.bankName() != null) {
+            message.setBankName(record.bankName());
+        }
+        if (record.address() != null) {
+            message.setAddress(record.address());
+        }
+        if (record.countryName() != null) {
+            message.setCountryName(record.countryName());
+        }
+        if (record.codeType() != null) {
+            message.setCodeType(record.codeType());
+        }
+        if (record.townName() != null) {
+            message.setTownName(record.townName());
+        }
+        if (record.timeZone() != null) {
+            message.setTimeZone(record.timeZone());
+        }
+        return message.build();
+    }
+
+    static SwiftCodeDetails details(SwiftCodeWithBranchesDto dto) {
+        SwiftCode.Builder swiftCode = SwiftCode.newBuilder()
+                .setSwiftCode(dto.getSwiftCode())
+                .setHeadquarter(Boolean.TRUE.equals(dto.getIsHeadquarter()));
+        if (dto.getBankName() != null) {
+            swiftCode.setBankName(dto.getBankName());
+        }
+        if (dto.getAddress() != null) {
+            swiftCode.setAddress(dto.getAddress());
+        }
+        if (dto.getCountryISO2() != null) {
+            swiftCode.setCountryIso2(dto.getCountryISO2());
+        }
+        if (dto.getCountryName() != null) {
+            swiftCode.setCountryName(dto.getCountryName());
+        }
+
+        SwiftCodeDetails.Builder details = SwiftCodeDetails.newBuilder().setSwiftCode(swiftCode);
+        if (dto.getBranches() != null) {
+            for (SwiftCodeDto branch : dto.getBranches()) {
+                details.addBranches(swiftCode(branch, dto.getCountryName()));
+            }
+        }
+        return details.build();
+    }
+}
@@ -0,0 +1,211 @@
+package com.example.swiftcodes.importer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Comma-separated files as described by RFC 4180: fields may be quoted, quoted fields may contain commas, line
+ * breaks and doubled quotes, and records end with CRLF (a bare LF is accepted too). The first record is a header
+ * naming the columns, in any order; names are matched ignoring case, spaces and underscores, so the vendor's
+ * {@code COUNTRY ISO2 CODE}, {@code SWIFT CODE}, {@code CODE TYPE}, {@code NAME}, {@code ADDRESS},
+ * {@code TOWN NAME}, {@code COUNTRY NAME}, {@code TIME ZONE} are understood. Records missing a column are skipped.
+ */
+public class CsvDirectoryReader implements DirectoryReader {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    private static final int COUNTRY_ISO2 = 0;
+    private static final int SWIFT_CODE = 1;
+    private static final int CODE_TYPE = 2;
+    private static final int BANK_NAME = 3;
+    private static final int ADDRESS = 4;
+    private static final int TOWN_NAME = 5;
+    private static final int COUNTRY_NAME = 6;
+    private static final int TIME_ZONE = 7;
+    private static final int[] REQUIRED = {COUNTRY_ISO2, SWIFT_CODE, BANK_NAME, COUNTRY_NAME};
+    private static final Map<String, Integer> COLUMNS = Map.ofEntries(
+            Map.entry("COUNTRYISO2CODE", COUNTRY_ISO2),
+            Map.entry("COUNTRYISO2", COUNTRY_ISO2),
+            Map.entry("SWIFTCODE", SWIFT_CODE),
+            Map.entry("BIC", SWIFT_CODE),
+            Map.entry("CODETYPE", CODE_TYPE),
+            Map.entry("NAME", BANK_NAME),
+            Map.entry("BANKNAME", BANK_NAME),
+            Map.entry("ADDRESS", ADDRESS),
+            Map.entry("TOWNNAME", TOWN_NAME),
+            Map.entry("COUNTRYNAME", COUNTRY_NAME),
+            Map.entry("TIMEZONE", TIME_ZONE));
+
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private final StringBuilder field = new StringBuilder();
+    private final List<String> fields = new ArrayList<>();
+    private int position;
+    private int limit;
+    private int lineNumber;
+    private int recordLine;
+    private int[] columnIndexes;
+    private int minimumFields;
+
+    public CsvDirectoryReader(InputStream inputStream) {
+        this.reader = new InputStreamReader(inputStream, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public DirectoryEntry next() throws IOException {
+        if (columnIndexes == null) {
+            readHeader();
+        }
+        while (true) {
+            if (!readRecord()) {
+                return null;
+            }
+            if (fields.size() >= minimumFields) {
+                return new DirectoryEntry(recordLine, column(COUNTRY_ISO2), column(SWIFT_CODE), column(CODE_TYPE),
+                        column(BANK_NAME), column(ADDRESS), column(TOWN_NAME), column(COUNTRY_NAME),
+                        column(TIME_ZONE));
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private void readHeader() throws IOException {
+        if (!readRecord()) {
+            throw new IOException("The CSV file is empty; expected a header record");
+        }
+        columnIndexes = new int[TIME_ZONE + 1];
+        Arrays.fill(columnIndexes, -1);
+        for (int index = 0; index < fields.size(); index++) {
+            Integer column = COLUMNS.get(headerKey(fields.get(index)));
+            if (column != null && columnIndexes[column] < 0) {
+                columnIndexes[column] = index;
+                minimumFields = Math.max(minimumFields, index + 1);
+            }
+        }
+        for (int column : REQUIRED) {
+            if (columnIndexes[column] < 0) {
+                throw new IOException("The CSV header " + fields + " lacks a required column; expected "
+                        + "COUNTRY ISO2 CODE, SWIFT CODE, NAME and COUNTRY NAME");
+            }
+        }
+    }
+
+    private String column(int column) {
+        int index = columnIndexes[column];
+        return index < 0 ? null : fields.get(index);
+    }
+
+    private static String headerKey(String name) {
+        StringBuilder key = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                key.append(c);
+            }
+        }
+        return key.toString().toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Reads the next record into {@link #fields}, skipping blank lines.
+     *
+     * @return {@code false} at the end of the file
+     */
+    private boolean readRecord() throws IOException {
+        int c;
+        do {
+            fields.clear();
+            recordLine = lineNumber + 1;
+            c = read();
+            if (c == -1) {
+                return false;
+            }
+            c = readFields(c);
+        } while (fields.size() == 1 && fields.getFirst().isEmpty() && c != -1);
+        return !(fields.size() == 1 && fields.getFirst().isEmpty());
+    }
+
+    /**
+     * Reads fields starting with {@code c} up to and including the end of the record.
+     *
+     * @return the character that ended the record, {@code -1} at the end of the file
+     */
+    private int readFields(int c) throws IOException {
+        while (true) {
+            field.setLength(0);
+            if (c == '"') {
+                int quoteLine = lineNumber + 1;
+                while (true) {
+                    c = read();
+                    if (c == -1) {
+                        throw new IOException("Unterminated quoted field starting on line " + quoteLine);
+                    }
+                    if (c == '"') {
+                        c = read();
+                        if (c != '"') {
+                            break;
+                        }
+                    } else if (c == '\n') {
+                        lineNumber++;
+                    }
+                    field.append((char) c);
+                }
+            }
+            // Unquoted text, or (leniently) anything between a closing quote and the next delimiter.
+            while (c != ',' && c != '\r' && c != '\n' && c != -1) {
+                field.append((char) c);
+                c = read();
+            }
+            fields.add(field.toString());
+
+            if (c == ',') {
+                c = read();
+                continue;
+            }
+            if (c == '\r' && peek() == '\n') {
+                c = read();
+            }
+            if (c == '\n') {
+                lineNumber++;
+            }
+            return c;
+        }
+    }
+
+    private int read() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position++];
+    }
+
+    private int peek() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position];
+    }
+
+    private boolean fill() throws IOException {
+        int read = reader.read(buffer, 0, buffer.length);
+        if (read <= 0) {
+            return false;
+        }
+        boolean atStart = limit == 0 && lineNumber == 0;
+        position = atStart && buffer[0] == BYTE_ORDER_MARK ? 1 : 0;
+        limit = read;
+        return position < limit || fill();
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.swiftcodes.importer;
+
+import java.util.Locale;
+
+/**
+ * One entry of a directory file as read, before validation. Country code and name are upper-cased; the optional
+ * attributes (code type, town, time zone) are stripped and {@code null} when blank.
+ *
+ * @param lineNumber the line the entry starts on, for error messages and to keep the file order
+ */
+public record DirectoryEntry(
+        int lineNumber,
+        String countryIso2,
+        String swiftCode,
+        String codeType,
+        String bankName,
+        String address,
+        String townName,
+        String countryName,
+        String timeZone) {
+
+    public DirectoryEntry {
+        countryIso2 = countryIso2 == null ? "" : countryIso2.toUpperCase(Locale.ROOT);
+        swiftCode = swiftCode == null ? "" : swiftCode;
+        codeType = optional(codeType);
+        bankName = bankName == null ? "" : bankName;
+        townName = optional(townName);
+        countryName = countryName == null ? "" : countryName.toUpperCase(Locale.ROOT);
+        timeZone = optional(timeZone);
+    }
+
+    private static String optional(String value) {
+        return value == null || value.isBlank() ? null : value.strip();
+    }
+}
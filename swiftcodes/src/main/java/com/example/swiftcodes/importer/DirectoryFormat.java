@@ -0,0 +1,54 @@
+package com.example.swiftcodes.importer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+
+/**
+ * The directory file formats the importers read. All of them stream, so the file size does not matter.
+ */
+public enum DirectoryFormat {
+    TSV("tsv"),
+    CSV("csv"),
+    XML("xml");
+
+    private final String fileExtension;
+
+    DirectoryFormat(String fileExtension) {
+        this.fileExtension = fileExtension;
+    }
+
+    public String getFileExtension() {
+        return fileExtension;
+    }
+
+    public DirectoryReader open(InputStream inputStream) throws IOException {
+        return switch (this) {
+            case TSV -> new TsvDirectoryReader(inputStream);
+            case CSV -> new CsvDirectoryReader(inputStream);
+            case XML -> new XmlDirectoryReader(inputStream);
+        };
+    }
+
+    public static DirectoryFormat fromParameter(String format) {
+        try {
+            return valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported directory format: " + format);
+        }
+    }
+
+    /**
+     * The format named by the file extension of {@code location}; anything unknown is read as TSV, the original
+     * layout.
+     */
+    public static DirectoryFormat fromLocation(String location) {
+        String path = location.toLowerCase(Locale.ROOT);
+        for (DirectoryFormat format : values()) {
+            if (path.endsWith("." + format.fileExtension)) {
+                return format;
+            }
+        }
+        return TSV;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.swiftcodes.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Pulls the entries of a directory file one at a time, so an import holds one entry in memory whatever the file
+ * size. Entries too incomplete to be a directory entry are skipped by the reader; validating the swift code is left
+ * to the importer.
+ */
+public interface DirectoryReader extends Closeable {
+
+    /**
+     * @return the next entry, or {@code null} at the end of the file
+     * @throws IOException if the file cannot be read or is malformed beyond the current entry
+     */
+    DirectoryEntry next() throws IOException;
+}
@@ -0,0 +1,41 @@
+package com.example.swiftcodes.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The tab-separated layout, one entry per line without a header: country ISO2 code, swift code, code type, bank
+ * name, address, town, country name, time zone. Lines with fewer columns are skipped.
+ */
+public class TsvDirectoryReader implements DirectoryReader {
+    static final int COLUMNS = 8;
+
+    private final BufferedReader reader;
+    private int lineNumber;
+
+    public TsvDirectoryReader(InputStream inputStream) {
+        this.reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public DirectoryEntry next() throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            String[] fields = line.split("\t", -1);
+            if (fields.length >= COLUMNS) {
+                return new DirectoryEntry(lineNumber, fields[0], fields[1], fields[2], fields[3], fields[4],
+                        fields[5], fields[6], fields[7]);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.swiftcodes.importer;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * XML files streamed with StAX: every child element of the root is one entry, and the entry's attributes are read
+ * from the text of the elements below it, at any depth and in any order. Elements are matched by local name,
+ * whatever their namespace, either the plain names ({@code swiftCode}, {@code bankName}, {@code address},
+ * {@code townName}, {@code countryIso2}, {@code countryName}, {@code codeType}, {@code timeZone}) or the ISO 20022
+ * financial institution components ({@code BICFI}, {@code Nm}, {@code AdrLine}, {@code TwnNm}, {@code Ctry}).
+ * Repeated address lines are joined; for any other repeated element the first wins. Entries without a swift code
+ * are skipped.
+ * <p>
+ * DTDs and external entities are refused.
+ */
+public class XmlDirectoryReader implements DirectoryReader {
+    private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+
+    private static final int COUNTRY_ISO2 = 0;
+    private static final int SWIFT_CODE = 1;
+    private static final int CODE_TYPE = 2;
+    private static final int BANK_NAME = 3;
+    private static final int ADDRESS = 4;
+    private static final int TOWN_NAME = 5;
+    private static final int COUNTRY_NAME = 6;
+    private static final int TIME_ZONE = 7;
+    private static final String ADDRESS_LINE_SEPARATOR = ", ";
+    private static final Map<String, Integer> ELEMENTS = Map.ofEntries(
+            Map.entry("countryIso2", COUNTRY_ISO2),
+            Map.entry("Ctry", COUNTRY_ISO2),
+            Map.entry("swiftCode", SWIFT_CODE),
+            Map.entry("BICFI", SWIFT_CODE),
+            Map.entry("BIC", SWIFT_CODE),
+            Map.entry("codeType", CODE_TYPE),
+            Map.entry("bankName", BANK_NAME),
+            Map.entry("Nm", BANK_NAME),
+            Map.entry("address", ADDRESS),
+            Map.entry("AdrLine", ADDRESS),
+            Map.entry("townName", TOWN_NAME),
+            Map.entry("TwnNm", TOWN_NAME),
+            Map.entry("countryName", COUNTRY_NAME),
+            Map.entry("timeZone", TIME_ZONE));
+
+    private final InputStream inputStream;
+    private final XMLStreamReader reader;
+    private final String[] values = new String[TIME_ZONE + 1];
+    private final StringBuilder text = new StringBuilder();
+    private int depth;
+
+    public XmlDirectoryReader(InputStream inputStream) throws IOException {
+        this.inputStream = inputStream;
+        try {
+            this.reader = INPUT_FACTORY.createXMLStreamReader(inputStream);
+        } catch (XMLStreamException e) {
+            throw new IOException("Could not read the XML directory: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public DirectoryEntry next() throws IOException {
+        try {
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+                    depth++;
+                    if (depth == 2) {
+                        DirectoryEntry entry = readEntry(reader.getLocation().getLineNumber());
+                        if (entry != null) {
+                            return entry;
+                        }
+                    }
+                } else if (reader.getEventType() == XMLStreamConstants.END_ELEMENT) {
+                    depth--;
+                }
+            }
+            return null;
+        } catch (XMLStreamException e) {
+            throw new IOException("Malformed XML directory: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            reader.close();
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        } finally {
+            inputStream.close();
+        }
+    }
+
+    /**
+     * Reads the entry whose start element the reader is on, up to and including its end element.
+     */
+    private DirectoryEntry readEntry(int lineNumber) throws XMLStreamException {
+        Arrays.fill(values, null);
+        int entryDepth = depth;
+        while (depth >= entryDepth) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+                Integer slot = ELEMENTS.get(reader.getLocalName());
+                if (slot != null) {
+                    readValue(slot);
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+        if (values[SWIFT_CODE] == null) {
+            return null;
+        }
+        return new DirectoryEntry(lineNumber, values[COUNTRY_ISO2], values[SWIFT_CODE], values[CODE_TYPE],
+                values[BANK_NAME], values[ADDRESS], values[TOWN_NAME], values[COUNTRY_NAME], values[TIME_ZONE]);
+    }
+
+    /**
+     * Reads the text of the element the reader is on, including text of nested elements, and leaves the reader on
+     * its end element.
+     */
+    private void readValue(int slot) throws XMLStreamException {
+        text.setLength(0);
+        int valueDepth = depth;
+        while (depth >= valueDepth) {
+            int event = reader.next();
+            switch (event) {
+                case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA, XMLStreamConstants.SPACE ->
+                        text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                case XMLStreamConstants.START_ELEMENT -> depth++;
+                case XMLStreamConstants.END_ELEMENT -> depth--;
+                default -> {
+                }
+            }
+        }
+        String value = text.toString().strip();
+        if (values[slot] == null) {
+            values[slot] = value;
+        } else if (slot == ADDRESS && !value.isEmpty()) {
+            values[slot] = values[slot] + ADDRESS_LINE_SEPARATOR + value;
+        }
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+        return factory;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.swiftcodes.json;
+
+import com.example.swiftcodes.model.SwiftCodeRecord;
+import com.example.swiftcodes.model.dto.SwiftCodeDto;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * The {@link SwiftCodeDto}s of a response, backed by the directory records they show. Jackson writes the records
+ * straight to the generator ({@link SwiftCodeRecordListSerializer}), so a country listing allocates no DTO per
+ * code; the DTOs are only built when Java code reads the elements. Immutable.
+ */
+@JsonSerialize(using = SwiftCodeRecordListSerializer.class)
+public final class SwiftCodeRecordList extends AbstractList<SwiftCodeDto> implements RandomAccess {
+    private final List<SwiftCodeRecord> records;
+    private final boolean withAttributes;
+
+    private SwiftCodeRecordList(List<SwiftCodeRecord> records, boolean withAttributes) {
+        this.records = records;
+        this.withAttributes = withAttributes;
+    }
+
+    /**
+     * Codes as listed under a country, bank or headquarter: without the country name and the directory file
+     * attributes.
+     */
+    public static SwiftCodeRecordList of(List<SwiftCodeRecord> records) {
+        return new SwiftCodeRecordList(records, false);
+    }
+
+    /**
+     * Codes as found by a search, which may span countries and selects by the directory file attributes: with
+     * both.
+     */
+    public static SwiftCodeRecordList withAttributes(List<SwiftCodeRecord> records) {
+        return new SwiftCodeRecordList(records, true);
+    }
+
+    List<SwiftCodeRecord> records() {
+        return records;
+    }
+
+    boolean isWithAttributes() {
+        return withAttributes;
+    }
+
+    @Override
+    public SwiftCodeDto get(int index) {
+        SwiftCodeRecord record = records.get(index);
+        SwiftCodeDto.SwiftCodeDtoBuilder dto = SwiftCodeDto.builder()
+                .swiftCode(record.swiftCode())
+                .bankName(record.bankName())
+                .address(record.address())
+                .countryISO2(record.countryIso2())
+                .isHeadquarter(record.headquarter());
+        if (withAttributes) {
+            dto.countryName(record.countryName())
+                    .codeType(record.codeType())
+                    .townName(record.townName())
+                    .timeZone(record.timeZone());
+        }
+        return dto.build();
+    }
+
+    @Override
+    public int size() {
+        return records.size();
+    }
+}
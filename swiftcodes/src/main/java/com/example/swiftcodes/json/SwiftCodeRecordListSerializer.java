@@ -0,0 +1,81 @@
+package com.example.swiftcodes.json;
+
+import com.example.swiftcodes.model.SwiftCodeRecord;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writes a {@link SwiftCodeRecordList} as the array of {@code SwiftCodeDto}s it stands for, token for token what
+ * Jackson's bean serializer writes for the DTOs: the properties in declaration order, {@code null} written for
+ * the plain ones and left out for the {@code NON_NULL} ones ({@code countryName} and the directory file
+ * attributes). The property names are encoded once. {@code SwiftCodeRecordListSerializerTest} compares the output
+ * with the DTOs' in every response format.
+ */
+public class SwiftCodeRecordListSerializer extends StdSerializer<SwiftCodeRecordList> {
+    private static final SerializedString ADDRESS = new SerializedString("address");
+    private static final SerializedString BANK_NAME = new SerializedString("bankName");
+    private static final SerializedString COUNTRY_ISO2 = new SerializedString("countryISO2");
+    private static final SerializedString COUNTRY_NAME = new SerializedString("countryName");
+    private static final SerializedString IS_HEADQUARTER = new SerializedString("isHeadquarter");
+    private static final SerializedString SWIFT_CODE = new SerializedString("swiftCode");
+    private static final SerializedString CODE_TYPE = new SerializedString("codeType");
+    private static final SerializedString TOWN_NAME = new SerializedString("townName");
+    private static final SerializedString TIME_ZONE = new SerializedString("timeZone");
+
+    public SwiftCodeRecordListSerializer() {
+        super(SwiftCodeRecordList.class);
+    }
+
+    /**
+     * For {@code @JsonInclude(NON_EMPTY)} lists, such as a bank country's branches without a headquarter.
+     */
+    @Override
+    public boolean isEmpty(SerializerProvider provider, SwiftCodeRecordList value) {
+        return value.isEmpty();
+    }
+
+    @Override
+    public void serialize(SwiftCodeRecordList value, JsonGenerator generator, SerializerProvider provider)
+            throws IOException {
+        List<SwiftCodeRecord> records = value.records();
+        boolean withAttributes = value.isWithAttributes();
+        generator.writeStartArray(value, records.size());
+        for (int i = 0, size = records.size(); i < size; i++) {
+            SwiftCodeRecord record = records.get(i);
+            generator.writeStartObject(record);
+            writeString(generator, ADDRESS, record.address());
+            writeString(generator, BANK_NAME, record.bankName());
+            writeString(generator, COUNTRY_ISO2, record.countryIso2());
+            if (withAttributes) {
+                writeIfPresent(generator, COUNTRY_NAME, record.countryName());
+            }
+            generator.writeFieldName(IS_HEADQUARTER);
+            generator.writeBoolean(record.headquarter());
+            writeString(generator, SWIFT_CODE, record.swiftCode());
+            if (withAttributes) {
+                writeIfPresent(generator, CODE_TYPE, record.codeType());
+                writeIfPresent(generator, TOWN_NAME, record.townName());
+                writeIfPresent(generator, TIME_ZONE, record.timeZone());
+            }
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+    }
+
+    private static void writeString(JsonGenerator generator, SerializedString name, String value) throws IOException {
+        generator.writeFieldName(name);
+        generator.writeString(value);
+    }
+
+    private static void writeIfPresent(JsonGenerator generator, SerializedString name, String value)
+            throws IOException {
+        if (value != null) {
+            writeString(generator, name, value);
+        }
+    }
+}
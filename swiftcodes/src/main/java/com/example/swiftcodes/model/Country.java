@@ -7,12 +7,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(
-        name = "countries",
-        indexes = {
-                @Index(name = "idx_iso2_code", columnList = "iso2_code")
-        }
-)
+@Table(name = "countries")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -9,8 +9,6 @@ import java.util.List;
 @Table(
         name = "swift_codes",
         indexes = {
-                @Index(name = "idx_swift_code", columnList = "swift_code"),
-                @Index(name = "idx_country_id", columnList = "country_id"),
                 @Index(name = "idx_headquarter_id", columnList = "headquarter_id")
         }
 )
@@ -22,7 +20,8 @@ import java.util.List;
 public class SwiftCode {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "swift_codes_seq")
+    @SequenceGenerator(name = "swift_codes_seq", sequenceName = "swift_codes_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "swift_code", length = 11, unique = true, nullable = false)
@@ -34,6 +33,15 @@ public class SwiftCode {
     @Column(name = "address", columnDefinition = "TEXT")
     private String address;
 
+    @Column(name = "code_type", length = 16)
+    private String codeType;
+
+    @Column(name = "town_name")
+    private String townName;
+
+    @Column(name = "time_zone", length = 64)
+    private String timeZone;
+
     @Column(name = "is_headquarter", nullable = false)
     private Boolean isHeadquarter;
 
@@ -0,0 +1,36 @@
+package com.example.swiftcodes.model;
+
+import java.util.Locale;
+
+/**
+ * Predicates of a directory search, all optional and combined with AND. Text attributes match exactly but
+ * ignoring case, so they are kept upper-case.
+ */
+public record SwiftCodeFilter(
+        String countryIso2,
+        String townName,
+        String timeZone,
+        String codeType,
+        Boolean headquarter) {
+
+    public SwiftCodeFilter {
+        countryIso2 = normalize(countryIso2);
+        townName = normalize(townName);
+        timeZone = normalize(timeZone);
+        codeType = normalize(codeType);
+    }
+
+    public boolean isEmpty() {
+        return countryIso2 == null && townName == null && timeZone == null && codeType == null && headquarter == null;
+    }
+
+    /**
+     * The form attribute values are compared in: trimmed, upper-case, {@code null} when blank.
+     */
+    public static String normalize(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return value.strip().toUpperCase(Locale.ROOT);
+    }
+}
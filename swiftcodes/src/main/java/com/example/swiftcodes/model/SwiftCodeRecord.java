@@ -0,0 +1,22 @@
+package com.example.swiftcodes.model;
+
+/**
+ * Flat, read-only view of a swift code together with its country, used where managed entities are not needed.
+ * The directory file attributes (code type, town, time zone) are {@code null} where a query does not read them.
+ */
+public record SwiftCodeRecord(
+        String swiftCode,
+        String bankName,
+        String address,
+        String countryIso2,
+        String countryName,
+        boolean headquarter,
+        String codeType,
+        String townName,
+        String timeZone) {
+
+    public SwiftCodeRecord(String swiftCode, String bankName, String address, String countryIso2, String countryName,
+                           boolean headquarter) {
+        this(swiftCode, bankName, address, countryIso2, countryName, headquarter, null, null, null);
+    }
+}
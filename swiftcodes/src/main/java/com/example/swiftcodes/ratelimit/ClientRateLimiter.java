@@ -0,0 +1,61 @@
+package com.example.swiftcodes.ratelimit;
+
+import com.example.swiftcodes.config.RateLimitProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-client token buckets. Lookups go through {@link ConcurrentHashMap}, so there is no global lock on the
+ * request path; idle buckets are swept periodically. Once {@code max-clients} buckets are tracked, clients without
+ * one share a single overflow bucket until the next sweep frees room, so rotating client ids neither grows the
+ * map nor buys extra requests.
+ */
+@Component
+public class ClientRateLimiter {
+
+    private final RateLimitProperties properties;
+    private final LongSupplier nanoClock;
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final TokenBucket overflow;
+
+    @Autowired
+    public ClientRateLimiter(RateLimitProperties properties) {
+        this(properties, System::nanoTime);
+    }
+
+    ClientRateLimiter(RateLimitProperties properties, LongSupplier nanoClock) {
+        this.properties = properties;
+        this.nanoClock = nanoClock;
+        this.overflow = new TokenBucket(properties.requestsPerSecond(), properties.burst(), nanoClock.getAsLong());
+    }
+
+    /**
+     * @return 0 if the client may proceed, otherwise the nanoseconds it should wait
+     */
+    public long tryAcquire(String clientId) {
+        long now = nanoClock.getAsLong();
+        TokenBucket bucket = buckets.get(clientId);
+        if (bucket == null) {
+            if (buckets.size() >= properties.maxClients()) {
+                return overflow.tryAcquire(now);
+            }
+            bucket = buckets.computeIfAbsent(clientId,
+                    key -> new TokenBucket(properties.requestsPerSecond(), properties.burst(), now));
+        }
+        return bucket.tryAcquire(now);
+    }
+
+    public int trackedClients() {
+        return buckets.size();
+    }
+
+    @Scheduled(fixedDelayString = "${swiftcodes.rate-limit.eviction-interval:60s}")
+    public void evictIdleBuckets() {
+        long now = nanoClock.getAsLong();
+        buckets.values().removeIf(bucket -> bucket.isIdle(now));
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.swiftcodes.ratelimit;
+
+import com.example.swiftcodes.config.LoadSheddingProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Rejects work early when the node is saturated: too many requests in flight, or too many threads already
+ * queued for a database connection.
+ */
+@Component
+public class LoadShedder {
+
+    public enum Decision {
+        ACCEPT, SHED_IN_FLIGHT, SHED_DB_POOL
+    }
+
+    private final LoadSheddingProperties properties;
+    private final ObjectProvider<DataSource> dataSourceProvider;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile HikariPoolMXBean pool;
+
+    public LoadShedder(LoadSheddingProperties properties, ObjectProvider<DataSource> dataSourceProvider) {
+        this.properties = properties;
+        this.dataSourceProvider = dataSourceProvider;
+    }
+
+    /**
+     * Admits a request. An {@link Decision#ACCEPT}ed request must be paired with {@link #release()}.
+     */
+    public Decision tryAdmit() {
+        if (!properties.enabled()) {
+            inFlight.incrementAndGet();
+            return Decision.ACCEPT;
+        }
+        if (pendingConnections() > properties.maxPendingConnections()) {
+            return Decision.SHED_DB_POOL;
+        }
+        if (inFlight.incrementAndGet() > properties.maxInFlight()) {
+            inFlight.decrementAndGet();
+            return Decision.SHED_IN_FLIGHT;
+        }
+        return Decision.ACCEPT;
+    }
+
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private int pendingConnections() {
+        HikariPoolMXBean poolBean = pool;
+        if (poolBean == null) {
+            poolBean = resolvePool();
+            if (poolBean == null) {
+                return 0;
+            }
+            pool = poolBean;
+        }
+        return poolBean.getThreadsAwaitingConnection();
+    }
+
+    private HikariPoolMXBean resolvePool() {
+        DataSource dataSource = dataSourceProvider.getIfAvailable();
+        try {
+            if (dataSource != null && dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+            }
+        } catch (SQLException e) {
+            return null;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.swiftcodes.ratelimit;
+
+import com.example.swiftcodes.config.RateLimitProperties;
+import com.example.swiftcodes.model.dto.MessageResponseDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Guards the lookup endpoints: sheds load with 503 when the node is saturated and throttles individual
+ * clients with 429 once they exceed their token bucket. The export and the change feed, which replicas use to
+ * bootstrap and follow the directory, are left alone.
+ */
+@Component
+public class RateLimitingFilter extends OncePerRequestFilter {
+    private static final String GUARDED_PATH = "/v1/swift-codes";
+    private static final String EXPORT_PATH = "/v1/swift-codes/export";
+    private static final String CHANGES_PATH = "/v1/swift-codes/changes";
+
+    private final ClientRateLimiter rateLimiter;
+    private final LoadShedder loadShedder;
+    private final RateLimitProperties properties;
+    private final ObjectMapper objectMapper;
+    private final Counter throttled;
+    private final Counter shedInFlight;
+    private final Counter shedDbPool;
+
+    public RateLimitingFilter(ClientRateLimiter rateLimiter, LoadShedder loadShedder, RateLimitProperties properties,
+                              ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.loadShedder = loadShedder;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.throttled = Counter.builder("swiftcodes.requests.throttled")
+                .description("Requests rejected with 429 by the per-client rate limiter")
+                .register(meterRegistry);
+        this.shedInFlight = Counter.builder("swiftcodes.requests.shed")
+                .tag("reason", "in_flight")
+                .description("Requests rejected with 503 by load shedding")
+                .register(meterRegistry);
+        this.shedDbPool = Counter.builder("swiftcodes.requests.shed")
+                .tag("reason", "db_pool")
+                .description("Requests rejected with 503 by load shedding")
+                .register(meterRegistry);
+        Gauge.builder("swiftcodes.requests.in.flight", loadShedder, LoadShedder::getInFlight)
+                .register(meterRegistry);
+        Gauge.builder("swiftcodes.rate.limit.clients", rateLimiter, ClientRateLimiter::trackedClients)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        return !"GET".equals(request.getMethod()) || !uri.startsWith(GUARDED_PATH)
+                || uri.equals(EXPORT_PATH) || uri.equals(CHANGES_PATH) || uri.startsWith(CHANGES_PATH + "/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        LoadShedder.Decision decision = loadShedder.tryAdmit();
+        if (decision != LoadShedder.Decision.ACCEPT) {
+            (decision == LoadShedder.Decision.SHED_DB_POOL ? shedDbPool : shedInFlight).increment();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, 1, "Service is overloaded, retry later");
+            return;
+        }
+
+        try {
+            if (properties.enabled()) {
+                long waitNanos = rateLimiter.tryAcquire(clientId(request));
+                if (waitNanos > 0) {
+                    throttled.increment();
+                    long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+                    reject(response, HttpStatus.TOO_MANY_REQUESTS, retryAfterSeconds, "Too many requests");
+                    return;
+                }
+            }
+            filterChain.doFilter(request, response);
+        } finally {
+            loadShedder.release();
+        }
+    }
+
+    private String clientId(HttpServletRequest request) {
+        if (StringUtils.hasText(properties.clientHeader())) {
+            String header = request.getHeader(properties.clientHeader());
+            if (StringUtils.hasText(header)) {
+                int comma = header.indexOf(',');
+                return (comma >= 0 ? header.substring(0, comma) : header).trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds, String message)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new MessageResponseDto(message));
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.swiftcodes.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket in its GCRA form: the whole state is one "theoretical arrival time", advanced with a
+ * single CAS per permitted request.
+ */
+class TokenBucket {
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final AtomicLong theoreticalArrivalNanos;
+
+    TokenBucket(double permitsPerSecond, int burst, long nowNanos) {
+        this.emissionIntervalNanos = Math.max(1, (long) (1_000_000_000L / permitsPerSecond));
+        this.burstToleranceNanos = emissionIntervalNanos * (burst - 1);
+        this.theoreticalArrivalNanos = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * @return 0 if the request is permitted, otherwise the nanoseconds until the next permit becomes available
+     */
+    long tryAcquire(long nowNanos) {
+        while (true) {
+            long arrival = theoreticalArrivalNanos.get();
+            long earliest = arrival - burstToleranceNanos;
+            if (nowNanos - earliest < 0) {
+                return earliest - nowNanos;
+            }
+            long next = Math.max(arrival, nowNanos) + emissionIntervalNanos;
+            if (theoreticalArrivalNanos.compareAndSet(arrival, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * A bucket that has refilled completely behaves exactly like a new one and can be dropped.
+     */
+    boolean isIdle(long nowNanos) {
+        return theoreticalArrivalNanos.get() - nowNanos <= 0;
+    }
+}
@@ -2,15 +2,112 @@ package com.example.swiftcodes.repository;
 
 
 import com.example.swiftcodes.model.SwiftCode;
+import com.example.swiftcodes.model.SwiftCodeRecord;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+/**
+ * Finders fetch the country eagerly: with Open Session in View disabled, callers outside a transaction
+ * cannot initialize lazy associations.
+ */
 @Repository
+@Transactional(readOnly = true)
 public interface SwiftCodeRepository extends JpaRepository<SwiftCode, Long> {
+    @EntityGraph(attributePaths = "country")
     Optional<SwiftCode> findBySwiftCode(String swiftCode);
-    List<SwiftCode> findByCountryIso2Code(String countryIso2Code);
+
+    @EntityGraph(attributePaths = "country")
     List<SwiftCode> findByHeadquarter(SwiftCode headquarter);
+
+    @EntityGraph(attributePaths = "country")
+    List<SwiftCode> findBySwiftCodeIn(Collection<String> swiftCodes);
+
+    @Query("select s.swiftCode from SwiftCode s where s.swiftCode in :swiftCodes")
+    List<String> findExistingSwiftCodes(@Param("swiftCodes") Collection<String> swiftCodes);
+
+    /**
+     * Branches with the given 8-character prefix that are not linked to a headquarter yet; served by the
+     * {@code substr(swift_code, 1, 8)} expression index.
+     */
+    @Query("select s from SwiftCode s where substring(s.swiftCode, 1, 8) = :prefix " +
+            "and s.isHeadquarter = false and s.headquarter is null")
+    List<SwiftCode> findUnlinkedBranchesByPrefix(@Param("prefix") String prefix);
+
+    /**
+     * Links every unlinked branch to the headquarter sharing its 8-character prefix, in one statement whatever
+     * the number of branches; the headquarter is found through the unique index on {@code swift_code}.
+     *
+     * @return the number of branches linked
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update SwiftCode b set b.headquarter = (select h from SwiftCode h " +
+            "where h.swiftCode = concat(substring(b.swiftCode, 1, 8), 'XXX')) " +
+            "where b.isHeadquarter = false and b.headquarter is null and exists (select h from SwiftCode h " +
+            "where h.swiftCode = concat(substring(b.swiftCode, 1, 8), 'XXX'))")
+    int linkBranchesToHeadquarters();
+
+    /**
+     * The country listing, read by an index-only scan of the covering {@code (country_id, swift_code)} index.
+     */
+    @Query("select new com.example.swiftcodes.model.SwiftCodeRecord(s.swiftCode, s.bankName, s.address, " +
+            "c.iso2Code, c.name, s.isHeadquarter) from SwiftCode s join s.country c " +
+            "where c.id = :countryId order by s.swiftCode")
+    List<SwiftCodeRecord> findRecordsByCountryId(@Param("countryId") Long countryId);
+
+    @Query("select s.swiftCode from SwiftCode s")
+    List<String> findAllSwiftCodes();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.example.swiftcodes.model.SwiftCodeRecord(s.swiftCode, s.bankName, s.address, " +
+            "c.iso2Code, c.name, s.isHeadquarter, s.codeType, s.townName, s.timeZone) " +
+            "from SwiftCode s join s.country c order by s.swiftCode")
+    Stream<SwiftCodeRecord> streamAllRecords();
+
+    /**
+     * Codes in the inclusive {@code [from, to]} range with their country, in one query. A range rather than
+     * {@code LIKE 'PREFIX%'} lets PostgreSQL use the unique swift_code index regardless of the database collation.
+     */
+    @Query("select new com.example.swiftcodes.model.SwiftCodeRecord(s.swiftCode, s.bankName, s.address, " +
+            "c.iso2Code, c.name, s.isHeadquarter, s.codeType, s.townName, s.timeZone) " +
+            "from SwiftCode s join s.country c " +
+            "where s.swiftCode between :from and :to order by c.iso2Code, s.swiftCode")
+    List<SwiftCodeRecord> findRecordsInRange(@Param("from") String from, @Param("to") String to);
+
+    @Query("select new com.example.swiftcodes.model.SwiftCodeRecord(s.swiftCode, s.bankName, s.address, " +
+            "c.iso2Code, c.name, s.isHeadquarter, s.codeType, s.townName, s.timeZone) " +
+            "from SwiftCode s join s.country c where s.swiftCode in :swiftCodes")
+    List<SwiftCodeRecord> findRecordsBySwiftCodeIn(@Param("swiftCodes") Collection<String> swiftCodes);
+
+    /**
+     * The directory search before the in-memory directory is loaded. Every predicate is optional ({@code null}
+     * matches all); text attributes are compared upper-case.
+     */
+    @Query("select new com.example.swiftcodes.model.SwiftCodeRecord(s.swiftCode, s.bankName, s.address, " +
+            "c.iso2Code, c.name, s.isHeadquarter, s.codeType, s.townName, s.timeZone) " +
+            "from SwiftCode s join s.country c " +
+            "where (:countryIso2 is null or c.iso2Code = :countryIso2) " +
+            "and (:townName is null or upper(s.townName) = :townName) " +
+            "and (:timeZone is null or upper(s.timeZone) = :timeZone) " +
+            "and (:codeType is null or upper(s.codeType) = :codeType) " +
+            "and (:headquarter is null or s.isHeadquarter = :headquarter) " +
+            "order by s.swiftCode")
+    List<SwiftCodeRecord> findRecordsMatching(@Param("countryIso2") String countryIso2,
+                                              @Param("townName") String townName,
+                                              @Param("timeZone") String timeZone,
+                                              @Param("codeType") String codeType,
+                                              @Param("headquarter") Boolean headquarter);
 }
@@ -0,0 +1,321 @@
+package com.example.swiftcodes.service;
+
+import com.example.swiftcodes.changelog.DirectoryChangeLog;
+import com.example.swiftcodes.config.DataImportProperties;
+import com.example.swiftcodes.event.SwiftCodeChangePublisher;
+import com.example.swiftcodes.importer.DirectoryEntry;
+import com.example.swiftcodes.importer.DirectoryFormat;
+import com.example.swiftcodes.importer.DirectoryReader;
+import com.example.swiftcodes.validation.SwiftCodeValidator;
+import com.example.swiftcodes.validation.SwiftCodeViolation;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Full directory reload that never exposes a partly loaded table. The file is bulk-loaded with {@code COPY} into
+ * an unlogged staging table, copied into {@code swift_codes_next} with headquarters linked in one set-based
+ * statement, indexed and constrained like the live table, and checked. Only then are the tables swapped by
+ * renaming them in one short transaction. The replaced table stays as {@code swift_codes_previous}, so
+ * {@link #rollback()} can swap it back instantly.
+ * <p>
+ * Writes made to the live table while a reload runs are not carried over. Countries are only ever added, so new
+ * ones go straight into the live {@code countries} table instead of being swapped. Both swaps record the
+ * differences between the two tables in the change log, in the swapping transaction.
+ */
+@Service
+public class DirectoryTableSwapImporter {
+    private static final Logger logger = LoggerFactory.getLogger(DirectoryTableSwapImporter.class);
+
+    static final String LIVE_TABLE = "swift_codes";
+    static final String STAGING_TABLE = "swift_codes_next";
+    static final String PREVIOUS_TABLE = "swift_codes_previous";
+    private static final String LOAD_TABLE = "swift_codes_load";
+    private static final String STAGING_SUFFIX = "_next";
+    private static final String PREVIOUS_SUFFIX = "_previous";
+    private static final String ROLLBACK_SUFFIX = "_rollback";
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SwiftCodeChangePublisher changePublisher;
+    private final DirectoryChangeLog changeLog;
+    private final DataImportProperties properties;
+
+    public DirectoryTableSwapImporter(DataSource dataSource, JdbcTemplate jdbcTemplate,
+                                      TransactionTemplate transactionTemplate,
+                                      SwiftCodeChangePublisher changePublisher, DirectoryChangeLog changeLog,
+                                      DataImportProperties properties) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.changePublisher = changePublisher;
+        this.changeLog = changeLog;
+        this.properties = properties;
+    }
+
+    public record ReloadResult(long rows, long replacedRows, long linkedBranches) {
+    }
+
+    public ReloadResult reload(InputStream inputStream) throws IOException {
+        return reload(DirectoryFormat.TSV, inputStream);
+    }
+
+    /**
+     * Loads the directory file in {@code format} from {@code inputStream} into a staging table and swaps it in.
+     *
+     * @throws IllegalStateException if the staged directory fails its checks; the live table is left untouched
+     */
+    public synchronized ReloadResult reload(DirectoryFormat format, InputStream inputStream) throws IOException {
+        // Staging runs in its own transaction: a failed check rolls back the staging tables and new countries too.
+        ReloadResult result;
+        try (DirectoryReader reader = format.open(inputStream)) {
+            result = transactionTemplate.execute(status -> stage(reader));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            changeLog.recordDifferences(LIVE_TABLE, STAGING_TABLE);
+            setLockTimeout();
+            jdbcTemplate.execute("drop table if exists " + PREVIOUS_TABLE);
+            renameTable(LIVE_TABLE, "", PREVIOUS_TABLE, PREVIOUS_SUFFIX);
+            renameTable(STAGING_TABLE, STAGING_SUFFIX, LIVE_TABLE, "");
+            changePublisher.publishReloaded();
+        });
+        logger.info("Swapped in a directory of {} swift codes ({} branches linked), replacing {}; "
+                + "the replaced table is kept as {}", result.rows(), result.linkedBranches(), result.replacedRows(),
+                PREVIOUS_TABLE);
+        return result;
+    }
+
+    /**
+     * Swaps the table replaced by the last reload back in; the rolled-back one becomes the previous table, so a
+     * second rollback undoes the first. Writes made since the reload are lost.
+     */
+    public synchronized ReloadResult rollback() {
+        if (!tableExists(PREVIOUS_TABLE)) {
+            throw new IllegalStateException("There is no previous directory to roll back to");
+        }
+        long rows = count(PREVIOUS_TABLE);
+        long replacedRows = count(LIVE_TABLE);
+        transactionTemplate.executeWithoutResult(status -> {
+            changeLog.recordDifferences(LIVE_TABLE, PREVIOUS_TABLE);
+            setLockTimeout();
+            String parkedTable = LIVE_TABLE + ROLLBACK_SUFFIX;
+            renameTable(LIVE_TABLE, "", parkedTable, ROLLBACK_SUFFIX);
+            renameTable(PREVIOUS_TABLE, PREVIOUS_SUFFIX, LIVE_TABLE, "");
+            renameTable(parkedTable, ROLLBACK_SUFFIX, PREVIOUS_TABLE, PREVIOUS_SUFFIX);
+            changePublisher.publishReloaded();
+        });
+        logger.info("Rolled the directory back to {} swift codes, replacing {}", rows, replacedRows);
+        return new ReloadResult(rows, replacedRows,
+                jdbcTemplate.queryForObject("select count(*) from " + LIVE_TABLE
+                        + " where headquarter_id is not null", Long.class));
+    }
+
+    private ReloadResult stage(DirectoryReader reader) {
+        jdbcTemplate.execute("drop table if exists " + STAGING_TABLE + ", " + LOAD_TABLE);
+        jdbcTemplate.execute("create unlogged table " + LOAD_TABLE + " (line_number int not null, "
+                + "swift_code varchar(11) not null, bank_name varchar(255) not null, address text, "
+                + "is_headquarter boolean not null, country_iso2 varchar(2) not null, "
+                + "country_name varchar(255) not null, code_type varchar(16), town_name varchar(255), "
+                + "time_zone varchar(64))");
+        long copiedRows;
+        try {
+            copiedRows = copyRows(DataSourceUtils.getConnection(dataSource), reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not copy the directory into " + LOAD_TABLE, e);
+        }
+
+        jdbcTemplate.execute("insert into countries (iso2_code, name) "
+                + "select distinct on (country_iso2) country_iso2, country_name from " + LOAD_TABLE + " l "
+                + "where not exists (select 1 from countries c where c.iso2_code = l.country_iso2) "
+                + "order by country_iso2, line_number");
+
+        // The CTE is referenced twice, so PostgreSQL materializes it and draws one id per row.
+        jdbcTemplate.execute("create unlogged table " + STAGING_TABLE + " (like " + LIVE_TABLE + ")");
+        jdbcTemplate.execute("insert into " + STAGING_TABLE + " (id, swift_code, bank_name, address, "
+                + "is_headquarter, country_id, headquarter_id, code_type, town_name, time_zone) "
+                + "with numbered as (select nextval('swift_codes_seq') as id, l.* from " + LOAD_TABLE + " l) "
+                + "select b.id, b.swift_code, b.bank_name, b.address, b.is_headquarter, c.id, h.id, "
+                + "b.code_type, b.town_name, b.time_zone "
+                + "from numbered b join countries c on c.iso2_code = b.country_iso2 "
+                + "left join numbered h on h.is_headquarter and not b.is_headquarter "
+                + "and h.swift_code = substr(b.swift_code, 1, 8) || 'XXX' "
+                + "order by b.swift_code");
+        jdbcTemplate.execute("drop table " + LOAD_TABLE);
+
+        // Before the indexes are built, so they are written once, already WAL-logged.
+        jdbcTemplate.execute("alter table " + STAGING_TABLE + " set logged");
+        copyConstraintsAndIndexes();
+        jdbcTemplate.execute("analyze " + STAGING_TABLE);
+
+        long stagedRows = count(STAGING_TABLE);
+        long liveRows = count(LIVE_TABLE);
+        validate(copiedRows, stagedRows, liveRows);
+        return new ReloadResult(stagedRows, liveRows, jdbcTemplate.queryForObject(
+                "select count(*) from " + STAGING_TABLE + " where headquarter_id is not null", Long.class));
+    }
+
+    private long copyRows(Connection connection, DirectoryReader reader) throws SQLException, IOException {
+        Set<String> seenCodes = new HashSet<>();
+        PGCopyOutputStream copy = new PGCopyOutputStream(connection.unwrap(PGConnection.class),
+                "copy " + LOAD_TABLE + " from stdin (format csv)", COPY_BUFFER_SIZE);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(copy, StandardCharsets.UTF_8), COPY_BUFFER_SIZE);
+        try {
+            DirectoryEntry entry;
+            while ((entry = reader.next()) != null) {
+                String swiftCode = entry.swiftCode();
+                boolean isHeadquarter = swiftCode.endsWith(SwiftCodeValidator.HEADQUARTER_SUFFIX);
+                SwiftCodeViolation violation = SwiftCodeValidator.validate(swiftCode, entry.countryIso2(),
+                        isHeadquarter);
+                if (violation != null) {
+                    logger.warn("Skipping line {}: {}", entry.lineNumber(),
+                            violation.getMessage(entry.countryIso2()));
+                    continue;
+                }
+                if (!seenCodes.add(swiftCode)) {
+                    continue;
+                }
+
+                writer.write(Integer.toString(entry.lineNumber()));
+                writeField(writer, swiftCode);
+                writeField(writer, entry.bankName());
+                writeOptionalField(writer, entry.address());
+                writer.write(isHeadquarter ? ",t" : ",f");
+                writeField(writer, entry.countryIso2());
+                writeField(writer, entry.countryName());
+                writeOptionalField(writer, entry.codeType());
+                writeOptionalField(writer, entry.townName());
+                writeOptionalField(writer, entry.timeZone());
+                writer.write('\n');
+            }
+            writer.flush();
+            return copy.endCopy();
+        } finally {
+            if (copy.isActive()) {
+                copy.cancelCopy();
+            }
+        }
+    }
+
+    private static void writeField(Writer writer, String value) throws IOException {
+        writer.write(",\"");
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    /**
+     * An unquoted empty CSV field, which {@code COPY} reads as {@code null}, for a missing value.
+     */
+    private static void writeOptionalField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            writer.write(',');
+        } else {
+            writeField(writer, value);
+        }
+    }
+
+    /**
+     * Recreates the live table's constraints and indexes on the staging table from their catalog definitions,
+     * under the same names with a {@code _next} suffix, so schema migrations never need to know about reloads.
+     */
+    private void copyConstraintsAndIndexes() {
+        List<String[]> constraints = jdbcTemplate.query(
+                "select conname, pg_get_constraintdef(oid) from pg_constraint "
+                        + "where conrelid = ?::regclass and contype in ('p', 'u', 'f', 'c', 'x') "
+                        + "order by case contype when 'p' then 0 when 'u' then 1 else 2 end, conname",
+                (rs, row) -> new String[]{rs.getString(1), rs.getString(2)}, LIVE_TABLE);
+        for (String[] constraint : constraints) {
+            String definition = constraint[1].replace("REFERENCES " + LIVE_TABLE + "(",
+                    "REFERENCES " + STAGING_TABLE + "(");
+            jdbcTemplate.execute("alter table " + STAGING_TABLE + " add constraint "
+                    + constraint[0] + STAGING_SUFFIX + " " + definition);
+        }
+
+        List<String[]> indexes = jdbcTemplate.query(
+                "select i.relname, pg_get_indexdef(i.oid) from pg_index x join pg_class i on i.oid = x.indexrelid "
+                        + "where x.indrelid = ?::regclass and not exists (select 1 from pg_constraint c "
+                        + "where c.conrelid = x.indrelid and c.conindid = x.indexrelid) order by i.relname",
+                (rs, row) -> new String[]{rs.getString(1), rs.getString(2)}, LIVE_TABLE);
+        for (String[] index : indexes) {
+            String definition = index[1]
+                    .replaceFirst("INDEX " + index[0] + " ON ", "INDEX " + index[0] + STAGING_SUFFIX + " ON ")
+                    .replaceFirst(" ON (\\w+\\.)?" + LIVE_TABLE + " USING ", " ON $1" + STAGING_TABLE + " USING ");
+            jdbcTemplate.execute(definition);
+        }
+    }
+
+    private void validate(long copiedRows, long stagedRows, long liveRows) {
+        if (stagedRows != copiedRows) {
+            throw new IllegalStateException("Staged " + stagedRows + " swift codes but the file had "
+                    + copiedRows + " valid rows");
+        }
+        if (stagedRows == 0 || stagedRows < liveRows * properties.minRetainedRatio()) {
+            throw new IllegalStateException("The new directory has " + stagedRows + " swift codes against "
+                    + liveRows + " in the live one, below the configured ratio of " + properties.minRetainedRatio());
+        }
+    }
+
+    /**
+     * Renames a table together with its constraints and indexes, swapping the name suffix of each.
+     */
+    private void renameTable(String table, String suffix, String newTable, String newSuffix) {
+        List<String> constraints = jdbcTemplate.queryForList(
+                "select conname from pg_constraint where conrelid = ?::regclass "
+                        + "and contype in ('p', 'u', 'f', 'c', 'x')", String.class, table);
+        for (String constraint : constraints) {
+            jdbcTemplate.execute("alter table " + table + " rename constraint " + constraint
+                    + " to " + renamed(constraint, suffix, newSuffix));
+        }
+        List<String> indexes = jdbcTemplate.queryForList(
+                "select i.relname from pg_index x join pg_class i on i.oid = x.indexrelid "
+                        + "where x.indrelid = ?::regclass and not exists (select 1 from pg_constraint c "
+                        + "where c.conrelid = x.indrelid and c.conindid = x.indexrelid)", String.class, table);
+        for (String index : indexes) {
+            jdbcTemplate.execute("alter index " + index + " rename to " + renamed(index, suffix, newSuffix));
+        }
+        jdbcTemplate.execute("alter table " + table + " rename to " + newTable);
+    }
+
+    private static String renamed(String name, String suffix, String newSuffix) {
+        String base = !suffix.isEmpty() && name.endsWith(suffix) ? name.substring(0, name.length() - suffix.length()) : name;
+        return base + newSuffix;
+    }
+
+    private void setLockTimeout() {
+        // Renaming waits for running reads of the table and blocks new ones meanwhile; give up rather than stall.
+        jdbcTemplate.execute("set local lock_timeout = '" + properties.swapLockTimeout().toMillis() + "ms'");
+    }
+
+    private boolean tableExists(String table) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("select to_regclass(?) is not null", Boolean.class, table));
+    }
+
+    private long count(String table) {
+        return jdbcTemplate.queryForObject("select count(*) from " + table, Long.class);
+    }
+}
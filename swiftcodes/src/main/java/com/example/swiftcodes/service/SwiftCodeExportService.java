@@ -0,0 +1,116 @@
+package com.example.swiftcodes.service;
+
+import com.example.swiftcodes.model.SwiftCodeRecord;
+import com.example.swiftcodes.repository.SwiftCodeRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Streams the whole directory from a server-side cursor, so memory use does not depend on the table size.
+ * The TSV layout is the one {@link SwiftCodeParser} imports; NDJSON lines are {@code SwiftCodeDto} objects.
+ */
+@Service
+public class SwiftCodeExportService {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String CODE_TYPE = "BIC11";
+
+    private final SwiftCodeRepository swiftCodeRepository;
+    private final ObjectMapper objectMapper;
+
+    public SwiftCodeExportService(SwiftCodeRepository swiftCodeRepository, ObjectMapper objectMapper) {
+        this.swiftCodeRepository = swiftCodeRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(readOnly = true)
+    public void export(ExportFormat format, OutputStream outputStream) throws IOException {
+        try (Stream<SwiftCodeRecord> records = swiftCodeRepository.streamAllRecords()) {
+            switch (format) {
+                case TSV -> writeTsv(records.iterator(), outputStream);
+                case NDJSON -> writeNdjson(records.iterator(), outputStream);
+            }
+        }
+    }
+
+    /**
+     * Hands the codes to {@code consumer} in swift code order as the cursor reads them; an exception thrown by
+     * {@code consumer} ends the export.
+     */
+    @Transactional(readOnly = true)
+    public void export(Consumer<SwiftCodeRecord> consumer) {
+        try (Stream<SwiftCodeRecord> records = swiftCodeRepository.streamAllRecords()) {
+            records.forEachOrdered(consumer);
+        }
+    }
+
+    private void writeTsv(Iterator<SwiftCodeRecord> records, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), BUFFER_SIZE);
+        while (records.hasNext()) {
+            SwiftCodeRecord record = records.next();
+            writeField(writer, record.countryIso2()).write('\t');
+            writeField(writer, record.swiftCode()).write('\t');
+            writeField(writer, record.codeType() != null ? record.codeType() : CODE_TYPE).write('\t');
+            writeField(writer, record.bankName()).write('\t');
+            writeField(writer, record.address()).write('\t');
+            writeField(writer, record.townName()).write('\t');
+            writeField(writer, record.countryName()).write('\t');
+            writeField(writer, record.timeZone()).write('\n');
+        }
+        writer.flush();
+    }
+
+    private void writeNdjson(Iterator<SwiftCodeRecord> records, OutputStream outputStream) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Lines are separated by the newline alone, not Jackson's default space between root values.
+            generator.setRootValueSeparator(null);
+            while (records.hasNext()) {
+                SwiftCodeRecord record = records.next();
+                generator.writeStartObject();
+                generator.writeStringField("address", record.address());
+                generator.writeStringField("bankName", record.bankName());
+                generator.writeStringField("countryISO2", record.countryIso2());
+                generator.writeStringField("countryName", record.countryName());
+                generator.writeBooleanField("isHeadquarter", record.headquarter());
+                generator.writeStringField("swiftCode", record.swiftCode());
+                writeOptionalField(generator, "codeType", record.codeType());
+                writeOptionalField(generator, "townName", record.townName());
+                writeOptionalField(generator, "timeZone", record.timeZone());
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            }
+        }
+    }
+
+    /**
+     * Written only when present, the way {@code SwiftCodeDto} serializes them.
+     */
+    private static void writeOptionalField(JsonGenerator generator, String name, String value) throws IOException {
+        if (value != null) {
+            generator.writeStringField(name, value);
+        }
+    }
+
+    private static Writer writeField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return writer;
+        }
+        if (value.indexOf('\t') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            value = value.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+        }
+        writer.write(value);
+        return writer;
+    }
+}
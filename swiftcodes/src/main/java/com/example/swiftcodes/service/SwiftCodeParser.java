@@ -1,18 +1,29 @@
 package com.example.swiftcodes.service;
 
+import com.example.swiftcodes.cache.CountryRegistry;
+import com.example.swiftcodes.changelog.DirectoryChangeLog;
+import com.example.swiftcodes.diagnostics.ImportChunkEvent;
+import com.example.swiftcodes.diagnostics.ObservationNames;
+import com.example.swiftcodes.event.SwiftCodeChangePublisher;
+import com.example.swiftcodes.importer.DirectoryEntry;
+import com.example.swiftcodes.importer.DirectoryFormat;
+import com.example.swiftcodes.importer.DirectoryReader;
 import com.example.swiftcodes.model.Country;
 import com.example.swiftcodes.model.SwiftCode;
 import com.example.swiftcodes.repository.CountryRepository;
 import com.example.swiftcodes.repository.SwiftCodeRepository;
+import com.example.swiftcodes.validation.SwiftCodeValidator;
+import com.example.swiftcodes.validation.SwiftCodeViolation;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -20,94 +31,175 @@ import java.util.Map;
 @Service
 public class SwiftCodeParser {
     private static final Logger logger = LoggerFactory.getLogger(SwiftCodeParser.class);
+    private static final int CHUNK_SIZE = 500;
 
     private final CountryRepository countryRepository;
+    private final CountryRegistry countryRegistry;
     private final SwiftCodeRepository swiftCodeRepository;
+    private final SwiftCodeChangePublisher changePublisher;
+    private final DirectoryChangeLog changeLog;
+    private final ObservationRegistry observationRegistry;
 
-    public SwiftCodeParser(CountryRepository countryRepository, SwiftCodeRepository swiftCodeRepository) {
+    public SwiftCodeParser(CountryRepository countryRepository, CountryRegistry countryRegistry,
+                           SwiftCodeRepository swiftCodeRepository, SwiftCodeChangePublisher changePublisher,
+                           DirectoryChangeLog changeLog, ObservationRegistry observationRegistry) {
         this.countryRepository = countryRepository;
+        this.countryRegistry = countryRegistry;
         this.swiftCodeRepository = swiftCodeRepository;
+        this.changePublisher = changePublisher;
+        this.changeLog = changeLog;
+        this.observationRegistry = observationRegistry;
     }
 
     @Transactional
     public void parseTsv(InputStream inputStream) throws IOException {
-        loadAllRecords(inputStream);
-        linkBranchesToHeadquarters();
+        parse(DirectoryFormat.TSV, inputStream);
     }
 
-    private void loadAllRecords(InputStream inputStream) throws IOException {
-        Map<String, Country> countryCache = new HashMap<>();
-
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream))) {
-            String line;
-            int lineNumber = 0;
-
-            while ((line = reader.readLine()) != null) {
-                lineNumber++;
-                try {
-                    String[] fields = line.split("\t");
-
-                    if (fields.length < 8) {
-                        continue;
-                    }
-
-                    String countryIso2 = fields[0].toUpperCase();
-                    String swiftCode = fields[1];
-                    String bankName = fields[3];
-                    String address = fields[4];
-                    String countryName = fields[6].toUpperCase();
-
-                    boolean isHeadquarter = swiftCode.endsWith("XXX");
-
-                    Country country = countryCache.computeIfAbsent(countryIso2, keyFromMap -> {
-                        return countryRepository.findByIso2Code(keyFromMap)
-                                .orElseGet(() -> countryRepository.save(
-                                        Country.builder()
-                                                .iso2Code(keyFromMap)
-                                                .name(countryName)
-                                                .build()
-                                ));
-                    });
-
-                    if (swiftCodeRepository.findBySwiftCode(swiftCode).isPresent()) {
-                        continue;
+    /**
+     * Adds the codes of a directory file that are not stored yet. Entries are read one at a time and stored in
+     * chunks, whatever the file format. The import is observed as a whole, per chunk and while linking branches.
+     */
+    @Transactional
+    public void parse(DirectoryFormat format, InputStream inputStream) throws IOException {
+        Observation.createNotStarted(ObservationNames.IMPORT, observationRegistry)
+                .lowCardinalityKeyValue("format", format.name())
+                .observeChecked(() -> {
+                    try (DirectoryReader reader = format.open(inputStream)) {
+                        loadAllRecords(reader);
                     }
+                    Observation.createNotStarted(ObservationNames.IMPORT_LINK, observationRegistry)
+                            .observe(this::linkBranchesToHeadquarters);
+                    changePublisher.publishReloaded();
+                });
+    }
 
-                    SwiftCode swiftCodeEntity = SwiftCode.builder()
-                            .swiftCode(swiftCode)
-                            .bankName(bankName)
-                            .address(address)
-                            .isHeadquarter(isHeadquarter)
-                            .country(country)
-                            .build();
-
-                    swiftCodeRepository.save(swiftCodeEntity);
+    private void loadAllRecords(DirectoryReader reader) throws IOException {
+        // Countries created by this import reach the registry only once it commits.
+        Map<String, Country> unregisteredCountries = new HashMap<>();
+        List<DirectoryEntry> chunk = new ArrayList<>(CHUNK_SIZE);
+
+        DirectoryEntry entry;
+        while ((entry = reader.next()) != null) {
+            boolean isHeadquarter = entry.swiftCode().endsWith(SwiftCodeValidator.HEADQUARTER_SUFFIX);
+            SwiftCodeViolation violation = SwiftCodeValidator.validate(
+                    entry.swiftCode(), entry.countryIso2(), isHeadquarter);
+            if (violation != null) {
+                logger.warn("Skipping line {}: {}", entry.lineNumber(), violation.getMessage(entry.countryIso2()));
+                continue;
+            }
 
-                } catch (Exception e) {
-                    logger.error("Error while parsing line: {}: {}", lineNumber, e.getMessage());
-                }
+            chunk.add(entry);
+            if (chunk.size() == CHUNK_SIZE) {
+                storeChunk(chunk, unregisteredCountries);
+                chunk.clear();
             }
         }
+        if (!chunk.isEmpty()) {
+            storeChunk(chunk, unregisteredCountries);
+        }
     }
 
-    @Transactional
-    public void linkBranchesToHeadquarters() {
-        List<SwiftCode> branches = swiftCodeRepository.findAll().stream()
-                .filter(swift -> !swift.getIsHeadquarter())
-                .toList();
+    private void storeChunk(List<DirectoryEntry> chunk, Map<String, Country> unregisteredCountries) {
+        Observation observation = Observation.createNotStarted(ObservationNames.IMPORT_CHUNK, observationRegistry)
+                .start();
+        try (Observation.Scope scope = observation.openScope()) {
+            storeChunk(chunk, unregisteredCountries, observation);
+        } finally {
+            observation.stop();
+        }
+    }
 
-        for (SwiftCode branch : branches) {
-            if (branch.getSwiftCode().length() >= 8) {
-                String bankIdentifier = branch.getSwiftCode().substring(0, 8);
-                String headquarterCode = bankIdentifier + "XXX";
+    /**
+     * Stores the codes of one chunk of valid entries that are not stored yet, finding the stored ones with a single
+     * query. The query flushes the earlier chunks first, so a code repeated anywhere in the file is stored once.
+     * The codes the chunk adds or completes go to the change log.
+     */
+    private void storeChunk(List<DirectoryEntry> chunk, Map<String, Country> unregisteredCountries,
+                            Observation observation) {
+        ImportChunkEvent event = new ImportChunkEvent();
+        event.begin();
+        int added = 0;
+        int failed = 0;
+        Map<String, SwiftCode> stored = new HashMap<>();
+        for (SwiftCode swiftCode : swiftCodeRepository.findBySwiftCodeIn(
+                chunk.stream().map(DirectoryEntry::swiftCode).toList())) {
+            stored.put(swiftCode.getSwiftCode(), swiftCode);
+        }
 
-                SwiftCode headquarter = swiftCodeRepository.findBySwiftCode(headquarterCode).orElse(null);
+        List<SwiftCode> changed = new ArrayList<>();
+        for (DirectoryEntry entry : chunk) {
+            try {
+                SwiftCode existing = stored.get(entry.swiftCode());
+                if (existing != null) {
+                    // Codes imported before these columns were kept get them from the next import.
+                    if (existing.getCodeType() == null && existing.getTownName() == null
+                            && existing.getTimeZone() == null && (entry.codeType() != null
+                            || entry.townName() != null || entry.timeZone() != null)) {
+                        existing.setCodeType(entry.codeType());
+                        existing.setTownName(entry.townName());
+                        existing.setTimeZone(entry.timeZone());
+                        changed.add(existing);
+                    }
+                    continue;
+                }
 
-                if (headquarter != null && !headquarter.equals(branch)) {
-                    branch.setHeadquarter(headquarter);
-                    swiftCodeRepository.save(branch);
+                Country country = countryRegistry.get(entry.countryIso2());
+                if (country == null) {
+                    country = unregisteredCountries.computeIfAbsent(entry.countryIso2(), keyFromMap ->
+                            countryRepository.findByIso2Code(keyFromMap)
+                                    .orElseGet(() -> countryRepository.save(
+                                            Country.builder()
+                                                    .iso2Code(keyFromMap)
+                                                    .name(entry.countryName())
+                                                    .build()
+                                    )));
                 }
+
+                SwiftCode swiftCodeEntity = SwiftCode.builder()
+                        .swiftCode(entry.swiftCode())
+                        .bankName(entry.bankName())
+                        .address(entry.address())
+                        .codeType(entry.codeType())
+                        .townName(entry.townName())
+                        .timeZone(entry.timeZone())
+                        .isHeadquarter(entry.swiftCode().endsWith(SwiftCodeValidator.HEADQUARTER_SUFFIX))
+                        .country(country)
+                        .build();
+
+                swiftCodeRepository.save(swiftCodeEntity);
+                stored.put(entry.swiftCode(), swiftCodeEntity);
+                changed.add(swiftCodeEntity);
+                added++;
+
+            } catch (Exception e) {
+                logger.error("Error while parsing line: {}: {}", entry.lineNumber(), e.getMessage());
+                failed++;
             }
         }
+        changeLog.recordUpserts(changed);
+
+        observation.highCardinalityKeyValue("entries", Integer.toString(chunk.size()))
+                .highCardinalityKeyValue("added", Integer.toString(added))
+                .highCardinalityKeyValue("completed", Integer.toString(changed.size() - added))
+                .highCardinalityKeyValue("failed", Integer.toString(failed));
+        event.end();
+        if (event.shouldCommit()) {
+            event.entries = chunk.size();
+            event.added = added;
+            event.completed = changed.size() - added;
+            event.failed = failed;
+            event.commit();
+        }
+    }
+
+    /**
+     * Links branches to their headquarters with one update, so the {@code IMPORT_LINK} span has a single
+     * repository call below it however large the import.
+     */
+    @Transactional
+    public void linkBranchesToHeadquarters() {
+        int linked = swiftCodeRepository.linkBranchesToHeadquarters();
+        logger.info("Linked {} branches to their headquarters", linked);
     }
-}
\ No newline at end of file
+}
@@ -1,34 +1,218 @@
 package com.example.swiftcodes.service;
 
+import com.example.swiftcodes.cache.CountryRegistry;
+import com.example.swiftcodes.cache.DirectorySnapshot;
+import com.example.swiftcodes.cache.SwiftCodeBloomFilter;
+import com.example.swiftcodes.cache.SwiftCodeDirectory;
+import com.example.swiftcodes.changelog.DirectoryChangeLog;
+import com.example.swiftcodes.diagnostics.ServiceOperation;
+import com.example.swiftcodes.event.SwiftCodeChangePublisher;
+import com.example.swiftcodes.exception.BankNotFoundException;
+import com.example.swiftcodes.exception.CountryNotFoundException;
+import com.example.swiftcodes.exception.InvalidSwiftCodeException;
+import com.example.swiftcodes.exception.SwiftCodeNotFoundException;
+import com.example.swiftcodes.json.SwiftCodeRecordList;
 import com.example.swiftcodes.model.Country;
 import com.example.swiftcodes.model.SwiftCode;
+import com.example.swiftcodes.model.SwiftCodeFilter;
+import com.example.swiftcodes.model.SwiftCodeRecord;
+import com.example.swiftcodes.model.dto.BankCountryDto;
+import com.example.swiftcodes.model.dto.BankSwiftCodesDto;
 import com.example.swiftcodes.model.dto.CountrySwiftCodesDto;
+import com.example.swiftcodes.model.dto.FilteredSwiftCodesDto;
 import com.example.swiftcodes.model.dto.MessageResponseDto;
 import com.example.swiftcodes.model.dto.SwiftCodeDto;
 import com.example.swiftcodes.model.dto.SwiftCodeWithBranchesDto;
 import com.example.swiftcodes.repository.CountryRepository;
 import com.example.swiftcodes.repository.SwiftCodeRepository;
-import jakarta.persistence.EntityNotFoundException;
+import com.example.swiftcodes.util.SingleFlight;
+import com.example.swiftcodes.validation.SwiftCodeValidator;
+import com.example.swiftcodes.validation.SwiftCodeViolation;
+import io.micrometer.observation.ObservationRegistry;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class SwiftCodeService {
+    // Highest code sharing a bank code; swift codes are upper-case alphanumerics, so 'Z' sorts last.
+    private static final String BANK_RANGE_UPPER_SUFFIX = "ZZZZZZZ";
+    private static final String BRANCH_RANGE_UPPER_SUFFIX = "ZZZ";
 
     private final SwiftCodeRepository swiftCodeRepository;
     private final CountryRepository countryRepository;
+    private final CountryRegistry countryRegistry;
+    private final SwiftCodeDirectory directory;
+    private final SwiftCodeBloomFilter bloomFilter;
+    private final SwiftCodeChangePublisher changePublisher;
+    private final DirectoryChangeLog changeLog;
+    private final ObservationRegistry observationRegistry;
+    private final SingleFlight<String, SwiftCodeWithBranchesDto> detailsLoads = new SingleFlight<>();
+    private final SingleFlight<String, CountrySwiftCodesDto> countryLoads = new SingleFlight<>();
+    private final SingleFlight<String, BankSwiftCodesDto> bankLoads = new SingleFlight<>();
 
-    public SwiftCodeService(SwiftCodeRepository swiftCodeRepository, CountryRepository countryRepository) {
+    public SwiftCodeService(SwiftCodeRepository swiftCodeRepository, CountryRepository countryRepository,
+                            CountryRegistry countryRegistry, SwiftCodeDirectory directory,
+                            SwiftCodeBloomFilter bloomFilter, SwiftCodeChangePublisher changePublisher,
+                            DirectoryChangeLog changeLog, ObservationRegistry observationRegistry) {
         this.swiftCodeRepository = swiftCodeRepository;
         this.countryRepository = countryRepository;
+        this.countryRegistry = countryRegistry;
+        this.directory = directory;
+        this.bloomFilter = bloomFilter;
+        this.changePublisher = changePublisher;
+        this.changeLog = changeLog;
+        this.observationRegistry = observationRegistry;
     }
 
     public SwiftCodeWithBranchesDto getSwiftCodeDetails(String swiftCode) {
+        return getSwiftCodeDetails(directory.current(), swiftCode);
+    }
+
+    /**
+     * Answers from {@code snapshot} once the directory is loaded, and from the database before that. The other
+     * read methods taking a snapshot behave the same way.
+     */
+    public SwiftCodeWithBranchesDto getSwiftCodeDetails(DirectorySnapshot snapshot, String swiftCode) {
+        ServiceOperation operation = ServiceOperation.start(observationRegistry, "getSwiftCodeDetails", swiftCode);
+        try {
+            if (snapshot.isLoaded()) {
+                return swiftCodeDetails(snapshot, swiftCode);
+            }
+            if (!bloomFilter.mightContain(swiftCode)) {
+                throw new SwiftCodeNotFoundException(swiftCode);
+            }
+
+            return detailsLoads.execute(swiftCode, () -> loadSwiftCodeDetails(swiftCode));
+        } catch (RuntimeException e) {
+            operation.error(e);
+            throw e;
+        } finally {
+            operation.finish();
+        }
+    }
+
+    public CountrySwiftCodesDto getSwiftCodesByCountry(String countryIso2Code) {
+        return getSwiftCodesByCountry(directory.current(), countryIso2Code);
+    }
+
+    public CountrySwiftCodesDto getSwiftCodesByCountry(DirectorySnapshot snapshot, String countryIso2Code) {
+        ServiceOperation operation = ServiceOperation.start(observationRegistry,
+                "getSwiftCodesByCountry", countryIso2Code);
+        try {
+            String iso2Code = countryIso2Code.toUpperCase();
+            if (snapshot.isLoaded()) {
+                Country country = findCountry(iso2Code).orElseThrow(() -> new CountryNotFoundException(iso2Code));
+                return countrySwiftCodes(country, snapshot.byCountry(iso2Code));
+            }
+            return countryLoads.execute(iso2Code, () -> loadSwiftCodesByCountry(iso2Code));
+        } catch (RuntimeException e) {
+            operation.error(e);
+            throw e;
+        } finally {
+            operation.finish();
+        }
+    }
+
+    public BankSwiftCodesDto getSwiftCodesByBank(String bankCode) {
+        return getSwiftCodesByBank(directory.current(), bankCode);
+    }
+
+    public BankSwiftCodesDto getSwiftCodesByBank(DirectorySnapshot snapshot, String bankCode) {
+        ServiceOperation operation = ServiceOperation.start(observationRegistry, "getSwiftCodesByBank", bankCode);
+        try {
+            String code = bankCode.toUpperCase();
+            if (!SwiftCodeValidator.isValidBankCode(code)) {
+                throw new InvalidSwiftCodeException("Bank code must be exactly 4 letters: " + bankCode);
+            }
+            if (snapshot.isLoaded()) {
+                List<SwiftCodeRecord> records = new ArrayList<>(snapshot.range(code, code + BANK_RANGE_UPPER_SUFFIX));
+                // The database query orders by country first; the sort is stable, so codes stay in order within one.
+                records.sort(Comparator.comparing(SwiftCodeRecord::countryIso2));
+                return bankSwiftCodes(code, records);
+            }
+            return bankLoads.execute(code, () -> loadSwiftCodesByBank(code));
+        } catch (RuntimeException e) {
+            operation.error(e);
+            throw e;
+        } finally {
+            operation.finish();
+        }
+    }
+
+    public FilteredSwiftCodesDto filterSwiftCodes(SwiftCodeFilter filter) {
+        return filterSwiftCodes(directory.current(), filter);
+    }
+
+    /**
+     * Codes matching every predicate of {@code filter}, in swift code order. A loaded snapshot answers by
+     * intersecting its attribute bitmaps.
+     */
+    public FilteredSwiftCodesDto filterSwiftCodes(DirectorySnapshot snapshot, SwiftCodeFilter filter) {
+        ServiceOperation operation = ServiceOperation.start(observationRegistry, "filterSwiftCodes", filter);
+        try {
+            if (filter.isEmpty()) {
+                throw new InvalidSwiftCodeException("At least one filter parameter is required");
+            }
+            List<SwiftCodeRecord> records = snapshot.isLoaded()
+                    ? snapshot.filter(filter)
+                    : swiftCodeRepository.findRecordsMatching(filter.countryIso2(), filter.townName(),
+                            filter.timeZone(), filter.codeType(), filter.headquarter());
+
+            return FilteredSwiftCodesDto.builder()
+                    .count(records.size())
+                    .swiftCodes(SwiftCodeRecordList.withAttributes(records))
+                    .build();
+        } catch (RuntimeException e) {
+            operation.error(e);
+            throw e;
+        } finally {
+            operation.finish();
+        }
+    }
+
+    /**
+     * Branches are the non-headquarter codes sharing the headquarter's 8-character prefix, the rule used to link
+     * them in the database.
+     */
+    private SwiftCodeWithBranchesDto swiftCodeDetails(DirectorySnapshot snapshot, String swiftCode) {
+        SwiftCodeRecord code = snapshot.find(swiftCode);
+        if (code == null) {
+            throw new SwiftCodeNotFoundException(swiftCode);
+        }
+
+        List<SwiftCodeRecord> branches = Collections.emptyList();
+        if (code.headquarter()) {
+            String prefix = headquarterPrefix(code.swiftCode());
+            branches = snapshot.range(prefix, prefix + BRANCH_RANGE_UPPER_SUFFIX).stream()
+                    .filter(branch -> !branch.headquarter())
+                    .toList();
+        }
+
+        return SwiftCodeWithBranchesDto.builder()
+                .swiftCode(code.swiftCode())
+                .bankName(code.bankName())
+                .address(code.address())
+                .countryISO2(code.countryIso2())
+                .countryName(code.countryName())
+                .isHeadquarter(code.headquarter())
+                .branches(branches.isEmpty() ? null : SwiftCodeRecordList.of(branches))
+                .build();
+    }
+
+    private SwiftCodeWithBranchesDto loadSwiftCodeDetails(String swiftCode) {
         SwiftCode code = swiftCodeRepository.findBySwiftCode(swiftCode)
-                .orElseThrow(() -> new EntityNotFoundException("Swift code not found: " + swiftCode));
+                .orElseThrow(() -> new SwiftCodeNotFoundException(swiftCode));
 
         List<SwiftCodeDto> branches = Collections.emptyList();
         if (code.getIsHeadquarter()) {
@@ -48,100 +232,327 @@ public class SwiftCodeService {
                 .build();
     }
 
-    public CountrySwiftCodesDto getSwiftCodesByCountry(String countryIso2Code) {
-        Country country = countryRepository.findByIso2Code(countryIso2Code.toUpperCase())
-                .orElseThrow(() -> new EntityNotFoundException("Country not found: " + countryIso2Code));
+    private CountrySwiftCodesDto loadSwiftCodesByCountry(String countryIso2Code) {
+        Country country = findCountry(countryIso2Code)
+                .orElseThrow(() -> new CountryNotFoundException(countryIso2Code));
 
-        List<SwiftCodeDto> swiftCodes = swiftCodeRepository.findByCountryIso2Code(countryIso2Code.toUpperCase()).stream()
-                .map(this::convertToSwiftCodeDto)
-                .toList();
+        return countrySwiftCodes(country, swiftCodeRepository.findRecordsByCountryId(country.getId()));
+    }
 
+    private CountrySwiftCodesDto countrySwiftCodes(Country country, List<SwiftCodeRecord> records) {
         return CountrySwiftCodesDto.builder()
                 .countryISO2(country.getIso2Code())
                 .countryName(country.getName())
-                .swiftCodes(swiftCodes)
+                .swiftCodes(SwiftCodeRecordList.of(records))
+                .build();
+    }
+
+    /**
+     * Loads every code of the bank in a single range query and groups it in memory: by country, then each
+     * branch under the headquarter sharing its 8-character prefix (the same rule used to link them on import).
+     */
+    private BankSwiftCodesDto loadSwiftCodesByBank(String bankCode) {
+        return bankSwiftCodes(bankCode,
+                swiftCodeRepository.findRecordsInRange(bankCode, bankCode + BANK_RANGE_UPPER_SUFFIX));
+    }
+
+    private BankSwiftCodesDto bankSwiftCodes(String bankCode, List<SwiftCodeRecord> records) {
+        if (records.isEmpty()) {
+            throw new BankNotFoundException(bankCode);
+        }
+
+        Map<String, List<SwiftCodeRecord>> recordsByCountry = new LinkedHashMap<>();
+        for (SwiftCodeRecord record : records) {
+            recordsByCountry.computeIfAbsent(record.countryIso2(), iso2 -> new ArrayList<>()).add(record);
+        }
+
+        List<BankCountryDto> countries = new ArrayList<>(recordsByCountry.size());
+        for (List<SwiftCodeRecord> countryRecords : recordsByCountry.values()) {
+            countries.add(groupByHeadquarter(countryRecords));
+        }
+
+        return BankSwiftCodesDto.builder()
+                .bankCode(bankCode)
+                .countries(countries)
+                .build();
+    }
+
+    private BankCountryDto groupByHeadquarter(List<SwiftCodeRecord> countryRecords) {
+        Map<String, SwiftCodeRecord> headquarters = new LinkedHashMap<>();
+        Map<String, List<SwiftCodeRecord>> branchesByPrefix = new LinkedHashMap<>();
+        for (SwiftCodeRecord record : countryRecords) {
+            if (record.headquarter()) {
+                headquarters.put(headquarterPrefix(record.swiftCode()), record);
+            }
+        }
+
+        List<SwiftCodeRecord> branchesWithoutHeadquarter = new ArrayList<>();
+        for (SwiftCodeRecord record : countryRecords) {
+            if (record.headquarter()) {
+                continue;
+            }
+            String prefix = headquarterPrefix(record.swiftCode());
+            if (headquarters.containsKey(prefix)) {
+                branchesByPrefix.computeIfAbsent(prefix, p -> new ArrayList<>()).add(record);
+            } else {
+                branchesWithoutHeadquarter.add(record);
+            }
+        }
+
+        List<SwiftCodeWithBranchesDto> headquarterDtos = new ArrayList<>(headquarters.size());
+        for (Map.Entry<String, SwiftCodeRecord> entry : headquarters.entrySet()) {
+            SwiftCodeRecord headquarter = entry.getValue();
+            List<SwiftCodeRecord> branches = branchesByPrefix.get(entry.getKey());
+            headquarterDtos.add(SwiftCodeWithBranchesDto.builder()
+                    .swiftCode(headquarter.swiftCode())
+                    .bankName(headquarter.bankName())
+                    .address(headquarter.address())
+                    .countryISO2(headquarter.countryIso2())
+                    .countryName(headquarter.countryName())
+                    .isHeadquarter(true)
+                    .branches(branches == null ? null : SwiftCodeRecordList.of(branches))
+                    .build());
+        }
+
+        SwiftCodeRecord first = countryRecords.getFirst();
+        return BankCountryDto.builder()
+                .countryISO2(first.countryIso2())
+                .countryName(first.countryName())
+                .headquarters(headquarterDtos)
+                .branchesWithoutHeadquarter(SwiftCodeRecordList.of(branchesWithoutHeadquarter))
                 .build();
     }
 
     @Transactional
     public MessageResponseDto deleteSwiftCode(String swiftCode) {
-        SwiftCode codeToDelete = swiftCodeRepository.findBySwiftCode(swiftCode)
-                .orElseThrow(() -> new EntityNotFoundException("Swift code not found: " + swiftCode));
+        ServiceOperation operation = ServiceOperation.start(observationRegistry, "deleteSwiftCode", swiftCode);
+        try {
+            if (!bloomFilter.mightContain(swiftCode)) {
+                throw new SwiftCodeNotFoundException(swiftCode);
+            }
 
-        if (codeToDelete.getIsHeadquarter()) {
-            List<SwiftCode> branches = swiftCodeRepository.findByHeadquarter(codeToDelete);
+            SwiftCode codeToDelete = swiftCodeRepository.findBySwiftCode(swiftCode)
+                    .orElseThrow(() -> new SwiftCodeNotFoundException(swiftCode));
 
-            for (SwiftCode branch : branches) {
-                branch.setHeadquarter(null);
-                swiftCodeRepository.save(branch);
+            if (codeToDelete.getIsHeadquarter()) {
+                List<SwiftCode> branches = swiftCodeRepository.findByHeadquarter(codeToDelete);
+
+                for (SwiftCode branch : branches) {
+                    branch.setHeadquarter(null);
+                    swiftCodeRepository.save(branch);
+                }
             }
-        }
 
-        swiftCodeRepository.delete(codeToDelete);
-        return new MessageResponseDto("Swift code " + codeToDelete.getSwiftCode() + " deleted successfully");
+            swiftCodeRepository.delete(codeToDelete);
+            changeLog.recordDelete(codeToDelete);
+            changePublisher.publishDeleted(codeToDelete.getSwiftCode(), codeToDelete.getCountry().getIso2Code());
+            return new MessageResponseDto("Swift code " + codeToDelete.getSwiftCode() + " deleted successfully");
+        } catch (RuntimeException e) {
+            operation.error(e);
+            throw e;
+        } finally {
+            operation.finish();
+        }
     }
 
     @Transactional
     public MessageResponseDto addSwiftCode(SwiftCodeDto swiftCodeDto) {
+        ServiceOperation operation = ServiceOperation.start(observationRegistry,
+                "addSwiftCode", swiftCodeDto.getSwiftCode());
+        try {
+            validateSwiftCode(swiftCodeDto);
 
-        validateSwiftCode(swiftCodeDto);
+            Country country = findOrCreateCountry(swiftCodeDto.getCountryISO2().toUpperCase(),
+                    swiftCodeDto.getCountryName());
 
-        Country country = countryRepository.findByIso2Code(swiftCodeDto.getCountryISO2().toUpperCase())
-                .orElseGet(() -> {
-                    Country newCountry = Country.builder()
-                            .iso2Code(swiftCodeDto.getCountryISO2().toUpperCase())
-                            .name(swiftCodeDto.getCountryName().toUpperCase())
-                            .build();
-                    return countryRepository.save(newCountry);
-                });
+            SwiftCode swiftCode = SwiftCode.builder()
+                    .swiftCode(swiftCodeDto.getSwiftCode())
+                    .bankName(swiftCodeDto.getBankName())
+                    .address(swiftCodeDto.getAddress())
+                    .codeType(swiftCodeDto.getCodeType())
+                    .townName(swiftCodeDto.getTownName())
+                    .timeZone(swiftCodeDto.getTimeZone())
+                    .isHeadquarter(swiftCodeDto.getIsHeadquarter())
+                    .country(country)
+                    .build();
 
-        SwiftCode swiftCode = SwiftCode.builder()
-                .swiftCode(swiftCodeDto.getSwiftCode())
-                .bankName(swiftCodeDto.getBankName())
-                .address(swiftCodeDto.getAddress())
-                .isHeadquarter(swiftCodeDto.getIsHeadquarter())
-                .country(country)
-                .build();
+            linkToHeadquarter(swiftCode);
+
+            bloomFilter.put(swiftCode.getSwiftCode());
+            swiftCodeRepository.save(swiftCode);
+            linkBranches(swiftCode);
+            changeLog.recordUpsert(swiftCode);
+            changePublisher.publishAdded(swiftCode.getSwiftCode(), country.getIso2Code());
+            return new MessageResponseDto("Swift code added successfully!");
+        } catch (RuntimeException e) {
+            operation.error(e);
+            throw e;
+        } finally {
+            operation.finish();
+        }
+    }
+
+    /**
+     * Stores already validated codes in one transaction, as used by the write-behind writer. Codes that are
+     * stored already are skipped, so replaying a batch is harmless. Headquarters are looked up with one query for
+     * the whole batch and may also come from the batch itself.
+     *
+     * @return the number of codes stored
+     */
+    @Transactional
+    public int addSwiftCodes(List<SwiftCodeDto> swiftCodeDtos) {
+        ServiceOperation operation = ServiceOperation.start(observationRegistry,
+                "addSwiftCodes", swiftCodeDtos.size() + " codes");
+        try {
+            Set<String> skipped = new HashSet<>(swiftCodeRepository.findExistingSwiftCodes(
+                    swiftCodeDtos.stream().map(SwiftCodeDto::getSwiftCode).toList()));
 
-        linkToHeadquarter(swiftCode);
+            Map<String, Country> countries = new HashMap<>();
+            Map<String, SwiftCode> headquarters = new HashMap<>();
+            List<SwiftCode> swiftCodes = new ArrayList<>(swiftCodeDtos.size());
+            for (SwiftCodeDto swiftCodeDto : swiftCodeDtos) {
+                if (!skipped.add(swiftCodeDto.getSwiftCode())) {
+                    continue;
+                }
+                SwiftCode swiftCode = SwiftCode.builder()
+                        .swiftCode(swiftCodeDto.getSwiftCode())
+                        .bankName(swiftCodeDto.getBankName())
+                        .address(swiftCodeDto.getAddress())
+                        .codeType(swiftCodeDto.getCodeType())
+                        .townName(swiftCodeDto.getTownName())
+                        .timeZone(swiftCodeDto.getTimeZone())
+                        .isHeadquarter(swiftCodeDto.getIsHeadquarter())
+                        .country(countries.computeIfAbsent(swiftCodeDto.getCountryISO2().toUpperCase(),
+                                iso2 -> findOrCreateCountry(iso2, swiftCodeDto.getCountryName())))
+                        .build();
+                swiftCodes.add(swiftCode);
+                if (swiftCode.getIsHeadquarter()) {
+                    headquarters.put(headquarterPrefix(swiftCode.getSwiftCode()), swiftCode);
+                }
+            }
 
-        swiftCodeRepository.save(swiftCode);
-        return new MessageResponseDto("Swift code added successfully!");
+            Set<String> storedHeadquarterCodes = new HashSet<>();
+            for (SwiftCode swiftCode : swiftCodes) {
+                String prefix = headquarterPrefix(swiftCode.getSwiftCode());
+                if (!swiftCode.getIsHeadquarter() && !headquarters.containsKey(prefix)
+                        && bloomFilter.mightContain(prefix + "XXX")) {
+                    storedHeadquarterCodes.add(prefix + "XXX");
+                }
+            }
+            if (!storedHeadquarterCodes.isEmpty()) {
+                for (SwiftCode headquarter : swiftCodeRepository.findBySwiftCodeIn(storedHeadquarterCodes)) {
+                    headquarters.put(headquarterPrefix(headquarter.getSwiftCode()), headquarter);
+                }
+            }
+            for (SwiftCode swiftCode : swiftCodes) {
+                if (!swiftCode.getIsHeadquarter()) {
+                    swiftCode.setHeadquarter(headquarters.get(headquarterPrefix(swiftCode.getSwiftCode())));
+                }
+            }
+
+            swiftCodeRepository.saveAll(swiftCodes);
+            changeLog.recordUpserts(swiftCodes);
+            for (SwiftCode swiftCode : swiftCodes) {
+                bloomFilter.put(swiftCode.getSwiftCode());
+                linkBranches(swiftCode);
+            }
+            changePublisher.publishAdded(swiftCodes);
+            return swiftCodes.size();
+        } catch (RuntimeException e) {
+            operation.error(e);
+            throw e;
+        } finally {
+            operation.finish();
+        }
+    }
+
+    private Optional<Country> findCountry(String iso2Code) {
+        Country country = countryRegistry.get(iso2Code);
+        if (country != null || countryRegistry.isReady()) {
+            return Optional.ofNullable(country);
+        }
+        return countryRepository.findByIso2Code(iso2Code);
+    }
+
+    /**
+     * A country missing from the registry is still looked up before it is created: another node may have created
+     * it and its change notification may not have arrived yet. The registry picks up a new country once the
+     * transaction commits, through {@link com.example.swiftcodes.cache.LocalCacheSynchronizer}.
+     */
+    private Country findOrCreateCountry(String iso2Code, String countryName) {
+        Country registered = countryRegistry.get(iso2Code);
+        if (registered != null) {
+            return registered;
+        }
+        return countryRepository.findByIso2Code(iso2Code)
+                .orElseGet(() -> {
+                    if (countryName == null || countryName.isBlank()) {
+                        throw new InvalidSwiftCodeException("Country name is required for new country " + iso2Code);
+                    }
+                    return countryRepository.save(Country.builder()
+                            .iso2Code(iso2Code)
+                            .name(countryName.toUpperCase())
+                            .build());
+                });
     }
 
     private void linkToHeadquarter(SwiftCode swiftCode) {
         if(!swiftCode.getIsHeadquarter() && swiftCode.getSwiftCode().length() >= 8) {
             String bankIdentifier = swiftCode.getSwiftCode().substring(0, 8);
             String headquarterCode = bankIdentifier + "XXX";
-            swiftCodeRepository.findBySwiftCode(headquarterCode)
-                    .ifPresent(swiftCode::setHeadquarter);
+            if (bloomFilter.mightContain(headquarterCode)) {
+                swiftCodeRepository.findBySwiftCode(headquarterCode)
+                        .ifPresent(swiftCode::setHeadquarter);
+            }
         }
     }
 
-    private void validateSwiftCode(SwiftCodeDto swiftCodeDto) {
-        if(swiftCodeRepository.findBySwiftCode(swiftCodeDto.getSwiftCode()).isPresent()) {
-            throw new IllegalArgumentException("Swift code already exists: " + swiftCodeDto.getSwiftCode());
+    private void linkBranches(SwiftCode headquarter) {
+        if (headquarter.getIsHeadquarter()) {
+            String bankIdentifier = headquarter.getSwiftCode().substring(0, 8);
+            for (SwiftCode branch : swiftCodeRepository.findUnlinkedBranchesByPrefix(bankIdentifier)) {
+                branch.setHeadquarter(headquarter);
+                swiftCodeRepository.save(branch);
+            }
         }
+    }
 
-        if (swiftCodeDto.getSwiftCode().length() == 11 &&
-                "XXX".equals(swiftCodeDto.getSwiftCode().substring(8)) &&
-                !swiftCodeDto.getIsHeadquarter()) {
-            throw new IllegalArgumentException("Swift code ending with XXX has to be a headquarter");
+    /**
+     * Rejects a new code that is malformed, inconsistent with its country or already stored.
+     */
+    public void validateSwiftCode(SwiftCodeDto swiftCodeDto) {
+        SwiftCodeViolation violation = SwiftCodeValidator.validate(
+                swiftCodeDto.getSwiftCode(), swiftCodeDto.getCountryISO2(), swiftCodeDto.getIsHeadquarter());
+        if (violation != null) {
+            throw new InvalidSwiftCodeException(violation.getMessage(swiftCodeDto.getCountryISO2()));
         }
 
-        if (swiftCodeDto.getSwiftCode().length() == 11 &&
-                !"XXX".equals(swiftCodeDto.getSwiftCode().substring(8)) &&
-                swiftCodeDto.getIsHeadquarter()) {
-            throw new IllegalArgumentException("Headquarter swift code must end with XXX");
+        if(bloomFilter.mightContain(swiftCodeDto.getSwiftCode())
+                && swiftCodeRepository.findBySwiftCode(swiftCodeDto.getSwiftCode()).isPresent()) {
+            throw new InvalidSwiftCodeException("Swift code already exists: " + swiftCodeDto.getSwiftCode());
         }
+    }
 
-        if (!swiftCodeDto.getSwiftCode().substring(4, 6).equals(swiftCodeDto.getCountryISO2())) {
-            throw new IllegalArgumentException("Characters 5-6 of swift code must match the country ISO code: "
-                    + swiftCodeDto.getCountryISO2());
+    /**
+     * Everything {@link #validateSwiftCode(SwiftCodeDto)} checks, plus what storing the code would still fail on:
+     * a country that is not stored yet needs a name. For inserts that are acknowledged before they are stored.
+     */
+    public void validateSwiftCodeToStoreLater(SwiftCodeDto swiftCodeDto) {
+        validateSwiftCode(swiftCodeDto);
+        String countryName = swiftCodeDto.getCountryName();
+        if (countryName == null || countryName.isBlank()) {
+            String iso2Code = swiftCodeDto.getCountryISO2().toUpperCase();
+            if (findCountry(iso2Code).isEmpty()) {
+                throw new InvalidSwiftCodeException("Country name is required for new country " + iso2Code);
+            }
         }
     }
 
 
+    private static String headquarterPrefix(String swiftCode) {
+        return swiftCode.substring(0, SwiftCodeValidator.HEADQUARTER_CODE_LENGTH);
+    }
+
     private SwiftCodeDto convertToSwiftCodeDto(SwiftCode swiftCode) {
         return SwiftCodeDto.builder()
                 .swiftCode(swiftCode.getSwiftCode())
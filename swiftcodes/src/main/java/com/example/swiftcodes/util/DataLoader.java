@@ -1,5 +1,12 @@
 package com.example.swiftcodes.util;
 
+import com.example.swiftcodes.cache.CountryRegistry;
+import com.example.swiftcodes.cache.SwiftCodeBloomFilter;
+import com.example.swiftcodes.cache.SwiftCodeDirectory;
+import com.example.swiftcodes.config.DataImportProperties;
+import com.example.swiftcodes.repository.CountryRepository;
+import com.example.swiftcodes.repository.SwiftCodeRepository;
+import com.example.swiftcodes.service.DirectoryTableSwapImporter;
 import com.example.swiftcodes.service.SwiftCodeParser;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -7,38 +14,93 @@ import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
-import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
 
 import java.io.IOException;
 import java.io.InputStream;
 
 @Configuration
 public class DataLoader {
-    private static final String DATA_FILE_PATH = "data/swift_codes.tsv";
     private static final Logger logger = LoggerFactory.getLogger(DataLoader.class);
 
 
     private final SwiftCodeParser swiftCodeParser;
+    private final DirectoryTableSwapImporter tableSwapImporter;
+    private final SwiftCodeRepository swiftCodeRepository;
+    private final CountryRepository countryRepository;
+    private final SwiftCodeBloomFilter bloomFilter;
+    private final CountryRegistry countryRegistry;
+    private final SwiftCodeDirectory directory;
+    private final DataImportProperties properties;
+    private final ResourceLoader resourceLoader;
 
-    public DataLoader(SwiftCodeParser swiftCodeParser) {
+    public DataLoader(SwiftCodeParser swiftCodeParser, DirectoryTableSwapImporter tableSwapImporter,
+                      SwiftCodeRepository swiftCodeRepository, CountryRepository countryRepository,
+                      SwiftCodeBloomFilter bloomFilter,
+                      CountryRegistry countryRegistry, SwiftCodeDirectory directory,
+                      DataImportProperties properties, ResourceLoader resourceLoader) {
         this.swiftCodeParser = swiftCodeParser;
+        this.tableSwapImporter = tableSwapImporter;
+        this.swiftCodeRepository = swiftCodeRepository;
+        this.countryRepository = countryRepository;
+        this.bloomFilter = bloomFilter;
+        this.countryRegistry = countryRegistry;
+        this.directory = directory;
+        this.properties = properties;
+        this.resourceLoader = resourceLoader;
     }
 
     @Bean
     @Profile("!test")
     public CommandLineRunner loadData() {
         return args -> {
-            try {
-                Resource resource = new ClassPathResource(DATA_FILE_PATH);
-                if (resource.exists()) {
-                    try (InputStream inputStream = resource.getInputStream()) {
-                        swiftCodeParser.parseTsv(inputStream);
-                    }
+            // Loaded before the import so that it resolves known countries without queries; the import's
+            // reload notification refreshes it with the countries it created.
+            countryRegistry.initialize(countryRepository.findAll());
+            if (shouldImport()) {
+                importDirectory();
+            }
+
+            logger.info("Country registry ready: {} countries", countryRegistry.size());
+            directory.reload();
+            logger.info("Directory snapshot {} ready: {} codes", directory.current().version(),
+                    directory.current().size());
+            bloomFilter.initialize(() -> swiftCodeRepository.findAllSwiftCodes().iterator());
+            logger.info("Bloom filter ready: {} codes, {} bytes, expected false-positive rate {}",
+                    bloomFilter.getInsertions(), bloomFilter.getSizeInBytes(),
+                    bloomFilter.getExpectedFalsePositiveProbability());
+        };
+    }
+
+    private boolean shouldImport() {
+        return switch (properties.mode()) {
+            case ALWAYS -> true;
+            case NEVER -> false;
+            case IF_EMPTY -> {
+                long existing = swiftCodeRepository.count();
+                if (existing > 0) {
+                    logger.info("Skipping the data import: the database already holds {} swift codes", existing);
                 }
-            } catch (IOException e) {
-                logger.error("Error loading data file: {}", e.getMessage(), e);
+                yield existing == 0;
             }
         };
     }
+
+    private void importDirectory() {
+        try {
+            Resource resource = resourceLoader.getResource(properties.location());
+            if (resource.exists()) {
+                try (InputStream inputStream = resource.getInputStream()) {
+                    switch (properties.strategy()) {
+                        case IN_PLACE -> swiftCodeParser.parse(properties.resolvedFormat(), inputStream);
+                        case SWAP -> tableSwapImporter.reload(properties.resolvedFormat(), inputStream);
+                    }
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // A refused swap leaves the live directory in place; keep serving it.
+            logger.error("Error loading data file: {}", e.getMessage(), e);
+        }
+    }
 }
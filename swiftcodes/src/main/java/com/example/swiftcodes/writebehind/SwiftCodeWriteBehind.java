@@ -0,0 +1,272 @@
+package com.example.swiftcodes.writebehind;
+
+import com.example.swiftcodes.config.WriteBehindProperties;
+import com.example.swiftcodes.exception.InvalidSwiftCodeException;
+import com.example.swiftcodes.exception.WriteQueueFullException;
+import com.example.swiftcodes.model.dto.MessageResponseDto;
+import com.example.swiftcodes.model.dto.SwiftCodeDto;
+import com.example.swiftcodes.service.SwiftCodeService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Optional write-behind mode for {@code POST /v1/swift-codes}: a validated insert is journaled, queued and
+ * acknowledged right away, and a background writer stores the queue in batches of up to {@code batch-size}
+ * codes per transaction. Once {@code queue-capacity} inserts are waiting, new ones are rejected with
+ * {@link WriteQueueFullException} until the writer catches up.
+ * <p>
+ * A batch that fails is retried code by code: codes the database rejects are dropped and logged, while other
+ * failures (database unavailable) are retried until they succeed or the node stops. Whatever is still queued at
+ * shutdown or crash is replayed from the journal on the next start.
+ */
+@Component
+public class SwiftCodeWriteBehind implements SmartLifecycle {
+    private static final Logger logger = LoggerFactory.getLogger(SwiftCodeWriteBehind.class);
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(30);
+
+    private final WriteBehindProperties properties;
+    private final SwiftCodeService swiftCodeService;
+    private final WriteBehindJournal journal;
+    private final BlockingQueue<WriteBehindJournal.JournalEntry> queue = new LinkedBlockingQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Set<String> pendingCodes = ConcurrentHashMap.newKeySet();
+    private final Counter rejected;
+    private final Counter written;
+    private final Counter dropped;
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public SwiftCodeWriteBehind(WriteBehindProperties properties, SwiftCodeService swiftCodeService,
+                                ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.swiftCodeService = swiftCodeService;
+        this.journal = new WriteBehindJournal(properties.journal(),
+                properties.journalCompactionThreshold().toBytes(), objectMapper);
+        this.rejected = Counter.builder("swiftcodes.write.behind.rejected")
+                .description("Inserts rejected with 503 because the write-behind queue was full")
+                .register(meterRegistry);
+        this.written = Counter.builder("swiftcodes.write.behind.written")
+                .description("Queued inserts stored by the write-behind writer")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("swiftcodes.write.behind.dropped")
+                .description("Queued inserts the database rejected")
+                .register(meterRegistry);
+        Gauge.builder("swiftcodes.write.behind.queue.size", queued, AtomicInteger::get)
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return properties.enabled();
+    }
+
+    /**
+     * Validates the insert like the synchronous path, then journals and queues it. Whatever the writer would reject
+     * is rejected here, since the client is told the insert was accepted.
+     *
+     * @throws InvalidSwiftCodeException if the code is malformed, already stored or already queued, or its country
+     *                                   is new and has no name
+     * @throws WriteQueueFullException   if the queue is at capacity
+     */
+    public MessageResponseDto accept(SwiftCodeDto swiftCodeDto) {
+        swiftCodeService.validateSwiftCodeToStoreLater(swiftCodeDto);
+        String swiftCode = swiftCodeDto.getSwiftCode();
+        if (!pendingCodes.add(swiftCode)) {
+            throw new InvalidSwiftCodeException("Swift code already exists: " + swiftCode);
+        }
+        if (queued.incrementAndGet() > properties.queueCapacity()) {
+            queued.decrementAndGet();
+            pendingCodes.remove(swiftCode);
+            rejected.increment();
+            throw new WriteQueueFullException();
+        }
+
+        try {
+            long sequence = journal.append(swiftCodeDto);
+            queue.add(new WriteBehindJournal.JournalEntry(sequence, swiftCodeDto));
+        } catch (IOException e) {
+            queued.decrementAndGet();
+            pendingCodes.remove(swiftCode);
+            throw new UncheckedIOException("Could not journal swift code " + swiftCode, e);
+        }
+        return new MessageResponseDto("Swift code " + swiftCode + " accepted for processing");
+    }
+
+    int queueSize() {
+        return queued.get();
+    }
+
+    @Override
+    public void start() {
+        if (!properties.enabled()) {
+            return;
+        }
+        try {
+            List<WriteBehindJournal.JournalEntry> recovered = journal.open();
+            for (WriteBehindJournal.JournalEntry entry : recovered) {
+                pendingCodes.add(entry.swiftCode().getSwiftCode());
+                queued.incrementAndGet();
+                queue.add(entry);
+            }
+            if (!recovered.isEmpty()) {
+                logger.info("Replaying {} journaled swift code inserts from {}", recovered.size(),
+                        properties.journal());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open write-behind journal " + properties.journal(), e);
+        }
+        running = true;
+        writerThread = Thread.ofPlatform()
+                .name("swift-code-write-behind")
+                .daemon()
+                .start(this::drain);
+    }
+
+    /**
+     * Stops accepting work from the queue after flushing what is already in it; inserts that cannot be stored now
+     * stay in the journal.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        if (writerThread != null) {
+            try {
+                if (!writerThread.join(SHUTDOWN_TIMEOUT)) {
+                    logger.warn("Write-behind writer did not finish within {}; {} inserts stay in the journal",
+                            SHUTDOWN_TIMEOUT, queued.get());
+                    writerThread.interrupt();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        try {
+            journal.close();
+        } catch (IOException e) {
+            logger.warn("Could not close write-behind journal: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Starts before and stops after the web server, so requests never reach a closed journal.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void drain() {
+        List<WriteBehindJournal.JournalEntry> batch = new ArrayList<>(properties.batchSize());
+        while (running || !queue.isEmpty()) {
+            try {
+                WriteBehindJournal.JournalEntry first = queue.poll(properties.flushInterval().toMillis(),
+                        TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, properties.batchSize() - 1);
+                if (!flush(batch)) {
+                    return;
+                }
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Stores the batch in one transaction, falling back to one transaction per code if that fails.
+     *
+     * @return {@code false} if the node stopped while a code could not be stored
+     */
+    private boolean flush(List<WriteBehindJournal.JournalEntry> batch) throws InterruptedException {
+        try {
+            written.increment(swiftCodeService.addSwiftCodes(batch.stream()
+                    .map(WriteBehindJournal.JournalEntry::swiftCode)
+                    .toList()));
+            done(batch);
+            return true;
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                return flushSingle(batch.getFirst(), e);
+            }
+            logger.warn("Write-behind batch of {} failed, retrying code by code: {}", batch.size(), e.getMessage());
+        }
+
+        for (WriteBehindJournal.JournalEntry entry : batch) {
+            if (!flushSingle(entry, null)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean flushSingle(WriteBehindJournal.JournalEntry entry, RuntimeException previousFailure)
+            throws InterruptedException {
+        RuntimeException failure = previousFailure;
+        while (true) {
+            if (failure == null) {
+                try {
+                    written.increment(swiftCodeService.addSwiftCodes(List.of(entry.swiftCode())));
+                    done(List.of(entry));
+                    return true;
+                } catch (RuntimeException e) {
+                    failure = e;
+                }
+            }
+            if (failure instanceof DataIntegrityViolationException || failure instanceof IllegalArgumentException) {
+                logger.error("Dropping queued swift code {}: {}", entry.swiftCode().getSwiftCode(),
+                        failure.getMessage());
+                dropped.increment();
+                done(List.of(entry));
+                return true;
+            }
+            if (!running) {
+                return false;
+            }
+            logger.warn("Could not store queued swift code {}, retrying in {}: {}",
+                    entry.swiftCode().getSwiftCode(), properties.retryDelay(), failure.getMessage());
+            Thread.sleep(properties.retryDelay());
+            failure = null;
+        }
+    }
+
+    private void done(List<WriteBehindJournal.JournalEntry> entries) {
+        try {
+            journal.checkpoint(entries.stream().map(WriteBehindJournal.JournalEntry::sequence).toList());
+        } catch (IOException e) {
+            logger.warn("Could not checkpoint write-behind journal: {}", e.getMessage());
+        }
+        for (WriteBehindJournal.JournalEntry entry : entries) {
+            pendingCodes.remove(entry.swiftCode().getSwiftCode());
+        }
+        queued.addAndGet(-entries.size());
+    }
+}
@@ -0,0 +1,216 @@
+package com.example.swiftcodes.writebehind;
+
+import com.example.swiftcodes.model.dto.SwiftCodeDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Append-only log of accepted inserts, forced to disk before the insert is acknowledged, so that nothing
+ * acknowledged with 202 is lost if the node dies before the background writer has stored it.
+ * <p>
+ * Each accepted insert is an {@code A} line with its sequence number; once a batch is done with, a {@code C} line
+ * lists the sequence numbers it covered. Concurrent accepts can reach the writer out of sequence order, so a
+ * checkpoint names its entries rather than a range. On startup every entry without a checkpoint is handed back
+ * for replay. Concurrent appends share a single {@code force} (group commit). Once the file outgrows the
+ * compaction threshold it is rewritten with only the pending entries.
+ */
+final class WriteBehindJournal implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(WriteBehindJournal.class);
+    private static final String ACCEPTED = "A";
+    private static final String CHECKPOINT = "C";
+
+    private final Path path;
+    private final long compactionThreshold;
+    private final ObjectMapper objectMapper;
+    private final Object syncLock = new Object();
+    private final NavigableMap<Long, String> pendingLines = new ConcurrentSkipListMap<>();
+
+    private FileChannel channel;
+    private long sequence;
+    private long fileBytes;
+    // Bytes ever written and ever forced, across compactions; written under this journal's lock.
+    private volatile long writtenBytes;
+    private volatile long syncedBytes;
+
+    WriteBehindJournal(Path path, long compactionThreshold, ObjectMapper objectMapper) {
+        this.path = path;
+        this.compactionThreshold = compactionThreshold;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Opens the journal, creating it if needed, and returns the entries accepted but not checkpointed before the
+     * last shutdown or crash, in acceptance order.
+     */
+    synchronized List<JournalEntry> open() throws IOException {
+        Path directory = path.toAbsolutePath().getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+        if (Files.exists(path)) {
+            readExisting();
+        }
+        compact();
+
+        List<JournalEntry> pending = new ArrayList<>(pendingLines.size());
+        for (String line : pendingLines.values()) {
+            pending.add(parseAccepted(line));
+        }
+        return pending;
+    }
+
+    /**
+     * Durably records an accepted insert and returns its sequence number.
+     */
+    long append(SwiftCodeDto swiftCode) throws IOException {
+        String json = objectMapper.writeValueAsString(swiftCode);
+        long entrySequence;
+        long end;
+        synchronized (this) {
+            entrySequence = ++sequence;
+            String line = ACCEPTED + '\t' + entrySequence + '\t' + json + '\n';
+            write(line);
+            pendingLines.put(entrySequence, line);
+            end = writtenBytes;
+        }
+        sync(end);
+        return entrySequence;
+    }
+
+    /**
+     * Marks exactly the entries with the given sequence numbers as done with; entries accepted earlier but still
+     * queued stay pending. Not forced: a lost checkpoint only means replaying inserts that are already stored,
+     * which the writer drops.
+     */
+    synchronized void checkpoint(Collection<Long> sequences) throws IOException {
+        StringJoiner line = new StringJoiner(",", CHECKPOINT + '\t', "\n");
+        for (Long done : sequences) {
+            pendingLines.remove(done);
+            line.add(done.toString());
+        }
+        if (fileBytes >= compactionThreshold) {
+            compact();
+        } else {
+            write(line.toString());
+        }
+    }
+
+    synchronized int pendingCount() {
+        return pendingLines.size();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private void readExisting() throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                try {
+                    String[] fields = line.split("\t", 3);
+                    if (fields[0].equals(CHECKPOINT) && fields.length == 2) {
+                        for (String done : fields[1].split(",")) {
+                            pendingLines.remove(Long.parseLong(done));
+                        }
+                    } else if (fields[0].equals(ACCEPTED) && fields.length == 3) {
+                        long entrySequence = Long.parseLong(fields[1]);
+                        parseAccepted(line);
+                        pendingLines.put(entrySequence, line + '\n');
+                        sequence = Math.max(sequence, entrySequence);
+                    } else {
+                        throw new IllegalArgumentException("unknown record type");
+                    }
+                } catch (RuntimeException | JsonProcessingException e) {
+                    // A torn last line is expected after a crash in the middle of an append.
+                    logger.warn("Skipping unreadable write-behind journal line {}: {}", lineNumber, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private JournalEntry parseAccepted(String line) throws JsonProcessingException {
+        String[] fields = line.strip().split("\t", 3);
+        return new JournalEntry(Long.parseLong(fields[1]), objectMapper.readValue(fields[2], SwiftCodeDto.class));
+    }
+
+    private void write(String line) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8));
+        int length = buffer.remaining();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        fileBytes += length;
+        writtenBytes += length;
+    }
+
+    private void sync(long position) throws IOException {
+        if (syncedBytes >= position) {
+            return;
+        }
+        synchronized (syncLock) {
+            if (syncedBytes >= position) {
+                return;
+            }
+            long target = writtenBytes;
+            channel.force(false);
+            syncedBytes = target;
+        }
+    }
+
+    /**
+     * Rewrites the journal with only the pending entries and swaps it in with an atomic rename, so a crash at any
+     * point leaves either the old or the new complete file.
+     */
+    private void compact() throws IOException {
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        long length = 0;
+        try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (String line : pendingLines.values()) {
+                ByteBuffer buffer = ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8));
+                length += buffer.remaining();
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+            }
+            out.force(true);
+        }
+        synchronized (syncLock) {
+            if (channel != null) {
+                channel.close();
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            fileBytes = length;
+            syncedBytes = writtenBytes;
+        }
+    }
+
+    record JournalEntry(long sequence, SwiftCodeDto swiftCode) {
+    }
+}
@@ -0,0 +1,22 @@
+-- Schema as previously generated by Hibernate (ddl-auto=update). IF NOT EXISTS lets databases created that way
+-- be baselined in place.
+create table if not exists countries (
+    id        bigint generated by default as identity primary key,
+    iso2_code varchar(2)   not null unique,
+    name      varchar(255) not null
+);
+
+create table if not exists swift_codes (
+    id             bigint generated by default as identity primary key,
+    swift_code     varchar(11)  not null unique,
+    bank_name      varchar(255) not null,
+    address        text,
+    is_headquarter boolean      not null,
+    country_id     bigint       not null references countries (id),
+    headquarter_id bigint references swift_codes (id)
+);
+
+create index if not exists idx_iso2_code on countries (iso2_code);
+create index if not exists idx_swift_code on swift_codes (swift_code);
+create index if not exists idx_country_id on swift_codes (country_id);
+create index if not exists idx_headquarter_id on swift_codes (headquarter_id);
@@ -0,0 +1,7 @@
+-- Pooled sequence for swift code ids: unlike an identity column it lets Hibernate batch inserts,
+-- reserving 50 ids per round trip.
+create sequence if not exists swift_codes_seq start with 1 increment by 50;
+
+select setval('swift_codes_seq', (select coalesce(max(id), 0) + 50 from swift_codes));
+
+alter table swift_codes alter column id drop identity if exists;
@@ -0,0 +1,14 @@
+-- The unique constraints already index the natural keys; the plain indexes on the same columns were duplicates.
+drop index if exists idx_swift_code;
+drop index if exists idx_iso2_code;
+
+-- Covers the country listing: rows come out in swift code order straight from the index (index-only scan).
+-- Its leading column also serves the country_id foreign key, so the single-column index goes.
+create index if not exists idx_swift_codes_country_listing
+    on swift_codes (country_id, swift_code) include (bank_name, address, is_headquarter);
+drop index if exists idx_country_id;
+
+-- Finds the branches sharing a headquarter's 8-character prefix when the headquarter is added after them.
+-- Hibernate renders JPQL substring() as substr() on PostgreSQL; the expression must match it exactly.
+create index if not exists idx_swift_codes_headquarter_prefix
+    on swift_codes (substr(swift_code, 1, 8));
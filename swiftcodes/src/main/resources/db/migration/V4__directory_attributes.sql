@@ -0,0 +1,5 @@
+-- Columns of the directory file that earlier imports dropped. Codes added through the API may leave them empty.
+alter table swift_codes
+    add column if not exists code_type varchar(16),
+    add column if not exists town_name varchar(255),
+    add column if not exists time_zone varchar(64);
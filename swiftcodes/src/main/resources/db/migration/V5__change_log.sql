@@ -0,0 +1,16 @@
+-- Append-only log of directory changes for clients keeping local copies. Each row carries the state a code
+-- changed to (nothing but its country for a deletion), so applying a change never needs another lookup.
+create table if not exists swift_code_changes (
+    version        bigint generated always as identity primary key,
+    operation      varchar(8)  not null,
+    swift_code     varchar(11) not null,
+    country_iso2   varchar(2),
+    country_name   varchar(255),
+    bank_name      varchar(255),
+    address        text,
+    is_headquarter boolean,
+    code_type      varchar(16),
+    town_name      varchar(255),
+    time_zone      varchar(64),
+    changed_at     timestamp with time zone not null default now()
+);
@@ -0,0 +1,70 @@
+package com.example.swiftcodes.admin;
+
+import com.example.swiftcodes.admin.FlightRecordingEndpoint.RecordingStatus;
+import com.example.swiftcodes.config.FlightRecordingProperties;
+import com.example.swiftcodes.diagnostics.ServiceOperationEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.Resource;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlightRecordingEndpointTest {
+
+    private final FlightRecordingEndpoint endpoint = new FlightRecordingEndpoint(new FlightRecordingProperties(
+            "default", Duration.ofMinutes(1), Duration.ofMinutes(5), DataSize.ofMegabytes(10), Duration.ZERO,
+            Duration.ofMillis(20)));
+
+    @AfterEach
+    void tearDown() throws IOException {
+        endpoint.destroy();
+    }
+
+    @Test
+    void recordingIsStartedStoppedAndReturnedAsFile() throws IOException {
+        assertEquals("NONE", endpoint.status().state());
+
+        WebEndpointResponse<RecordingStatus> started = endpoint.run("start", null, null);
+        assertEquals(200, started.getStatus());
+        assertEquals("RUNNING", started.getBody().state());
+        assertEquals(Duration.ofMinutes(1), started.getBody().duration());
+        assertEquals(409, endpoint.run("start", null, null).getStatus());
+        assertEquals(409, endpoint.file("file").getStatus());
+
+        ServiceOperationEvent.start("getSwiftCodeDetails", "BREXPLPWXXX").finish();
+        assertEquals("STOPPED", endpoint.run("stop", null, null).getBody().state());
+
+        Resource file = endpoint.file("file").getBody();
+        assertNotNull(file);
+        assertTrue(RecordingFile.readAllEvents(file.getFile().toPath()).stream()
+                .anyMatch(event -> event.getEventType().getName().equals(ServiceOperationEvent.NAME)));
+        assertEquals(404, endpoint.file("other").getStatus());
+    }
+
+    @Test
+    void newRecordingReplacesStoppedOne() throws IOException {
+        endpoint.run("start", Duration.ofSeconds(30), "profile");
+        endpoint.run("stop", null, null);
+        Resource first = endpoint.file("file").getBody();
+
+        assertEquals("RUNNING", endpoint.run("start", null, null).getBody().state());
+
+        assertFalse(first.exists());
+    }
+
+    @Test
+    void rejectsInvalidRequests() throws IOException {
+        assertEquals(404, endpoint.run("stop", null, null).getStatus());
+        assertEquals(404, endpoint.file("file").getStatus());
+        assertThrows(IllegalArgumentException.class, () -> endpoint.run("start", Duration.ofMinutes(6), null));
+        assertThrows(IllegalArgumentException.class, () -> endpoint.run("start", Duration.ZERO, null));
+        assertThrows(IllegalArgumentException.class, () -> endpoint.run("start", null, "unknown"));
+        assertThrows(IllegalArgumentException.class, () -> endpoint.run("restart", null, null));
+    }
+}
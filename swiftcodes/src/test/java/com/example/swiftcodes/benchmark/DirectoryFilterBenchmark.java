@@ -0,0 +1,72 @@
+package com.example.swiftcodes.benchmark;
+
+import com.example.swiftcodes.cache.DirectorySnapshot;
+import com.example.swiftcodes.model.SwiftCodeFilter;
+import com.example.swiftcodes.model.SwiftCodeRecord;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A combined search (country AND town AND headquarter flag) over a synthetic directory: intersecting the
+ * snapshot's attribute bitmaps vs. scanning the country's records, which is what clients did before.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DirectoryFilterBenchmark {
+    private static final String[] COUNTRIES = {"DE", "PL", "FR", "GB", "US", "IT", "ES", "NL", "CH", "AT"};
+    private static final int TOWNS_PER_COUNTRY = 40;
+
+    @Param({"50000", "500000"})
+    private int size;
+
+    private DirectorySnapshot snapshot;
+    private final SwiftCodeFilter filter = new SwiftCodeFilter("DE", "TOWN 1", null, null, true);
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<SwiftCodeRecord> records = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String country = COUNTRIES[random.nextInt(COUNTRIES.length)];
+            // Skewed like real directories: a few towns hold most of a country's codes.
+            int town = (int) (TOWNS_PER_COUNTRY * Math.pow(random.nextDouble(), 3));
+            boolean headquarter = random.nextInt(3) == 0;
+            String swiftCode = String.format("%c%c%c%c%s%02d%s", 'A' + i / 17576 % 26, 'A' + i / 676 % 26,
+                    'A' + i / 26 % 26, 'A' + i % 26, country, i / 456976, headquarter ? "XXX" : "001");
+            records.add(new SwiftCodeRecord(swiftCode, "BANK " + i, "ADDRESS " + i, country, "COUNTRY " + country,
+                    headquarter, "BIC11", "TOWN " + town, "EUROPE/" + country));
+        }
+        snapshot = DirectorySnapshot.of(1, records);
+        snapshot.filter(filter);
+    }
+
+    @Benchmark
+    public List<SwiftCodeRecord> bitmapIntersection() {
+        return snapshot.filter(filter);
+    }
+
+    @Benchmark
+    public List<SwiftCodeRecord> countryScan() {
+        return snapshot.byCountry(filter.countryIso2()).stream()
+                .filter(record -> record.headquarter() == filter.headquarter())
+                .filter(record -> filter.townName().equals(record.townName()))
+                .toList();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(DirectoryFilterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
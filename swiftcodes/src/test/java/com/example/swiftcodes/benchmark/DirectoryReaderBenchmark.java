@@ -0,0 +1,91 @@
+package com.example.swiftcodes.benchmark;
+
+import com.example.swiftcodes.importer.DirectoryEntry;
+import com.example.swiftcodes.importer.DirectoryFormat;
+import com.example.swiftcodes.importer.DirectoryReader;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading the same synthetic directory of {@code entries} codes from each supported file format, without storing
+ * it: one benchmark per format, so the readers can be compared with the original TSV path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DirectoryReaderBenchmark {
+
+    @Param({"50000"})
+    private int entries;
+
+    private byte[] tsv;
+    private byte[] csv;
+    private byte[] xml;
+
+    @Setup
+    public void setUp() {
+        StringBuilder tsvFile = new StringBuilder();
+        StringBuilder csvFile = new StringBuilder(
+                "COUNTRY ISO2 CODE,SWIFT CODE,CODE TYPE,NAME,ADDRESS,TOWN NAME,COUNTRY NAME,TIME ZONE\r\n");
+        StringBuilder xmlFile = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<directory>\n");
+        for (int i = 0; i < entries; i++) {
+            String swiftCode = String.format("%c%c%c%cPLPW%s", 'A' + i / 17576 % 26, 'A' + i / 676 % 26,
+                    'A' + i / 26 % 26, 'A' + i % 26, i % 5 == 0 ? "XXX" : String.format("%03d", i % 1000));
+            String bankName = "BANK POLSKA KASA OPIEKI S.A. " + i;
+            String address = "UL. GRZYBOWSKA 53/57, WARSZAWA, 00-950";
+            tsvFile.append("PL\t").append(swiftCode).append("\tBIC11\t").append(bankName).append('\t')
+                    .append(address).append("\tWARSZAWA\tPOLAND\tEurope/Warsaw\n");
+            csvFile.append("PL,").append(swiftCode).append(",BIC11,").append(bankName).append(",\"")
+                    .append(address).append("\",WARSZAWA,POLAND,Europe/Warsaw\r\n");
+            xmlFile.append("  <entry><countryIso2>PL</countryIso2><swiftCode>").append(swiftCode)
+                    .append("</swiftCode><codeType>BIC11</codeType><bankName>").append(bankName)
+                    .append("</bankName><address>").append(address)
+                    .append("</address><townName>WARSZAWA</townName><countryName>POLAND</countryName>")
+                    .append("<timeZone>Europe/Warsaw</timeZone></entry>\n");
+        }
+        xmlFile.append("</directory>\n");
+        tsv = tsvFile.toString().getBytes(StandardCharsets.UTF_8);
+        csv = csvFile.toString().getBytes(StandardCharsets.UTF_8);
+        xml = xmlFile.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public void tsv(Blackhole blackhole) throws IOException {
+        readAll(DirectoryFormat.TSV, tsv, blackhole);
+    }
+
+    @Benchmark
+    public void csv(Blackhole blackhole) throws IOException {
+        readAll(DirectoryFormat.CSV, csv, blackhole);
+    }
+
+    @Benchmark
+    public void xml(Blackhole blackhole) throws IOException {
+        readAll(DirectoryFormat.XML, xml, blackhole);
+    }
+
+    private static void readAll(DirectoryFormat format, byte[] file, Blackhole blackhole) throws IOException {
+        try (DirectoryReader reader = format.open(new ByteArrayInputStream(file))) {
+            for (DirectoryEntry entry; (entry = reader.next()) != null; ) {
+                blackhole.consume(entry);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(DirectoryReaderBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
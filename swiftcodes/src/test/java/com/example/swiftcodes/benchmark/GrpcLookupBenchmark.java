@@ -0,0 +1,127 @@
+package com.example.swiftcodes.benchmark;
+
+import com.example.swiftcodes.SwiftcodesApplication;
+import com.example.swiftcodes.grpc.GrpcServer;
+import com.example.swiftcodes.grpc.v1.GetSwiftCodeRequest;
+import com.example.swiftcodes.grpc.v1.StreamCountrySwiftCodesRequest;
+import com.example.swiftcodes.grpc.v1.SwiftCodeChunk;
+import com.example.swiftcodes.grpc.v1.SwiftCodeLookupGrpc;
+import com.example.swiftcodes.repository.SwiftCodeRepository;
+import io.grpc.ManagedChannel;
+import io.grpc.netty.shaded.io.grpc.netty.NettyChannelBuilder;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The same lookups over the REST API (JSON over HTTP/1.1) vs. over gRPC, against one running application with
+ * the {@code prod} profile: throughput, and the latency distribution from sampled call times. Needs a
+ * PostgreSQL database like {@link ServingProfileBenchmark} ({@code -Dbenchmark.datasource.url},
+ * {@code -Dbenchmark.datasource.username}, {@code -Dbenchmark.datasource.password}). Rate limiting and load
+ * shedding, which only guard the HTTP port, are switched off.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(32)
+@Fork(1)
+public class GrpcLookupBenchmark {
+
+    @Param({"rest", "grpc"})
+    private String transport;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private String baseUrl;
+    private ManagedChannel channel;
+    private SwiftCodeLookupGrpc.SwiftCodeLookupBlockingStub stub;
+    private List<String> swiftCodes;
+    private final String[] countries = {"PL", "CL", "LV", "MT", "BG", "UY", "MC", "AL"};
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(SwiftcodesApplication.class).profiles("prod").run(
+                "--server.port=0",
+                "--swiftcodes.grpc.port=0",
+                "--spring.datasource.url=" + System.getProperty("benchmark.datasource.url",
+                        "jdbc:postgresql://localhost:5432/swiftcodes"),
+                "--spring.datasource.username=" + System.getProperty("benchmark.datasource.username", "postgres"),
+                "--spring.datasource.password=" + System.getProperty("benchmark.datasource.password", "password"),
+                "--swiftcodes.rate-limit.enabled=false",
+                "--swiftcodes.load-shedding.enabled=false");
+        swiftCodes = context.getBean(SwiftCodeRepository.class).findAllSwiftCodes();
+
+        int httpPort = ((WebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = "http://localhost:" + httpPort + "/v1/swift-codes/";
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        channel = NettyChannelBuilder.forAddress("localhost", context.getBean(GrpcServer.class).getPort())
+                .usePlaintext()
+                .build();
+        stub = SwiftCodeLookupGrpc.newBlockingStub(channel);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() throws InterruptedException {
+        channel.shutdown().awaitTermination(5, TimeUnit.SECONDS);
+        httpClient.close();
+        context.close();
+    }
+
+    @Benchmark
+    public int swiftCodeDetails() throws IOException, InterruptedException {
+        String swiftCode = swiftCodes.get(ThreadLocalRandom.current().nextInt(swiftCodes.size()));
+        if ("grpc".equals(transport)) {
+            return stub.withDeadlineAfter(5, TimeUnit.SECONDS)
+                    .getSwiftCode(GetSwiftCodeRequest.newBuilder().setSwiftCode(swiftCode).build())
+                    .getSerializedSize();
+        }
+        return get(swiftCode);
+    }
+
+    @Benchmark
+    public int countrySwiftCodes() throws IOException, InterruptedException {
+        String country = countries[ThreadLocalRandom.current().nextInt(countries.length)];
+        if ("grpc".equals(transport)) {
+            Iterator<SwiftCodeChunk> chunks = stub.withDeadlineAfter(5, TimeUnit.SECONDS).streamCountrySwiftCodes(
+                    StreamCountrySwiftCodesRequest.newBuilder().setCountryIso2(country).build());
+            int size = 0;
+            while (chunks.hasNext()) {
+                size += chunks.next().getSerializedSize();
+            }
+            return size;
+        }
+        return get("country/" + country);
+    }
+
+    private int get(String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET " + path + " returned " + response.statusCode());
+        }
+        return response.body().length;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(GrpcLookupBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
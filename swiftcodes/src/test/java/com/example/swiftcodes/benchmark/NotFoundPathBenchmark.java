@@ -0,0 +1,65 @@
+package com.example.swiftcodes.benchmark;
+
+import com.example.swiftcodes.exception.GlobalExceptionHandler;
+import com.example.swiftcodes.exception.SwiftCodeNotFoundException;
+import com.example.swiftcodes.model.dto.MessageResponseDto;
+import jakarta.persistence.EntityNotFoundException;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the 404 path: throwing a miss from {@code depth} frames down (roughly the depth of a servlet request)
+ * and mapping it through {@link GlobalExceptionHandler}, with a regular vs. a stackless exception.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NotFoundPathBenchmark {
+
+    @Param({"20", "120"})
+    private int depth;
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+    private final String swiftCode = "MISSPLPWXXX";
+
+    @Benchmark
+    public ResponseEntity<MessageResponseDto> entityNotFoundException() {
+        try {
+            return throwAt(depth, false);
+        } catch (EntityNotFoundException ex) {
+            return handler.handleEntityNotFoundException(ex);
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<MessageResponseDto> stacklessNotFoundException() {
+        try {
+            return throwAt(depth, true);
+        } catch (EntityNotFoundException ex) {
+            return handler.handleEntityNotFoundException(ex);
+        }
+    }
+
+    private ResponseEntity<MessageResponseDto> throwAt(int remaining, boolean stackless) {
+        if (remaining > 0) {
+            return throwAt(remaining - 1, stackless);
+        }
+        throw stackless
+                ? new SwiftCodeNotFoundException(swiftCode)
+                : new EntityNotFoundException("Swift code not found: " + swiftCode);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(NotFoundPathBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
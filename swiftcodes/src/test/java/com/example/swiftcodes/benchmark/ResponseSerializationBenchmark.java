@@ -0,0 +1,95 @@
+package com.example.swiftcodes.benchmark;
+
+import com.example.swiftcodes.json.SwiftCodeRecordList;
+import com.example.swiftcodes.model.SwiftCodeRecord;
+import com.example.swiftcodes.model.dto.CountrySwiftCodesDto;
+import com.example.swiftcodes.model.dto.SwiftCodeDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing a country listing served from the snapshot: converting its records to DTOs for Jackson's bean
+ * serializer, which is what the service did before, vs. writing the records directly through
+ * {@link SwiftCodeRecordList}. Both produce the same bytes. Run with the GC profiler, so the allocation rate per
+ * operation ({@code gc.alloc.rate.norm}) is reported next to the time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+
+    @Param({"100", "5000"})
+    private int size;
+
+    @Param({"json", "smile"})
+    private String format;
+
+    private List<SwiftCodeRecord> records;
+    private ObjectMapper mapper;
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream(1 << 20);
+
+    @Setup
+    public void setUp() {
+        records = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            boolean headquarter = i % 3 == 0;
+            String swiftCode = String.format("%c%c%c%cPL%02d%s", 'A' + i / 17576 % 26, 'A' + i / 676 % 26,
+                    'A' + i / 26 % 26, 'A' + i % 26, i / 456976, headquarter ? "XXX" : "001");
+            records.add(new SwiftCodeRecord(swiftCode, "BANK " + i, "ADDRESS " + i, "PL", "POLAND", headquarter,
+                    "BIC11", "TOWN " + i % 40, "Europe/Warsaw"));
+        }
+        mapper = format.equals("smile")
+                ? Jackson2ObjectMapperBuilder.smile().build()
+                : Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    @Benchmark
+    public int dtoSerialization() throws IOException {
+        List<SwiftCodeDto> swiftCodes = records.stream()
+                .map(record -> SwiftCodeDto.builder()
+                        .swiftCode(record.swiftCode())
+                        .bankName(record.bankName())
+                        .address(record.address())
+                        .countryISO2(record.countryIso2())
+                        .isHeadquarter(record.headquarter())
+                        .build())
+                .toList();
+        return write(swiftCodes);
+    }
+
+    @Benchmark
+    public int recordSerialization() throws IOException {
+        return write(SwiftCodeRecordList.of(records));
+    }
+
+    private int write(List<SwiftCodeDto> swiftCodes) throws IOException {
+        body.reset();
+        mapper.writeValue(body, CountrySwiftCodesDto.builder()
+                .countryISO2("PL")
+                .countryName("POLAND")
+                .swiftCodes(swiftCodes)
+                .build());
+        return body.size();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ResponseSerializationBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
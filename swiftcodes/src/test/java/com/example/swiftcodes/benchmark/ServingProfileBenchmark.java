@@ -0,0 +1,98 @@
+package com.example.swiftcodes.benchmark;
+
+import com.example.swiftcodes.SwiftcodesApplication;
+import com.example.swiftcodes.repository.SwiftCodeRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end lookup throughput over HTTP with the default settings vs. the {@code prod} profile. Starts the whole
+ * application against the PostgreSQL given by {@code -Dbenchmark.datasource.url} (default: the local
+ * {@code swiftcodes} database, {@code -Dbenchmark.datasource.username} / {@code password} as needed).
+ * Rate limiting and load shedding are switched off so that they do not cap the measured throughput.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(32)
+@Fork(1)
+public class ServingProfileBenchmark {
+
+    @Param({"default", "prod"})
+    private String profile;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private String baseUrl;
+    private List<String> swiftCodes;
+    private final String[] countries = {"PL", "CL", "LV", "MT", "BG", "UY", "MC", "AL"};
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(SwiftcodesApplication.class);
+        if (!"default".equals(profile)) {
+            builder.profiles(profile);
+        }
+        context = builder.run(
+                "--server.port=0",
+                "--spring.datasource.url=" + System.getProperty("benchmark.datasource.url",
+                        "jdbc:postgresql://localhost:5432/swiftcodes"),
+                "--spring.datasource.username=" + System.getProperty("benchmark.datasource.username", "postgres"),
+                "--spring.datasource.password=" + System.getProperty("benchmark.datasource.password", "password"),
+                "--swiftcodes.rate-limit.enabled=false",
+                "--swiftcodes.load-shedding.enabled=false");
+
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = "http://localhost:" + port + "/v1/swift-codes/";
+        swiftCodes = context.getBean(SwiftCodeRepository.class).findAllSwiftCodes();
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        httpClient.close();
+        context.close();
+    }
+
+    @Benchmark
+    public int swiftCodeDetails() throws IOException, InterruptedException {
+        String swiftCode = swiftCodes.get(ThreadLocalRandom.current().nextInt(swiftCodes.size()));
+        return get(swiftCode);
+    }
+
+    @Benchmark
+    public int countrySwiftCodes() throws IOException, InterruptedException {
+        return get("country/" + countries[ThreadLocalRandom.current().nextInt(countries.length)]);
+    }
+
+    private int get(String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET " + path + " returned " + response.statusCode());
+        }
+        return response.body().length;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ServingProfileBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.swiftcodes.benchmark;
+
+import com.example.swiftcodes.model.dto.SwiftCodeDto;
+import com.example.swiftcodes.validation.SwiftCodeValidator;
+import com.example.swiftcodes.validation.SwiftCodeViolation;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Compares Bean Validation of {@link SwiftCodeDto}, the regex checks it used to run and the hand-written
+ * {@link SwiftCodeValidator}. Run {@link #main(String[])} and add {@code -prof gc} to see allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SwiftCodeValidationBenchmark {
+
+    private static final Pattern SWIFT_CODE_PATTERN = Pattern.compile("[A-Z]{6}[A-Z0-9]{2}([A-Z0-9]{3})?");
+    private static final Pattern COUNTRY_PATTERN = Pattern.compile("[A-Z]{2}");
+
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private SwiftCodeDto dto;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        dto = SwiftCodeDto.builder()
+                .address("UL. PUŁAWSKA 15, 02-515 WARSZAWA")
+                .bankName("PKO BANK POLSKI")
+                .countryISO2("PL")
+                .countryName("POLAND")
+                .isHeadquarter(false)
+                .swiftCode("PKOPLPWA001")
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<SwiftCodeDto>> beanValidation() {
+        return validator.validate(dto);
+    }
+
+    @Benchmark
+    public boolean regexAndSubstringChecks() {
+        String swiftCode = dto.getSwiftCode();
+        return SWIFT_CODE_PATTERN.matcher(swiftCode).matches()
+                && COUNTRY_PATTERN.matcher(dto.getCountryISO2()).matches()
+                && !(swiftCode.length() == 11 && "XXX".equals(swiftCode.substring(8)) != dto.getIsHeadquarter())
+                && swiftCode.substring(4, 6).equals(dto.getCountryISO2());
+    }
+
+    @Benchmark
+    public SwiftCodeViolation handWrittenValidator() {
+        return SwiftCodeValidator.validate(dto.getSwiftCode(), dto.getCountryISO2(), dto.getIsHeadquarter());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SwiftCodeValidationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.swiftcodes.cache;
+
+import com.example.swiftcodes.model.Country;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CountryRegistryTest {
+
+    @Test
+    void shouldNotBeReadyUntilInitialized() {
+        CountryRegistry registry = new CountryRegistry();
+
+        assertFalse(registry.isReady());
+        assertNull(registry.get("PL"));
+    }
+
+    @Test
+    void shouldResolveEveryInitializedCountry() {
+        CountryRegistry registry = new CountryRegistry();
+        Country poland = country(1L, "PL", "POLAND");
+        Country zimbabwe = country(2L, "ZW", "ZIMBABWE");
+        Country andorra = country(3L, "AD", "ANDORRA");
+
+        registry.initialize(List.of(poland, zimbabwe, andorra));
+
+        assertTrue(registry.isReady());
+        assertSame(poland, registry.get("PL"));
+        assertSame(zimbabwe, registry.get("ZW"));
+        assertSame(andorra, registry.get("AD"));
+        assertNull(registry.get("DE"));
+        assertEquals(3, registry.size());
+    }
+
+    @Test
+    void shouldRejectCodesOutsideTheIso2Alphabet() {
+        CountryRegistry registry = new CountryRegistry();
+        registry.initialize(List.of(country(1L, "PL", "POLAND")));
+
+        assertNull(registry.get("pl"));
+        assertNull(registry.get("P1"));
+        assertNull(registry.get("POL"));
+        assertNull(registry.get(""));
+        assertNull(registry.get(null));
+    }
+
+    @Test
+    void shouldKeepRegisteredCountriesAcrossRegistrations() {
+        CountryRegistry registry = new CountryRegistry();
+        registry.initialize(List.of(country(1L, "PL", "POLAND")));
+
+        registry.register(country(2L, "DE", "GERMANY"));
+
+        assertEquals(1L, registry.get("PL").getId());
+        assertEquals(2L, registry.get("DE").getId());
+    }
+
+    @Test
+    void shouldReplaceContentsOnReinitialization() {
+        CountryRegistry registry = new CountryRegistry();
+        registry.initialize(List.of(country(1L, "PL", "POLAND")));
+
+        registry.initialize(List.of(country(2L, "DE", "GERMANY")));
+
+        assertNull(registry.get("PL"));
+        assertEquals(2L, registry.get("DE").getId());
+    }
+
+    private static Country country(Long id, String iso2Code, String name) {
+        return Country.builder().id(id).iso2Code(iso2Code).name(name).build();
+    }
+}
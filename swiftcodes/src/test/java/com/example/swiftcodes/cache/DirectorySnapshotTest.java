@@ -0,0 +1,116 @@
+package com.example.swiftcodes.cache;
+
+import com.example.swiftcodes.model.SwiftCodeFilter;
+import com.example.swiftcodes.model.SwiftCodeRecord;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DirectorySnapshotTest {
+
+    @Test
+    void shouldIndexRecordsByCodeRangeAndCountry() {
+        DirectorySnapshot snapshot = DirectorySnapshot.of(1, List.of(
+                record("BREXPLPWXXX", "PL"), record("AAAADEFFXXX", "DE"), record("BREXPLPW001", "PL")));
+
+        assertTrue(snapshot.isLoaded());
+        assertEquals(3, snapshot.size());
+        assertEquals("DE", snapshot.find("AAAADEFFXXX").countryIso2());
+        assertNull(snapshot.find("MISSPLPWXXX"));
+        assertEquals(List.of("BREXPLPW001", "BREXPLPWXXX"), codes(snapshot.range("BREX", "BREXZZZZZZZ")));
+        assertEquals(List.of(), snapshot.range("CCCC", "CCCCZZZZZZZ"));
+        assertEquals(List.of("BREXPLPW001", "BREXPLPWXXX"), codes(snapshot.byCountry("PL")));
+        assertEquals(List.of(), snapshot.byCountry("GB"));
+    }
+
+    @Test
+    void shouldPublishChangesAsNewVersionsLeavingEarlierOnesIntact() {
+        DirectorySnapshot first = DirectorySnapshot.of(1, List.of(record("BREXPLPWXXX", "PL")));
+
+        DirectorySnapshot second = first.with(record("BREXPLPW001", "PL"));
+        DirectorySnapshot third = second.without("BREXPLPWXXX");
+
+        assertEquals(List.of("BREXPLPWXXX"), codes(first.byCountry("PL")));
+        assertEquals(2, second.version());
+        assertEquals(List.of("BREXPLPW001", "BREXPLPWXXX"), codes(second.byCountry("PL")));
+        assertEquals(3, third.version());
+        assertEquals(List.of("BREXPLPW001"), codes(third.range("BREX", "BREXZZZZZZZ")));
+        assertNull(third.find("BREXPLPWXXX"));
+    }
+
+    @Test
+    void shouldReplaceRecordWithSameCodeAndDropEmptyCountries() {
+        DirectorySnapshot snapshot = DirectorySnapshot.of(1, List.of(record("BREXPLPWXXX", "PL")));
+
+        DirectorySnapshot moved = snapshot.with(record("BREXPLPWXXX", "DE"));
+
+        assertEquals(1, moved.size());
+        assertEquals("DE", moved.find("BREXPLPWXXX").countryIso2());
+        assertEquals(List.of(), moved.byCountry("PL"));
+        assertEquals(List.of("BREXPLPWXXX"), codes(moved.byCountry("DE")));
+    }
+
+    @Test
+    void shouldApplyBatchOfChangesAsOneVersion() {
+        DirectorySnapshot snapshot = DirectorySnapshot.of(1, List.of(
+                record("AAAADEFFXXX", "DE"), record("BREXPLPWXXX", "PL"), record("CCCCGBLLXXX", "GB")));
+
+        DirectorySnapshot next = snapshot.withChanges(
+                List.of("BREXPLPW001", "CCCCGBLLXXX", "AAAADEFFXXX", "MISSPLPWXXX"),
+                List.of(record("BREXPLPW001", "PL"), record("AAAADEFFXXX", "FR")));
+
+        assertEquals(2, next.version());
+        assertEquals(List.of("AAAADEFFXXX", "BREXPLPW001", "BREXPLPWXXX"), codes(next.range("A", "Z")));
+        assertEquals("FR", next.find("AAAADEFFXXX").countryIso2());
+        assertEquals(List.of("BREXPLPW001", "BREXPLPWXXX"), codes(next.byCountry("PL")));
+        assertEquals(List.of("AAAADEFFXXX"), codes(next.byCountry("FR")));
+        assertEquals(List.of(), next.byCountry("DE"));
+        assertEquals(List.of(), next.byCountry("GB"));
+        assertEquals(3, snapshot.size());
+    }
+
+    @Test
+    void shouldFilterByIntersectingAttributes() {
+        DirectorySnapshot snapshot = DirectorySnapshot.of(1, List.of(
+                located("AAAADEFFXXX", "DE", "FRANKFURT", "Europe/Berlin"),
+                located("AAAADEFF001", "DE", "FRANKFURT", "Europe/Berlin"),
+                located("BBBBDEMMXXX", "DE", "MUNICH", "Europe/Berlin"),
+                located("CCCCPLPWXXX", "PL", "WARSZAWA", "Europe/Warsaw"),
+                record("DDDDDEFFXXX", "DE")));
+
+        assertEquals(List.of("AAAADEFFXXX"),
+                codes(snapshot.filter(new SwiftCodeFilter("de", "Frankfurt", null, null, true))));
+        assertEquals(List.of("AAAADEFF001"),
+                codes(snapshot.filter(new SwiftCodeFilter(null, "FRANKFURT", null, null, false))));
+        assertEquals(List.of("AAAADEFF001", "AAAADEFFXXX", "BBBBDEMMXXX"),
+                codes(snapshot.filter(new SwiftCodeFilter(null, null, "EUROPE/BERLIN", "BIC11", null))));
+        assertEquals(List.of(), codes(snapshot.filter(new SwiftCodeFilter("PL", "FRANKFURT", null, null, null))));
+        assertEquals(List.of(), codes(snapshot.filter(new SwiftCodeFilter(null, "GDANSK", null, null, null))));
+        assertThrows(IllegalArgumentException.class,
+                () -> snapshot.filter(new SwiftCodeFilter(null, " ", null, null, null)));
+    }
+
+    @Test
+    void unloadedSnapshotIsEmpty() {
+        DirectorySnapshot unloaded = DirectorySnapshot.unloaded();
+
+        assertFalse(unloaded.isLoaded());
+        assertEquals(0, unloaded.size());
+    }
+
+    private static SwiftCodeRecord record(String swiftCode, String countryIso2) {
+        return new SwiftCodeRecord(swiftCode, "BANK " + swiftCode, "ADDRESS", countryIso2, "COUNTRY " + countryIso2,
+                swiftCode.endsWith("XXX"));
+    }
+
+    private static SwiftCodeRecord located(String swiftCode, String countryIso2, String townName, String timeZone) {
+        return new SwiftCodeRecord(swiftCode, "BANK " + swiftCode, "ADDRESS", countryIso2, "COUNTRY " + countryIso2,
+                swiftCode.endsWith("XXX"), "BIC11", townName, timeZone);
+    }
+
+    private static List<String> codes(List<SwiftCodeRecord> records) {
+        return records.stream().map(SwiftCodeRecord::swiftCode).toList();
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.swiftcodes.cache;
+
+import com.example.swiftcodes.config.BloomFilterProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SwiftCodeBloomFilterTest {
+
+    @Test
+    void shouldPassEverythingThroughUntilInitialized() {
+        SwiftCodeBloomFilter bloomFilter = new SwiftCodeBloomFilter(new BloomFilterProperties(true, 1000, 0.01));
+
+        assertFalse(bloomFilter.isReady());
+        assertTrue(bloomFilter.mightContain("UNKNOWNXXXX"));
+    }
+
+    @Test
+    void shouldNeverReportFalseNegatives() {
+        SwiftCodeBloomFilter bloomFilter = new SwiftCodeBloomFilter(new BloomFilterProperties(true, 10_000, 0.01));
+        List<String> codes = IntStream.range(0, 10_000).mapToObj(i -> String.format("BANKPL%05d", i)).toList();
+
+        bloomFilter.initialize(codes);
+
+        assertTrue(codes.stream().allMatch(bloomFilter::mightContain));
+        assertEquals(10_000, bloomFilter.getInsertions());
+    }
+
+    @Test
+    void shouldKeepFalsePositiveRateNearConfiguredTarget() {
+        SwiftCodeBloomFilter bloomFilter = new SwiftCodeBloomFilter(new BloomFilterProperties(true, 10_000, 0.01));
+        bloomFilter.initialize(IntStream.range(0, 10_000).mapToObj(i -> String.format("BANKPL%05d", i)).toList());
+
+        long falsePositives = IntStream.range(0, 100_000)
+                .mapToObj(i -> String.format("MISSDE%05d", i))
+                .filter(bloomFilter::mightContain)
+                .count();
+
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+        assertEquals(100_000 - falsePositives, bloomFilter.getRejections());
+        assertEquals(0.01, bloomFilter.getExpectedFalsePositiveProbability(), 0.005);
+    }
+
+    @Test
+    void shouldTrackCodesAddedAfterInitialization() {
+        SwiftCodeBloomFilter bloomFilter = new SwiftCodeBloomFilter(new BloomFilterProperties(true, 1000, 0.01));
+        bloomFilter.initialize(List.of("BREXPLPWXXX"));
+
+        bloomFilter.put("INGBPLPWXXX");
+
+        assertTrue(bloomFilter.mightContain("INGBPLPWXXX"));
+    }
+
+    @Test
+    void shouldReplaceContentsOnEveryInitialization() {
+        SwiftCodeBloomFilter bloomFilter = new SwiftCodeBloomFilter(new BloomFilterProperties(true, 1000, 0.01));
+        bloomFilter.initialize(List.of("BREXPLPWXXX", "INGBPLPWXXX"));
+        double falsePositiveProbability = bloomFilter.getExpectedFalsePositiveProbability();
+
+        bloomFilter.initialize(List.of("BREXPLPWXXX", "PKOPPLPWXXX"));
+
+        assertEquals(2, bloomFilter.getInsertions());
+        assertEquals(falsePositiveProbability, bloomFilter.getExpectedFalsePositiveProbability());
+        assertTrue(bloomFilter.mightContain("PKOPPLPWXXX"));
+        assertFalse(bloomFilter.mightContain("INGBPLPWXXX"));
+    }
+
+    @Test
+    void shouldKeepCodesPutWhileInitializing() {
+        SwiftCodeBloomFilter bloomFilter = new SwiftCodeBloomFilter(new BloomFilterProperties(true, 1000, 0.01));
+        bloomFilter.initialize(List.of("BREXPLPWXXX"));
+
+        bloomFilter.initialize(() -> {
+            bloomFilter.put("INGBPLPWXXX");
+            return List.of("BREXPLPWXXX").iterator();
+        });
+
+        assertTrue(bloomFilter.mightContain("INGBPLPWXXX"));
+        assertEquals(2, bloomFilter.getInsertions());
+    }
+
+    @Test
+    void shouldPassEverythingThroughWhenDisabled() {
+        SwiftCodeBloomFilter bloomFilter = new SwiftCodeBloomFilter(new BloomFilterProperties(false, 1000, 0.01));
+        bloomFilter.initialize(List.of("BREXPLPWXXX"));
+
+        assertTrue(bloomFilter.mightContain("UNKNOWNXXXX"));
+        assertEquals(0, bloomFilter.getSizeInBytes());
+    }
+}
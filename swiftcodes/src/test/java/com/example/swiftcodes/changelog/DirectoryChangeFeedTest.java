@@ -0,0 +1,166 @@
+package com.example.swiftcodes.changelog;
+
+import com.example.swiftcodes.config.ChangeFeedProperties;
+import com.example.swiftcodes.event.SwiftCodeChangeEvent;
+import com.example.swiftcodes.model.dto.SwiftCodeChangeDto;
+import com.example.swiftcodes.model.dto.SwiftCodeChangesDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import com.example.swiftcodes.exception.ChangeFeedFullException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class DirectoryChangeFeedTest {
+
+    private final DirectoryChangeLog changeLog = mock(DirectoryChangeLog.class);
+    private final DirectoryChangeFeed changeFeed = new DirectoryChangeFeed(changeLog,
+            new ChangeFeedProperties(2, Duration.ofMinutes(1), Duration.ofMinutes(1), 3), new SimpleMeterRegistry());
+
+    @AfterEach
+    void tearDown() {
+        changeFeed.stop();
+    }
+
+    @Test
+    void changesSinceReturnsVersionToContinueFromAndWhetherMoreFollow() {
+        when(changeLog.changesSince(5, 3)).thenReturn(List.of(change(6), change(7), change(8)));
+
+        SwiftCodeChangesDto page = changeFeed.changesSince(5, 2);
+
+        assertEquals(List.of(6L, 7L), page.getChanges().stream().map(SwiftCodeChangeDto::getVersion).toList());
+        assertEquals(7, page.getVersion());
+        assertTrue(page.isHasMore());
+    }
+
+    @Test
+    void changesSinceKeepsVersionWhenNothingChanged() {
+        when(changeLog.changesSince(9, 3)).thenReturn(List.of());
+
+        SwiftCodeChangesDto page = changeFeed.changesSince(9, null);
+
+        assertEquals(9, page.getVersion());
+        assertFalse(page.isHasMore());
+        assertTrue(page.getChanges().isEmpty());
+    }
+
+    @Test
+    void changesSinceRejectsLimitAbovePageSize() {
+        assertThrows(IllegalArgumentException.class, () -> changeFeed.changesSince(0, 3));
+        assertThrows(IllegalArgumentException.class, () -> changeFeed.changesSince(-1, 1));
+        verifyNoInteractions(changeLog);
+    }
+
+    @Test
+    void streamSendsBacklogPageByPageThenChangesOnceCommitted() throws InterruptedException {
+        when(changeLog.latestVersion()).thenReturn(3L);
+        when(changeLog.changesSince(anyLong(), anyInt())).thenReturn(List.of());
+        when(changeLog.changesSince(0, 2)).thenReturn(List.of(change(1), change(2)));
+        when(changeLog.changesSince(2, 2)).thenReturn(List.of(change(3)));
+        CapturingEmitter emitter = new CapturingEmitter();
+        changeFeed.start();
+
+        changeFeed.subscribe(emitter, 0);
+
+        assertEquals(1, emitter.next().getVersion());
+        assertEquals(2, emitter.next().getVersion());
+        assertEquals(3, emitter.next().getVersion());
+
+        when(changeLog.changesSince(3, 2)).thenReturn(List.of(change(4)));
+        changeFeed.onChange(SwiftCodeChangeEvent.added("BREXPLPW001", "PL", "node"));
+
+        assertEquals(4, emitter.next().getVersion());
+        assertEquals(1, changeFeed.streams());
+    }
+
+    @Test
+    void streamsEndWhenNodeStops() throws InterruptedException {
+        when(changeLog.changesSince(anyLong(), anyInt())).thenReturn(List.of());
+        CapturingEmitter emitter = new CapturingEmitter();
+        changeFeed.start();
+        changeFeed.subscribe(emitter, 0);
+        verify(changeLog, timeout(5000)).latestVersion();
+
+        changeFeed.stop();
+
+        for (int i = 0; i < 100 && changeFeed.streams() > 0; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, changeFeed.streams());
+    }
+
+    @Test
+    void streamsShareOneReadOfEachChange() throws InterruptedException {
+        when(changeLog.changesSince(anyLong(), anyInt())).thenReturn(List.of());
+        List<CapturingEmitter> emitters = List.of(new CapturingEmitter(), new CapturingEmitter(),
+                new CapturingEmitter());
+        changeFeed.start();
+        emitters.forEach(emitter -> changeFeed.subscribe(emitter, 0));
+        verify(changeLog, timeout(5000)).latestVersion();
+
+        when(changeLog.changesSince(0, 2)).thenReturn(List.of(change(1)));
+        changeFeed.onChange(SwiftCodeChangeEvent.added("BREXPLPW001", "PL", "node"));
+        for (CapturingEmitter emitter : emitters) {
+            assertEquals(1, emitter.next().getVersion());
+        }
+        when(changeLog.changesSince(1, 2)).thenReturn(List.of(change(2)));
+        changeFeed.onChange(SwiftCodeChangeEvent.added("BREXPLPW002", "PL", "node"));
+        for (CapturingEmitter emitter : emitters) {
+            assertEquals(2, emitter.next().getVersion());
+        }
+
+        verify(changeLog, times(1)).changesSince(1, 2);
+    }
+
+    @Test
+    void subscribeRejectsStreamsBeyondMaxStreams() {
+        when(changeLog.changesSince(anyLong(), anyInt())).thenReturn(List.of());
+        for (int i = 0; i < 3; i++) {
+            changeFeed.subscribe(new CapturingEmitter(), 0);
+        }
+
+        assertThrows(ChangeFeedFullException.class, () -> changeFeed.subscribe(new CapturingEmitter(), 0));
+        assertEquals(3, changeFeed.streams());
+    }
+
+    private static SwiftCodeChangeDto change(long version) {
+        return SwiftCodeChangeDto.builder()
+                .version(version)
+                .operation(SwiftCodeChangeDto.Operation.UPSERT)
+                .swiftCode("BREXPLPW001")
+                .countryISO2("PL")
+                .build();
+    }
+
+    /**
+     * Captures the changes sent instead of writing them to a response.
+     */
+    private static class CapturingEmitter extends SseEmitter {
+        private final BlockingQueue<SwiftCodeChangeDto> changes = new LinkedBlockingQueue<>();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            builder.build().stream()
+                    .map(data -> data.getData())
+                    .filter(SwiftCodeChangeDto.class::isInstance)
+                    .map(SwiftCodeChangeDto.class::cast)
+                    .forEach(changes::add);
+        }
+
+        SwiftCodeChangeDto next() throws InterruptedException {
+            SwiftCodeChangeDto change = changes.poll(5, TimeUnit.SECONDS);
+            assertNotNull(change, "no change sent");
+            return change;
+        }
+    }
+}
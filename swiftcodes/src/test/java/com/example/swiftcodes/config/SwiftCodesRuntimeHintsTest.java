@@ -0,0 +1,52 @@
+package com.example.swiftcodes.config;
+
+import com.example.swiftcodes.json.SwiftCodeRecordList;
+import com.example.swiftcodes.json.SwiftCodeRecordListSerializer;
+import com.example.swiftcodes.model.SwiftCodeRecord;
+import com.example.swiftcodes.model.dto.SwiftCodeChangeDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SwiftCodesRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    @Test
+    void shouldRegisterBundledDirectoryFile() {
+        new SwiftCodesRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        assertTrue(RuntimeHintsPredicates.resource().forResource("data/swift_codes.tsv").test(hints));
+    }
+
+    @Test
+    void shouldAllowHibernateToInstantiateRecords() throws NoSuchMethodException {
+        new SwiftCodesRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onConstructor(SwiftCodeRecord.class.getConstructor(String.class, String.class, String.class,
+                        String.class, String.class, boolean.class))
+                .test(hints));
+    }
+
+    @Test
+    void shouldAllowJacksonToSerializeChangeFeedEvents() throws NoSuchMethodException {
+        new SwiftCodesRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onMethod(SwiftCodeChangeDto.class.getMethod("getSwiftCode"))
+                .test(hints));
+    }
+
+    @Test
+    void shouldAllowJacksonToInstantiateRecordListSerializer() throws NoSuchMethodException {
+        new SwiftCodesRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        assertTrue(RuntimeHintsPredicates.reflection().onType(SwiftCodeRecordList.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onConstructor(SwiftCodeRecordListSerializer.class.getConstructor())
+                .test(hints));
+    }
+}
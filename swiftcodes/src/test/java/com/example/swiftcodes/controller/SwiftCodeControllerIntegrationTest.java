@@ -1,25 +1,39 @@
 package com.example.swiftcodes.controller;
 
+import com.example.swiftcodes.changelog.DirectoryChangeFeed;
 import com.example.swiftcodes.model.Country;
 import com.example.swiftcodes.model.SwiftCode;
+import com.example.swiftcodes.model.dto.CountrySwiftCodesDto;
 import com.example.swiftcodes.model.dto.SwiftCodeDto;
+import com.example.swiftcodes.model.dto.SwiftCodeWithBranchesDto;
 import com.example.swiftcodes.repository.CountryRepository;
 import com.example.swiftcodes.repository.SwiftCodeRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+
 import static org.hamcrest.Matchers.*;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -56,6 +70,9 @@ public class SwiftCodeControllerIntegrationTest {
     @Autowired
     private SwiftCodeRepository swiftCodeRepository;
 
+    @Autowired
+    private DirectoryChangeFeed changeFeed;
+
     private Country polandCountry;
     private SwiftCode headquarterSwiftCode;
     private SwiftCode branchSwiftCode;
@@ -77,6 +94,9 @@ public class SwiftCodeControllerIntegrationTest {
                         .swiftCode("PKOPLPWAXXX")
                         .bankName("PKO BANK POLSKI")
                         .address("UL. PUŁAWSKA 15, 02-515 WARSZAWA")
+                        .codeType("BIC11")
+                        .townName("WARSZAWA")
+                        .timeZone("Europe/Warsaw")
                         .isHeadquarter(true)
                         .country(polandCountry)
                         .build()
@@ -86,6 +106,9 @@ public class SwiftCodeControllerIntegrationTest {
                 .swiftCode("PKOPLPWA001")
                 .bankName("PKO BANK POLSKI - ODDZIAŁ 1")
                 .address("UL. MARSZ. FOCHA 5, 85-070 BYDGOSZCZ")
+                .codeType("BIC11")
+                .townName("BYDGOSZCZ")
+                .timeZone("Europe/Warsaw")
                 .isHeadquarter(false)
                 .country(polandCountry)
                 .headquarter(headquarterSwiftCode)
@@ -128,12 +151,122 @@ public class SwiftCodeControllerIntegrationTest {
                         headquarterSwiftCode.getSwiftCode(), branchSwiftCode.getSwiftCode())));
     }
 
+    @Test
+    public void testGetSwiftCodesByCountryNegotiatesCbor() throws Exception {
+        byte[] body = mockMvc.perform(get("/v1/swift-codes/country/{countryIso2Code}", polandCountry.getIso2Code())
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        CountrySwiftCodesDto response = new CBORMapper().readValue(body, CountrySwiftCodesDto.class);
+        assertEquals(polandCountry.getIso2Code(), response.getCountryISO2());
+        assertEquals(2, response.getSwiftCodes().size());
+    }
+
+    @Test
+    public void testGetSwiftCodeDetailsNegotiatesSmile() throws Exception {
+        byte[] body = mockMvc.perform(get("/v1/swift-codes/{swiftCode}", headquarterSwiftCode.getSwiftCode())
+                        .accept(SwiftCodeController.APPLICATION_SMILE_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(SwiftCodeController.APPLICATION_SMILE_VALUE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        SwiftCodeWithBranchesDto response = new SmileMapper().readValue(body, SwiftCodeWithBranchesDto.class);
+        assertEquals(headquarterSwiftCode.getSwiftCode(), response.getSwiftCode());
+        assertEquals(1, response.getBranches().size());
+    }
+
+    @Test
+    public void testGetSwiftCodesByBankGroupsCodesByCountryAndHeadquarter() throws Exception {
+        Country germany = countryRepository.save(Country.builder().iso2Code("DE").name("GERMANY").build());
+        swiftCodeRepository.save(SwiftCode.builder()
+                .swiftCode("PKOPDEFFXXX")
+                .bankName("PKO BANK POLSKI NIEDERLASSUNG DEUTSCHLAND")
+                .address("FRANKFURT AM MAIN")
+                .isHeadquarter(true)
+                .country(germany)
+                .build());
+        swiftCodeRepository.save(SwiftCode.builder()
+                .swiftCode("PKOPDEBB001")
+                .bankName("PKO BANK POLSKI BERLIN")
+                .address("BERLIN")
+                .isHeadquarter(false)
+                .country(germany)
+                .build());
+        swiftCodeRepository.save(SwiftCode.builder()
+                .swiftCode("PKOQPLPWXXX")
+                .bankName("OTHER BANK")
+                .address("WARSZAWA")
+                .isHeadquarter(true)
+                .country(polandCountry)
+                .build());
+
+        mockMvc.perform(get("/v1/swift-codes/bank/{bankCode}", "pkop"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.bankCode", is("PKOP")))
+                .andExpect(jsonPath("$.countries", hasSize(2)))
+                .andExpect(jsonPath("$.countries[0].countryISO2", is("DE")))
+                .andExpect(jsonPath("$.countries[0].headquarters[0].swiftCode", is("PKOPDEFFXXX")))
+                .andExpect(jsonPath("$.countries[0].headquarters[0].branches").doesNotExist())
+                .andExpect(jsonPath("$.countries[0].branchesWithoutHeadquarter[0].swiftCode", is("PKOPDEBB001")))
+                .andExpect(jsonPath("$.countries[1].countryISO2", is("PL")))
+                .andExpect(jsonPath("$.countries[1].headquarters", hasSize(1)))
+                .andExpect(jsonPath("$.countries[1].headquarters[0].branches[0].swiftCode",
+                        is(branchSwiftCode.getSwiftCode())))
+                .andExpect(jsonPath("$.countries[1].branchesWithoutHeadquarter").doesNotExist());
+    }
+
+    @Test
+    public void testGetSwiftCodesByBankWhenBankDoesNotExistReturnsNotFound() throws Exception {
+        mockMvc.perform(get("/v1/swift-codes/bank/{bankCode}", "ZZZZ"))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     public void testGetSwiftCodesByCountryWhenCountryDoesNotExistReturnsNotFound() throws Exception {
         mockMvc.perform(get("/v1/swift-codes/country/{countryIso2Code}", "XX"))
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    public void testFilterSwiftCodesCombinesPredicates() throws Exception {
+        mockMvc.perform(get("/v1/swift-codes")
+                        .param("country", "pl")
+                        .param("timeZone", "europe/warsaw")
+                        .param("headquarter", "false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count", is(1)))
+                .andExpect(jsonPath("$.swiftCodes[0].swiftCode", is(branchSwiftCode.getSwiftCode())))
+                .andExpect(jsonPath("$.swiftCodes[0].townName", is("BYDGOSZCZ")))
+                .andExpect(jsonPath("$.swiftCodes[0].countryName", is(polandCountry.getName())));
+
+        mockMvc.perform(get("/v1/swift-codes").param("town", "Warszawa"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.swiftCodes[*].swiftCode", contains(headquarterSwiftCode.getSwiftCode())));
+
+        mockMvc.perform(get("/v1/swift-codes"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testExportStreamsAllSwiftCodesAsTsv() throws Exception {
+        MvcResult result = mockMvc.perform(get("/v1/swift-codes/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/tab-separated-values"))
+                .andExpect(header().exists(SwiftCodeController.CHANGE_VERSION_HEADER))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("PL\tPKOPLPWA001\tBIC11\t"));
+        assertTrue(lines[1].startsWith("PL\tPKOPLPWAXXX\tBIC11\t"));
+    }
+
     @Test
     public void testDeleteSwiftCodeWhenSwiftCodeExistsDeletesSuccessfully() throws Exception {
         mockMvc.perform(delete("/v1/swift-codes/{swiftCode}", branchSwiftCode.getSwiftCode()))
@@ -232,4 +365,120 @@ public class SwiftCodeControllerIntegrationTest {
         SwiftCode headquarter = swiftCodeRepository.findBySwiftCode("INGBPLPWXXX").orElseThrow();
         assertEquals(headquarter.getId(), addedBranch.getHeadquarter().getId());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testAddSwiftCodeNotifiesOtherNodesOnCommit() throws Exception {
+        SwiftCodeDto newSwiftCodeDto = SwiftCodeDto.builder()
+                .swiftCode("INGBPLPWXXX")
+                .bankName("ING BANK ŚLĄSKI")
+                .address("UL. SOKOLSKA 34, 40-086 KATOWICE")
+                .countryISO2("PL")
+                .countryName("POLAND")
+                .isHeadquarter(true)
+                .build();
+
+        try (Connection connection = DriverManager.getConnection(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("LISTEN swift_code_changes");
+            }
+
+            mockMvc.perform(post("/v1/swift-codes")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(newSwiftCodeDto)))
+                    .andExpect(status().isCreated());
+
+            PGNotification[] notifications = connection.unwrap(PGConnection.class).getNotifications(5000);
+            assertNotNull(notifications);
+            assertTrue(notifications[0].getParameter().startsWith("ADDED|INGBPLPWXXX|INGBPLPW|PL|"));
+        }
+    }
+
+    @Test
+    public void testChangesListAddedAndDeletedCodesInOrder() throws Exception {
+        long since = changeFeed.latestVersion();
+
+        mockMvc.perform(post("/v1/swift-codes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(ingHeadquarter())))
+                .andExpect(status().isCreated());
+        mockMvc.perform(delete("/v1/swift-codes/{swiftCode}", branchSwiftCode.getSwiftCode()))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/v1/swift-codes/changes").param("since", Long.toString(since)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hasMore").value(false))
+                .andExpect(jsonPath("$.version").value((int) since + 2))
+                .andExpect(jsonPath("$.changes", hasSize(2)))
+                .andExpect(jsonPath("$.changes[0].version").value((int) since + 1))
+                .andExpect(jsonPath("$.changes[0].operation").value("UPSERT"))
+                .andExpect(jsonPath("$.changes[0].swiftCode").value("INGBPLPWXXX"))
+                .andExpect(jsonPath("$.changes[0].countryName").value("POLAND"))
+                .andExpect(jsonPath("$.changes[0].isHeadquarter").value(true))
+                .andExpect(jsonPath("$.changes[1].operation").value("DELETE"))
+                .andExpect(jsonPath("$.changes[1].swiftCode").value("PKOPLPWA001"))
+                .andExpect(jsonPath("$.changes[1].countryISO2").value("PL"))
+                .andExpect(jsonPath("$.changes[1].bankName").doesNotExist());
+    }
+
+    @Test
+    public void testChangesAreNotModifiedWhileNothingChanged() throws Exception {
+        long since = changeFeed.latestVersion();
+        String eTag = mockMvc.perform(get("/v1/swift-codes/changes").param("since", Long.toString(since)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"" + since + "\""))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/v1/swift-codes/changes").param("since", Long.toString(since))
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(delete("/v1/swift-codes/{swiftCode}", branchSwiftCode.getSwiftCode()))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/v1/swift-codes/changes").param("since", Long.toString(since))
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"" + (since + 1) + "\""));
+    }
+
+    @Test
+    public void testChangesRejectNegativeVersion() throws Exception {
+        mockMvc.perform(get("/v1/swift-codes/changes").param("since", "-1"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testChangeStreamSendsChangesAfterRequestedVersion() throws Exception {
+        long since = changeFeed.latestVersion();
+        mockMvc.perform(post("/v1/swift-codes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(ingHeadquarter())))
+                .andExpect(status().isCreated());
+
+        MvcResult result = mockMvc.perform(get("/v1/swift-codes/changes/stream")
+                        .param("since", Long.toString(since))
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = "";
+        for (int i = 0; i < 100 && !body.contains("INGBPLPWXXX"); i++) {
+            Thread.sleep(50);
+            body = result.getResponse().getContentAsString(StandardCharsets.UTF_8);
+        }
+        assertTrue(body.contains("id:" + (since + 1) + "\nevent:change\ndata:{"), body);
+        assertTrue(body.contains("\"operation\":\"UPSERT\""), body);
+        assertTrue(body.contains("\"swiftCode\":\"INGBPLPWXXX\""), body);
+    }
+
+    private static SwiftCodeDto ingHeadquarter() {
+        return SwiftCodeDto.builder()
+                .swiftCode("INGBPLPWXXX")
+                .bankName("ING BANK ŚLĄSKI")
+                .address("UL. SOKOLSKA 34, 40-086 KATOWICE")
+                .countryISO2("PL")
+                .countryName("POLAND")
+                .isHeadquarter(true)
+                .build();
+    }
+}
@@ -1,19 +1,34 @@
 package com.example.swiftcodes.controller;
 
+import com.example.swiftcodes.cache.DirectorySnapshot;
+import com.example.swiftcodes.cache.SwiftCodeDirectory;
+import com.example.swiftcodes.changelog.DirectoryChangeFeed;
+import com.example.swiftcodes.model.SwiftCodeFilter;
 import com.example.swiftcodes.model.dto.CountrySwiftCodesDto;
+import com.example.swiftcodes.model.dto.FilteredSwiftCodesDto;
 import com.example.swiftcodes.model.dto.MessageResponseDto;
 import com.example.swiftcodes.model.dto.SwiftCodeDto;
 import com.example.swiftcodes.model.dto.SwiftCodeWithBranchesDto;
+import com.example.swiftcodes.service.ExportFormat;
+import com.example.swiftcodes.service.SwiftCodeExportService;
 import com.example.swiftcodes.service.SwiftCodeService;
+import com.example.swiftcodes.writebehind.SwiftCodeWriteBehind;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -26,6 +41,18 @@ class SwiftCodeControllerUnitTest {
     @Mock
     private SwiftCodeService swiftCodeService;
 
+    @Mock
+    private SwiftCodeExportService swiftCodeExportService;
+
+    @Mock
+    private SwiftCodeWriteBehind writeBehind;
+
+    @Mock
+    private SwiftCodeDirectory directory;
+
+    @Mock
+    private DirectoryChangeFeed changeFeed;
+
     @InjectMocks
     private SwiftCodeController swiftCodeController;
 
@@ -33,6 +60,7 @@ class SwiftCodeControllerUnitTest {
     private SwiftCodeWithBranchesDto swiftCodeWithBranchesDto;
     private CountrySwiftCodesDto countrySwiftCodesDto;
     private MessageResponseDto messageResponseDto;
+    private final DirectorySnapshot snapshot = DirectorySnapshot.of(7, List.of());
 
     @BeforeEach
     void setUp() {
@@ -73,7 +101,8 @@ class SwiftCodeControllerUnitTest {
 
     @Test
     void getSwiftCodeDetailsReturnsSwiftCodeWithBranchesDto() {
-        when(swiftCodeService.getSwiftCodeDetails("TESTCODEXXX")).thenReturn(swiftCodeWithBranchesDto);
+        when(directory.current()).thenReturn(snapshot);
+        when(swiftCodeService.getSwiftCodeDetails(snapshot, "TESTCODEXXX")).thenReturn(swiftCodeWithBranchesDto);
 
         ResponseEntity<SwiftCodeWithBranchesDto> response = swiftCodeController.getSwiftCodeDetails("TESTCODEXXX");
 
@@ -83,13 +112,15 @@ class SwiftCodeControllerUnitTest {
         assertEquals("TEST BANK HQ", response.getBody().getBankName());
         assertTrue(response.getBody().getIsHeadquarter());
         assertEquals(1, response.getBody().getBranches().size());
+        assertEquals("7", response.getHeaders().getFirst(SwiftCodeController.DIRECTORY_VERSION_HEADER));
 
-        verify(swiftCodeService).getSwiftCodeDetails("TESTCODEXXX");
+        verify(swiftCodeService).getSwiftCodeDetails(snapshot, "TESTCODEXXX");
     }
 
     @Test
     void getSwiftCodesByCountryReturnsCountrySwiftCodesDto() {
-        when(swiftCodeService.getSwiftCodesByCountry("PL")).thenReturn(countrySwiftCodesDto);
+        when(directory.current()).thenReturn(snapshot);
+        when(swiftCodeService.getSwiftCodesByCountry(snapshot, "PL")).thenReturn(countrySwiftCodesDto);
 
         ResponseEntity<CountrySwiftCodesDto> response = swiftCodeController.getSwiftCodesByCountry("PL");
 
@@ -99,7 +130,25 @@ class SwiftCodeControllerUnitTest {
         assertEquals("POLAND", response.getBody().getCountryName());
         assertEquals(2, response.getBody().getSwiftCodes().size());
 
-        verify(swiftCodeService).getSwiftCodesByCountry("PL");
+        verify(swiftCodeService).getSwiftCodesByCountry(snapshot, "PL");
+    }
+
+    @Test
+    void filterSwiftCodesPassesPredicatesToService() {
+        FilteredSwiftCodesDto filtered = FilteredSwiftCodesDto.builder()
+                .count(1)
+                .swiftCodes(List.of(swiftCodeDto))
+                .build();
+        SwiftCodeFilter filter = new SwiftCodeFilter("DE", "FRANKFURT", null, null, true);
+        when(directory.current()).thenReturn(snapshot);
+        when(swiftCodeService.filterSwiftCodes(snapshot, filter)).thenReturn(filtered);
+
+        ResponseEntity<FilteredSwiftCodesDto> response =
+                swiftCodeController.filterSwiftCodes("de", "Frankfurt", null, null, true);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(filtered, response.getBody());
+        assertEquals("7", response.getHeaders().getFirst(SwiftCodeController.DIRECTORY_VERSION_HEADER));
     }
 
     @Test
@@ -127,4 +176,50 @@ class SwiftCodeControllerUnitTest {
 
         verify(swiftCodeService).addSwiftCode(swiftCodeDto);
     }
-}
\ No newline at end of file
+
+    @Test
+    void addSwiftCodeInWriteBehindModeReturnsAccepted() {
+        when(writeBehind.isEnabled()).thenReturn(true);
+        when(writeBehind.accept(swiftCodeDto)).thenReturn(messageResponseDto);
+
+        ResponseEntity<MessageResponseDto> response = swiftCodeController.addSwiftCode(swiftCodeDto);
+
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        verify(swiftCodeService, never()).addSwiftCode(any());
+    }
+
+    @Test
+    void exportSwiftCodesStreamsRequestedFormat() throws Exception {
+        when(changeFeed.latestVersion()).thenReturn(42L);
+
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+
+        ResponseEntity<StreamingResponseBody> response = swiftCodeController.exportSwiftCodes("ndjson",
+                new ServletWebRequest(new MockHttpServletRequest("GET", "/v1/swift-codes/export"), servletResponse));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.parseMediaType("application/x-ndjson"), response.getHeaders().getContentType());
+        assertEquals("42", response.getHeaders().getFirst(SwiftCodeController.CHANGE_VERSION_HEADER));
+        assertEquals("W/\"42\"", servletResponse.getHeader(HttpHeaders.ETAG));
+        assertNotNull(response.getBody());
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        response.getBody().writeTo(outputStream);
+        verify(swiftCodeExportService).export(ExportFormat.NDJSON, outputStream);
+    }
+
+    @Test
+    void exportSwiftCodesIsNotModifiedForClientAtLatestVersion() {
+        when(changeFeed.latestVersion()).thenReturn(42L);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/v1/swift-codes/export");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "W/\"42\"");
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+
+        ResponseEntity<StreamingResponseBody> response = swiftCodeController.exportSwiftCodes("ndjson",
+                new ServletWebRequest(request, servletResponse));
+
+        assertNull(response);
+        assertEquals(HttpStatus.NOT_MODIFIED.value(), servletResponse.getStatus());
+        verifyNoInteractions(swiftCodeExportService);
+    }
+}
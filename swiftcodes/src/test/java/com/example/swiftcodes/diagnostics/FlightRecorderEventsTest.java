@@ -0,0 +1,122 @@
+package com.example.swiftcodes.diagnostics;
+
+import io.micrometer.observation.ObservationRegistry;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlightRecorderEventsTest {
+
+    private final Recording recording = new Recording();
+    private Path file;
+
+    interface CodeLookup {
+        String find(String swiftCode, List<String> branches);
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        file = Files.createTempFile("events-", ".jfr");
+        recording.enable(ServiceOperationEvent.NAME);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        recording.close();
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    void operationRecordsTimeSpentInRepositoryCalls() throws IOException {
+        recording.enable(RepositoryQueryEvent.NAME).withThreshold(Duration.ZERO);
+        recording.start();
+
+        ServiceOperationEvent event = ServiceOperationEvent.start("getSwiftCodeDetails", "BREXPLPWXXX");
+        try {
+            lookup(Duration.ofMillis(5)).find("BREXPLPWXXX", List.of("BREXPLPW001", "BREXPLPW002"));
+        } finally {
+            event.finish();
+        }
+
+        List<RecordedEvent> events = recordedEvents();
+        RecordedEvent operation = only(events, ServiceOperationEvent.NAME);
+        assertEquals("getSwiftCodeDetails", operation.getString("operation"));
+        assertEquals("BREXPLPWXXX", operation.getString("key"));
+        assertFalse(operation.getBoolean("cacheHit"));
+        assertEquals(1, operation.getInt("repositoryCalls"));
+        assertTrue(operation.getDuration("databaseTime").compareTo(Duration.ofMillis(5)) >= 0);
+
+        RecordedEvent query = only(events, RepositoryQueryEvent.NAME);
+        assertEquals("CodeLookup", query.getString("repository"));
+        assertEquals("find", query.getString("method"));
+        assertEquals("BREXPLPWXXX, [2 items]", query.getString("arguments"));
+        assertNotNull(query.getStackTrace());
+    }
+
+    @Test
+    void operationWithoutRepositoryCallsIsCacheHit() throws IOException {
+        recording.start();
+
+        ServiceOperationEvent.start("getSwiftCodesByCountry", "PL").finish();
+
+        RecordedEvent operation = only(recordedEvents(), ServiceOperationEvent.NAME);
+        assertTrue(operation.getBoolean("cacheHit"));
+        assertEquals(Duration.ZERO, operation.getDuration("databaseTime"));
+    }
+
+    @Test
+    void repositoryCallsBelowThresholdAreOnlyCountedIntoOperation() throws IOException {
+        recording.enable(RepositoryQueryEvent.NAME).withThreshold(Duration.ofSeconds(10));
+        recording.start();
+
+        ServiceOperationEvent event = ServiceOperationEvent.start("deleteSwiftCode", "BREXPLPWXXX");
+        lookup(Duration.ZERO).find("BREXPLPWXXX", List.of());
+        lookup(Duration.ZERO).find("BREXPLPW001", List.of());
+        event.finish();
+
+        List<RecordedEvent> events = recordedEvents();
+        assertEquals(2, only(events, ServiceOperationEvent.NAME).getInt("repositoryCalls"));
+        assertTrue(events.stream().noneMatch(recorded -> recorded.getEventType().getName()
+                .equals(RepositoryQueryEvent.NAME)));
+    }
+
+    private static CodeLookup lookup(Duration latency) {
+        ProxyFactory proxyFactory = new ProxyFactory((CodeLookup) (swiftCode, branches) -> {
+            try {
+                Thread.sleep(latency);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return swiftCode;
+        });
+        proxyFactory.addInterface(CodeLookup.class);
+        proxyFactory.addAdvice(new RepositoryQueryInterceptor(CodeLookup.class, () -> ObservationRegistry.NOOP));
+        return (CodeLookup) proxyFactory.getProxy();
+    }
+
+    private List<RecordedEvent> recordedEvents() throws IOException {
+        recording.stop();
+        recording.dump(file);
+        return RecordingFile.readAllEvents(file);
+    }
+
+    private static RecordedEvent only(List<RecordedEvent> events, String name) {
+        List<RecordedEvent> matching = events.stream()
+                .filter(event -> event.getEventType().getName().equals(name))
+                .toList();
+        assertEquals(1, matching.size(), name);
+        return matching.getFirst();
+    }
+}
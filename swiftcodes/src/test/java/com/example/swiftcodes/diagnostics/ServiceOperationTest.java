@@ -0,0 +1,104 @@
+package com.example.swiftcodes.diagnostics;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.tck.TestObservationRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+
+import java.util.List;
+
+import static io.micrometer.observation.tck.TestObservationRegistryAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ServiceOperationTest {
+
+    private final TestObservationRegistry registry = TestObservationRegistry.create();
+
+    interface BranchLookup {
+        List<String> findBranches(String swiftCode);
+    }
+
+    @Test
+    void operationObservesRepositoryCallsAsItsChildren() {
+        ServiceOperation operation = ServiceOperation.start(registry, "getSwiftCodeDetails", "BREXPLPWXXX");
+        try {
+            lookup().findBranches("BREXPLPWXXX");
+        } finally {
+            operation.finish();
+        }
+
+        assertThat(registry).hasObservationWithNameEqualTo(ObservationNames.SERVICE_OPERATION).that()
+                .hasContextualNameEqualTo("getSwiftCodeDetails")
+                .hasLowCardinalityKeyValue("operation", "getSwiftCodeDetails")
+                .hasLowCardinalityKeyValue("cache.hit", "false")
+                .hasHighCardinalityKeyValue("key", "BREXPLPWXXX")
+                .hasHighCardinalityKeyValue("db.calls", "1")
+                .hasBeenStopped();
+        assertThat(registry).hasObservationWithNameEqualTo(ObservationNames.REPOSITORY_CALL).that()
+                .hasContextualNameEqualTo("BranchLookup.findBranches")
+                .hasLowCardinalityKeyValue("repository", "BranchLookup")
+                .hasLowCardinalityKeyValue("method", "findBranches")
+                .hasHighCardinalityKeyValue("db.rows", "2")
+                .hasParentObservationContextMatching(parent ->
+                        parent.getName().equals(ObservationNames.SERVICE_OPERATION))
+                .hasBeenStopped();
+    }
+
+    @Test
+    void operationWithoutRepositoryCallsIsCacheHit() {
+        ServiceOperation.start(registry, "getSwiftCodesByCountry", "PL").finish();
+
+        assertThat(registry).hasObservationWithNameEqualTo(ObservationNames.SERVICE_OPERATION).that()
+                .hasLowCardinalityKeyValue("cache.hit", "true")
+                .hasHighCardinalityKeyValue("db.calls", "0");
+        assertThat(registry).hasNumberOfObservationsWithNameEqualTo(ObservationNames.REPOSITORY_CALL, 0);
+    }
+
+    @Test
+    void failedOperationIsObservedWithItsError() {
+        ServiceOperation operation = ServiceOperation.start(registry, "deleteSwiftCode", "BREXPLPWXXX");
+        try {
+            operation.error(new IllegalStateException("no swift code"));
+        } finally {
+            operation.finish();
+        }
+
+        assertThat(registry).hasObservationWithNameEqualTo(ObservationNames.SERVICE_OPERATION).that()
+                .hasBeenStopped()
+                .assertThatError().isInstanceOf(IllegalStateException.class).hasMessage("no swift code");
+    }
+
+    @Test
+    void repositoryCallsOutsideObservationsAndInImportChunksAreNotObserved() {
+        lookup().findBranches("BREXPLPWXXX");
+        Observation.createNotStarted(ObservationNames.IMPORT_CHUNK, registry)
+                .observe(() -> lookup().findBranches("BREXPLPWXXX"));
+
+        assertThat(registry).hasNumberOfObservationsWithNameEqualTo(ObservationNames.REPOSITORY_CALL, 0);
+    }
+
+    @Test
+    void failedRepositoryCallIsObservedWithError() {
+        ServiceOperation operation = ServiceOperation.start(registry, "getSwiftCodeDetails", "BREXPLPWXXX");
+        try {
+            assertThrows(IllegalStateException.class, () -> lookup().findBranches(null));
+        } finally {
+            operation.finish();
+        }
+
+        assertThat(registry).hasObservationWithNameEqualTo(ObservationNames.REPOSITORY_CALL).that()
+                .assertThatError().isInstanceOf(IllegalStateException.class);
+    }
+
+    private BranchLookup lookup() {
+        ProxyFactory proxyFactory = new ProxyFactory((BranchLookup) swiftCode -> {
+            if (swiftCode == null) {
+                throw new IllegalStateException("no swift code");
+            }
+            return List.of(swiftCode.substring(0, 8) + "001", swiftCode.substring(0, 8) + "002");
+        });
+        proxyFactory.addInterface(BranchLookup.class);
+        proxyFactory.addAdvice(new RepositoryQueryInterceptor(BranchLookup.class, () -> registry));
+        return (BranchLookup) proxyFactory.getProxy();
+    }
+}
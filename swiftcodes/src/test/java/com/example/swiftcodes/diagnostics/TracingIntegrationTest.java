@@ -0,0 +1,209 @@
+package com.example.swiftcodes.diagnostics;
+
+import com.example.swiftcodes.cache.CountryRegistry;
+import com.example.swiftcodes.cache.SwiftCodeDirectory;
+import com.example.swiftcodes.importer.DirectoryFormat;
+import com.example.swiftcodes.model.SwiftCode;
+import com.example.swiftcodes.repository.CountryRepository;
+import com.example.swiftcodes.repository.SwiftCodeRepository;
+import com.example.swiftcodes.service.SwiftCodeParser;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "management.tracing.sampling.probability=1.0")
+@AutoConfigureMockMvc
+@AutoConfigureObservability(metrics = false)
+@Testcontainers
+@ActiveProfiles("test")
+class TracingIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:14-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void registerPgProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @TestConfiguration
+    static class InMemoryExport {
+
+        @Bean
+        InMemorySpanExporter inMemorySpanExporter() {
+            return InMemorySpanExporter.create();
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private InMemorySpanExporter spanExporter;
+
+    @Autowired
+    private SdkTracerProvider tracerProvider;
+
+    @Autowired
+    private SwiftCodeParser swiftCodeParser;
+
+    @Autowired
+    private CountryRepository countryRepository;
+
+    @Autowired
+    private SwiftCodeRepository swiftCodeRepository;
+
+    @Autowired
+    private CountryRegistry countryRegistry;
+
+    @Autowired
+    private SwiftCodeDirectory directory;
+
+    @Test
+    void importIsTracedPerChunkAndPhase() throws IOException {
+        exportedSpans();
+        spanExporter.reset();
+
+        StringBuilder directoryFile = new StringBuilder(
+                "PL\tIMPTPLPWXXX\tBIC11\tIMPORT BANK\tUL. PROSTA 1\tWARSZAWA\tPoland\tEurope/Warsaw\n");
+        for (int i = 1; i <= 20; i++) {
+            directoryFile.append(String.format(
+                    "PL\tIMPTPLPW%03d\tBIC11\tIMPORT BANK\tRYNEK %d\tKRAKOW\tPoland\tEurope/Warsaw\n", i, i));
+        }
+        importDirectory(directoryFile.toString());
+
+        List<SpanData> spans = exportedSpans();
+        SpanData directoryImport = only(spans, ObservationNames.IMPORT);
+        assertEquals("TSV", directoryImport.getAttributes().get(AttributeKey.stringKey("format")));
+
+        List<SpanData> chunks = children(spans, directoryImport).stream()
+                .filter(span -> span.getName().equals(ObservationNames.IMPORT_CHUNK))
+                .toList();
+        assertEquals(1, chunks.size());
+        assertEquals("21", chunks.getFirst().getAttributes().get(AttributeKey.stringKey("entries")));
+        assertEquals("21", chunks.getFirst().getAttributes().get(AttributeKey.stringKey("added")));
+        assertTrue(children(spans, chunks.getFirst()).isEmpty());
+        SpanData link = only(spans, ObservationNames.IMPORT_LINK);
+        assertEquals(directoryImport.getSpanId(), link.getParentSpanId());
+        // One set-based update, not a lookup and a save per branch.
+        assertEquals(1, children(spans, link).size());
+        SwiftCode headquarter = swiftCodeRepository.findBySwiftCode("IMPTPLPWXXX").orElseThrow();
+        assertEquals(20, swiftCodeRepository.findByHeadquarter(headquarter).size());
+    }
+
+    @Test
+    void writeContinuesGatewayTraceDownToRepositoryCalls() throws Exception {
+        String traceId = "4bf92f3577b34da6a3ce929d0e0e4736";
+        mockMvc.perform(post("/v1/swift-codes")
+                        .header("traceparent", "00-" + traceId + "-00f067aa0ba902b7-01")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"address":"UL. TRACE 1","bankName":"TRACE BANK","countryISO2":"PL",
+                                "countryName":"POLAND","isHeadquarter":true,"swiftCode":"TRCEPLPWXXX"}
+                                """))
+                .andExpect(status().isCreated());
+
+        List<SpanData> spans = exportedSpans().stream()
+                .filter(span -> span.getTraceId().equals(traceId))
+                .toList();
+        SpanData request = spans.stream()
+                .filter(span -> span.getParentSpanId().equals("00f067aa0ba902b7"))
+                .findFirst().orElseThrow();
+        SpanData operation = only(children(spans, request), "operation", "addSwiftCode");
+        assertEquals("false", operation.getAttributes().get(AttributeKey.stringKey("cache.hit")));
+        List<SpanData> repositoryCalls = children(spans, operation);
+        assertFalse(repositoryCalls.isEmpty());
+        assertEquals(operation.getAttributes().get(AttributeKey.stringKey("db.calls")),
+                Integer.toString(repositoryCalls.size()));
+        SpanData save = only(repositoryCalls, "method", "save");
+        assertEquals("1", save.getAttributes().get(AttributeKey.stringKey("db.rows")));
+    }
+
+    @Test
+    void lookupServedFromSnapshotIsCacheHitWithoutRepositorySpans() throws Exception {
+        importDirectory("""
+                DE\tLKUPDEFFXXX\tBIC11\tLOOKUP BANK\tHAUPTSTRASSE 1\tFRANKFURT\tGermany\tEurope/Berlin
+                """);
+        // Loaded at startup outside of the test profile.
+        countryRegistry.initialize(countryRepository.findAll());
+        directory.reload();
+        String traceId = "0af7651916cd43dd8448eb211c80319c";
+        mockMvc.perform(get("/v1/swift-codes/country/DE")
+                        .header("traceparent", "00-" + traceId + "-b7ad6b7169203331-01"))
+                .andExpect(status().isOk());
+
+        List<SpanData> spans = exportedSpans().stream()
+                .filter(span -> span.getTraceId().equals(traceId))
+                .toList();
+        SpanData operation = only(spans, "operation", "getSwiftCodesByCountry");
+        assertEquals("true", operation.getAttributes().get(AttributeKey.stringKey("cache.hit")));
+        assertEquals("DE", operation.getAttributes().get(AttributeKey.stringKey("key")));
+        assertTrue(children(spans, operation).isEmpty());
+    }
+
+    private void importDirectory(String tsv) throws IOException {
+        swiftCodeParser.parse(DirectoryFormat.TSV, new ByteArrayInputStream(tsv.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private List<SpanData> exportedSpans() {
+        tracerProvider.forceFlush().join(10, TimeUnit.SECONDS);
+        return spanExporter.getFinishedSpanItems();
+    }
+
+    private static List<SpanData> children(List<SpanData> spans, SpanData parent) {
+        return spans.stream()
+                .filter(span -> span.getParentSpanId().equals(parent.getSpanId()))
+                .toList();
+    }
+
+    private static SpanData only(List<SpanData> spans, String name) {
+        List<SpanData> matching = spans.stream()
+                .filter(span -> span.getName().equals(name))
+                .toList();
+        assertEquals(1, matching.size(), name);
+        return matching.getFirst();
+    }
+
+    /**
+     * By tag rather than by span name, which the exporter turns into kebab case.
+     */
+    private static SpanData only(List<SpanData> spans, String tag, String value) {
+        List<SpanData> matching = spans.stream()
+                .filter(span -> value.equals(span.getAttributes().get(AttributeKey.stringKey(tag))))
+                .toList();
+        assertEquals(1, matching.size(), tag + "=" + value);
+        return matching.getFirst();
+    }
+}
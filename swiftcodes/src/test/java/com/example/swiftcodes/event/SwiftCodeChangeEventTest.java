@@ -0,0 +1,30 @@
+package com.example.swiftcodes.event;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SwiftCodeChangeEventTest {
+
+    @Test
+    void shouldRoundTripThroughNotificationPayload() {
+        SwiftCodeChangeEvent event = SwiftCodeChangeEvent.added("PKOPLPWA001", "PL", "node-1");
+
+        SwiftCodeChangeEvent parsed = SwiftCodeChangeEvent.fromPayload(event.toPayload());
+
+        assertEquals(event, parsed);
+        assertEquals("PKOPLPWA", parsed.headquarterPrefix());
+    }
+
+    @Test
+    void shouldRoundTripReloadWithEmptyFields() {
+        SwiftCodeChangeEvent event = SwiftCodeChangeEvent.reloaded("node-1");
+
+        assertEquals(event, SwiftCodeChangeEvent.fromPayload(event.toPayload()));
+    }
+
+    @Test
+    void shouldRejectMalformedPayload() {
+        assertThrows(IllegalArgumentException.class, () -> SwiftCodeChangeEvent.fromPayload("ADDED|PKOPLPWA001"));
+    }
+}
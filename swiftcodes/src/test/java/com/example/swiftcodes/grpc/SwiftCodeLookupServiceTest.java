@@ -0,0 +1,304 @@
+package com.example.swiftcodes.grpc;
+
+import com.example.swiftcodes.cache.DirectorySnapshot;
+import com.example.swiftcodes.cache.SwiftCodeDirectory;
+import com.example.swiftcodes.config.GrpcProperties;
+import com.example.swiftcodes.exception.CountryNotFoundException;
+import com.example.swiftcodes.exception.SwiftCodeNotFoundException;
+import com.example.swiftcodes.grpc.v1.BatchGetSwiftCodesRequest;
+import com.example.swiftcodes.grpc.v1.BatchGetSwiftCodesResponse;
+import com.example.swiftcodes.grpc.v1.ExportSwiftCodesRequest;
+import com.example.swiftcodes.grpc.v1.GetSwiftCodeRequest;
+import com.example.swiftcodes.grpc.v1.GetSwiftCodeResponse;
+import com.example.swiftcodes.grpc.v1.StreamCountrySwiftCodesRequest;
+import com.example.swiftcodes.grpc.v1.SwiftCode;
+import com.example.swiftcodes.grpc.v1.SwiftCodeChunk;
+import com.example.swiftcodes.grpc.v1.SwiftCodeLookupGrpc;
+import com.example.swiftcodes.json.SwiftCodeRecordList;
+import com.example.swiftcodes.model.SwiftCodeRecord;
+import com.example.swiftcodes.model.dto.CountrySwiftCodesDto;
+import com.example.swiftcodes.model.dto.SwiftCodeWithBranchesDto;
+import com.example.swiftcodes.service.SwiftCodeExportService;
+import com.example.swiftcodes.service.SwiftCodeService;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SwiftCodeLookupServiceTest {
+
+    private static final SwiftCodeRecord HEADQUARTER = new SwiftCodeRecord("BREXPLPWXXX", "MBANK S.A.",
+            "UL. PROSTA 18", "PL", "POLAND", true, "BIC11", "WARSZAWA", "Europe/Warsaw");
+    private static final SwiftCodeRecord BRANCH = new SwiftCodeRecord("BREXPLPW001", "MBANK S.A.",
+            null, "PL", "POLAND", false, "BIC11", "KRAKOW", "Europe/Warsaw");
+
+    @Mock
+    private SwiftCodeService swiftCodeService;
+
+    @Mock
+    private SwiftCodeExportService swiftCodeExportService;
+
+    @Mock
+    private SwiftCodeDirectory directory;
+
+    private final DirectorySnapshot snapshot = DirectorySnapshot.of(7, List.of(HEADQUARTER, BRANCH));
+    private Server server;
+    private ManagedChannel channel;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        lenient().when(directory.current()).thenReturn(snapshot);
+        GrpcProperties properties = new GrpcProperties(true, 0, 3, 2, DataSize.ofMegabytes(1),
+                Duration.ofSeconds(1), Duration.ofMillis(500));
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name)
+                .addService(new SwiftCodeLookupService(swiftCodeService, swiftCodeExportService, directory,
+                        properties))
+                .build()
+                .start();
+        channel = InProcessChannelBuilder.forName(name).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.shutdownNow();
+        server.shutdownNow();
+    }
+
+    @Test
+    void getSwiftCodeReturnsDetailsWithBranchesAndSnapshotVersion() {
+        when(swiftCodeService.getSwiftCodeDetails(snapshot, "BREXPLPWXXX")).thenReturn(headquarterDetails());
+
+        GetSwiftCodeResponse response = SwiftCodeLookupGrpc.newBlockingStub(channel)
+                .getSwiftCode(GetSwiftCodeRequest.newBuilder().setSwiftCode("BREXPLPWXXX").build());
+
+        assertEquals(7, response.getDirectoryVersion());
+        SwiftCode headquarter = response.getDetails().getSwiftCode();
+        assertEquals("BREXPLPWXXX", headquarter.getSwiftCode());
+        assertEquals("POLAND", headquarter.getCountryName());
+        assertTrue(headquarter.getHeadquarter());
+        SwiftCode branch = response.getDetails().getBranches(0);
+        assertEquals("BREXPLPW001", branch.getSwiftCode());
+        assertEquals("", branch.getAddress());
+        assertEquals("POLAND", branch.getCountryName());
+        assertFalse(branch.getHeadquarter());
+    }
+
+    @Test
+    void unknownSwiftCodeIsNotFoundAndMissingOneInvalid() {
+        when(swiftCodeService.getSwiftCodeDetails(snapshot, "UNKNPLPWXXX"))
+                .thenThrow(new SwiftCodeNotFoundException("UNKNPLPWXXX"));
+        SwiftCodeLookupGrpc.SwiftCodeLookupBlockingStub stub = SwiftCodeLookupGrpc.newBlockingStub(channel);
+
+        StatusRuntimeException notFound = assertThrows(StatusRuntimeException.class,
+                () -> stub.getSwiftCode(GetSwiftCodeRequest.newBuilder().setSwiftCode("UNKNPLPWXXX").build()));
+        assertEquals(Status.Code.NOT_FOUND, notFound.getStatus().getCode());
+        StatusRuntimeException invalid = assertThrows(StatusRuntimeException.class,
+                () -> stub.getSwiftCode(GetSwiftCodeRequest.getDefaultInstance()));
+        assertEquals(Status.Code.INVALID_ARGUMENT, invalid.getStatus().getCode());
+    }
+
+    @Test
+    void batchAnswersFromOneSnapshotAndListsUnknownCodes() {
+        when(swiftCodeService.getSwiftCodeDetails(snapshot, "BREXPLPWXXX")).thenReturn(headquarterDetails());
+        when(swiftCodeService.getSwiftCodeDetails(snapshot, "UNKNPLPWXXX"))
+                .thenThrow(new SwiftCodeNotFoundException("UNKNPLPWXXX"));
+
+        BatchGetSwiftCodesResponse response = SwiftCodeLookupGrpc.newBlockingStub(channel)
+                .batchGetSwiftCodes(BatchGetSwiftCodesRequest.newBuilder()
+                        .addSwiftCodes("UNKNPLPWXXX")
+                        .addSwiftCodes("BREXPLPWXXX")
+                        .build());
+
+        assertEquals(List.of("BREXPLPWXXX"), response.getFoundList().stream()
+                .map(details -> details.getSwiftCode().getSwiftCode())
+                .toList());
+        assertEquals(List.of("UNKNPLPWXXX"), response.getNotFoundList());
+        assertEquals(7, response.getDirectoryVersion());
+        verify(directory, times(1)).current();
+    }
+
+    @Test
+    void batchOverLimitIsRejected() {
+        StatusRuntimeException e = assertThrows(StatusRuntimeException.class,
+                () -> SwiftCodeLookupGrpc.newBlockingStub(channel).batchGetSwiftCodes(
+                        BatchGetSwiftCodesRequest.newBuilder()
+                                .addAllSwiftCodes(List.of("AAAAPLPWXXX", "BBBBPLPWXXX", "CCCCPLPWXXX", "DDDDPLPWXXX"))
+                                .build()));
+
+        assertEquals(Status.Code.INVALID_ARGUMENT, e.getStatus().getCode());
+        verifyNoInteractions(swiftCodeService);
+    }
+
+    @Test
+    void countryStreamSendsEveryCodeWithCountryNameInChunks() {
+        when(swiftCodeService.getSwiftCodesByCountry(snapshot, "PL")).thenReturn(CountrySwiftCodesDto.builder()
+                .countryISO2("PL")
+                .countryName("POLAND")
+                .swiftCodes(SwiftCodeRecordList.of(List.of(HEADQUARTER, BRANCH, BRANCH)))
+                .build());
+        when(swiftCodeService.getSwiftCodesByCountry(snapshot, "XX")).thenThrow(new CountryNotFoundException("XX"));
+        SwiftCodeLookupGrpc.SwiftCodeLookupBlockingStub stub = SwiftCodeLookupGrpc.newBlockingStub(channel);
+
+        Iterator<SwiftCodeChunk> chunks = stub.streamCountrySwiftCodes(
+                StreamCountrySwiftCodesRequest.newBuilder().setCountryIso2("PL").build());
+        SwiftCodeChunk first = chunks.next();
+        assertEquals(2, first.getSwiftCodesCount());
+        assertEquals("BREXPLPWXXX", first.getSwiftCodes(0).getSwiftCode());
+        assertEquals("POLAND", first.getSwiftCodes(0).getCountryName());
+        assertEquals("BREXPLPW001", first.getSwiftCodes(1).getSwiftCode());
+        assertEquals(1, chunks.next().getSwiftCodesCount());
+        assertFalse(chunks.hasNext());
+
+        StatusRuntimeException e = assertThrows(StatusRuntimeException.class, () -> stub.streamCountrySwiftCodes(
+                StreamCountrySwiftCodesRequest.newBuilder().setCountryIso2("XX").build()).hasNext());
+        assertEquals(Status.Code.NOT_FOUND, e.getStatus().getCode());
+    }
+
+    @Test
+    void exportReadsOnlyAsFastAsTheCallerRequestsAndStopsWhenCancelled() throws InterruptedException {
+        AtomicInteger sent = new AtomicInteger();
+        CountDownLatch exportEnded = endlessExport(sent);
+        BlockingQueue<SwiftCodeChunk> received = new LinkedBlockingQueue<>();
+        AtomicReference<ClientCallStreamObserver<ExportSwiftCodesRequest>> call = new AtomicReference<>();
+
+        SwiftCodeLookupGrpc.newStub(channel).exportSwiftCodes(ExportSwiftCodesRequest.getDefaultInstance(),
+                new ClientResponseObserver<ExportSwiftCodesRequest, SwiftCodeChunk>() {
+                    @Override
+                    public void beforeStart(ClientCallStreamObserver<ExportSwiftCodesRequest> requestStream) {
+                        call.set(requestStream);
+                        requestStream.disableAutoRequestWithInitial(2);
+                    }
+
+                    @Override
+                    public void onNext(SwiftCodeChunk value) {
+                        received.add(value);
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                    }
+                });
+
+        assertNotNull(received.poll(5, TimeUnit.SECONDS));
+        assertNotNull(received.poll(5, TimeUnit.SECONDS));
+        Thread.sleep(200);
+        // Two chunks of two codes sent; the fifth code waits in the third chunk, the sixth for the caller.
+        assertEquals(5, sent.get());
+        assertEquals(1, exportEnded.getCount());
+
+        call.get().cancel("enough", null);
+        assertTrue(exportEnded.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void exportStopsWhenDeadlinePasses() throws InterruptedException {
+        CountDownLatch exportEnded = endlessExport(new AtomicInteger());
+
+        Iterator<SwiftCodeChunk> chunks = SwiftCodeLookupGrpc.newBlockingStub(channel)
+                .withDeadlineAfter(300, TimeUnit.MILLISECONDS)
+                .exportSwiftCodes(ExportSwiftCodesRequest.getDefaultInstance());
+        assertNotNull(chunks.next());
+
+        assertTrue(exportEnded.await(5, TimeUnit.SECONDS));
+        StatusRuntimeException e = assertThrows(StatusRuntimeException.class, () -> chunks.forEachRemaining(chunk -> {
+        }));
+        assertEquals(Status.Code.DEADLINE_EXCEEDED, e.getStatus().getCode());
+    }
+
+    @Test
+    void exportFailsOnceTheCallerStopsReadingWithoutDeadline() throws InterruptedException {
+        CountDownLatch exportEnded = endlessExport(new AtomicInteger());
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        CountDownLatch failed = new CountDownLatch(1);
+
+        SwiftCodeLookupGrpc.newStub(channel).exportSwiftCodes(ExportSwiftCodesRequest.getDefaultInstance(),
+                new ClientResponseObserver<ExportSwiftCodesRequest, SwiftCodeChunk>() {
+                    @Override
+                    public void beforeStart(ClientCallStreamObserver<ExportSwiftCodesRequest> requestStream) {
+                        requestStream.disableAutoRequestWithInitial(1);
+                    }
+
+                    @Override
+                    public void onNext(SwiftCodeChunk value) {
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        failure.set(t);
+                        failed.countDown();
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                    }
+                });
+
+        assertTrue(exportEnded.await(5, TimeUnit.SECONDS));
+        assertTrue(failed.await(5, TimeUnit.SECONDS));
+        assertEquals(Status.Code.DEADLINE_EXCEEDED, Status.fromThrowable(failure.get()).getCode());
+    }
+
+    /**
+     * Like a cursor over a directory too large to send at once: produces codes until sending one fails.
+     */
+    private CountDownLatch endlessExport(AtomicInteger sent) {
+        CountDownLatch exportEnded = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            Consumer<SwiftCodeRecord> consumer = invocation.getArgument(0);
+            try {
+                while (true) {
+                    consumer.accept(BRANCH);
+                    sent.incrementAndGet();
+                }
+            } finally {
+                exportEnded.countDown();
+            }
+        }).when(swiftCodeExportService).export(any());
+        return exportEnded;
+    }
+
+    private static SwiftCodeWithBranchesDto headquarterDetails() {
+        return SwiftCodeWithBranchesDto.builder()
+                .swiftCode(HEADQUARTER.swiftCode())
+                .bankName(HEADQUARTER.bankName())
+                .address(HEADQUARTER.address())
+                .countryISO2("PL")
+                .countryName("POLAND")
+                .isHeadquarter(true)
+                .branches(SwiftCodeRecordList.of(List.of(BRANCH)))
+                .build();
+    }
+}
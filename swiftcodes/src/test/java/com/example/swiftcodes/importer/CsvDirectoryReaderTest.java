@@ -0,0 +1,71 @@
+package com.example.swiftcodes.importer;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvDirectoryReaderTest {
+
+    @Test
+    void shouldReadQuotedFieldsWithCommasQuotesAndLineBreaks() throws IOException {
+        String csv = "\uFEFFCOUNTRY ISO2 CODE,SWIFT CODE,CODE TYPE,NAME,ADDRESS,TOWN NAME,COUNTRY NAME,TIME ZONE\r\n"
+                + "PL,BREXPLPWXXX,BIC11,\"MBANK \"\"S.A.\"\"\",\"UL. PROSTA 18,\r\nWARSZAWA\",WARSZAWA,Poland,Europe/Warsaw\r\n"
+                + "\r\n"
+                + "PL,BREXPLPW001,BIC11,MBANK BRANCH,,KRAKOW,Poland,\n";
+
+        List<DirectoryEntry> entries = readAll(csv);
+
+        assertEquals(2, entries.size());
+        DirectoryEntry headquarter = entries.get(0);
+        assertEquals(2, headquarter.lineNumber());
+        assertEquals("BREXPLPWXXX", headquarter.swiftCode());
+        assertEquals("MBANK \"S.A.\"", headquarter.bankName());
+        assertEquals("UL. PROSTA 18,\r\nWARSZAWA", headquarter.address());
+        assertEquals("POLAND", headquarter.countryName());
+        assertEquals("Europe/Warsaw", headquarter.timeZone());
+
+        DirectoryEntry branch = entries.get(1);
+        assertEquals(5, branch.lineNumber());
+        assertEquals("", branch.address());
+        assertEquals("KRAKOW", branch.townName());
+        assertNull(branch.timeZone());
+    }
+
+    @Test
+    void shouldMapColumnsByHeaderNameInAnyOrder() throws IOException {
+        String csv = "swift_code,country_name,name,country_iso2_code,unused\n"
+                + "BREXPLPWXXX,Poland,MBANK,pl,x\n"
+                + "TOOFEW,Poland\n";
+
+        List<DirectoryEntry> entries = readAll(csv);
+
+        assertEquals(1, entries.size());
+        assertEquals("PL", entries.getFirst().countryIso2());
+        assertEquals("MBANK", entries.getFirst().bankName());
+        assertNull(entries.getFirst().townName());
+    }
+
+    @Test
+    void shouldRejectMissingColumnsAndUnterminatedQuotes() {
+        assertThrows(IOException.class, () -> readAll("SWIFT CODE,NAME\nBREXPLPWXXX,MBANK\n"));
+        assertThrows(IOException.class, () -> readAll("COUNTRY ISO2 CODE,SWIFT CODE,NAME,COUNTRY NAME\n"
+                + "PL,BREXPLPWXXX,\"MBANK,Poland\n"));
+    }
+
+    private static List<DirectoryEntry> readAll(String csv) throws IOException {
+        List<DirectoryEntry> entries = new ArrayList<>();
+        try (DirectoryReader reader = new CsvDirectoryReader(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)))) {
+            for (DirectoryEntry entry; (entry = reader.next()) != null; ) {
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.swiftcodes.importer;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class XmlDirectoryReaderTest {
+
+    @Test
+    void shouldReadPlainEntries() throws IOException {
+        String xml = """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <directory>
+                  <entry>
+                    <swiftCode>BREXPLPWXXX</swiftCode>
+                    <countryIso2>pl</countryIso2>
+                    <codeType>BIC11</codeType>
+                    <bankName>MBANK &amp; CO</bankName>
+                    <address><![CDATA[UL. PROSTA 18]]></address>
+                    <townName>WARSZAWA</townName>
+                    <countryName>Poland</countryName>
+                    <timeZone>Europe/Warsaw</timeZone>
+                  </entry>
+                  <entry><bankName>NO CODE</bankName></entry>
+                </directory>
+                """;
+
+        List<DirectoryEntry> entries = readAll(xml);
+
+        assertEquals(1, entries.size());
+        DirectoryEntry entry = entries.getFirst();
+        assertEquals(3, entry.lineNumber());
+        assertEquals("PL", entry.countryIso2());
+        assertEquals("MBANK & CO", entry.bankName());
+        assertEquals("UL. PROSTA 18", entry.address());
+        assertEquals("POLAND", entry.countryName());
+        assertEquals("Europe/Warsaw", entry.timeZone());
+    }
+
+    @Test
+    void shouldReadIso20022FinancialInstitutionsInAnyNamespace() throws IOException {
+        String xml = """
+                <Document xmlns="urn:iso:std:iso:20022:tech:xsd:reda.017.001.01">
+                  <FinInstnId>
+                    <BICFI>BREXPLPW001</BICFI>
+                    <Nm>MBANK BRANCH</Nm>
+                    <PstlAdr>
+                      <AdrLine>RYNEK 1</AdrLine>
+                      <AdrLine>31-001</AdrLine>
+                      <TwnNm>KRAKOW</TwnNm>
+                      <Ctry>PL</Ctry>
+                    </PstlAdr>
+                  </FinInstnId>
+                </Document>
+                """;
+
+        DirectoryEntry entry = readAll(xml).getFirst();
+
+        assertEquals("BREXPLPW001", entry.swiftCode());
+        assertEquals("MBANK BRANCH", entry.bankName());
+        assertEquals("RYNEK 1, 31-001", entry.address());
+        assertEquals("KRAKOW", entry.townName());
+        assertEquals("PL", entry.countryIso2());
+        assertNull(entry.codeType());
+    }
+
+    @Test
+    void shouldRefuseDocumentTypeDeclarations() {
+        String xml = """
+                <?xml version="1.0"?>
+                <!DOCTYPE directory [<!ENTITY secret SYSTEM "file:///etc/passwd">]>
+                <directory><entry><swiftCode>&secret;</swiftCode></entry></directory>
+                """;
+
+        assertThrows(IOException.class, () -> readAll(xml));
+    }
+
+    private static List<DirectoryEntry> readAll(String xml) throws IOException {
+        List<DirectoryEntry> entries = new ArrayList<>();
+        try (DirectoryReader reader = new XmlDirectoryReader(
+                new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)))) {
+            for (DirectoryEntry entry; (entry = reader.next()) != null; ) {
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.swiftcodes.json;
+
+import com.example.swiftcodes.model.SwiftCodeRecord;
+import com.example.swiftcodes.model.dto.BankCountryDto;
+import com.example.swiftcodes.model.dto.CountrySwiftCodesDto;
+import com.example.swiftcodes.model.dto.FilteredSwiftCodesDto;
+import com.example.swiftcodes.model.dto.SwiftCodeDto;
+import com.example.swiftcodes.model.dto.SwiftCodeWithBranchesDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The record-backed lists must serialize to exactly the bytes of the DTOs they replace, in every format the
+ * controller negotiates, including the properties left out or written as {@code null}.
+ */
+class SwiftCodeRecordListSerializerTest {
+
+    private static final List<SwiftCodeRecord> RECORDS = List.of(
+            new SwiftCodeRecord("BREXPLPWXXX", "MBANK S.A.", "UL. PROSTA 18", "PL", "POLAND", true,
+                    "BIC11", "WARSZAWA", "Europe/Warsaw"),
+            new SwiftCodeRecord("BREXPLPW001", null, null, "PL", "POLAND", false, null, "KRAKÓW", null),
+            new SwiftCodeRecord("BREXPLPW002", "MBANK S.A.", "RYNEK \"GŁÓWNY\" 1", "PL", null, false,
+                    "BIC11", null, "Europe/Warsaw"));
+
+    static Stream<Arguments> mappers() {
+        return Stream.of(
+                Arguments.of("json", Jackson2ObjectMapperBuilder.json().build()),
+                Arguments.of("cbor", Jackson2ObjectMapperBuilder.cbor().build()),
+                Arguments.of("smile", Jackson2ObjectMapperBuilder.smile().build()));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("mappers")
+    void countryListingMatchesDtos(String format, ObjectMapper mapper) throws Exception {
+        assertSameBytes(mapper,
+                countryOf(dtos(RECORDS, false)),
+                countryOf(SwiftCodeRecordList.of(RECORDS)));
+        assertSameBytes(mapper,
+                countryOf(List.of()),
+                countryOf(SwiftCodeRecordList.of(List.of())));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("mappers")
+    void filterResultMatchesDtos(String format, ObjectMapper mapper) throws Exception {
+        assertSameBytes(mapper,
+                FilteredSwiftCodesDto.builder().count(RECORDS.size()).swiftCodes(dtos(RECORDS, true)).build(),
+                FilteredSwiftCodesDto.builder().count(RECORDS.size())
+                        .swiftCodes(SwiftCodeRecordList.withAttributes(RECORDS)).build());
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("mappers")
+    void headquarterBranchesMatchDtos(String format, ObjectMapper mapper) throws Exception {
+        List<SwiftCodeRecord> branches = RECORDS.subList(1, RECORDS.size());
+        assertSameBytes(mapper,
+                headquarterWith(dtos(branches, false)),
+                headquarterWith(SwiftCodeRecordList.of(branches)));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("mappers")
+    void bankCountryMatchesDtosAndLeavesOutNoBranchesWithoutHeadquarter(String format, ObjectMapper mapper)
+            throws Exception {
+        assertSameBytes(mapper,
+                bankCountryWith(new ArrayList<>()),
+                bankCountryWith(SwiftCodeRecordList.of(new ArrayList<>())));
+        assertSameBytes(mapper,
+                bankCountryWith(dtos(RECORDS, false)),
+                bankCountryWith(SwiftCodeRecordList.of(RECORDS)));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("mappers")
+    void readsBackAsDtos(String format, ObjectMapper mapper) throws Exception {
+        byte[] body = mapper.writeValueAsBytes(
+                FilteredSwiftCodesDto.builder().count(RECORDS.size())
+                        .swiftCodes(SwiftCodeRecordList.withAttributes(RECORDS)).build());
+
+        FilteredSwiftCodesDto response = mapper.readValue(body, FilteredSwiftCodesDto.class);
+        assertEquals(dtos(RECORDS, true), response.getSwiftCodes());
+    }
+
+    private static void assertSameBytes(ObjectMapper mapper, Object dtoResponse, Object recordResponse)
+            throws Exception {
+        assertArrayEquals(mapper.writeValueAsBytes(dtoResponse), mapper.writeValueAsBytes(recordResponse));
+    }
+
+    private static List<SwiftCodeDto> dtos(List<SwiftCodeRecord> records, boolean withAttributes) {
+        return records.stream()
+                .map(record -> {
+                    SwiftCodeDto.SwiftCodeDtoBuilder dto = SwiftCodeDto.builder()
+                            .swiftCode(record.swiftCode())
+                            .bankName(record.bankName())
+                            .address(record.address())
+                            .countryISO2(record.countryIso2())
+                            .isHeadquarter(record.headquarter());
+                    if (withAttributes) {
+                        dto.countryName(record.countryName())
+                                .codeType(record.codeType())
+                                .townName(record.townName())
+                                .timeZone(record.timeZone());
+                    }
+                    return dto.build();
+                })
+                .toList();
+    }
+
+    private static CountrySwiftCodesDto countryOf(List<SwiftCodeDto> swiftCodes) {
+        return CountrySwiftCodesDto.builder()
+                .countryISO2("PL")
+                .countryName("POLAND")
+                .swiftCodes(swiftCodes)
+                .build();
+    }
+
+    private static SwiftCodeWithBranchesDto headquarterWith(List<SwiftCodeDto> branches) {
+        return SwiftCodeWithBranchesDto.builder()
+                .swiftCode("BREXPLPWXXX")
+                .bankName("MBANK S.A.")
+                .address("UL. PROSTA 18")
+                .countryISO2("PL")
+                .countryName("POLAND")
+                .isHeadquarter(true)
+                .branches(branches)
+                .build();
+    }
+
+    private static BankCountryDto bankCountryWith(List<SwiftCodeDto> branchesWithoutHeadquarter) {
+        return BankCountryDto.builder()
+                .countryISO2("PL")
+                .countryName("POLAND")
+                .headquarters(List.of(headquarterWith(null)))
+                .branchesWithoutHeadquarter(branchesWithoutHeadquarter)
+                .build();
+    }
+}
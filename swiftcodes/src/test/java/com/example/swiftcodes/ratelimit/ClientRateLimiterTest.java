@@ -0,0 +1,86 @@
+package com.example.swiftcodes.ratelimit;
+
+import com.example.swiftcodes.config.RateLimitProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClientRateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+    private final ClientRateLimiter rateLimiter =
+            new ClientRateLimiter(new RateLimitProperties(true, 10, 5, null, 100), clock::get);
+
+    @Test
+    void shouldAllowBurstThenThrottle() {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, rateLimiter.tryAcquire("10.0.0.1"));
+        }
+
+        long wait = rateLimiter.tryAcquire("10.0.0.1");
+
+        assertEquals(100_000_000L, wait);
+    }
+
+    @Test
+    void shouldRefillAtConfiguredRate() {
+        for (int i = 0; i < 5; i++) {
+            rateLimiter.tryAcquire("10.0.0.1");
+        }
+
+        clock.addAndGet(100_000_000L);
+
+        assertEquals(0, rateLimiter.tryAcquire("10.0.0.1"));
+        assertTrue(rateLimiter.tryAcquire("10.0.0.1") > 0);
+    }
+
+    @Test
+    void shouldTrackClientsIndependently() {
+        for (int i = 0; i < 5; i++) {
+            rateLimiter.tryAcquire("10.0.0.1");
+        }
+
+        assertTrue(rateLimiter.tryAcquire("10.0.0.1") > 0);
+        assertEquals(0, rateLimiter.tryAcquire("10.0.0.2"));
+    }
+
+    @Test
+    void shouldEvictBucketsThatRefilledCompletely() {
+        rateLimiter.tryAcquire("10.0.0.1");
+        rateLimiter.tryAcquire("10.0.0.2");
+
+        clock.addAndGet(1_000_000_000L);
+        rateLimiter.evictIdleBuckets();
+
+        assertEquals(0, rateLimiter.trackedClients());
+    }
+
+    @Test
+    void shouldShareOneBucketBetweenClientsOverTheLimit() {
+        ClientRateLimiter limited = new ClientRateLimiter(new RateLimitProperties(true, 10, 5, null, 2), clock::get);
+        limited.tryAcquire("10.0.0.1");
+        limited.tryAcquire("10.0.0.2");
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limited.tryAcquire("10.0.1." + i));
+        }
+
+        assertTrue(limited.tryAcquire("10.0.1.99") > 0);
+        assertEquals(2, limited.trackedClients());
+        assertEquals(0, limited.tryAcquire("10.0.0.1"));
+    }
+
+    @Test
+    void shouldTrackNewClientsAgainOnceIdleBucketsAreEvicted() {
+        ClientRateLimiter limited = new ClientRateLimiter(new RateLimitProperties(true, 10, 5, null, 1), clock::get);
+        limited.tryAcquire("10.0.0.1");
+
+        clock.addAndGet(1_000_000_000L);
+        limited.evictIdleBuckets();
+        limited.tryAcquire("10.0.0.2");
+
+        assertEquals(1, limited.trackedClients());
+    }
+}
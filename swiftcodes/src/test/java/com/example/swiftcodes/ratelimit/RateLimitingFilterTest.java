@@ -0,0 +1,110 @@
+package com.example.swiftcodes.ratelimit;
+
+import com.example.swiftcodes.config.LoadSheddingProperties;
+import com.example.swiftcodes.config.RateLimitProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.sql.DataSource;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitingFilterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private RateLimitingFilter filter(int burst, int maxInFlight) {
+        RateLimitProperties rateLimitProperties = new RateLimitProperties(true, 1, burst, "X-Forwarded-For", 100);
+        LoadShedder loadShedder = new LoadShedder(new LoadSheddingProperties(true, maxInFlight, 20),
+                new StaticListableBeanFactory().getBeanProvider(DataSource.class));
+        return new RateLimitingFilter(new ClientRateLimiter(rateLimitProperties, clock::get), loadShedder,
+                rateLimitProperties, new ObjectMapper(), meterRegistry);
+    }
+
+    private MockHttpServletResponse perform(RateLimitingFilter filter, String method, String uri, String client)
+            throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setRemoteAddr("10.0.0.254");
+        request.addHeader("X-Forwarded-For", client + ", 10.0.0.254");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    @Test
+    void shouldThrottleClientOverItsBurstWith429() throws Exception {
+        RateLimitingFilter filter = filter(2, 10);
+
+        assertEquals(200, perform(filter, "GET", "/v1/swift-codes/PKOPLPWAXXX", "10.0.0.1").getStatus());
+        assertEquals(200, perform(filter, "GET", "/v1/swift-codes/PKOPLPWAXXX", "10.0.0.1").getStatus());
+        MockHttpServletResponse throttled = perform(filter, "GET", "/v1/swift-codes/PKOPLPWAXXX", "10.0.0.1");
+
+        assertEquals(429, throttled.getStatus());
+        assertEquals("1", throttled.getHeader("Retry-After"));
+        assertTrue(throttled.getContentAsString().contains("Too many requests"));
+        assertEquals(200, perform(filter, "GET", "/v1/swift-codes/PKOPLPWAXXX", "10.0.0.2").getStatus());
+        assertEquals(1.0, meterRegistry.get("swiftcodes.requests.throttled").counter().count());
+    }
+
+    @Test
+    void shouldOnlyGuardLookupEndpoints() throws Exception {
+        RateLimitingFilter filter = filter(1, 10);
+
+        perform(filter, "GET", "/v1/swift-codes/PKOPLPWAXXX", "10.0.0.1");
+
+        assertEquals(200, perform(filter, "POST", "/v1/swift-codes", "10.0.0.1").getStatus());
+        assertEquals(200, perform(filter, "GET", "/actuator/health", "10.0.0.1").getStatus());
+    }
+
+    @Test
+    void shouldNotChargeExportOrChangeFeedAgainstLookups() throws Exception {
+        RateLimitingFilter filter = filter(1, 10);
+
+        perform(filter, "GET", "/v1/swift-codes/PKOPLPWAXXX", "10.0.0.1");
+
+        assertEquals(200, perform(filter, "GET", "/v1/swift-codes/export", "10.0.0.1").getStatus());
+        assertEquals(200, perform(filter, "GET", "/v1/swift-codes/changes", "10.0.0.1").getStatus());
+        assertEquals(200, perform(filter, "GET", "/v1/swift-codes/changes/stream", "10.0.0.1").getStatus());
+        assertEquals(429, perform(filter, "GET", "/v1/swift-codes/country/PL", "10.0.0.1").getStatus());
+    }
+
+    @Test
+    void shouldTellApartClientsBehindTheSameGateway() throws Exception {
+        RateLimitingFilter filter = filter(1, 10);
+
+        MockHttpServletResponse first = perform(filter, "GET", "/v1/swift-codes/PKOPLPWAXXX", "10.0.0.1");
+        MockHttpServletResponse throttled = perform(filter, "GET", "/v1/swift-codes/PKOPLPWAXXX", "10.0.0.1");
+        MockHttpServletResponse other = perform(filter, "GET", "/v1/swift-codes/PKOPLPWAXXX", "10.0.0.2");
+
+        assertEquals(200, first.getStatus());
+        assertEquals(429, throttled.getStatus());
+        assertEquals(200, other.getStatus());
+    }
+
+    @Test
+    void shouldShedWith503WhenTooManyRequestsAreInFlight() throws Exception {
+        RateLimitingFilter filter = filter(10, 0);
+
+        MockHttpServletResponse response = perform(filter, "GET", "/v1/swift-codes/country/PL", "10.0.0.1");
+
+        assertEquals(503, response.getStatus());
+        assertEquals(1.0, meterRegistry.get("swiftcodes.requests.shed").tag("reason", "in_flight").counter().count());
+    }
+
+    @Test
+    void shouldReleaseInFlightSlotAfterRequest() throws Exception {
+        RateLimitingFilter filter = filter(10, 1);
+
+        assertEquals(200, perform(filter, "GET", "/v1/swift-codes/country/PL", "10.0.0.1").getStatus());
+        assertEquals(200, perform(filter, "GET", "/v1/swift-codes/country/PL", "10.0.0.1").getStatus());
+        assertEquals(0.0, meterRegistry.get("swiftcodes.requests.in.flight").gauge().value());
+    }
+}
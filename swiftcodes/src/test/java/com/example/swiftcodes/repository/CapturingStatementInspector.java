@@ -0,0 +1,26 @@
+package com.example.swiftcodes.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Records the last SQL statement Hibernate prepared, so tests can inspect the query actually sent to the database.
+ */
+public class CapturingStatementInspector implements StatementInspector {
+    private static final AtomicReference<String> lastStatement = new AtomicReference<>();
+
+    @Override
+    public String inspect(String sql) {
+        lastStatement.set(sql);
+        return sql;
+    }
+
+    static String lastStatement() {
+        return lastStatement.get();
+    }
+
+    static void clear() {
+        lastStatement.set(null);
+    }
+}
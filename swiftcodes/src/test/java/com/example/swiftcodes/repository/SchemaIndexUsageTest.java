@@ -0,0 +1,187 @@
+package com.example.swiftcodes.repository;
+
+import com.example.swiftcodes.model.Country;
+import com.example.swiftcodes.model.SwiftCode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Guards the read-path indexes: captures the SQL Hibernate actually generates for the key queries and checks
+ * their {@code EXPLAIN} plans. Sequential and bitmap scans are disabled for the check, so a plan without the
+ * expected index means the index cannot serve the query any more (dropped, or the SQL no longer matches it).
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.example.swiftcodes.repository.CapturingStatementInspector")
+@Testcontainers
+@ActiveProfiles("test")
+class SchemaIndexUsageTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:14-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void registerPgProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private SwiftCodeRepository swiftCodeRepository;
+
+    @Autowired
+    private CountryRepository countryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Country poland;
+
+    @BeforeEach
+    void setUp() {
+        swiftCodeRepository.deleteAll();
+        countryRepository.deleteAll();
+
+        poland = countryRepository.save(Country.builder().iso2Code("PL").name("POLAND").build());
+        Country germany = countryRepository.save(Country.builder().iso2Code("DE").name("GERMANY").build());
+        for (Country country : List.of(poland, germany)) {
+            for (int bank = 0; bank < 20; bank++) {
+                String prefix = "BNK" + (char) ('A' + bank) + country.getIso2Code() + "PW";
+                swiftCodeRepository.save(swiftCode(prefix + "XXX", true, country));
+                swiftCodeRepository.save(swiftCode(prefix + "001", false, country));
+            }
+        }
+        jdbcTemplate.execute("vacuum analyze swift_codes");
+        jdbcTemplate.execute("vacuum analyze countries");
+        CapturingStatementInspector.clear();
+    }
+
+    @Test
+    void countryListingUsesIndexOnlyScanInSwiftCodeOrder() {
+        swiftCodeRepository.findRecordsByCountryId(poland.getId());
+
+        String plan = explain(lastStatement(), poland.getId());
+
+        assertTrue(plan.contains("Index Only Scan using idx_swift_codes_country_listing on swift_codes"), plan);
+        assertFalse(plan.contains("Sort"), plan);
+    }
+
+    @Test
+    void swiftCodeLookupUsesUniqueIndex() {
+        swiftCodeRepository.findBySwiftCode("BNKAPLPWXXX");
+
+        String plan = explain(lastStatement(), "BNKAPLPWXXX");
+
+        assertTrue(plan.matches("(?s).*Index Scan using \\S+ on swift_codes.*Index Cond: \\(\\(?swift_code\\)?.*"), plan);
+    }
+
+    @Test
+    void bankRangeUsesUniqueIndex() {
+        swiftCodeRepository.findRecordsInRange("BNKA", "BNKAZZZZZZZ");
+
+        String plan = explain(lastStatement(), "BNKA", "BNKAZZZZZZZ");
+
+        assertTrue(plan.matches("(?s).*Index Scan using \\S+ on swift_codes.*Index Cond: \\(\\(\\(?swift_code\\)?.*"), plan);
+    }
+
+    @Test
+    void headquarterPrefixLookupUsesExpressionIndex() {
+        swiftCodeRepository.findUnlinkedBranchesByPrefix("BNKAPLPW");
+
+        String plan = explain(lastStatement(), "BNKAPLPW");
+
+        assertTrue(plan.contains("Index Scan using idx_swift_codes_headquarter_prefix on swift_codes"), plan);
+    }
+
+    @Test
+    void countryLookupUsesUniqueIndex() {
+        countryRepository.findByIso2Code("PL");
+
+        String plan = explain(lastStatement(), "PL");
+
+        assertTrue(plan.matches("(?s).*Index Scan using \\S+ on countries.*Index Cond: \\(\\(?iso2_code\\)?.*"), plan);
+    }
+
+    @Test
+    void naturalKeysHaveExactlyOneIndex() {
+        assertEquals(1, countIndexesOn("swift_codes", "swift_code"));
+        assertEquals(1, countIndexesOn("countries", "iso2_code"));
+    }
+
+    private int countIndexesOn(String table, String column) {
+        return jdbcTemplate.queryForObject(
+                "select count(*) from pg_indexes where tablename = ? and indexdef like ?",
+                Integer.class, table, "%(" + column + ")");
+    }
+
+    private String lastStatement() {
+        String sql = CapturingStatementInspector.lastStatement();
+        assertNotNull(sql, "No SQL was captured");
+        return sql;
+    }
+
+    private String explain(String sql, Object... parameters) {
+        String statement = bindLiterals(sql, parameters);
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (Statement jdbcStatement = connection.createStatement()) {
+                jdbcStatement.execute("set enable_seqscan = off");
+                jdbcStatement.execute("set enable_bitmapscan = off");
+                List<String> lines = new ArrayList<>();
+                try (ResultSet resultSet = jdbcStatement.executeQuery("explain " + statement)) {
+                    while (resultSet.next()) {
+                        lines.add(resultSet.getString(1));
+                    }
+                }
+                jdbcStatement.execute("reset enable_seqscan");
+                jdbcStatement.execute("reset enable_bitmapscan");
+                return statement + "\n" + String.join("\n", lines);
+            }
+        });
+    }
+
+    private static String bindLiterals(String sql, Object... parameters) {
+        StringBuilder bound = new StringBuilder(sql.length() + 32);
+        int parameter = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c != '?') {
+                bound.append(c);
+                continue;
+            }
+            Object value = parameters[parameter++];
+            bound.append(value instanceof Number ? value.toString() : "'" + value + "'");
+        }
+        assertEquals(parameters.length, parameter, "Parameter count mismatch in: " + sql);
+        return bound.toString();
+    }
+
+    private static SwiftCode swiftCode(String code, boolean headquarter, Country country) {
+        return SwiftCode.builder()
+                .swiftCode(code)
+                .bankName("BANK " + code.substring(0, 4))
+                .address("ADDRESS " + code)
+                .isHeadquarter(headquarter)
+                .country(country)
+                .build();
+    }
+}
@@ -0,0 +1,215 @@
+package com.example.swiftcodes.service;
+
+import com.example.swiftcodes.changelog.DirectoryChangeLog;
+import com.example.swiftcodes.importer.DirectoryFormat;
+import com.example.swiftcodes.model.Country;
+import com.example.swiftcodes.model.SwiftCode;
+import com.example.swiftcodes.model.dto.SwiftCodeChangeDto;
+import com.example.swiftcodes.repository.CountryRepository;
+import com.example.swiftcodes.repository.SwiftCodeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Testcontainers
+@ActiveProfiles("test")
+class DirectoryTableSwapImporterTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:14-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void registerPgProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    private static final String NEW_DIRECTORY = """
+            PL\tBREXPLPWXXX\tBIC11\tMBANK S.A.\tUL. PROSTA 18, WARSZAWA\tWARSZAWA\tPoland\tEurope/Warsaw
+            PL\tBREXPLPW001\tBIC11\tMBANK S.A. "KRAKOW"\tRYNEK 1, KRAKOW\tKRAKOW\tPoland\tEurope/Warsaw
+            PL\tBREXPLPW001\tBIC11\tDUPLICATE\tIGNORED\tKRAKOW\tPoland\tEurope/Warsaw
+            DE\tINVALIDCODE\tBIC11\tBROKEN\tNOWHERE\tBERLIN\tGermany\tEurope/Berlin
+            CL\tBCHICLRMXXX\tBIC11\tBANCO DE CHILE\tAHUMADA 251, SANTIAGO\tSANTIAGO\tChile\tAmerica/Santiago
+            """;
+
+    @Autowired
+    private DirectoryTableSwapImporter importer;
+
+    @Autowired
+    private SwiftCodeRepository swiftCodeRepository;
+
+    @Autowired
+    private CountryRepository countryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DirectoryChangeLog changeLog;
+
+    private List<String> liveIndexes;
+
+    @BeforeEach
+    void setUp() {
+        swiftCodeRepository.deleteAll();
+        countryRepository.deleteAll();
+
+        Country poland = countryRepository.save(Country.builder().iso2Code("PL").name("POLAND").build());
+        swiftCodeRepository.save(swiftCode("OLDBPLPWXXX", true, poland));
+        swiftCodeRepository.save(swiftCode("OLDBPLPW001", false, poland));
+        liveIndexes = indexNames("swift_codes");
+    }
+
+    @AfterEach
+    void dropPreviousTable() {
+        jdbcTemplate.execute("drop table if exists " + DirectoryTableSwapImporter.PREVIOUS_TABLE);
+    }
+
+    @Test
+    void reloadSwapsInTheNewDirectoryWithLinkedBranches() throws IOException {
+        DirectoryTableSwapImporter.ReloadResult result = importer.reload(input(NEW_DIRECTORY));
+
+        assertEquals(3, result.rows());
+        assertEquals(2, result.replacedRows());
+        assertEquals(1, result.linkedBranches());
+        assertEquals(List.of("BCHICLRMXXX", "BREXPLPW001", "BREXPLPWXXX"), swiftCodeRepository.findAllSwiftCodes()
+                .stream().sorted().toList());
+
+        SwiftCode branch = swiftCodeRepository.findBySwiftCode("BREXPLPW001").orElseThrow();
+        assertEquals("MBANK S.A. \"KRAKOW\"", branch.getBankName());
+        assertEquals("BIC11", branch.getCodeType());
+        assertEquals("KRAKOW", branch.getTownName());
+        assertEquals("Europe/Warsaw", branch.getTimeZone());
+        assertEquals(List.of("BREXPLPW001"), swiftCodeRepository.findByHeadquarter(
+                swiftCodeRepository.findBySwiftCode("BREXPLPWXXX").orElseThrow()).stream().map(SwiftCode::getSwiftCode).toList());
+        assertEquals("CHILE", countryRepository.findByIso2Code("CL").orElseThrow().getName());
+        assertEquals(liveIndexes, indexNames("swift_codes"));
+        assertEquals(2, count(DirectoryTableSwapImporter.PREVIOUS_TABLE));
+    }
+
+    @Test
+    void reloadReadsXmlAndCsvDirectories() throws IOException {
+        String xml = """
+                <directory>
+                  <entry><swiftCode>XMLBPLPWXXX</swiftCode><countryIso2>PL</countryIso2><bankName>XML BANK</bankName>
+                    <townName>WARSZAWA</townName><countryName>Poland</countryName></entry>
+                  <entry><swiftCode>XMLBPLPW001</swiftCode><countryIso2>PL</countryIso2><bankName>XML BRANCH</bankName>
+                    <townName>KRAKOW</townName><countryName>Poland</countryName></entry>
+                </directory>
+                """;
+        String csv = "COUNTRY ISO2 CODE,SWIFT CODE,NAME,ADDRESS,COUNTRY NAME\r\n"
+                + "PL,CSVBPLPWXXX,CSV BANK,\"UL. PROSTA 18, WARSZAWA\",Poland\r\n"
+                + "PL,CSVBPLPW001,CSV BRANCH,,Poland\r\n";
+
+        DirectoryTableSwapImporter.ReloadResult fromXml = importer.reload(DirectoryFormat.XML, input(xml));
+
+        assertEquals(1, fromXml.linkedBranches());
+        assertEquals("KRAKOW", swiftCodeRepository.findBySwiftCode("XMLBPLPW001").orElseThrow().getTownName());
+
+        DirectoryTableSwapImporter.ReloadResult fromCsv = importer.reload(DirectoryFormat.CSV, input(csv));
+
+        assertEquals(2, fromCsv.rows());
+        assertEquals(1, fromCsv.linkedBranches());
+        assertEquals("UL. PROSTA 18, WARSZAWA",
+                swiftCodeRepository.findBySwiftCode("CSVBPLPWXXX").orElseThrow().getAddress());
+    }
+
+    @Test
+    void rollbackSwapsThePreviousDirectoryBack() throws IOException {
+        importer.reload(input(NEW_DIRECTORY));
+
+        DirectoryTableSwapImporter.ReloadResult result = importer.rollback();
+
+        assertEquals(2, result.rows());
+        assertEquals(List.of("OLDBPLPW001", "OLDBPLPWXXX"), swiftCodeRepository.findAllSwiftCodes()
+                .stream().sorted().toList());
+        assertEquals(liveIndexes, indexNames("swift_codes"));
+        assertEquals(3, count(DirectoryTableSwapImporter.PREVIOUS_TABLE));
+    }
+
+    @Test
+    void reloadAndRollbackRecordTheDifferencesAsChanges() throws IOException {
+        long since = changeLog.latestVersion();
+
+        importer.reload(input(NEW_DIRECTORY));
+
+        List<SwiftCodeChangeDto> changes = changeLog.changesSince(since, 100);
+        assertEquals(List.of("UPSERT BCHICLRMXXX", "UPSERT BREXPLPW001", "UPSERT BREXPLPWXXX", "DELETE OLDBPLPW001",
+                "DELETE OLDBPLPWXXX"), changes.stream().map(change -> change.getOperation() + " "
+                + change.getSwiftCode()).toList());
+        SwiftCodeChangeDto branch = changes.get(1);
+        assertEquals("PL", branch.getCountryISO2());
+        assertEquals("MBANK S.A. \"KRAKOW\"", branch.getBankName());
+        assertEquals("KRAKOW", branch.getTownName());
+        assertFalse(branch.getIsHeadquarter());
+        assertEquals("PL", changes.get(3).getCountryISO2());
+        assertNull(changes.get(3).getBankName());
+
+        since = changes.getLast().getVersion();
+        importer.rollback();
+
+        assertEquals(List.of("DELETE BCHICLRMXXX", "DELETE BREXPLPW001", "DELETE BREXPLPWXXX", "UPSERT OLDBPLPW001",
+                "UPSERT OLDBPLPWXXX"), changeLog.changesSince(since, 100).stream()
+                .map(change -> change.getOperation() + " " + change.getSwiftCode()).toList());
+    }
+
+    @Test
+    void reloadRefusesADirectoryFarSmallerThanTheLiveOne() {
+        String truncated = "CL\tBCHICLRMXXX\tBIC11\tBANCO DE CHILE\tAHUMADA 251\tSANTIAGO\tChile\tAmerica/Santiago\n";
+        swiftCodeRepository.save(swiftCode("OLDBPLPW002", false, countryRepository.findByIso2Code("PL").orElseThrow()));
+
+        assertThrows(IllegalStateException.class, () -> importer.reload(input(truncated)));
+
+        assertEquals(3, swiftCodeRepository.count());
+        assertTrue(countryRepository.findByIso2Code("CL").isEmpty());
+        assertFalse(tableExists(DirectoryTableSwapImporter.STAGING_TABLE));
+    }
+
+    private List<String> indexNames(String table) {
+        return jdbcTemplate.queryForList(
+                "select indexname from pg_indexes where tablename = ? order by indexname", String.class, table);
+    }
+
+    private long count(String table) {
+        return jdbcTemplate.queryForObject("select count(*) from " + table, Long.class);
+    }
+
+    private boolean tableExists(String table) {
+        return jdbcTemplate.queryForObject("select to_regclass(?) is not null", Boolean.class, table);
+    }
+
+    private static ByteArrayInputStream input(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static SwiftCode swiftCode(String code, boolean headquarter, Country country) {
+        return SwiftCode.builder()
+                .swiftCode(code)
+                .bankName("BANK " + code.substring(0, 4))
+                .address("ADDRESS " + code)
+                .isHeadquarter(headquarter)
+                .country(country)
+                .build();
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.swiftcodes.service;
+
+import com.example.swiftcodes.model.SwiftCodeRecord;
+import com.example.swiftcodes.repository.SwiftCodeRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SwiftCodeExportServiceTest {
+
+    @Mock
+    private SwiftCodeRepository swiftCodeRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private SwiftCodeExportService swiftCodeExportService;
+
+    @BeforeEach
+    void setUp() {
+        swiftCodeExportService = new SwiftCodeExportService(swiftCodeRepository, objectMapper);
+    }
+
+    private void stubRecords() {
+        when(swiftCodeRepository.streamAllRecords()).thenReturn(Stream.of(
+                new SwiftCodeRecord("BREXPLPWXXX", "BANK TEST", "TEST\tADDRESS 1", "PL", "POLAND", true),
+                new SwiftCodeRecord("BREXPLPW001", "BANK TEST BRANCH", "TEST ADDRESS 2", "PL", "POLAND", false,
+                        "BIC11", "WARSZAWA", "Europe/Warsaw")));
+    }
+
+    @Test
+    void shouldExportTsvInParserLayout() throws IOException {
+        stubRecords();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        swiftCodeExportService.export(ExportFormat.TSV, outputStream);
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertArrayEquals(new String[]{"PL", "BREXPLPWXXX", "BIC11", "BANK TEST", "TEST ADDRESS 1", "", "POLAND", ""},
+                lines[0].split("\t", -1));
+    }
+
+    @Test
+    void shouldExportOneJsonObjectPerLine() throws IOException {
+        stubRecords();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        swiftCodeExportService.export(ExportFormat.NDJSON, outputStream);
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        JsonNode branch = objectMapper.readTree(lines[1]);
+        assertEquals("BREXPLPW001", branch.get("swiftCode").asText());
+        assertEquals("POLAND", branch.get("countryName").asText());
+        assertFalse(branch.get("isHeadquarter").asBoolean());
+        assertEquals("WARSZAWA", branch.get("townName").asText());
+        assertFalse(objectMapper.readTree(lines[0]).has("townName"));
+    }
+
+    @Test
+    void shouldSeparateJsonLinesWithNewlineOnly() throws IOException {
+        stubRecords();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        swiftCodeExportService.export(ExportFormat.NDJSON, outputStream);
+
+        String expected = """
+                {"address":"TEST\\tADDRESS 1","bankName":"BANK TEST","countryISO2":"PL","countryName":"POLAND",\
+                "isHeadquarter":true,"swiftCode":"BREXPLPWXXX"}
+                {"address":"TEST ADDRESS 2","bankName":"BANK TEST BRANCH","countryISO2":"PL","countryName":"POLAND",\
+                "isHeadquarter":false,"swiftCode":"BREXPLPW001","codeType":"BIC11","townName":"WARSZAWA",\
+                "timeZone":"Europe/Warsaw"}
+                """;
+        assertArrayEquals(expected.getBytes(StandardCharsets.UTF_8), outputStream.toByteArray());
+    }
+
+    @Test
+    void shouldRejectUnknownFormat() {
+        assertThrows(IllegalArgumentException.class, () -> ExportFormat.fromParameter("xml"));
+        assertEquals(ExportFormat.NDJSON, ExportFormat.fromParameter("ndjson"));
+    }
+}
@@ -1,27 +1,33 @@
 package com.example.swiftcodes.service;
 
+import com.example.swiftcodes.cache.CountryRegistry;
+import com.example.swiftcodes.changelog.DirectoryChangeLog;
+import com.example.swiftcodes.event.SwiftCodeChangePublisher;
 import com.example.swiftcodes.model.Country;
 import com.example.swiftcodes.model.SwiftCode;
 import com.example.swiftcodes.repository.CountryRepository;
 import com.example.swiftcodes.repository.SwiftCodeRepository;
+import io.micrometer.observation.ObservationRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,6 +39,21 @@ class SwiftCodeParserTest {
     @Mock
     private SwiftCodeRepository swiftCodeRepository;
 
+    @Mock
+    private SwiftCodeChangePublisher changePublisher;
+
+    @Mock
+    private DirectoryChangeLog changeLog;
+
+    @Captor
+    private ArgumentCaptor<Collection<SwiftCode>> recorded;
+
+    @Spy
+    private CountryRegistry countryRegistry = new CountryRegistry();
+
+    @Spy
+    private ObservationRegistry observationRegistry = ObservationRegistry.create();
+
     @InjectMocks
     private SwiftCodeParser swiftCodeParser;
 
@@ -76,13 +97,27 @@ class SwiftCodeParserTest {
 
         when(countryRepository.findByIso2Code("PL")).thenReturn(Optional.empty());
         when(countryRepository.save(any(Country.class))).thenReturn(mockCountry);
-        when(swiftCodeRepository.findBySwiftCode(anyString())).thenReturn(Optional.empty());
         when(swiftCodeRepository.save(any(SwiftCode.class))).thenReturn(mockHeadquarter, mockBranch);
 
         swiftCodeParser.parseTsv(inputStream);
 
         verify(countryRepository).save(any(Country.class));
         verify(swiftCodeRepository, times(2)).save(any(SwiftCode.class));
+        verify(changePublisher).publishReloaded();
+    }
+
+    @Test
+    void shouldResolveRegisteredCountriesWithoutQueries() throws IOException {
+        String tsvData = "PL\tBREXPLPWXXX\tBREX\tBANK TEST\tTEST ADDRESS 1\tWARSAW\tPOLAND\t1234\n" +
+                "PL\tBREXPLPW001\tBREX\tBANK TEST BRANCH\tTEST ADDRESS 2\tKRAKOW\tPOLAND\t5678";
+        InputStream inputStream = new ByteArrayInputStream(tsvData.getBytes(StandardCharsets.UTF_8));
+        countryRegistry.initialize(List.of(mockCountry));
+
+
+        swiftCodeParser.parseTsv(inputStream);
+
+        verifyNoInteractions(countryRepository);
+        verify(swiftCodeRepository, times(2)).save(argThat(swiftCode -> swiftCode.getCountry() == mockCountry));
     }
 
     @Test
@@ -93,7 +128,6 @@ class SwiftCodeParserTest {
         InputStream inputStream = new ByteArrayInputStream(tsvData.getBytes(StandardCharsets.UTF_8));
 
         when(countryRepository.findByIso2Code("PL")).thenReturn(Optional.of(mockCountry));
-        when(swiftCodeRepository.findBySwiftCode(anyString())).thenReturn(Optional.empty());
         when(swiftCodeRepository.save(any(SwiftCode.class))).thenReturn(mockHeadquarter, mockBranch);
 
         swiftCodeParser.parseTsv(inputStream);
@@ -102,20 +136,98 @@ class SwiftCodeParserTest {
     }
 
     @Test
-    void shouldLinkBranchesToHeadquarters() {
-        mockBranch.setHeadquarter(null);
+    void shouldAcceptRowsWithEmptyTrailingColumns() throws IOException {
+        String tsvData = "PL\tBREXPLPWXXX\tBIC11\tBANK TEST\tTEST ADDRESS 1\t\tPOLAND\t\n";
+        InputStream inputStream = new ByteArrayInputStream(tsvData.getBytes(StandardCharsets.UTF_8));
 
-        when(swiftCodeRepository.findAll()).thenReturn(List.of(mockHeadquarter, mockBranch));
-        when(swiftCodeRepository.findBySwiftCode("BREXPLPWXXX")).thenReturn(Optional.of(mockHeadquarter));
+        when(countryRepository.findByIso2Code("PL")).thenReturn(Optional.of(mockCountry));
+
+        swiftCodeParser.parseTsv(inputStream);
+
+        verify(swiftCodeRepository).save(any(SwiftCode.class));
+    }
+
+    @Test
+    void shouldStoreCodeTypeTownAndTimeZone() throws IOException {
+        String tsvData = "PL\tBREXPLPWXXX\tBIC11\tBANK TEST\tTEST ADDRESS 1\tWARSZAWA\tPOLAND\tEurope/Warsaw\n" +
+                "PL\tBREXPLPW001\tBIC11\tBANK TEST BRANCH\tTEST ADDRESS 2\t \tPOLAND\t\n";
+        InputStream inputStream = new ByteArrayInputStream(tsvData.getBytes(StandardCharsets.UTF_8));
+        countryRegistry.initialize(List.of(mockCountry));
 
-        swiftCodeParser.linkBranchesToHeadquarters();
 
-        ArgumentCaptor<SwiftCode> swiftCodeCaptor = ArgumentCaptor.forClass(SwiftCode.class);
-        verify(swiftCodeRepository).save(swiftCodeCaptor.capture());
+        swiftCodeParser.parseTsv(inputStream);
+
+        ArgumentCaptor<SwiftCode> saved = ArgumentCaptor.forClass(SwiftCode.class);
+        verify(swiftCodeRepository, times(2)).save(saved.capture());
+        SwiftCode headquarter = saved.getAllValues().get(0);
+        assertEquals("BIC11", headquarter.getCodeType());
+        assertEquals("WARSZAWA", headquarter.getTownName());
+        assertEquals("Europe/Warsaw", headquarter.getTimeZone());
+        SwiftCode branch = saved.getAllValues().get(1);
+        assertNull(branch.getTownName());
+        assertNull(branch.getTimeZone());
+    }
+
+    @Test
+    void shouldFillMissingAttributesOfStoredCodes() throws IOException {
+        String tsvData = "PL\tBREXPLPWXXX\tBIC11\tBANK TEST\tTEST ADDRESS 1\tWARSZAWA\tPOLAND\tEurope/Warsaw\n";
+        InputStream inputStream = new ByteArrayInputStream(tsvData.getBytes(StandardCharsets.UTF_8));
+        countryRegistry.initialize(List.of(mockCountry));
+
+        when(swiftCodeRepository.findBySwiftCodeIn(List.of("BREXPLPWXXX"))).thenReturn(List.of(mockHeadquarter));
+
+        swiftCodeParser.parseTsv(inputStream);
+
+        verify(swiftCodeRepository, never()).save(any(SwiftCode.class));
+        assertEquals("BIC11", mockHeadquarter.getCodeType());
+        assertEquals("WARSZAWA", mockHeadquarter.getTownName());
+        assertEquals("Europe/Warsaw", mockHeadquarter.getTimeZone());
+        verify(changeLog).recordUpserts(List.of(mockHeadquarter));
+    }
+
+    @Test
+    void shouldRecordAddedCodesButNotUnchangedOnes() throws IOException {
+        String tsvData = "PL\tBREXPLPWXXX\tBIC11\tBANK TEST\tTEST ADDRESS 1\tWARSZAWA\tPOLAND\tEurope/Warsaw\n" +
+                "PL\tBREXPLPW001\tBIC11\tBANK TEST BRANCH\tTEST ADDRESS 2\tWARSZAWA\tPOLAND\tEurope/Warsaw\n";
+        InputStream inputStream = new ByteArrayInputStream(tsvData.getBytes(StandardCharsets.UTF_8));
+        countryRegistry.initialize(List.of(mockCountry));
+        mockHeadquarter.setTownName("WARSZAWA");
+
+        when(swiftCodeRepository.findBySwiftCodeIn(List.of("BREXPLPWXXX", "BREXPLPW001")))
+                .thenReturn(List.of(mockHeadquarter));
+
+        swiftCodeParser.parseTsv(inputStream);
+
+        verify(changeLog).recordUpserts(recorded.capture());
+        assertEquals(List.of("BREXPLPW001"), recorded.getValue().stream().map(SwiftCode::getSwiftCode).toList());
+    }
+
+    @Test
+    void shouldLookUpStoredCodesOncePerChunkAndStoreRepeatedCodesOnce() throws IOException {
+        StringBuilder tsvData = new StringBuilder();
+        for (int i = 0; i < 600; i++) {
+            tsvData.append(String.format("PL\tBREXPLPW%03d\tBIC11\tBANK TEST\tADDRESS\tWARSZAWA\tPOLAND\t\n", i));
+            if (i == 10) {
+                tsvData.append("PL\tBREXPLPW001\tBIC11\tDUPLICATE\tADDRESS\tWARSZAWA\tPOLAND\t\n");
+            }
+        }
+        countryRegistry.initialize(List.of(mockCountry));
+
+        swiftCodeParser.parseTsv(new ByteArrayInputStream(tsvData.toString().getBytes(StandardCharsets.UTF_8)));
+
+        verify(swiftCodeRepository, times(2)).findBySwiftCodeIn(any());
+        verify(swiftCodeRepository, times(600)).save(any(SwiftCode.class));
+        verify(swiftCodeRepository, never()).findBySwiftCode(any());
+    }
+
+    @Test
+    void shouldLinkBranchesToHeadquartersWithOneUpdate() {
+        when(swiftCodeRepository.linkBranchesToHeadquarters()).thenReturn(1);
+
+        swiftCodeParser.linkBranchesToHeadquarters();
 
-        SwiftCode savedBranch = swiftCodeCaptor.getValue();
-        assertEquals("BREXPLPW001", savedBranch.getSwiftCode());
-        assertNotNull(savedBranch.getHeadquarter());
-        assertEquals("BREXPLPWXXX", savedBranch.getHeadquarter().getSwiftCode());
+        verify(swiftCodeRepository).linkBranchesToHeadquarters();
+        verify(swiftCodeRepository, never()).findBySwiftCode(any());
+        verify(swiftCodeRepository, never()).save(any(SwiftCode.class));
     }
 }
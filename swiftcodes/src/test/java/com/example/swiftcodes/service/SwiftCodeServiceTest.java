@@ -1,25 +1,53 @@
 package com.example.swiftcodes.service;
 
+import com.example.swiftcodes.cache.CountryRegistry;
+import com.example.swiftcodes.cache.DirectorySnapshot;
+import com.example.swiftcodes.cache.SwiftCodeDirectory;
+import com.example.swiftcodes.changelog.DirectoryChangeLog;
+import com.example.swiftcodes.cache.SwiftCodeBloomFilter;
+import com.example.swiftcodes.config.BloomFilterProperties;
+import com.example.swiftcodes.diagnostics.ObservationNames;
+import com.example.swiftcodes.event.SwiftCodeChangePublisher;
+import com.example.swiftcodes.exception.InvalidSwiftCodeException;
+import com.example.swiftcodes.exception.SwiftCodeNotFoundException;
 import com.example.swiftcodes.model.Country;
 import com.example.swiftcodes.model.SwiftCode;
+import com.example.swiftcodes.model.SwiftCodeFilter;
+import com.example.swiftcodes.model.SwiftCodeRecord;
+import com.example.swiftcodes.model.dto.BankCountryDto;
+import com.example.swiftcodes.model.dto.BankSwiftCodesDto;
 import com.example.swiftcodes.model.dto.CountrySwiftCodesDto;
+import com.example.swiftcodes.model.dto.FilteredSwiftCodesDto;
 import com.example.swiftcodes.model.dto.MessageResponseDto;
 import com.example.swiftcodes.model.dto.SwiftCodeDto;
 import com.example.swiftcodes.model.dto.SwiftCodeWithBranchesDto;
 import com.example.swiftcodes.repository.CountryRepository;
 import com.example.swiftcodes.repository.SwiftCodeRepository;
+import io.micrometer.observation.tck.TestObservationRegistry;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static io.micrometer.observation.tck.TestObservationRegistryAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -33,6 +61,27 @@ public class SwiftCodeServiceTest {
     @Mock
     private CountryRepository countryRepository;
 
+    @Mock
+    private SwiftCodeChangePublisher changePublisher;
+
+    @Mock
+    private DirectoryChangeLog changeLog;
+
+    @Captor
+    private ArgumentCaptor<List<SwiftCode>> saved;
+
+    @Spy
+    private CountryRegistry countryRegistry = new CountryRegistry();
+
+    @Mock
+    private SwiftCodeDirectory directory;
+
+    @Spy
+    private SwiftCodeBloomFilter bloomFilter = new SwiftCodeBloomFilter(new BloomFilterProperties(true, 1000, 0.01));
+
+    @Spy
+    private TestObservationRegistry observationRegistry = TestObservationRegistry.create();
+
     @InjectMocks
     private SwiftCodeService swiftCodeService;
 
@@ -43,6 +92,8 @@ public class SwiftCodeServiceTest {
 
     @BeforeEach
     void setUp() {
+        lenient().when(directory.current()).thenReturn(DirectorySnapshot.unloaded());
+
         mockCountry = Country.builder()
                 .id(1L)
                 .iso2Code("PL")
@@ -126,11 +177,78 @@ public class SwiftCodeServiceTest {
         verify(swiftCodeRepository).findBySwiftCode("NONEXIST");
     }
 
+    @Test
+    void getSwiftCodeDetailsMissDoesNotCaptureStackTrace() {
+        when(swiftCodeRepository.findBySwiftCode("NONEXIST")).thenReturn(Optional.empty());
+
+        EntityNotFoundException exception = assertThrows(EntityNotFoundException.class, () ->
+                swiftCodeService.getSwiftCodeDetails("NONEXIST")
+        );
+
+        assertEquals("Swift code not found: NONEXIST", exception.getMessage());
+        assertEquals(0, exception.getStackTrace().length);
+    }
+
+    @Test
+    void getSwiftCodeDetailsRejectsUnknownCodeWithoutQueryOnceBloomFilterIsReady() {
+        bloomFilter.initialize(List.of("TESTPLDEXXX", "TESTPLDE001"));
+
+        assertThrows(EntityNotFoundException.class, () ->
+                swiftCodeService.getSwiftCodeDetails("NONEXIST")
+        );
+
+        verify(swiftCodeRepository, never()).findBySwiftCode(any());
+    }
+
+    @Test
+    void getSwiftCodeDetailsMissIsObservedWithError() {
+        bloomFilter.initialize(List.of("TESTPLDEXXX"));
+
+        assertThrows(EntityNotFoundException.class, () -> swiftCodeService.getSwiftCodeDetails("NONEXIST"));
+
+        assertThat(observationRegistry).hasObservationWithNameEqualTo(ObservationNames.SERVICE_OPERATION).that()
+                .hasContextualNameEqualTo("getSwiftCodeDetails")
+                .assertThatError().isInstanceOf(SwiftCodeNotFoundException.class);
+    }
+
+    @Test
+    void validateSwiftCodeToStoreLaterRejectsNewCountryWithoutName() {
+        when(countryRepository.findByIso2Code("PL")).thenReturn(Optional.empty());
+
+        InvalidSwiftCodeException exception = assertThrows(InvalidSwiftCodeException.class,
+                () -> swiftCodeService.validateSwiftCodeToStoreLater(mockSwiftCodeDto));
+
+        assertEquals("Country name is required for new country PL", exception.getMessage());
+    }
+
+    @Test
+    void validateSwiftCodeToStoreLaterAcceptsKnownCountryWithoutName() {
+        countryRegistry.initialize(List.of(mockCountry));
+
+        swiftCodeService.validateSwiftCodeToStoreLater(mockSwiftCodeDto);
+
+        verify(countryRepository, never()).findByIso2Code(any());
+    }
+
+    @Test
+    void addSwiftCodeRegistersCodeInBloomFilter() {
+        bloomFilter.initialize(List.of("TESTPLDEXXX"));
+        when(countryRepository.findByIso2Code("PL")).thenReturn(Optional.of(mockCountry));
+        when(swiftCodeRepository.findBySwiftCode("TESTPLDEXXX")).thenReturn(Optional.of(mockHeadquarter));
+
+        swiftCodeService.addSwiftCode(mockSwiftCodeDto);
+
+        assertTrue(bloomFilter.mightContain("TESTPLDE002"));
+        verify(swiftCodeRepository, never()).findBySwiftCode("TESTPLDE002");
+    }
+
     @Test
     void getSwiftCodesByCountryReturnsSwiftCodes() {
-        List<SwiftCode> swiftCodes = Arrays.asList(mockHeadquarter, mockBranch);
+        List<SwiftCodeRecord> swiftCodes = Arrays.asList(
+                new SwiftCodeRecord("TESTPLDE001", "BANK TEST BRANCH", "TEST ADDRESS 2", "PL", "POLAND", false),
+                new SwiftCodeRecord("TESTPLDEXXX", "BANK TEST", "TEST ADDRESS 1", "PL", "POLAND", true));
         when(countryRepository.findByIso2Code("PL")).thenReturn(Optional.of(mockCountry));
-        when(swiftCodeRepository.findByCountryIso2Code("PL")).thenReturn(swiftCodes);
+        when(swiftCodeRepository.findRecordsByCountryId(1L)).thenReturn(swiftCodes);
 
         CountrySwiftCodesDto result = swiftCodeService.getSwiftCodesByCountry("PL");
 
@@ -140,7 +258,75 @@ public class SwiftCodeServiceTest {
         assertEquals(2, result.getSwiftCodes().size());
 
         verify(countryRepository).findByIso2Code("PL");
-        verify(swiftCodeRepository).findByCountryIso2Code("PL");
+        verify(swiftCodeRepository).findRecordsByCountryId(1L);
+    }
+
+    @Test
+    void getSwiftCodesByCountryResolvesCountryFromRegistry() {
+        countryRegistry.initialize(List.of(mockCountry));
+        when(swiftCodeRepository.findRecordsByCountryId(1L)).thenReturn(List.of(
+                new SwiftCodeRecord("TESTPLDEXXX", "BANK TEST", "TEST ADDRESS 1", "PL", "POLAND", true)));
+
+        CountrySwiftCodesDto result = swiftCodeService.getSwiftCodesByCountry("pl");
+
+        assertEquals("POLAND", result.getCountryName());
+        assertThrows(EntityNotFoundException.class, () -> swiftCodeService.getSwiftCodesByCountry("XX"));
+        verifyNoInteractions(countryRepository);
+    }
+
+    @Test
+    void readsAreServedFromLoadedSnapshotWithoutQueries() {
+        countryRegistry.initialize(List.of(mockCountry));
+        DirectorySnapshot snapshot = DirectorySnapshot.of(3, List.of(
+                new SwiftCodeRecord("TESTPLDEXXX", "BANK TEST", "TEST ADDRESS 1", "PL", "POLAND", true),
+                new SwiftCodeRecord("TESTPLDE001", "BANK TEST BRANCH", "TEST ADDRESS 2", "PL", "POLAND", false),
+                new SwiftCodeRecord("TESTDEDEXXX", "BANK TEST DE", "TEST ADDRESS 3", "DE", "GERMANY", true)));
+
+        SwiftCodeWithBranchesDto details = swiftCodeService.getSwiftCodeDetails(snapshot, "TESTPLDEXXX");
+        CountrySwiftCodesDto country = swiftCodeService.getSwiftCodesByCountry(snapshot, "PL");
+        BankSwiftCodesDto bank = swiftCodeService.getSwiftCodesByBank(snapshot, "TEST");
+
+        assertEquals(List.of("TESTPLDE001"), details.getBranches().stream().map(SwiftCodeDto::getSwiftCode).toList());
+        assertEquals(List.of("TESTPLDE001", "TESTPLDEXXX"),
+                country.getSwiftCodes().stream().map(SwiftCodeDto::getSwiftCode).toList());
+        assertEquals(List.of("DE", "PL"), bank.getCountries().stream().map(BankCountryDto::getCountryISO2).toList());
+        assertThrows(EntityNotFoundException.class, () -> swiftCodeService.getSwiftCodeDetails(snapshot, "TESTPLDE002"));
+        verifyNoInteractions(swiftCodeRepository, countryRepository);
+    }
+
+    @Test
+    void filterSwiftCodesUsesSnapshotBitmapsOnceLoaded() {
+        DirectorySnapshot snapshot = DirectorySnapshot.of(3, List.of(
+                new SwiftCodeRecord("TESTDEFFXXX", "BANK TEST DE", "ADDRESS DE", "DE", "GERMANY", true,
+                        "BIC11", "FRANKFURT", "Europe/Berlin"),
+                new SwiftCodeRecord("TESTDEFF001", "BANK TEST FFM", "ADDRESS DE 1", "DE", "GERMANY", false,
+                        "BIC11", "FRANKFURT", "Europe/Berlin")));
+
+        FilteredSwiftCodesDto result = swiftCodeService.filterSwiftCodes(snapshot,
+                new SwiftCodeFilter("DE", "frankfurt", null, null, true));
+
+        assertEquals(1, result.getCount());
+        SwiftCodeDto match = result.getSwiftCodes().getFirst();
+        assertEquals("TESTDEFFXXX", match.getSwiftCode());
+        assertEquals("GERMANY", match.getCountryName());
+        assertEquals("FRANKFURT", match.getTownName());
+        assertEquals("Europe/Berlin", match.getTimeZone());
+        verifyNoInteractions(swiftCodeRepository);
+    }
+
+    @Test
+    void filterSwiftCodesQueriesDatabaseBeforeSnapshotIsLoaded() {
+        when(swiftCodeRepository.findRecordsMatching("DE", "FRANKFURT", null, null, true)).thenReturn(List.of(
+                new SwiftCodeRecord("TESTDEFFXXX", "BANK TEST DE", "ADDRESS DE", "DE", "GERMANY", true,
+                        "BIC11", "FRANKFURT", "Europe/Berlin")));
+
+        FilteredSwiftCodesDto result = swiftCodeService.filterSwiftCodes(
+                new SwiftCodeFilter("de", "Frankfurt", "", null, true));
+
+        assertEquals(List.of("TESTDEFFXXX"), result.getSwiftCodes().stream().map(SwiftCodeDto::getSwiftCode).toList());
+        InvalidSwiftCodeException exception = assertThrows(InvalidSwiftCodeException.class,
+                () -> swiftCodeService.filterSwiftCodes(new SwiftCodeFilter(null, null, null, null, null)));
+        assertEquals(0, exception.getStackTrace().length);
     }
 
     @Test
@@ -152,7 +338,7 @@ public class SwiftCodeServiceTest {
         );
 
         verify(countryRepository).findByIso2Code("XX");
-        verify(swiftCodeRepository, never()).findByCountryIso2Code(any());
+        verify(swiftCodeRepository, never()).findRecordsByCountryId(any());
     }
 
     @Test
@@ -186,6 +372,45 @@ public class SwiftCodeServiceTest {
         verify(swiftCodeRepository).delete(mockHeadquarter);
     }
 
+    @Test
+    void deleteSwiftCodePublishesChange() {
+        when(swiftCodeRepository.findBySwiftCode("TESTPLDE001")).thenReturn(Optional.of(mockBranch));
+
+        swiftCodeService.deleteSwiftCode("TESTPLDE001");
+
+        verify(changePublisher).publishDeleted("TESTPLDE001", "PL");
+    }
+
+    @Test
+    void deleteSwiftCodeRecordsChange() {
+        when(swiftCodeRepository.findBySwiftCode("TESTPLDE001")).thenReturn(Optional.of(mockBranch));
+
+        swiftCodeService.deleteSwiftCode("TESTPLDE001");
+
+        verify(changeLog).recordDelete(mockBranch);
+    }
+
+    @Test
+    void addSwiftCodePublishesChange() {
+        when(countryRepository.findByIso2Code("PL")).thenReturn(Optional.of(mockCountry));
+
+        swiftCodeService.addSwiftCode(mockSwiftCodeDto);
+
+        verify(changePublisher).publishAdded("TESTPLDE002", "PL");
+    }
+
+    @Test
+    void addSwiftCodeRecordsStoredState() {
+        when(countryRepository.findByIso2Code("PL")).thenReturn(Optional.of(mockCountry));
+
+        swiftCodeService.addSwiftCode(mockSwiftCodeDto);
+
+        ArgumentCaptor<SwiftCode> recorded = ArgumentCaptor.forClass(SwiftCode.class);
+        verify(changeLog).recordUpsert(recorded.capture());
+        assertEquals("TESTPLDE002", recorded.getValue().getSwiftCode());
+        assertSame(mockCountry, recorded.getValue().getCountry());
+    }
+
     @Test
     void addSwiftCodeCreatesBranchLinksToHeadquarter() {
         SwiftCode newBranch = SwiftCode.builder()
@@ -313,4 +538,126 @@ public class SwiftCodeServiceTest {
         Exception exception = assertThrows(IllegalArgumentException.class, () -> swiftCodeService.addSwiftCode(BadCountryDto));
         assertEquals("Characters 5-6 of swift code must match the country ISO code: PL", exception.getMessage());
     }
-}
\ No newline at end of file
+
+    @Test
+    void concurrentLookupsOfSameCodeShareOneDatabaseLoad() throws Exception {
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoad = new CountDownLatch(1);
+        when(swiftCodeRepository.findBySwiftCode("TESTPLDE001")).thenAnswer(invocation -> {
+            loadStarted.countDown();
+            releaseLoad.await(5, TimeUnit.SECONDS);
+            return Optional.of(mockBranch);
+        });
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(3)) {
+            Future<SwiftCodeWithBranchesDto> first = executor.submit(() -> swiftCodeService.getSwiftCodeDetails("TESTPLDE001"));
+            assertTrue(loadStarted.await(5, TimeUnit.SECONDS));
+            Future<SwiftCodeWithBranchesDto> second = executor.submit(() -> swiftCodeService.getSwiftCodeDetails("TESTPLDE001"));
+            Future<SwiftCodeWithBranchesDto> third = executor.submit(() -> swiftCodeService.getSwiftCodeDetails("TESTPLDE001"));
+            Thread.sleep(100);
+            releaseLoad.countDown();
+
+            assertEquals("TESTPLDE001", first.get(5, TimeUnit.SECONDS).getSwiftCode());
+            assertSame(first.get(), second.get(5, TimeUnit.SECONDS));
+            assertSame(first.get(), third.get(5, TimeUnit.SECONDS));
+        }
+        verify(swiftCodeRepository, times(1)).findBySwiftCode("TESTPLDE001");
+    }
+
+    @Test
+    void getSwiftCodesByBankGroupsBranchesUnderHeadquartersPerCountry() {
+        when(swiftCodeRepository.findRecordsInRange("TEST", "TESTZZZZZZZ")).thenReturn(List.of(
+                new SwiftCodeRecord("TESTDEFF001", "BANK TEST FFM", "ADDRESS DE 1", "DE", "GERMANY", false),
+                new SwiftCodeRecord("TESTDEFFXXX", "BANK TEST DE", "ADDRESS DE", "DE", "GERMANY", true),
+                new SwiftCodeRecord("TESTDEMM001", "BANK TEST MUC", "ADDRESS DE 2", "DE", "GERMANY", false),
+                new SwiftCodeRecord("TESTPLDEXXX", "BANK TEST", "TEST ADDRESS 1", "PL", "POLAND", true)));
+
+        BankSwiftCodesDto result = swiftCodeService.getSwiftCodesByBank("test");
+
+        assertEquals("TEST", result.getBankCode());
+        assertEquals(2, result.getCountries().size());
+        assertEquals("DE", result.getCountries().get(0).getCountryISO2());
+        assertEquals("GERMANY", result.getCountries().get(0).getCountryName());
+        assertEquals(1, result.getCountries().get(0).getHeadquarters().size());
+        assertEquals("TESTDEFF001",
+                result.getCountries().get(0).getHeadquarters().getFirst().getBranches().getFirst().getSwiftCode());
+        assertEquals("TESTDEMM001", result.getCountries().get(0).getBranchesWithoutHeadquarter().getFirst().getSwiftCode());
+        assertEquals("TESTPLDEXXX", result.getCountries().get(1).getHeadquarters().getFirst().getSwiftCode());
+        assertNull(result.getCountries().get(1).getHeadquarters().getFirst().getBranches());
+    }
+
+    @Test
+    void getSwiftCodesByBankWithUnknownBankThrowsException() {
+        when(swiftCodeRepository.findRecordsInRange("NONE", "NONEZZZZZZZ")).thenReturn(List.of());
+
+        assertThrows(EntityNotFoundException.class, () -> swiftCodeService.getSwiftCodesByBank("NONE"));
+    }
+
+    @Test
+    void getSwiftCodesByBankWithMalformedBankCodeThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> swiftCodeService.getSwiftCodesByBank("TE5T"));
+        verifyNoInteractions(swiftCodeRepository);
+    }
+
+    @Test
+    void addHeadquarterLinksExistingBranchesWithSamePrefix() {
+        mockBranch.setHeadquarter(null);
+        SwiftCodeDto headquarterDto = SwiftCodeDto.builder()
+                .swiftCode("TESTPLDEXXX")
+                .bankName("BANK TEST")
+                .address("TEST ADDRESS 1")
+                .countryISO2("PL")
+                .countryName("POLAND")
+                .isHeadquarter(true)
+                .build();
+        when(countryRepository.findByIso2Code("PL")).thenReturn(Optional.of(mockCountry));
+        when(swiftCodeRepository.findUnlinkedBranchesByPrefix("TESTPLDE")).thenReturn(List.of(mockBranch));
+
+        swiftCodeService.addSwiftCode(headquarterDto);
+
+        assertNotNull(mockBranch.getHeadquarter());
+        assertEquals("TESTPLDEXXX", mockBranch.getHeadquarter().getSwiftCode());
+        verify(swiftCodeRepository).save(mockBranch);
+    }
+
+    @Test
+    void addSwiftCodesStoresBatchAndLinksBranchesInOneLookup() {
+        bloomFilter.initialize(List.of("TESTPLDEXXX", "TESTPLDE001"));
+        SwiftCodeDto newHeadquarter = SwiftCodeDto.builder()
+                .swiftCode("NEWBPLPWXXX").bankName("NEW BANK").address("ADDRESS")
+                .countryISO2("PL").countryName("POLAND").isHeadquarter(true).build();
+        SwiftCodeDto newBranch = SwiftCodeDto.builder()
+                .swiftCode("NEWBPLPW001").bankName("NEW BANK").address("ADDRESS")
+                .countryISO2("PL").countryName("POLAND").isHeadquarter(false).build();
+        SwiftCodeDto existing = SwiftCodeDto.builder()
+                .swiftCode("TESTPLDE001").bankName("BANK TEST BRANCH").address("TEST ADDRESS 2")
+                .countryISO2("PL").countryName("POLAND").isHeadquarter(false).build();
+        when(swiftCodeRepository.findExistingSwiftCodes(any())).thenReturn(List.of("TESTPLDE001"));
+        when(swiftCodeRepository.findBySwiftCodeIn(Set.of("TESTPLDEXXX"))).thenReturn(List.of(mockHeadquarter));
+        when(countryRepository.findByIso2Code("PL")).thenReturn(Optional.of(mockCountry));
+
+        int stored = swiftCodeService.addSwiftCodes(List.of(newHeadquarter, newBranch, existing, mockSwiftCodeDto));
+
+        assertEquals(3, stored);
+        verify(swiftCodeRepository).saveAll(saved.capture());
+        Map<String, SwiftCode> byCode = saved.getValue().stream()
+                .collect(Collectors.toMap(SwiftCode::getSwiftCode, code -> code));
+        assertEquals(Set.of("NEWBPLPWXXX", "NEWBPLPW001", "TESTPLDE002"), byCode.keySet());
+        assertSame(byCode.get("NEWBPLPWXXX"), byCode.get("NEWBPLPW001").getHeadquarter());
+        assertSame(mockHeadquarter, byCode.get("TESTPLDE002").getHeadquarter());
+        verify(countryRepository, times(1)).findByIso2Code("PL");
+        verify(swiftCodeRepository, never()).findBySwiftCode(any());
+        verify(changePublisher).publishAdded(saved.getValue());
+        verify(changeLog).recordUpserts(saved.getValue());
+        assertTrue(bloomFilter.mightContain("NEWBPLPW001"));
+    }
+
+    @Test
+    void addSwiftCodeForUnknownCountryWithoutNameThrowsException() {
+        mockSwiftCodeDto.setCountryName(null);
+        when(countryRepository.findByIso2Code("PL")).thenReturn(Optional.empty());
+
+        assertThrows(IllegalArgumentException.class, () -> swiftCodeService.addSwiftCode(mockSwiftCodeDto));
+        verify(swiftCodeRepository, never()).save(any());
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.swiftcodes.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+    @Test
+    void shouldShareOneLoadBetweenConcurrentCallers() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoad = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+            Future<String> leader = executor.submit(() -> singleFlight.execute("PL", () -> {
+                loads.incrementAndGet();
+                loadStarted.countDown();
+                await(releaseLoad);
+                return "POLAND";
+            }));
+            assertTrue(loadStarted.await(5, TimeUnit.SECONDS));
+
+            Future<String> follower1 = executor.submit(() -> singleFlight.execute("PL", () -> {
+                loads.incrementAndGet();
+                return "OTHER";
+            }));
+            Future<String> follower2 = executor.submit(() -> singleFlight.execute("PL", () -> {
+                loads.incrementAndGet();
+                return "OTHER";
+            }));
+            Thread.sleep(100);
+            releaseLoad.countDown();
+
+            assertEquals("POLAND", leader.get(5, TimeUnit.SECONDS));
+            assertEquals("POLAND", follower1.get(5, TimeUnit.SECONDS));
+            assertEquals("POLAND", follower2.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+        assertEquals(0, singleFlight.inFlightCount());
+    }
+
+    @Test
+    void shouldPropagateLoaderExceptionToAllCallers() throws Exception {
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoad = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("boom");
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            Future<String> leader = executor.submit(() -> singleFlight.execute("PL", () -> {
+                loadStarted.countDown();
+                await(releaseLoad);
+                throw failure;
+            }));
+            assertTrue(loadStarted.await(5, TimeUnit.SECONDS));
+            Future<String> follower = executor.submit(() -> singleFlight.execute("PL", () -> "OTHER"));
+            Thread.sleep(100);
+            releaseLoad.countDown();
+
+            assertSame(failure, assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS)).getCause());
+            assertSame(failure, assertThrows(Exception.class, () -> follower.get(5, TimeUnit.SECONDS)).getCause());
+        }
+    }
+
+    @Test
+    void shouldLoadAgainOnceThePreviousLoadCompleted() {
+        AtomicInteger loads = new AtomicInteger();
+
+        singleFlight.execute("PL", () -> "POLAND" + loads.incrementAndGet());
+        String second = singleFlight.execute("PL", () -> "POLAND" + loads.incrementAndGet());
+
+        assertEquals("POLAND2", second);
+        assertEquals(0, singleFlight.inFlightCount());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
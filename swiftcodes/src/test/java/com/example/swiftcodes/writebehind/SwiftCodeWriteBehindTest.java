@@ -0,0 +1,172 @@
+package com.example.swiftcodes.writebehind;
+
+import com.example.swiftcodes.config.WriteBehindProperties;
+import com.example.swiftcodes.exception.InvalidSwiftCodeException;
+import com.example.swiftcodes.exception.WriteQueueFullException;
+import com.example.swiftcodes.model.dto.SwiftCodeDto;
+import com.example.swiftcodes.service.SwiftCodeService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SwiftCodeWriteBehindTest {
+
+    @Mock
+    private SwiftCodeService swiftCodeService;
+
+    @TempDir
+    Path tempDir;
+
+    private final CountDownLatch writerBlocked = new CountDownLatch(1);
+    private SwiftCodeWriteBehind writeBehind;
+
+    @AfterEach
+    void tearDown() {
+        writerBlocked.countDown();
+        if (writeBehind != null && writeBehind.isRunning()) {
+            writeBehind.stop();
+        }
+    }
+
+    @Test
+    void shouldStoreAcceptedCodes() {
+        AtomicInteger stored = new AtomicInteger();
+        when(swiftCodeService.addSwiftCodes(anyList()))
+                .thenAnswer(invocation -> stored.addAndGet(invocation.<List<?>>getArgument(0).size()));
+        writeBehind = startedWriteBehind(100);
+
+        for (int i = 0; i < 5; i++) {
+            writeBehind.accept(swiftCode("AAAAPLPW00" + i));
+        }
+
+        awaitEmptyQueue();
+        assertEquals(5, stored.get());
+    }
+
+    @Test
+    void shouldRejectCodeAlreadyQueued() {
+        blockWriter();
+        writeBehind = startedWriteBehind(100);
+
+        writeBehind.accept(swiftCode("AAAAPLPW001"));
+
+        assertThrows(InvalidSwiftCodeException.class, () -> writeBehind.accept(swiftCode("AAAAPLPW001")));
+    }
+
+    @Test
+    void shouldRejectNewCountryWithoutNameBeforeJournaling() {
+        SwiftCodeDto withoutCountryName = swiftCode("AAAAXXPW001");
+        withoutCountryName.setCountryISO2("XX");
+        withoutCountryName.setCountryName(null);
+        doThrow(new InvalidSwiftCodeException("Country name is required for new country XX"))
+                .when(swiftCodeService).validateSwiftCodeToStoreLater(withoutCountryName);
+        SwiftCodeWriteBehind crashed = startedWriteBehind(100);
+
+        assertThrows(InvalidSwiftCodeException.class, () -> crashed.accept(withoutCountryName));
+        assertEquals(0, crashed.queueSize());
+
+        writeBehind = startedWriteBehind(100);
+        verify(swiftCodeService, after(200).never()).addSwiftCodes(anyList());
+    }
+
+    @Test
+    void shouldApplyBackpressureWhenQueueIsFull() {
+        blockWriter();
+        writeBehind = startedWriteBehind(2);
+        writeBehind.accept(swiftCode("AAAAPLPW001"));
+        writeBehind.accept(swiftCode("AAAAPLPW002"));
+
+        assertThrows(WriteQueueFullException.class, () -> writeBehind.accept(swiftCode("AAAAPLPW003")));
+        assertEquals(2, writeBehind.queueSize());
+    }
+
+    @Test
+    void shouldReplayJournaledCodesAfterCrash() {
+        blockWriter();
+        SwiftCodeWriteBehind crashed = startedWriteBehind(100);
+        crashed.accept(swiftCode("AAAAPLPW001"));
+        verify(swiftCodeService, timeout(5000)).addSwiftCodes(anyList());
+
+        writeBehind = startedWriteBehind(100);
+
+        verify(swiftCodeService, timeout(5000).times(2)).addSwiftCodes(List.of(swiftCode("AAAAPLPW001")));
+    }
+
+    @Test
+    void shouldRetryTransientFailuresAndDropRejectedCodes() {
+        SwiftCodeDto rejected = swiftCode("AAAAPLPW001");
+        SwiftCodeDto delayed = swiftCode("AAAAPLPW002");
+        AtomicInteger delayedAttempts = new AtomicInteger();
+        when(swiftCodeService.addSwiftCodes(anyList())).thenAnswer(invocation -> {
+            List<SwiftCodeDto> batch = invocation.getArgument(0);
+            if (batch.contains(rejected)) {
+                throw new DataIntegrityViolationException("duplicate key");
+            }
+            if (delayedAttempts.incrementAndGet() == 1) {
+                throw new DataAccessResourceFailureException("database down");
+            }
+            return batch.size();
+        });
+        writeBehind = startedWriteBehind(100);
+
+        writeBehind.accept(rejected);
+        writeBehind.accept(delayed);
+
+        awaitEmptyQueue();
+        verify(swiftCodeService, times(2)).addSwiftCodes(List.of(delayed));
+    }
+
+    private void awaitEmptyQueue() {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (writeBehind.queueSize() > 0) {
+            assertTrue(System.nanoTime() < deadline, "Queue not drained");
+            Thread.onSpinWait();
+        }
+    }
+
+    private void blockWriter() {
+        when(swiftCodeService.addSwiftCodes(anyList())).thenAnswer(invocation -> {
+            writerBlocked.await();
+            return 0;
+        });
+    }
+
+    private SwiftCodeWriteBehind startedWriteBehind(int capacity) {
+        WriteBehindProperties properties = new WriteBehindProperties(true, capacity, 100, Duration.ofMillis(10),
+                Duration.ofMillis(10), tempDir.resolve("journal"), DataSize.ofMegabytes(1));
+        SwiftCodeWriteBehind started = new SwiftCodeWriteBehind(properties, swiftCodeService, new ObjectMapper(),
+                new SimpleMeterRegistry());
+        started.start();
+        return started;
+    }
+
+    private static SwiftCodeDto swiftCode(String code) {
+        return SwiftCodeDto.builder()
+                .swiftCode(code)
+                .bankName("BANK")
+                .address("ADDRESS")
+                .countryISO2("PL")
+                .countryName("POLAND")
+                .isHeadquarter(false)
+                .build();
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.swiftcodes.writebehind;
+
+import com.example.swiftcodes.model.dto.SwiftCodeDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WriteBehindJournalTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldReplayEntriesAfterLastCheckpoint() throws Exception {
+        Path path = tempDir.resolve("journal");
+        try (WriteBehindJournal journal = new WriteBehindJournal(path, 1 << 20, objectMapper)) {
+            assertTrue(journal.open().isEmpty());
+            journal.append(swiftCode("AAAAPLPW001"));
+            long second = journal.append(swiftCode("AAAAPLPW002"));
+            journal.append(swiftCode("AAAAPLPW003"));
+            journal.checkpoint(List.of(1L, second));
+        }
+
+        try (WriteBehindJournal journal = new WriteBehindJournal(path, 1 << 20, objectMapper)) {
+            List<WriteBehindJournal.JournalEntry> pending = journal.open();
+
+            assertEquals(1, pending.size());
+            assertEquals(3, pending.getFirst().sequence());
+            assertEquals(swiftCode("AAAAPLPW003"), pending.getFirst().swiftCode());
+            assertEquals(4, journal.append(swiftCode("AAAAPLPW004")));
+        }
+    }
+
+    @Test
+    void shouldKeepEarlierEntryStoredAfterLaterOne() throws Exception {
+        Path path = tempDir.resolve("journal");
+        try (WriteBehindJournal journal = new WriteBehindJournal(path, 1 << 20, objectMapper)) {
+            journal.open();
+            // Two concurrent accepts: the second one reaches the queue, and is stored, first.
+            journal.append(swiftCode("AAAAPLPW001"));
+            long second = journal.append(swiftCode("AAAAPLPW002"));
+            journal.checkpoint(List.of(second));
+
+            assertEquals(1, journal.pendingCount());
+        }
+
+        try (WriteBehindJournal journal = new WriteBehindJournal(path, 1 << 20, objectMapper)) {
+            List<WriteBehindJournal.JournalEntry> pending = journal.open();
+
+            assertEquals(1, pending.size());
+            assertEquals(1, pending.getFirst().sequence());
+            assertEquals("AAAAPLPW001", pending.getFirst().swiftCode().getSwiftCode());
+        }
+    }
+
+    @Test
+    void shouldIgnoreTornLastLine() throws Exception {
+        Path path = tempDir.resolve("journal");
+        try (WriteBehindJournal journal = new WriteBehindJournal(path, 1 << 20, objectMapper)) {
+            journal.open();
+            journal.append(swiftCode("AAAAPLPW001"));
+        }
+        Files.writeString(path, "A\t2\t{\"swiftCode\":\"AAAA", StandardOpenOption.APPEND);
+
+        try (WriteBehindJournal journal = new WriteBehindJournal(path, 1 << 20, objectMapper)) {
+            List<WriteBehindJournal.JournalEntry> pending = journal.open();
+
+            assertEquals(1, pending.size());
+            assertEquals("AAAAPLPW001", pending.getFirst().swiftCode().getSwiftCode());
+        }
+    }
+
+    @Test
+    void shouldCompactToPendingEntriesOnceOverThreshold() throws Exception {
+        Path path = tempDir.resolve("journal");
+        try (WriteBehindJournal journal = new WriteBehindJournal(path, 1024, objectMapper)) {
+            journal.open();
+            for (int i = 0; i < 20; i++) {
+                journal.checkpoint(List.of(journal.append(swiftCode("AAAAPLPW%03d".formatted(i)))));
+            }
+            journal.append(swiftCode("AAAAPLPW999"));
+            journal.checkpoint(List.of(20L));
+
+            assertTrue(Files.size(path) < 1024);
+            assertEquals(1, journal.pendingCount());
+        }
+
+        try (WriteBehindJournal journal = new WriteBehindJournal(path, 1024, objectMapper)) {
+            List<WriteBehindJournal.JournalEntry> pending = journal.open();
+
+            assertEquals(List.of(21L), pending.stream().map(WriteBehindJournal.JournalEntry::sequence).toList());
+        }
+    }
+
+    private static SwiftCodeDto swiftCode(String code) {
+        return SwiftCodeDto.builder()
+                .swiftCode(code)
+                .bankName("BANK\tWITH TAB")
+                .address("ADDRESS\nWITH NEWLINE")
+                .countryISO2("PL")
+                .countryName("POLAND")
+                .isHeadquarter(false)
+                .build();
+    }
+}